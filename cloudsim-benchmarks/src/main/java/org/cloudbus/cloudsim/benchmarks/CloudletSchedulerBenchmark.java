@@ -0,0 +1,90 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletScheduler;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one {@link CloudletScheduler#updateVmProcessing(double, List)} call with a varying
+ * number of cloudlets. The cloudlets are long enough not to finish during a run, so every call
+ * does the same work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloudletSchedulerBenchmark {
+
+	/** The cloudlet scheduler class, in the org.cloudbus.cloudsim package. */
+	@Param({ "CloudletSchedulerTimeShared", "CloudletSchedulerSpaceShared" })
+	public String scheduler;
+
+	/** The number of cloudlets submitted to the scheduler. */
+	@Param({ "10", "100", "1000" })
+	public int cloudlets;
+
+	/** The scheduler. */
+	private CloudletScheduler cloudletScheduler;
+
+	/** The MIPS share of the VM. */
+	private List<Double> mipsShare;
+
+	/** The simulation time of the next update. */
+	private double time;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		cloudletScheduler = (CloudletScheduler) Class.forName(CloudletScheduler.class.getPackage()
+				.getName() + "." + scheduler).getDeclaredConstructor().newInstance();
+		mipsShare = new ArrayList<Double>();
+		for (int i = 0; i < 4; i++) {
+			mipsShare.add(1000.0);
+		}
+		cloudletScheduler.updateVmProcessing(0, mipsShare);
+		for (int i = 0; i < cloudlets; i++) {
+			Cloudlet cloudlet = new Cloudlet(i, 1000000000L, 1, 300, 300, new UtilizationModelFull(),
+					new UtilizationModelFull(), new UtilizationModelFull());
+			cloudlet.setResourceParameter(0, 3.0, 0.05);
+			cloudletScheduler.cloudletSubmit(cloudlet);
+		}
+		time = 0;
+	}
+
+	/**
+	 * Advances the cloudlets by one millisecond of simulation time.
+	 * 
+	 * @return the predicted time of the next completion
+	 */
+	@Benchmark
+	public double update() {
+		time += 0.001;
+		return cloudletScheduler.updateVmProcessing(time, mipsShare);
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import research.ga.GeneticScheduler;
+import research.ga.MakespanFitness;
+import research.ga.RoundRobinInitializer;
+import research.ga.SchedulingProblem;
+import research.ga.TotalExecutionTimeFitness;
+
+/**
+ * Cost of one GA generation of the research brokers. HGA evolves a random population for the
+ * makespan, and DBGA evolves a round-robin population for the total execution time, as in
+ * {@code research.HGA} and {@code research.DBGA}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneticSchedulerBenchmark {
+
+	/** The number of VMs. */
+	private static final int VMS = 30;
+
+	/** The population size. */
+	private static final int POPULATION_SIZE = 100;
+
+	/** The broker whose GA configuration is used. */
+	@Param({ "HGA", "DBGA" })
+	public String broker;
+
+	/** The number of tasks. */
+	@Param({ "300", "3000", "30000" })
+	public int tasks;
+
+	/** The GA. */
+	private GeneticScheduler scheduler;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(42);
+		List<Cloudlet> cloudletList = new ArrayList<Cloudlet>();
+		for (int i = 0; i < tasks; i++) {
+			cloudletList.add(new Cloudlet(i, 1000 + random.nextInt(10000), 1, 300, 300,
+					new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull()));
+		}
+		List<Vm> vmList = new ArrayList<Vm>();
+		for (int i = 0; i < VMS; i++) {
+			vmList.add(new Vm(i, 0, 500 + random.nextInt(1000), 1, 512, 1000, 10000, "Xen",
+					new CloudletSchedulerSpaceShared()));
+		}
+
+		SchedulingProblem problem = new SchedulingProblem(cloudletList, vmList);
+		scheduler = new GeneticScheduler(problem, POPULATION_SIZE, random.split());
+		if ("DBGA".equals(broker)) {
+			scheduler.setInitializer(new RoundRobinInitializer());
+			scheduler.setFitnessFunction(new TotalExecutionTimeFitness());
+		} else {
+			scheduler.setFitnessFunction(new MakespanFitness());
+		}
+		scheduler.start();
+	}
+
+	/**
+	 * Evolves the population by one generation.
+	 * 
+	 * @return the best fitness
+	 */
+	@Benchmark
+	public double generation() {
+		scheduler.evolve(1);
+		return scheduler.getBestFitness();
+	}
+
+}
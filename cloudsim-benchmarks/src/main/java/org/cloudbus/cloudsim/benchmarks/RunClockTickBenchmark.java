@@ -0,0 +1,152 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.Calendar;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.EventQueue;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one {@link CloudSim#runClockTick()} with a varying number of entities. Each entity
+ * sends an event to a random entity whenever it receives one, so the simulation never runs out of
+ * events and every tick goes through the future queue, the deferred queue and the entities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunClockTickBenchmark {
+
+	/** The tag of the events exchanged by the entities. */
+	private static final int PING = 9000;
+
+	/** The event queue class, in the core package. */
+	@Param({ "FutureQueue", "HeapEventQueue", "CalendarEventQueue" })
+	public String queue;
+
+	/** The number of entities. */
+	@Param({ "10", "100", "1000" })
+	public int entities;
+
+	@Setup(Level.Trial)
+	@SuppressWarnings("unchecked")
+	public void setUp() throws Exception {
+		Log.disable();
+		CloudSim.setFutureQueueClass((Class<? extends EventQueue>) Class.forName(EventQueue.class
+				.getPackage().getName() + "." + queue));
+		CloudSim.init(1, Calendar.getInstance(), false);
+		SplittableRandom random = new SplittableRandom(42);
+		int firstId = -1;
+		for (int i = 0; i < entities; i++) {
+			PingEntity entity = new PingEntity("Ping_" + i, random.split());
+			if (firstId < 0) {
+				firstId = entity.getId();
+			}
+		}
+		PingEntity.setIds(firstId, entities);
+		CloudSim.runStart();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		CloudSim.finishSimulation();
+		Log.enable();
+	}
+
+	/**
+	 * Processes the events of the next simulation time.
+	 * 
+	 * @return true, if the future queue was empty
+	 */
+	@Benchmark
+	public boolean tick() {
+		return CloudSim.runClockTick();
+	}
+
+	/**
+	 * An entity that forwards every event it receives to a random entity.
+	 */
+	private static class PingEntity extends SimEntity {
+
+		/** The id of the first ping entity. */
+		private static int firstId;
+
+		/** The number of ping entities. */
+		private static int count;
+
+		/** The random generator of the destinations and delays. */
+		private final SplittableRandom random;
+
+		/**
+		 * Creates a new ping entity.
+		 * 
+		 * @param name the entity name
+		 * @param random the random generator
+		 */
+		PingEntity(String name, SplittableRandom random) {
+			super(name);
+			this.random = random;
+		}
+
+		/**
+		 * Sets the ids of the ping entities, which are consecutive.
+		 * 
+		 * @param first the id of the first ping entity
+		 * @param number the number of ping entities
+		 */
+		static void setIds(int first, int number) {
+			firstId = first;
+			count = number;
+		}
+
+		@Override
+		public void startEntity() {
+			forward();
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			forward();
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+
+		/**
+		 * Sends an event to a random ping entity a few time units later.
+		 */
+		private void forward() {
+			schedule(firstId + random.nextInt(count), 1 + random.nextInt(10), PING);
+		}
+
+	}
+
+}
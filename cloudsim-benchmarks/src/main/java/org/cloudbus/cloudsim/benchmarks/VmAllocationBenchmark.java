@@ -0,0 +1,113 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.VmAllocationPolicyIndexed;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of placing and releasing one VM with {@link VmAllocationPolicySimple} or
+ * {@link VmAllocationPolicyIndexed} in a datacenter where half of the PEs of each host are already
+ * taken.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VmAllocationBenchmark {
+
+	/** The number of PEs of each host. */
+	private static final int HOST_PES = 8;
+
+	/** The allocation policy class, in the cloudsim package. */
+	@Param({ "VmAllocationPolicySimple", "VmAllocationPolicyIndexed" })
+	public String allocationPolicy;
+
+	/** The number of hosts. */
+	@Param({ "100", "1000", "10000" })
+	public int hosts;
+
+	/** The allocation policy. */
+	private VmAllocationPolicy policy;
+
+	/** The VM placed and released by the benchmark. */
+	private Vm vm;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		List<Host> hostList = new ArrayList<Host>();
+		for (int i = 0; i < hosts; i++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			for (int j = 0; j < HOST_PES; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(1000)));
+			}
+			hostList.add(new Host(i, new RamProvisionerSimple(65536), new BwProvisionerSimple(1000000),
+					10000000, peList, new VmSchedulerTimeShared(peList)));
+		}
+		policy = (VmAllocationPolicy) Class
+				.forName(VmAllocationPolicy.class.getPackage().getName() + "." + allocationPolicy)
+				.getConstructor(List.class).newInstance(hostList);
+
+		int id = 0;
+		for (int i = 0; i < hosts * HOST_PES / 2; i++) {
+			policy.allocateHostForVm(newVm(id++));
+		}
+		vm = newVm(id);
+	}
+
+	/**
+	 * Places the VM and releases it again.
+	 * 
+	 * @return true, if the VM was placed
+	 */
+	@Benchmark
+	public boolean allocateAndRelease() {
+		boolean result = policy.allocateHostForVm(vm);
+		policy.deallocateHostForVm(vm);
+		return result;
+	}
+
+	/**
+	 * Creates a single-PE VM.
+	 * 
+	 * @param id the VM id
+	 * @return the VM
+	 */
+	private static Vm newVm(int id) {
+		return new Vm(id, 0, 500, 1, 512, 1000, 1000, "Xen", new CloudletSchedulerTimeShared());
+	}
+
+}
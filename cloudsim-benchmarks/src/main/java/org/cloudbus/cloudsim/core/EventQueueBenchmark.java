@@ -0,0 +1,112 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the future event queues in the hold model: the first event is polled and a new
+ * event is scheduled a random delay after it, so the queue size stays constant. It lives in the
+ * core package to create events with the package-private {@link SimEvent} constructor.
+ * 
+ * @see EventQueue
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventQueueBenchmark {
+
+	/** The event queue class, in the core package. */
+	@Param({ "FutureQueue", "HeapEventQueue", "CalendarEventQueue" })
+	public String queue;
+
+	/** The number of events in the queue. */
+	@Param({ "100", "10000", "1000000" })
+	public int size;
+
+	/** The queue. */
+	private EventQueue events;
+
+	/** The events polled at the same time. */
+	private final List<SimEvent> sameTime = new ArrayList<SimEvent>();
+
+	/** The random generator of the event delays. */
+	private SplittableRandom random;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		events = (EventQueue) Class.forName(EventQueue.class.getPackage().getName() + "." + queue)
+				.getDeclaredConstructor().newInstance();
+		random = new SplittableRandom(42);
+		for (int i = 0; i < size; i++) {
+			events.addEvent(newEvent(random.nextInt(size)));
+		}
+	}
+
+	/**
+	 * Polls the first event and schedules a new one a continuous random delay after it.
+	 * 
+	 * @return the polled event
+	 */
+	@Benchmark
+	public SimEvent hold() {
+		SimEvent first = events.poll();
+		events.addEvent(newEvent(first.eventTime() + random.nextDouble() * size));
+		return first;
+	}
+
+	/**
+	 * Polls all events at the time of the first event, as CloudSim.runClockTick does, and
+	 * reschedules them integer delays later, so that about eight events share each time.
+	 * 
+	 * @return the number of polled events
+	 */
+	@Benchmark
+	public int holdWithTies() {
+		SimEvent first = events.poll();
+		sameTime.add(first);
+		events.pollAllAt(first.eventTime(), sameTime);
+		int count = sameTime.size();
+		for (int i = 0; i < count; i++) {
+			events.addEvent(newEvent(first.eventTime() + 1 + random.nextInt(Math.max(1, size / 4))));
+		}
+		sameTime.clear();
+		return count;
+	}
+
+	/**
+	 * Creates a new event.
+	 * 
+	 * @param time the event time
+	 * @return the event
+	 */
+	private static SimEvent newEvent(double time) {
+		return new SimEvent(SimEvent.SEND, time, 0, 0, 0, null);
+	}
+
+}
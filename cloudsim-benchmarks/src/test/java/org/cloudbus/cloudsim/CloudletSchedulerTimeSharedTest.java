@@ -0,0 +1,201 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationClock;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Checks that the single-pass {@link CloudletSchedulerTimeShared#updateVmProcessing(double, List)}
+ * gives the same results as the multi-pass update it replaced: the predicted next events, the
+ * order the cloudlets finish in, their finish times, progress and status, bit for bit, over random
+ * sequences of submissions, pauses, resumes, cancellations and updates.
+ */
+public class CloudletSchedulerTimeSharedTest {
+
+	/** The time-shared scheduler with the update as it was before it was made single-pass. */
+	private static class MultiPassCloudletSchedulerTimeShared extends CloudletSchedulerTimeShared {
+
+		@Override
+		public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+			setCurrentMipsShare(mipsShare);
+			double timeSpam = currentTime - getPreviousTime();
+
+			for (ResCloudlet rcl : getCloudletExecList()) {
+				rcl.updateCloudletFinishedSoFar((long) (getCapacity(mipsShare) * timeSpam * rcl.getNumberOfPes() * Consts.MILLION));
+			}
+
+			if (getCloudletExecList().size() == 0) {
+				setPreviousTime(currentTime);
+				return 0.0;
+			}
+
+			// check finished cloudlets
+			double nextEvent = Double.MAX_VALUE;
+			List<ResCloudlet> toRemove = new ArrayList<ResCloudlet>();
+			for (ResCloudlet rcl : getCloudletExecList()) {
+				long remainingLength = rcl.getRemainingCloudletLength();
+				if (remainingLength == 0) {// finished: remove from the list
+					toRemove.add(rcl);
+					cloudletFinish(rcl);
+					continue;
+				}
+			}
+			getCloudletExecList().removeAll(toRemove);
+
+			// estimate finish time of cloudlets
+			for (ResCloudlet rcl : getCloudletExecList()) {
+				double estimatedFinishTime = currentTime
+						+ (rcl.getRemainingCloudletLength() / (getCapacity(mipsShare) * rcl.getNumberOfPes()));
+				if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
+					estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+				}
+
+				if (estimatedFinishTime < nextEvent) {
+					nextEvent = estimatedFinishTime;
+				}
+			}
+
+			setPreviousTime(currentTime);
+			return nextEvent;
+		}
+
+	}
+
+	@After
+	public void resetClock() {
+		SimulationClock.set(0);
+	}
+
+	@Test
+	public void sameAsMultiPassUpdate() {
+		int updates = 0;
+		for (int seed = 0; seed < 300; seed++) {
+			updates += compare(new Random(seed));
+		}
+		assertTrue(updates > 10000);
+	}
+
+	/**
+	 * Drives both schedulers through the same random sequence of operations.
+	 *
+	 * @param random the random source
+	 * @return the number of updates compared
+	 */
+	private static int compare(Random random) {
+		CloudletScheduler expected = new MultiPassCloudletSchedulerTimeShared();
+		CloudletScheduler actual = new CloudletSchedulerTimeShared();
+		List<Cloudlet> expectedCloudlets = new ArrayList<Cloudlet>();
+		List<Cloudlet> actualCloudlets = new ArrayList<Cloudlet>();
+		int updates = 0;
+		double time = 0;
+		SimulationClock.set(time);
+		List<Double> initialShare = new ArrayList<Double>();
+		initialShare.add(500.0);
+		same(expected.updateVmProcessing(time, initialShare), actual.updateVmProcessing(time, initialShare));
+
+		for (int step = 0; step < 400; step++) {
+			int numCloudlets = expectedCloudlets.size();
+			int operation = random.nextInt(10);
+			if (operation < 3) {
+				long length = 1 + random.nextInt(random.nextBoolean() ? 50 : 100000);
+				int pes = 1 + random.nextInt(3);
+				double fileTransferTime = random.nextInt(3) * 0.5;
+				Cloudlet expectedCloudlet = createCloudlet(numCloudlets, length, pes);
+				Cloudlet actualCloudlet = createCloudlet(numCloudlets, length, pes);
+				expectedCloudlets.add(expectedCloudlet);
+				actualCloudlets.add(actualCloudlet);
+				same(expected.cloudletSubmit(expectedCloudlet, fileTransferTime),
+						actual.cloudletSubmit(actualCloudlet, fileTransferTime));
+			} else if (operation == 3 && numCloudlets > 0) {
+				int id = random.nextInt(numCloudlets);
+				assertEquals(expected.cloudletPause(id), actual.cloudletPause(id));
+			} else if (operation == 4 && numCloudlets > 0) {
+				int id = random.nextInt(numCloudlets);
+				same(expected.cloudletResume(id), actual.cloudletResume(id));
+			} else if (operation == 5 && numCloudlets > 0 && random.nextInt(4) == 0) {
+				int id = random.nextInt(numCloudlets);
+				Cloudlet expectedCancelled = expected.cloudletCancel(id);
+				Cloudlet actualCancelled = actual.cloudletCancel(id);
+				if (expectedCancelled == null) {
+					assertNull(actualCancelled);
+				} else {
+					assertEquals(expectedCancelled.getCloudletId(), actualCancelled.getCloudletId());
+				}
+			} else {
+				// some updates at the same time, some a tiny or a long time after the last one
+				time += random.nextInt(4) == 0 ? 0 : random.nextDouble() * (random.nextBoolean() ? 0.05 : 30);
+				SimulationClock.set(time);
+				int numPes = 1 + random.nextInt(4);
+				List<Double> mipsShare = new ArrayList<Double>();
+				for (int i = 0; i < numPes; i++) {
+					mipsShare.add(random.nextInt(5) == 0 ? 0.0 : 100 + random.nextDouble() * 900);
+				}
+				same(expected.updateVmProcessing(time, mipsShare), actual.updateVmProcessing(time, mipsShare));
+				updates++;
+
+				while (expected.isFinishedCloudlets()) {
+					assertTrue(actual.isFinishedCloudlets());
+					Cloudlet expectedFinished = expected.getNextFinishedCloudlet();
+					Cloudlet actualFinished = actual.getNextFinishedCloudlet();
+					assertEquals(expectedFinished.getCloudletId(), actualFinished.getCloudletId());
+					same(expectedFinished.getFinishTime(), actualFinished.getFinishTime());
+				}
+				assertTrue(!actual.isFinishedCloudlets());
+			}
+		}
+
+		for (int i = 0; i < expectedCloudlets.size(); i++) {
+			Cloudlet expectedCloudlet = expectedCloudlets.get(i);
+			Cloudlet actualCloudlet = actualCloudlets.get(i);
+			assertEquals(expectedCloudlet.getCloudletFinishedSoFar(), actualCloudlet.getCloudletFinishedSoFar());
+			assertEquals(expectedCloudlet.getCloudletStatus(), actualCloudlet.getCloudletStatus());
+			same(expectedCloudlet.getExecStartTime(), actualCloudlet.getExecStartTime());
+			same(expectedCloudlet.getFinishTime(), actualCloudlet.getFinishTime());
+			same(expectedCloudlet.getActualCPUTime(), actualCloudlet.getActualCPUTime());
+		}
+		return updates;
+	}
+
+	/**
+	 * Creates a cloudlet using all the resources it is given.
+	 *
+	 * @param id the cloudlet id
+	 * @param length the length, in MI
+	 * @param pes the number of PEs
+	 * @return the cloudlet
+	 */
+	private static Cloudlet createCloudlet(int id, long length, int pes) {
+		UtilizationModel full = new UtilizationModelFull();
+		Cloudlet cloudlet = new Cloudlet(id, length, pes, 300, 300, full, full, full);
+		cloudlet.setResourceParameter(1, 3.0, 0.05);
+		return cloudlet;
+	}
+
+	/**
+	 * Asserts that two doubles are the same bit for bit.
+	 *
+	 * @param expected the expected value
+	 * @param actual the actual value
+	 */
+	private static void same(double expected, double actual) {
+		assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual));
+	}
+
+}
@@ -0,0 +1,29 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+/**
+ * Sets the clock of the current simulation context, so that tests can drive a scheduler or a
+ * policy through time without running a simulation.
+ */
+public final class SimulationClock {
+
+	private SimulationClock() {
+	}
+
+	/**
+	 * Sets the clock of the current simulation context.
+	 *
+	 * @param time the simulation time
+	 */
+	public static void set(double time) {
+		SimulationContext.current().clock = time;
+	}
+
+}
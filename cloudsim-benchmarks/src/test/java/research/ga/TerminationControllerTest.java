@@ -0,0 +1,121 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Checks the stopping criteria of {@link TerminationController}, in particular the improvement
+ * window when generations are checked one epoch at a time, as {@link IslandModel} does.
+ */
+public class TerminationControllerTest {
+
+	@Test
+	public void slowImprovementEveryGeneration() {
+		TerminationController termination = new TerminationController();
+		termination.setMinImprovement(5, 0.01);
+		termination.start();
+		double fitness = 100;
+		int generation = 0;
+		// improves by 2% every generation
+		for (; generation < 20; generation++) {
+			fitness *= 0.98;
+			assertTrue(termination.next(generation, fitness));
+		}
+		// then stalls, which stops the run once the window holds no improvement
+		for (; generation < 24; generation++) {
+			assertTrue(termination.next(generation, fitness));
+		}
+		assertFalse(termination.next(generation, fitness));
+		assertEquals(TerminationController.Reason.SLOW_IMPROVEMENT, termination.getReason());
+	}
+
+	@Test
+	public void improvingEpochsKeepRunning() {
+		TerminationController termination = new TerminationController();
+		termination.setMinImprovement(15, 0.01);
+		termination.start();
+		double fitness = 100;
+		// improves by 2% per epoch of 10 generations, more than 1% over any window of 15
+		for (int generation = 0; generation <= 200; generation += 10) {
+			assertTrue("generation " + generation, termination.next(generation, fitness));
+			fitness *= 0.98;
+		}
+		assertEquals(TerminationController.Reason.RUNNING, termination.getReason());
+	}
+
+	@Test
+	public void stalledEpochsStopAfterTheWindow() {
+		TerminationController termination = new TerminationController();
+		termination.setMinImprovement(15, 0.01);
+		termination.start();
+		assertTrue(termination.next(0, 100));
+		assertTrue(termination.next(10, 90));
+		// compared with generation 0, which is the latest check 15 generations before
+		assertTrue(termination.next(20, 90));
+		// compared with generation 10
+		assertFalse(termination.next(30, 90));
+		assertEquals(TerminationController.Reason.SLOW_IMPROVEMENT, termination.getReason());
+	}
+
+	@Test
+	public void restartForgetsThePreviousRun() {
+		TerminationController termination = new TerminationController();
+		termination.setMinImprovement(15, 0.01);
+		termination.start();
+		for (int generation = 0; generation <= 100; generation += 10) {
+			termination.next(generation, 50);
+		}
+		assertEquals(TerminationController.Reason.SLOW_IMPROVEMENT, termination.getReason());
+
+		// a second run with a worse start, which must not be compared with the first run
+		termination.start();
+		double fitness = 200;
+		for (int generation = 0; generation <= 50; generation += 10) {
+			assertTrue("generation " + generation, termination.next(generation, fitness));
+			fitness *= 0.9;
+		}
+	}
+
+	@Test
+	public void unevenEpochs() {
+		TerminationController termination = new TerminationController();
+		termination.setMinImprovement(4, 0.05);
+		termination.start();
+		// the last epochs are shortened, as they are by a time budget
+		int[] generations = { 0, 3, 6, 8, 9, 10 };
+		double[] fitness = { 100, 96, 92, 89, 88, 88 };
+		for (int i = 0; i < 4; i++) {
+			assertTrue(termination.next(generations[i], fitness[i]));
+		}
+		// generation 9 is compared with generation 3: 96 to 88 is more than 5%
+		assertTrue(termination.next(generations[4], fitness[4]));
+		// generation 10 is compared with generation 6: 92 to 88 is less than 5%
+		assertFalse(termination.next(generations[5], fitness[5]));
+		assertEquals(TerminationController.Reason.SLOW_IMPROVEMENT, termination.getReason());
+	}
+
+	@Test
+	public void stallGenerationsAcrossEpochs() {
+		TerminationController termination = new TerminationController();
+		termination.setStallGenerations(25);
+		termination.start();
+		assertTrue(termination.next(0, 100));
+		assertTrue(termination.next(10, 90));
+		assertTrue(termination.next(20, 90));
+		assertTrue(termination.next(30, 90));
+		assertFalse(termination.next(40, 90));
+		assertEquals(TerminationController.Reason.STALLED, termination.getReason());
+	}
+
+}
@@ -21,10 +21,13 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.RandomService;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.lists.CloudletList;
+import org.cloudbus.cloudsim.lists.CloudletRegistry;
 import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.lists.VmRegistry;
 
 import research.Chromosomes;
 import research.CustomPair;
@@ -80,6 +83,9 @@ public class DatacenterBrokerMod extends SimEntity {
 	/** The datacenter characteristics list. */
 	protected Map<Integer, DatacenterCharacteristics> datacenterCharacteristicsList;
 
+	/** The random stream of the scheduling GA, derived from the simulation seed and the broker name. */
+	private final Random random;
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -91,10 +97,11 @@ public class DatacenterBrokerMod extends SimEntity {
 	 */
 	public DatacenterBrokerMod(String name) throws Exception {
 		super(name);
+		random = RandomService.getStream(name);
 
-		setVmList(new ArrayList<Vm>());
-		setVmsCreatedList(new ArrayList<Vm>());
-		setCloudletList(new ArrayList<Cloudlet>());
+		setVmList(new VmRegistry<Vm>());
+		setVmsCreatedList(new VmRegistry<Vm>());
+		setCloudletList(new CloudletRegistry<Cloudlet>());
 		setCloudletSubmittedList(new ArrayList<Cloudlet>());
 		setCloudletReceivedList(new ArrayList<Cloudlet>());
 
@@ -397,7 +404,7 @@ public class DatacenterBrokerMod extends SimEntity {
 		List<Vm> vmList = getSortedVms(getVmsCreatedList());
 		List<Cloudlet> cloudletsList = getSortedCloudlets(getCloudletList());
 	
-		CustomPair geneticPair = geneticAlgorithm(cloudletsList, vmList);
+		CustomPair geneticPair = geneticAlgorithm(cloudletsList, vmList, random);
 		cloudletsList = geneticPair.getFirst();
 		vmList = geneticPair.getSecond();
 	
@@ -430,7 +437,7 @@ public class DatacenterBrokerMod extends SimEntity {
 		}
 	}
 
-	static CustomPair geneticAlgorithm(List<Cloudlet> cloudletList, List<Vm> vmlist) {
+	static CustomPair geneticAlgorithm(List<Cloudlet> cloudletList, List<Vm> vmlist, Random random) {
 		// SORTING CLOUDLETS BY LENGTH
 		List<Cloudlet> sortedList = new ArrayList<Cloudlet>();
 		for (Cloudlet cloudlet : cloudletList) {
@@ -513,7 +520,6 @@ public class DatacenterBrokerMod extends SimEntity {
 		}
 		
 		int populationSize = initialPopulation.size();
-		Random random = new Random();
 		List<Chromosomes> mutchromosomePopulation = new ArrayList<Chromosomes>();
 		for (int itr = 0; itr < populationSize; itr++) {
 			int index1, index2;
@@ -527,8 +533,7 @@ public class DatacenterBrokerMod extends SimEntity {
 			Chromosomes chromosome2 = new Chromosomes(l2);
 			double rangeMin = 0.0f;
 			double rangeMax = 1.0f;
-			Random r = new Random();
-			double crossProb = rangeMin + (rangeMax - rangeMin) * r.nextDouble();
+			double crossProb = rangeMin + (rangeMax - rangeMin) * random.nextDouble();
 			if (crossProb < 0.5) {
 				int i, j;
 				i = random.nextInt(numCloudlets) % numCloudlets;
@@ -541,7 +546,7 @@ public class DatacenterBrokerMod extends SimEntity {
 				initialPopulation.set(index2, chromosome2);
 			}
 			
-			 double mutProb = rangeMin + (rangeMax - rangeMin) * r.nextDouble();
+			 double mutProb = rangeMin + (rangeMax - rangeMin) * random.nextDouble();
 			 if(mutProb < 0.5) {
 				 int i; 
 				 i = random.nextInt(populationSize) % populationSize;
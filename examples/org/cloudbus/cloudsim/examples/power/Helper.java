@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -233,6 +234,34 @@ public class Helper {
 		return timeBeforeVmMigration;
 	}
 
+	/**
+	 * Gets the main results of a simulation: the simulation time, the energy consumption in kWh,
+	 * the number of VM migrations, the SLA metrics and the number of host shutdowns, by name.
+	 * 
+	 * @param datacenter the datacenter
+	 * @param vms the vms
+	 * @param lastClock the last clock
+	 * @return the results
+	 */
+	public static Map<String, Double> getResults(PowerDatacenter datacenter, List<Vm> vms, double lastClock) {
+		List<Host> hosts = datacenter.getHostList();
+		Map<String, Double> slaMetrics = getSlaMetrics(vms);
+		double slaTimePerActiveHost = getSlaTimePerActiveHost(hosts);
+		double slaDegradationDueToMigration = slaMetrics.get("underallocated_migration");
+
+		Map<String, Double> results = new LinkedHashMap<String, Double>();
+		results.put("simulation_time", lastClock);
+		results.put("energy", datacenter.getPower() / (3600 * 1000));
+		results.put("migrations", (double) datacenter.getMigrationCount());
+		results.put("sla", slaTimePerActiveHost * slaDegradationDueToMigration);
+		results.put("sla_time_per_active_host", slaTimePerActiveHost);
+		results.put("sla_degradation_due_to_migration", slaDegradationDueToMigration);
+		results.put("sla_overall", slaMetrics.get("overall"));
+		results.put("sla_average", slaMetrics.get("average"));
+		results.put("host_shutdowns", (double) getTimesBeforeHostShutdown(hosts).size());
+		return results;
+	}
+
 	/**
 	 * Prints the results.
 	 * 
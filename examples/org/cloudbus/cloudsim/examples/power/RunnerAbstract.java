@@ -5,6 +5,7 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.DatacenterBroker;
@@ -43,19 +44,22 @@ import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyRandomSelection;
 public abstract class RunnerAbstract {
 
 	/** The enable output. */
-	private static boolean enableOutput;
+	private boolean enableOutput;
 
 	/** The broker. */
-	protected static DatacenterBroker broker;
+	protected DatacenterBroker broker;
 
 	/** The cloudlet list. */
-	protected static List<Cloudlet> cloudletList;
+	protected List<Cloudlet> cloudletList;
 
 	/** The vm list. */
-	protected static List<Vm> vmList;
+	protected List<Vm> vmList;
 
 	/** The host list. */
-	protected static List<PowerHost> hostList;
+	protected List<PowerHost> hostList;
+
+	/** The results of the simulation. */
+	protected Map<String, Double> results;
 
 	/**
 	 * Run.
@@ -177,13 +181,8 @@ public abstract class RunnerAbstract {
 
 			CloudSim.stopSimulation();
 
-			Helper.printResults(
-					datacenter,
-					vmList,
-					lastClock,
-					experimentName,
-					Constants.OUTPUT_CSV,
-					outputFolder);
+			results = Helper.getResults(datacenter, vmList, lastClock);
+			printResults(datacenter, lastClock, experimentName, outputFolder);
 
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -194,6 +193,32 @@ public abstract class RunnerAbstract {
 		Log.printLine("Finished " + experimentName);
 	}
 
+	/**
+	 * Prints the results of the simulation.
+	 * 
+	 * @param datacenter the datacenter
+	 * @param lastClock the last clock
+	 * @param experimentName the experiment name
+	 * @param outputFolder the output folder
+	 */
+	protected void printResults(
+			PowerDatacenter datacenter,
+			double lastClock,
+			String experimentName,
+			String outputFolder) {
+		Helper.printResults(datacenter, vmList, lastClock, experimentName, Constants.OUTPUT_CSV, outputFolder);
+	}
+
+	/**
+	 * Gets the results of the simulation.
+	 * 
+	 * @return the results, by metric, or null if the simulation has not completed
+	 * @see Helper#getResults(PowerDatacenter, List, double)
+	 */
+	public Map<String, Double> getResults() {
+		return results;
+	}
+
 	/**
 	 * Gets the experiment name.
 	 * 
@@ -321,7 +346,7 @@ public abstract class RunnerAbstract {
 	 * @param enableOutput the new enable output
 	 */
 	public void setEnableOutput(boolean enableOutput) {
-		RunnerAbstract.enableOutput = enableOutput;
+		this.enableOutput = enableOutput;
 	}
 
 	/**
@@ -0,0 +1,157 @@
+package org.cloudbus.cloudsim.examples.power.planetlab;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.ReplicationRunner;
+import org.cloudbus.cloudsim.power.PowerDatacenter;
+
+/**
+ * Runs the VM allocation and selection policies of the PlanetLab examples on several PlanetLab
+ * workloads in parallel, each simulation in its own simulation context, and prints each metric
+ * of each policy summarized over the workloads. All the parameters are optional command line
+ * parameters: the number of threads (one per processor by default), a comma-separated list of
+ * workloads (all the workloads by default) and a comma-separated list of policies written as
+ * <tt>allocation_selection_parameter</tt>, such as <tt>lr_mmt_1.2</tt> (the policies of the
+ * examples by default).
+ *
+ * The log is shared by all the simulations, so it is disabled while they run.
+ *
+ * If you are using any algorithms, policies or workload included in the power package please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley & Sons, Ltd, New York, USA, 2012
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class PlanetLabParallelRunner {
+
+	/** The policies of the PlanetLab examples. */
+	private static final String[] POLICIES = {
+			"dvfs__",
+			"thr_mc_0.8", "thr_mmt_0.8", "thr_mu_0.8", "thr_rs_0.8",
+			"iqr_mc_1.5", "iqr_mmt_1.5", "iqr_mu_1.5", "iqr_rs_1.5",
+			"mad_mc_2.5", "mad_mmt_2.5", "mad_mu_2.5", "mad_rs_2.5",
+			"lr_mc_1.2", "lr_mmt_1.2", "lr_mu_1.2", "lr_rs_1.2",
+			"lrr_mc_1.2", "lrr_mmt_1.2", "lrr_mu_1.2", "lrr_rs_1.2" };
+
+	/**
+	 * A PlanetLab simulation that leaves the log alone and keeps its results rather than print
+	 * them, so that it can run alongside others.
+	 */
+	private static class Replication extends PlanetLabRunner {
+
+		/**
+		 * Runs a simulation.
+		 *
+		 * @param inputFolder the input folder
+		 * @param workload the workload
+		 * @param vmAllocationPolicy the vm allocation policy
+		 * @param vmSelectionPolicy the vm selection policy
+		 * @param parameter the parameter
+		 */
+		public Replication(
+				String inputFolder,
+				String workload,
+				String vmAllocationPolicy,
+				String vmSelectionPolicy,
+				String parameter) {
+			super(false, false, inputFolder, "output", workload, vmAllocationPolicy, vmSelectionPolicy, parameter);
+		}
+
+		@Override
+		protected void initLogOutput(
+				boolean enableOutput,
+				boolean outputToFile,
+				String outputFolder,
+				String workload,
+				String vmAllocationPolicy,
+				String vmSelectionPolicy,
+				String parameter) {
+			setEnableOutput(false);
+		}
+
+		@Override
+		protected void printResults(
+				PowerDatacenter datacenter,
+				double lastClock,
+				String experimentName,
+				String outputFolder) {
+		}
+
+	}
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the number of threads, the workloads and the policies
+	 * @throws Exception if a simulation fails
+	 */
+	public static void main(String[] args) throws Exception {
+		final String inputFolder = PlanetLabParallelRunner.class.getClassLoader()
+				.getResource("workload/planetlab").getPath();
+		int threads = Runtime.getRuntime().availableProcessors();
+		if (args.length >= 1) {
+			threads = Integer.parseInt(args[0]);
+		}
+		String[] workloads = new File(inputFolder).list();
+		Arrays.sort(workloads);
+		if (args.length >= 2) {
+			workloads = args[1].split(",");
+		}
+		String[] policies = POLICIES;
+		if (args.length >= 3) {
+			policies = args[2].split(",");
+		}
+
+		List<Callable<Map<String, Double>>> replications = new ArrayList<Callable<Map<String, Double>>>();
+		for (String policy : policies) {
+			final String[] names = policy.split("_", -1);
+			for (final String workload : workloads) {
+				replications.add(new Callable<Map<String, Double>>() {
+
+					@Override
+					public Map<String, Double> call() {
+						return new Replication(
+								inputFolder,
+								workload,
+								names[0],
+								names.length > 1 ? names[1] : "",
+								names.length > 2 ? names[2] : "").getResults();
+					}
+				});
+			}
+		}
+
+		Log.disable();
+		long start = System.currentTimeMillis();
+		List<Map<String, Double>> results = new ReplicationRunner(threads).run(replications);
+		Log.enable();
+
+		System.out.println();
+		System.out.println(String.format(
+				"%d simulations on %d threads in %.1f s",
+				replications.size(),
+				threads,
+				(System.currentTimeMillis() - start) / 1000.0));
+		for (int i = 0; i < policies.length; i++) {
+			System.out.println();
+			System.out.println("Policy " + policies[i] + " over " + workloads.length + " workload(s):");
+			Map<String, ReplicationRunner.Summary> summaries = ReplicationRunner.summarize(results.subList(
+					i * workloads.length,
+					(i + 1) * workloads.length));
+			for (Map.Entry<String, ReplicationRunner.Summary> summary : summaries.entrySet()) {
+				System.out.println(String.format("  %-34s %s", summary.getKey(), summary.getValue()));
+			}
+		}
+	}
+
+}
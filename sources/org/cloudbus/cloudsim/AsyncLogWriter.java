@@ -0,0 +1,479 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.cloudbus.cloudsim.Log.Level;
+
+/**
+ * A {@link LogWriter} that writes the messages in a background thread, so that logging costs the
+ * simulation little more than copying the arguments of a message into a ring buffer. The
+ * messages, and the records in particular, are only formatted in the background thread. When the
+ * buffer is full, the logging thread waits for the background thread to catch up, so no message
+ * is lost. The logging threads do not wake the background thread up unless the buffer is half
+ * full; the background thread looks for new messages every millisecond instead.
+ * <p>
+ * The messages are written either as text, as {@link Log} writes them, or as JSON, one object per
+ * line. A record is then written as
+ * <tt>{"level":"INFO","time":1.5,"entity":"Broker","tag":20,"ids":[3],"message":"Cloudlet {} received"}</tt>
+ * and any other message as <tt>{"level":"INFO","text":"..."}</tt>.
+ * <p>
+ * The messages are written in the order in which they are logged. {@link #flush()} waits until
+ * they are all written, and they are also written when the JVM shuts down.
+ *
+ * @see Log#setWriter(LogWriter)
+ * @since CloudSim Toolkit 3.0
+ */
+public class AsyncLogWriter implements LogWriter {
+
+	/**
+	 * The formats of the output.
+	 */
+	public enum Format {
+		/** The text written by {@link Log}. */
+		TEXT,
+		/** One JSON object per line. */
+		JSON
+	}
+
+	/** The default number of messages in the buffer. */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	/** The kind of a message written with {@link #print(Level, String)}. */
+	private static final byte PRINT = 0;
+
+	/** The kind of a message written with {@link #printLine(Level, String)}. */
+	private static final byte PRINT_LINE = 1;
+
+	/** The kind of a record. */
+	private static final byte RECORD = 2;
+
+	/** The milliseconds the background thread waits before looking at an empty buffer again. */
+	private static final long POLL_INTERVAL = 1;
+
+	/** The line separator. */
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+	/** The output. */
+	private final OutputStream output;
+
+	/** The format of the output. */
+	private final Format format;
+
+	/** The number of messages in the buffer. */
+	private final int capacity;
+
+	/** The kind of each message. */
+	private final byte[] kinds;
+
+	/** The level of each message. */
+	private final Level[] levels;
+
+	/** The time of each record. */
+	private final double[] times;
+
+	/** The entity of each record. */
+	private final String[] entities;
+
+	/** The tag of each record. */
+	private final int[] tags;
+
+	/** The three ids of each record. */
+	private final long[] ids;
+
+	/** The text of each message. */
+	private final String[] messages;
+
+	/** The lock guarding the positions in the buffer. */
+	private final Object lock = new Object();
+
+	/** The number of messages written. */
+	private long head;
+
+	/** The number of messages logged. */
+	private long tail;
+
+	/** The number of threads waiting for messages to be written. */
+	private int waiters;
+
+	/** Whether the writer has been closed. */
+	private boolean closed;
+
+	/** The background thread. */
+	private final Thread thread;
+
+	/** The shutdown hook that writes the last messages. */
+	private final Thread hook;
+
+	/** The builder the messages are formatted into. */
+	private final StringBuilder builder = new StringBuilder();
+
+	/** The bytes of the message being written. */
+	private byte[] bytes = new byte[256];
+
+	/**
+	 * Creates a writer with a buffer of {@link #DEFAULT_CAPACITY} messages.
+	 *
+	 * @param output the output
+	 * @param format the format of the output
+	 * @see #AsyncLogWriter(OutputStream, Format, int)
+	 */
+	public AsyncLogWriter(OutputStream output, Format format) {
+		this(output, format, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a writer and starts its background thread.
+	 *
+	 * @param output the output
+	 * @param format the format of the output
+	 * @param capacity the number of messages in the buffer
+	 * @throws IllegalArgumentException if the capacity is not positive
+	 * @pre output != null
+	 * @pre format != null
+	 * @pre capacity > 0
+	 * @post $none
+	 */
+	public AsyncLogWriter(OutputStream output, Format format, int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be > 0");
+		}
+		this.output = new BufferedOutputStream(output, 1 << 16);
+		this.format = format;
+		this.capacity = capacity;
+		kinds = new byte[capacity];
+		levels = new Level[capacity];
+		times = new double[capacity];
+		entities = new String[capacity];
+		tags = new int[capacity];
+		ids = new long[3 * capacity];
+		messages = new String[capacity];
+
+		thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				write();
+			}
+		}, "CloudSim log writer");
+		thread.setDaemon(true);
+		thread.start();
+
+		hook = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					flush();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		});
+		Runtime.getRuntime().addShutdownHook(hook);
+	}
+
+	@Override
+	public void print(Level level, String message) {
+		add(PRINT, level, 0, null, -1, Log.NO_ID, Log.NO_ID, Log.NO_ID, message);
+	}
+
+	@Override
+	public void printLine(Level level, String message) {
+		add(PRINT_LINE, level, 0, null, -1, Log.NO_ID, Log.NO_ID, Log.NO_ID, message);
+	}
+
+	@Override
+	public void record(
+			Level level,
+			double time,
+			String entity,
+			int tag,
+			long id1,
+			long id2,
+			long id3,
+			String message) {
+		add(RECORD, level, time, entity, tag, id1, id2, id3, message);
+	}
+
+	/**
+	 * Waits until all the messages logged so far are written, and flushes the output.
+	 *
+	 * @throws IOException if the output cannot be flushed
+	 */
+	@Override
+	public void flush() throws IOException {
+		synchronized (lock) {
+			long last = tail;
+			lock.notifyAll();
+			waiters++;
+			try {
+				while (head < last && thread.isAlive()) {
+					lock.wait();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} finally {
+				waiters--;
+			}
+		}
+		output.flush();
+	}
+
+	/**
+	 * Writes the messages logged so far and stops the background thread. The output is flushed
+	 * but not closed. Messages logged after the writer is closed are ignored.
+	 *
+	 * @throws IOException if the output cannot be flushed
+	 */
+	public void close() throws IOException {
+		synchronized (lock) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			lock.notifyAll();
+		}
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			Runtime.getRuntime().removeShutdownHook(hook);
+		} catch (IllegalStateException e) {
+			// the JVM is already shutting down
+		}
+		output.flush();
+	}
+
+	/**
+	 * Adds a message to the buffer, waiting if the buffer is full.
+	 *
+	 * @param kind the kind of the message
+	 * @param level the level
+	 * @param time the simulation time of a record
+	 * @param entity the entity of a record
+	 * @param tag the tag of a record
+	 * @param id1 the first id of a record
+	 * @param id2 the second id of a record
+	 * @param id3 the third id of a record
+	 * @param message the message
+	 */
+	private void add(
+			byte kind,
+			Level level,
+			double time,
+			String entity,
+			int tag,
+			long id1,
+			long id2,
+			long id3,
+			String message) {
+		synchronized (lock) {
+			if (tail - head == capacity) {
+				waiters++;
+				try {
+					while (tail - head == capacity && !closed) {
+						lock.wait();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				} finally {
+					waiters--;
+				}
+			}
+			if (closed) {
+				return;
+			}
+			int slot = (int) (tail % capacity);
+			kinds[slot] = kind;
+			levels[slot] = level;
+			times[slot] = time;
+			entities[slot] = entity;
+			tags[slot] = tag;
+			ids[3 * slot] = id1;
+			ids[3 * slot + 1] = id2;
+			ids[3 * slot + 2] = id3;
+			messages[slot] = message;
+			tail++;
+			if (tail - head == (capacity + 1) / 2) {
+				lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Writes the messages of the buffer as they are logged, until the writer is closed. The
+	 * messages between the head and the tail are not changed by the logging threads, so they are
+	 * written without holding the lock.
+	 */
+	private void write() {
+		while (true) {
+			long from;
+			long to;
+			synchronized (lock) {
+				while (head == tail && !closed) {
+					try {
+						lock.wait(POLL_INTERVAL);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (head == tail) {
+					return;
+				}
+				from = head;
+				to = tail;
+			}
+
+			try {
+				for (long i = from; i < to; i++) {
+					int slot = (int) (i % capacity);
+					writeMessage(slot);
+					entities[slot] = null;
+					messages[slot] = null;
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+
+			boolean empty;
+			synchronized (lock) {
+				head = to;
+				empty = head == tail;
+				if (waiters > 0) {
+					lock.notifyAll();
+				}
+			}
+			if (empty) {
+				try {
+					output.flush();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Formats and writes a message of the buffer.
+	 *
+	 * @param slot the position of the message in the buffer
+	 * @throws IOException if the output cannot be written
+	 */
+	private void writeMessage(int slot) throws IOException {
+		builder.setLength(0);
+		if (format == Format.TEXT) {
+			if (kinds[slot] == RECORD) {
+				Log.appendRecord(builder, times[slot], entities[slot], ids[3 * slot], ids[3 * slot + 1],
+						ids[3 * slot + 2], messages[slot]).append(LINE_SEPARATOR);
+			} else {
+				builder.append(messages[slot]);
+				if (kinds[slot] == PRINT_LINE) {
+					builder.append(LINE_SEPARATOR);
+				}
+			}
+		} else {
+			builder.append("{\"level\":\"").append(levels[slot].name()).append('"');
+			if (kinds[slot] == RECORD) {
+				builder.append(",\"time\":");
+				double time = times[slot];
+				if (Double.isNaN(time) || Double.isInfinite(time)) {
+					builder.append("null");
+				} else {
+					builder.append(time);
+				}
+				builder.append(",\"entity\":");
+				appendJsonString(entities[slot]);
+				builder.append(",\"tag\":").append(tags[slot]).append(",\"ids\":[");
+				for (int i = 0; i < 3 && ids[3 * slot + i] != Log.NO_ID; i++) {
+					if (i > 0) {
+						builder.append(',');
+					}
+					builder.append(ids[3 * slot + i]);
+				}
+				builder.append("],\"message\":");
+			} else {
+				builder.append(",\"text\":");
+			}
+			appendJsonString(messages[slot]);
+			builder.append('}').append(LINE_SEPARATOR);
+		}
+		writeBuilder();
+	}
+
+	/**
+	 * Writes the builder to the output. ASCII text, which is what the simulation logs, is copied
+	 * to a reused array rather than encoded through a string.
+	 *
+	 * @throws IOException if the output cannot be written
+	 */
+	private void writeBuilder() throws IOException {
+		int length = builder.length();
+		if (bytes.length < length) {
+			bytes = new byte[Math.max(length, 2 * bytes.length)];
+		}
+		for (int i = 0; i < length; i++) {
+			char c = builder.charAt(i);
+			if (c >= 0x80) {
+				output.write(builder.toString().getBytes());
+				return;
+			}
+			bytes[i] = (byte) c;
+		}
+		output.write(bytes, 0, length);
+	}
+
+	/**
+	 * Appends a string as a JSON string.
+	 *
+	 * @param value the string, or <code>null</code>
+	 */
+	private void appendJsonString(String value) {
+		if (value == null) {
+			builder.append("null");
+			return;
+		}
+		builder.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					builder.append("\\\"");
+					break;
+				case '\\':
+					builder.append("\\\\");
+					break;
+				case '\n':
+					builder.append("\\n");
+					break;
+				case '\r':
+					builder.append("\\r");
+					break;
+				case '\t':
+					builder.append("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						builder.append(String.format("\\u%04x", (int) c));
+					} else {
+						builder.append(c);
+					}
+			}
+		}
+		builder.append('"');
+	}
+
+}
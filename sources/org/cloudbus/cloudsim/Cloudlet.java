@@ -79,6 +79,9 @@ public class Cloudlet {
 	/** The history. */
 	private StringBuffer history;
 
+	/** The recorder of the transitions of all the cloudlets, or <code>null</code>. */
+	private static CloudletTraceRecorder traceRecorder;
+
 	/** The res list. */
 	private final List<Resource> resList;
 
@@ -567,7 +570,9 @@ public class Cloudlet {
 	 */
 	public String getCloudletHistory() {
 		String msg = null;
-		if (history == null) {
+		if (history == null && traceRecorder != null) {
+			msg = traceRecorder.getHistoryText(cloudletId);
+		} else if (history == null) {
 			msg = "No history is recorded for Cloudlet #" + cloudletId;
 		} else {
 			msg = history.toString();
@@ -642,7 +647,9 @@ public class Cloudlet {
 		final Resource res = resList.get(index);
 		res.finishedSoFar = length;
 
-		if (record) {
+		if (traceRecorder != null) {
+			traceRecorder.record(CloudletTraceRecorder.FINISHED_SO_FAR, cloudletId, -1, length);
+		} else if (record) {
 			write("Sets the length's finished so far to " + length);
 		}
 	}
@@ -657,7 +664,9 @@ public class Cloudlet {
 	 */
 	public void setUserId(final int id) {
 		userId = id;
-		if (record) {
+		if (traceRecorder != null) {
+			traceRecorder.record(CloudletTraceRecorder.USER, cloudletId, id, 0);
+		} else if (record) {
 			write("Assigns the Cloudlet to " + CloudSim.getEntityName(id) + " (ID #" + id + ")");
 		}
 	}
@@ -730,7 +739,9 @@ public class Cloudlet {
 		// add into a list if moving to a new grid resource
 		resList.add(res);
 
-		if (index == -1 && record) {
+		if (traceRecorder != null) {
+			traceRecorder.record(CloudletTraceRecorder.RESOURCE, cloudletId, resourceID, cost);
+		} else if (index == -1 && record) {
 			write("Allocates this Cloudlet to " + res.resourceName + " (ID #" + resourceID
 					+ ") with cost = $" + cost + "/sec");
 		} else if (record) {
@@ -758,7 +769,9 @@ public class Cloudlet {
 		final Resource res = resList.get(index);
 		res.submissionTime = clockTime;
 
-		if (record) {
+		if (traceRecorder != null) {
+			traceRecorder.record(CloudletTraceRecorder.SUBMISSION, cloudletId, -1, clockTime);
+		} else if (record) {
 			write("Sets the submission time to " + num.format(clockTime));
 		}
 	}
@@ -789,7 +802,9 @@ public class Cloudlet {
 	 */
 	public void setExecStartTime(final double clockTime) {
 		execStartTime = clockTime;
-		if (record) {
+		if (traceRecorder != null) {
+			traceRecorder.record(CloudletTraceRecorder.EXEC_START, cloudletId, -1, clockTime);
+		} else if (record) {
 			write("Sets the execution start time to " + num.format(clockTime));
 		}
 	}
@@ -825,7 +840,10 @@ public class Cloudlet {
 		res.wallClockTime = wallTime;
 		res.actualCPUTime = actualTime;
 
-		if (record) {
+		if (traceRecorder != null) {
+			traceRecorder.record(CloudletTraceRecorder.WALL_CLOCK_TIME, cloudletId, -1, wallTime);
+			traceRecorder.record(CloudletTraceRecorder.ACTUAL_CPU_TIME, cloudletId, -1, actualTime);
+		} else if (record) {
 			write("Sets the wall clock time to " + num.format(wallTime) + " and the actual CPU time to "
 					+ num.format(actualTime));
 		}
@@ -855,7 +873,9 @@ public class Cloudlet {
 			finishTime = CloudSim.clock();
 		}
 
-		if (record) {
+		if (traceRecorder != null) {
+			traceRecorder.record(CloudletTraceRecorder.STATUS, cloudletId, newStatus, 0);
+		} else if (record) {
 			write("Sets Cloudlet status from " + getCloudletStatusString() + " to "
 					+ Cloudlet.getStatusString(newStatus));
 		}
@@ -1163,6 +1183,29 @@ public class Cloudlet {
 		return finishTime;
 	}
 
+	/**
+	 * Sets the recorder of the transitions of all the cloudlets. While a recorder is set, the
+	 * cloudlets record their transitions in it, whether they were created with <tt>record</tt> set
+	 * or not, instead of writing their own history, and {@link #getCloudletHistory()} reads the
+	 * history from it.
+	 * 
+	 * @param recorder the recorder, or <code>null</code> to stop recording
+	 * @pre $none
+	 * @post $none
+	 */
+	public static void setTraceRecorder(final CloudletTraceRecorder recorder) {
+		traceRecorder = recorder;
+	}
+
+	/**
+	 * Gets the recorder of the transitions of all the cloudlets.
+	 * 
+	 * @return the recorder, or <code>null</code> if there is none
+	 */
+	public static CloudletTraceRecorder getTraceRecorder() {
+		return traceRecorder;
+	}
+
 	// //////////////////////// PROTECTED METHODS //////////////////////////////
 
 	/**
@@ -34,6 +34,12 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	/** The current cp us. */
 	protected int currentCPUs;
 
+	/** The remaining lengths of the cloudlets still in execution, reused across updates. */
+	private long[] remainingLengths = new long[0];
+
+	/** The number of PEs of the cloudlets still in execution, reused across updates. */
+	private int[] pesNumbers = new int[0];
+
 	/**
 	 * Creates a new CloudletSchedulerTimeShared object. This method must be invoked before starting
 	 * the actual simulation.
@@ -63,33 +69,48 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
 		setCurrentMipsShare(mipsShare);
 		double timeSpam = currentTime - getPreviousTime();
+		List<ResCloudlet> execList = getCloudletExecList();
+		int size = execList.size();
 
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			rcl.updateCloudletFinishedSoFar((long) (getCapacity(mipsShare) * timeSpam * rcl.getNumberOfPes() * Consts.MILLION));
-		}
-
-		if (getCloudletExecList().size() == 0) {
+		if (size == 0) {
 			setPreviousTime(currentTime);
 			return 0.0;
 		}
 
-		// check finished cloudlets
-		double nextEvent = Double.MAX_VALUE;
-		List<ResCloudlet> toRemove = new ArrayList<ResCloudlet>();
-		for (ResCloudlet rcl : getCloudletExecList()) {
+		if (remainingLengths.length < size) {
+			remainingLengths = new long[Math.max(size, 2 * remainingLengths.length)];
+			pesNumbers = new int[remainingLengths.length];
+		}
+
+		// the capacity only depends on the cloudlets in execution, so it is the same for all of them
+		double capacity = getCapacity(mipsShare);
+
+		// update the cloudlets and finish the completed ones, compacting the others in order
+		int running = 0;
+		for (int i = 0; i < size; i++) {
+			ResCloudlet rcl = execList.get(i);
+			rcl.updateCloudletFinishedSoFar((long) (capacity * timeSpam * rcl.getNumberOfPes() * Consts.MILLION));
 			long remainingLength = rcl.getRemainingCloudletLength();
 			if (remainingLength == 0) {// finished: remove from the list
-				toRemove.add(rcl);
 				cloudletFinish(rcl);
 				continue;
 			}
+			execList.set(running, rcl);
+			remainingLengths[running] = remainingLength;
+			pesNumbers[running] = rcl.getNumberOfPes();
+			running++;
+		}
+		if (running < size) {
+			execList.subList(running, size).clear();
 		}
-		getCloudletExecList().removeAll(toRemove);
 
 		// estimate finish time of cloudlets
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			double estimatedFinishTime = currentTime
-					+ (rcl.getRemainingCloudletLength() / (getCapacity(mipsShare) * rcl.getNumberOfPes()));
+		double nextEvent = Double.MAX_VALUE;
+		if (running > 0) {
+			capacity = getCapacity(mipsShare);
+		}
+		for (int i = 0; i < running; i++) {
+			double estimatedFinishTime = currentTime + (remainingLengths[i] / (capacity * pesNumbers[i]));
 			if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
 				estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
 			}
@@ -112,7 +133,8 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	protected double getCapacity(List<Double> mipsShare) {
 		double capacity = 0.0;
 		int cpus = 0;
-		for (Double mips : mipsShare) {
+		for (int i = 0; i < mipsShare.size(); i++) {
+			double mips = mipsShare.get(i);
 			capacity += mips;
 			if (mips > 0.0) {
 				cpus++;
@@ -121,8 +143,9 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		currentCPUs = cpus;
 
 		int pesInUse = 0;
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			pesInUse += rcl.getNumberOfPes();
+		List<ResCloudlet> execList = getCloudletExecList();
+		for (int i = 0; i < execList.size(); i++) {
+			pesInUse += execList.get(i).getNumberOfPes();
 		}
 
 		if (pesInUse > currentCPUs) {
@@ -0,0 +1,635 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * Records the transitions of all the cloudlets of a simulation, as a replacement of the text
+ * history that each {@link Cloudlet} created with <tt>record</tt> set keeps. It is installed with
+ * {@link Cloudlet#setTraceRecorder(CloudletTraceRecorder)}.
+ * <p>
+ * A transition is stored as primitives in 29 bytes: the kind of transition, the simulation time,
+ * the cloudlet id, an int and a double argument, and the position of the previous transition of
+ * the same cloudlet. The transitions are kept in chunks of direct buffers, one column after the
+ * other; when the recorder has a file, each full chunk is written to the file and its buffer
+ * reused, so the heap does not grow with the trace. The history of a cloudlet is rebuilt on
+ * demand by following the links from its last transition, with {@link #getHistory(int)} or, in
+ * the layout of {@link Cloudlet#getCloudletHistory()}, with {@link #getHistoryText(int)}. The
+ * names of the users and resources are kept once each, when they are first recorded, and
+ * written after the transitions when the recorder is closed.
+ * <p>
+ * The cloudlets are told apart by their ids only, so the ids must be unique in a trace. A
+ * recorder is not thread-safe.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class CloudletTraceRecorder {
+
+	/** The user of the cloudlet is set; the argument is the user id. */
+	public static final byte USER = 0;
+
+	/** The cloudlet is allocated to a resource; the arguments are the resource id and cost. */
+	public static final byte RESOURCE = 1;
+
+	/** The submission time is set; the value is the time. */
+	public static final byte SUBMISSION = 2;
+
+	/** The execution start time is set; the value is the time. */
+	public static final byte EXEC_START = 3;
+
+	/** The wall clock time is set; the value is the time. */
+	public static final byte WALL_CLOCK_TIME = 4;
+
+	/** The actual CPU time is set; the value is the time. */
+	public static final byte ACTUAL_CPU_TIME = 5;
+
+	/** The status changes; the argument is the new status. */
+	public static final byte STATUS = 6;
+
+	/** The length finished so far is set; the value is the length. */
+	public static final byte FINISHED_SO_FAR = 7;
+
+	/** The cloudlet is returned to its user; the argument is the user id. */
+	public static final byte RETURN = 8;
+
+	/** The magic number at the start of a trace file. */
+	public static final int MAGIC = 0x43535452;
+
+	/** The version of the format. */
+	public static final int VERSION = 1;
+
+	/** The size of the header of a trace file. */
+	private static final int HEADER_SIZE = 32;
+
+	/** The number of bytes of a transition. */
+	private static final int RECORD_SIZE = 1 + 8 + 4 + 4 + 8 + 4;
+
+	/** The default number of transitions of a chunk. */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+	/** The number of transitions of a chunk. */
+	private final int chunkSize;
+
+	/** The offsets of the columns in a chunk. */
+	private final int kindOffset, timeOffset, cloudletOffset, argOffset, valueOffset, previousOffset;
+
+	/** The chunks kept in memory, or read back from the file. */
+	private final List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+
+	/** The chunk being filled. */
+	private ByteBuffer current;
+
+	/** The channel of the file, or <code>null</code> if the trace is kept in memory. */
+	private final FileChannel channel;
+
+	/** Whether the trace can be written to. */
+	private final boolean writable;
+
+	/** The number of transitions recorded. */
+	private int size;
+
+	/** The position plus one of the last transition of each cloudlet, or 0 if there is none. */
+	private int[] last = new int[1024];
+
+	/** The names of the users and resources, by id. */
+	private final Map<Integer, String> names = new HashMap<Integer, String>();
+
+	/**
+	 * Creates a recorder that keeps the trace in memory, outside the heap.
+	 */
+	public CloudletTraceRecorder() {
+		this(null, DEFAULT_CHUNK_SIZE, true);
+	}
+
+	/**
+	 * Creates a recorder that writes the trace to a file. The file is overwritten.
+	 *
+	 * @param file the file
+	 * @throws IOException if the file cannot be created
+	 * @pre file != null
+	 * @post $none
+	 */
+	public CloudletTraceRecorder(File file) throws IOException {
+		this(new RandomAccessFile(file, "rw").getChannel(), DEFAULT_CHUNK_SIZE, true);
+		channel.truncate(0);
+		writeHeader();
+	}
+
+	/**
+	 * Creates a recorder.
+	 *
+	 * @param channel the channel of the file, or <code>null</code>
+	 * @param chunkSize the number of transitions of a chunk
+	 * @param writable whether transitions can be recorded
+	 */
+	private CloudletTraceRecorder(FileChannel channel, int chunkSize, boolean writable) {
+		this.channel = channel;
+		this.chunkSize = chunkSize;
+		this.writable = writable;
+		kindOffset = 0;
+		timeOffset = kindOffset + chunkSize;
+		cloudletOffset = timeOffset + 8 * chunkSize;
+		argOffset = cloudletOffset + 4 * chunkSize;
+		valueOffset = argOffset + 4 * chunkSize;
+		previousOffset = valueOffset + 8 * chunkSize;
+	}
+
+	/**
+	 * Opens a trace written by a recorder, to query the histories of its cloudlets.
+	 *
+	 * @param file the file of the trace
+	 * @return the recorder
+	 * @throws IOException if the file cannot be read or is not a trace
+	 */
+	public static CloudletTraceRecorder open(File file) throws IOException {
+		FileChannel channel = new RandomAccessFile(file, "r").getChannel();
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		channel.read(header, 0);
+		header.flip();
+		if (header.remaining() < HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+			channel.close();
+			throw new IOException(file + " is not a cloudlet trace of version " + VERSION);
+		}
+		CloudletTraceRecorder recorder = new CloudletTraceRecorder(channel, header.getInt(8), false);
+		recorder.size = (int) header.getLong(16);
+		long namesPosition = header.getLong(24);
+		if (namesPosition > 0) {
+			DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel
+					.position(namesPosition))));
+			int count = input.readInt();
+			for (int i = 0; i < count; i++) {
+				int id = input.readInt();
+				recorder.names.put(id, input.readUTF());
+			}
+		}
+		for (int i = 0; i < recorder.size; i++) {
+			recorder.index(recorder.getCloudletId(i), i);
+		}
+		return recorder;
+	}
+
+	/**
+	 * Records a transition at the current simulation time.
+	 *
+	 * @param kind the kind of transition
+	 * @param cloudletId the cloudlet id
+	 * @param arg the int argument
+	 * @param value the double argument
+	 * @throws IllegalStateException if the recorder is read-only, or the trace cannot be written
+	 */
+	public void record(byte kind, int cloudletId, int arg, double value) {
+		record(kind, CloudSim.clock(), cloudletId, arg, value);
+	}
+
+	/**
+	 * Records a transition.
+	 *
+	 * @param kind the kind of transition
+	 * @param time the simulation time
+	 * @param cloudletId the cloudlet id
+	 * @param arg the int argument
+	 * @param value the double argument
+	 * @throws IllegalStateException if the recorder is read-only, or the trace cannot be written
+	 */
+	public void record(byte kind, double time, int cloudletId, int arg, double value) {
+		if (!writable) {
+			throw new IllegalStateException("The trace is read-only");
+		}
+		int offset = size % chunkSize;
+		if (offset == 0) {
+			nextChunk();
+		}
+		current.put(kindOffset + offset, kind);
+		current.putDouble(timeOffset + 8 * offset, time);
+		current.putInt(cloudletOffset + 4 * offset, cloudletId);
+		current.putInt(argOffset + 4 * offset, arg);
+		current.putDouble(valueOffset + 8 * offset, value);
+		current.putInt(previousOffset + 4 * offset, cloudletId >= 0 && cloudletId < last.length ? last[cloudletId] : 0);
+		index(cloudletId, size);
+		size++;
+		if ((kind == USER || kind == RESOURCE || kind == RETURN) && !names.containsKey(arg)) {
+			names.put(arg, CloudSim.getEntityName(arg));
+		}
+	}
+
+	/**
+	 * Gets the number of transitions recorded.
+	 *
+	 * @return the number of transitions
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the transitions of a cloudlet.
+	 *
+	 * @param cloudletId the cloudlet id
+	 * @return the transitions, in the order in which they were recorded
+	 */
+	public List<Transition> getHistory(int cloudletId) {
+		if (cloudletId < 0 || cloudletId >= last.length || last[cloudletId] == 0) {
+			return Collections.emptyList();
+		}
+		List<Transition> history = new ArrayList<Transition>();
+		for (int i = last[cloudletId] - 1; i >= 0; i = getPrevious(i) - 1) {
+			history.add(getTransition(i));
+		}
+		Collections.reverse(history);
+		return history;
+	}
+
+	/**
+	 * Gets the history of a cloudlet as {@link Cloudlet#getCloudletHistory()} writes it.
+	 *
+	 * @param cloudletId the cloudlet id
+	 * @return the history
+	 */
+	public String getHistoryText(int cloudletId) {
+		List<Transition> history = getHistory(cloudletId);
+		if (history.isEmpty()) {
+			return "No history is recorded for Cloudlet #" + cloudletId;
+		}
+
+		String newline = System.getProperty("line.separator");
+		DecimalFormat num = new DecimalFormat("#0.00#"); // with 3 decimal spaces
+		StringBuilder text = new StringBuilder();
+		text.append("Time below denotes the simulation time.").append(newline);
+		text.append("Time (sec)       Description Cloudlet #" + cloudletId).append(newline);
+		text.append("------------------------------------------").append(newline);
+		text.append(num.format(history.get(0).getTime()));
+		text.append("   Creates Cloudlet ID #" + cloudletId).append(newline);
+
+		int resourceId = -1;
+		int status = Cloudlet.CREATED;
+		for (int i = 0; i < history.size(); i++) {
+			Transition transition = history.get(i);
+			String description;
+			switch (transition.getKind()) {
+				case USER:
+					description = "Assigns the Cloudlet to " + getName(transition.getArg())
+							+ " (ID #" + transition.getArg() + ")";
+					break;
+				case RESOURCE:
+					if (resourceId < 0) {
+						description = "Allocates this Cloudlet to " + getName(transition.getArg())
+								+ " (ID #" + transition.getArg() + ") with cost = $" + transition.getValue()
+								+ "/sec";
+					} else {
+						description = "Moves Cloudlet from " + getName(resourceId) + " (ID #"
+								+ resourceId + ") to " + getName(transition.getArg()) + " (ID #"
+								+ transition.getArg() + ") with cost = $" + transition.getValue() + "/sec";
+					}
+					resourceId = transition.getArg();
+					break;
+				case SUBMISSION:
+					description = "Sets the submission time to " + num.format(transition.getValue());
+					break;
+				case EXEC_START:
+					description = "Sets the execution start time to " + num.format(transition.getValue());
+					break;
+				case WALL_CLOCK_TIME:
+					description = "Sets the wall clock time to " + num.format(transition.getValue());
+					if (i + 1 < history.size() && history.get(i + 1).getKind() == ACTUAL_CPU_TIME) {
+						description += " and the actual CPU time to " + num.format(history.get(++i).getValue());
+					}
+					break;
+				case ACTUAL_CPU_TIME:
+					description = "Sets the actual CPU time to " + num.format(transition.getValue());
+					break;
+				case STATUS:
+					description = "Sets Cloudlet status from " + Cloudlet.getStatusString(status) + " to "
+							+ Cloudlet.getStatusString(transition.getArg());
+					status = transition.getArg();
+					break;
+				case FINISHED_SO_FAR:
+					description = "Sets the length's finished so far to " + (long) transition.getValue();
+					break;
+				case RETURN:
+					description = "Returns the Cloudlet to " + getName(transition.getArg())
+							+ " (ID #" + transition.getArg() + ")";
+					break;
+				default:
+					description = "Unknown transition " + transition.getKind();
+			}
+			text.append(num.format(transition.getTime())).append("   ").append(description).append(newline);
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Writes the transitions recorded so far to the file, if there is one.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public void flush() throws IOException {
+		if (channel != null && writable && current != null) {
+			writeChunk(current, (size - 1) / chunkSize);
+			writeHeader();
+			channel.force(false);
+		}
+	}
+
+	/**
+	 * Writes the transitions recorded so far and the names to the file, if there is one, and
+	 * closes it. The trace cannot be written to or queried afterwards.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public void close() throws IOException {
+		if (channel == null) {
+			return;
+		}
+		if (writable) {
+			flush();
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream output = new DataOutputStream(bytes);
+			output.writeInt(names.size());
+			for (Map.Entry<Integer, String> entry : names.entrySet()) {
+				output.writeInt(entry.getKey());
+				output.writeUTF(String.valueOf(entry.getValue()));
+			}
+			long namesPosition = getChunkPosition((size + chunkSize - 1) / chunkSize);
+			ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+			for (long position = namesPosition; buffer.hasRemaining();) {
+				position += channel.write(buffer, position);
+			}
+			writeHeader(namesPosition);
+		}
+		channel.close();
+	}
+
+	/**
+	 * Gets the name of a user or resource, as it was when it was first recorded.
+	 *
+	 * @param id the id of the entity
+	 * @return the name
+	 */
+	private String getName(int id) {
+		String name = names.get(id);
+		return name == null ? CloudSim.getEntityName(id) : name;
+	}
+
+	/**
+	 * Gets a transition.
+	 *
+	 * @param i the position of the transition
+	 * @return the transition
+	 */
+	private Transition getTransition(int i) {
+		ByteBuffer chunk = getChunk(i / chunkSize);
+		int offset = i % chunkSize;
+		return new Transition(
+				chunk.get(kindOffset + offset),
+				chunk.getDouble(timeOffset + 8 * offset),
+				chunk.getInt(cloudletOffset + 4 * offset),
+				chunk.getInt(argOffset + 4 * offset),
+				chunk.getDouble(valueOffset + 8 * offset));
+	}
+
+	/**
+	 * Gets the cloudlet id of a transition.
+	 *
+	 * @param i the position of the transition
+	 * @return the cloudlet id
+	 */
+	private int getCloudletId(int i) {
+		return getChunk(i / chunkSize).getInt(cloudletOffset + 4 * (i % chunkSize));
+	}
+
+	/**
+	 * Gets the link of a transition to the previous transition of the same cloudlet.
+	 *
+	 * @param i the position of the transition
+	 * @return the position plus one of the previous transition, or 0 if there is none
+	 */
+	private int getPrevious(int i) {
+		return getChunk(i / chunkSize).getInt(previousOffset + 4 * (i % chunkSize));
+	}
+
+	/**
+	 * Sets the last transition of a cloudlet.
+	 *
+	 * @param cloudletId the cloudlet id
+	 * @param i the position of the transition
+	 */
+	private void index(int cloudletId, int i) {
+		if (cloudletId < 0) {
+			return;
+		}
+		if (cloudletId >= last.length) {
+			last = Arrays.copyOf(last, Math.max(cloudletId + 1, 2 * last.length));
+		}
+		last[cloudletId] = i + 1;
+	}
+
+	/**
+	 * Gets a chunk, mapping it from the file if it is not in memory.
+	 *
+	 * @param index the index of the chunk
+	 * @return the chunk
+	 */
+	private ByteBuffer getChunk(int index) {
+		if (writable && index == (size - 1) / chunkSize) {
+			return current;
+		}
+		while (chunks.size() <= index) {
+			chunks.add(null);
+		}
+		ByteBuffer chunk = chunks.get(index);
+		if (chunk == null) {
+			try {
+				chunk = channel.map(FileChannel.MapMode.READ_ONLY, getChunkPosition(index), (long) chunkSize
+						* RECORD_SIZE);
+			} catch (IOException e) {
+				throw new IllegalStateException("The trace cannot be read", e);
+			}
+			chunks.set(index, chunk);
+		}
+		return chunk;
+	}
+
+	/**
+	 * Starts a new chunk, writing the full one to the file if there is one.
+	 */
+	private void nextChunk() {
+		if (channel == null) {
+			current = ByteBuffer.allocateDirect(chunkSize * RECORD_SIZE);
+			chunks.add(current);
+			return;
+		}
+		if (current == null) {
+			current = ByteBuffer.allocateDirect(chunkSize * RECORD_SIZE);
+			return;
+		}
+		try {
+			writeChunk(current, size / chunkSize - 1);
+		} catch (IOException e) {
+			throw new IllegalStateException("The trace cannot be written", e);
+		}
+	}
+
+	/**
+	 * Writes a chunk to the file.
+	 *
+	 * @param chunk the chunk
+	 * @param index the index of the chunk
+	 * @throws IOException if the file cannot be written
+	 */
+	private void writeChunk(ByteBuffer chunk, int index) throws IOException {
+		ByteBuffer source = chunk.duplicate();
+		source.clear();
+		long position = getChunkPosition(index);
+		while (source.hasRemaining()) {
+			position += channel.write(source, position);
+		}
+	}
+
+	/**
+	 * Writes the header of the file.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	private void writeHeader() throws IOException {
+		writeHeader(0);
+	}
+
+	/**
+	 * Writes the header of the file.
+	 *
+	 * @param namesPosition the position of the names in the file, or 0 if they are not written
+	 * @throws IOException if the file cannot be written
+	 */
+	private void writeHeader(long namesPosition) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(VERSION).putInt(chunkSize).putInt(RECORD_SIZE).putLong(size)
+				.putLong(namesPosition);
+		header.clear();
+		channel.write(header, 0);
+	}
+
+	/**
+	 * Gets the position of a chunk in the file.
+	 *
+	 * @param index the index of the chunk
+	 * @return the position
+	 */
+	private long getChunkPosition(int index) {
+		return HEADER_SIZE + (long) index * chunkSize * RECORD_SIZE;
+	}
+
+	/**
+	 * A transition of a cloudlet.
+	 */
+	public static class Transition {
+
+		/** The kind of transition. */
+		private final byte kind;
+
+		/** The simulation time. */
+		private final double time;
+
+		/** The cloudlet id. */
+		private final int cloudletId;
+
+		/** The int argument. */
+		private final int arg;
+
+		/** The double argument. */
+		private final double value;
+
+		/**
+		 * Creates a transition.
+		 *
+		 * @param kind the kind of transition
+		 * @param time the simulation time
+		 * @param cloudletId the cloudlet id
+		 * @param arg the int argument
+		 * @param value the double argument
+		 */
+		public Transition(byte kind, double time, int cloudletId, int arg, double value) {
+			this.kind = kind;
+			this.time = time;
+			this.cloudletId = cloudletId;
+			this.arg = arg;
+			this.value = value;
+		}
+
+		/**
+		 * Gets the kind of transition, such as {@link CloudletTraceRecorder#STATUS}.
+		 *
+		 * @return the kind
+		 */
+		public byte getKind() {
+			return kind;
+		}
+
+		/**
+		 * Gets the simulation time.
+		 *
+		 * @return the time
+		 */
+		public double getTime() {
+			return time;
+		}
+
+		/**
+		 * Gets the cloudlet id.
+		 *
+		 * @return the cloudlet id
+		 */
+		public int getCloudletId() {
+			return cloudletId;
+		}
+
+		/**
+		 * Gets the int argument: a user, resource or status.
+		 *
+		 * @return the argument
+		 */
+		public int getArg() {
+			return arg;
+		}
+
+		/**
+		 * Gets the double argument: a time, cost or length.
+		 *
+		 * @return the argument
+		 */
+		public double getValue() {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return time + ": cloudlet " + cloudletId + " kind " + kind + " (" + arg + ", " + value + ")";
+		}
+
+	}
+
+}
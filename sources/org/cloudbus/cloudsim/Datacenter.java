@@ -7,8 +7,9 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +18,8 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.lists.VmRegistry;
+import org.cloudbus.cloudsim.util.IndexedMinHeap;
 
 /**
  * Datacenter class is a CloudResource whose hostList are virtualized. It deals with processing of
@@ -52,6 +55,27 @@ public class Datacenter extends SimEntity {
 	/** The scheduling interval. */
 	private double schedulingInterval;
 
+	/** Whether hosts are only updated when a cloudlet is due to finish or their load changed. */
+	private boolean incrementalProcessing;
+
+	/** The index of each host in the host list of the allocation policy. */
+	private Map<Host, Integer> hostIndexes;
+
+	/** The next expected completion time of each busy host, by host index. */
+	private IndexedMinHeap hostCompletionTimes;
+
+	/** The time each host was last updated, by host index. */
+	private double[] hostUpdateTimes;
+
+	/** The hosts whose VMs or cloudlets changed since they were last updated. */
+	private BitSet changedHosts;
+
+	/** The hosts updated since their finished cloudlets were last collected. */
+	private BitSet updatedHosts;
+
+	/** Whether batches of cloudlets can be submitted at once, or null if not checked yet. */
+	private Boolean cloudletSubmitBatchSupported;
+
 	/**
 	 * Allocates a new PowerDatacenter object.
 	 * 
@@ -84,7 +108,7 @@ public class Datacenter extends SimEntity {
 		setVmAllocationPolicy(vmAllocationPolicy);
 		setLastProcessTime(0.0);
 		setStorageList(storageList);
-		setVmList(new ArrayList<Vm>());
+		setVmList(new VmRegistry<Vm>());
 		setSchedulingInterval(schedulingInterval);
 
 		for (Host host : getCharacteristics().getHostList()) {
@@ -158,6 +182,11 @@ public class Datacenter extends SimEntity {
 				processCloudletSubmit(ev, true);
 				break;
 
+			// A list of new Cloudlets arrives
+			case CloudSimTags.CLOUDLET_SUBMIT_BATCH:
+				processCloudletSubmitBatch(ev);
+				break;
+
 			// Cancels a previously submitted Cloudlet
 			case CloudSimTags.CLOUDLET_CANCEL:
 				processCloudlet(ev, CloudSimTags.CLOUDLET_CANCEL);
@@ -445,6 +474,7 @@ public class Datacenter extends SimEntity {
 
 		if (result) {
 			getVmList().add(vm);
+			markHostChanged(getVmAllocationPolicy().getHost(vm));
 
 			if (vm.isBeingInstantiated()) {
 				vm.setBeingInstantiated(false);
@@ -468,6 +498,7 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void processVmDestroy(SimEvent ev, boolean ack) {
 		Vm vm = (Vm) ev.getData();
+		markHostChanged(getVmAllocationPolicy().getHost(vm));
 		getVmAllocationPolicy().deallocateHostForVm(vm);
 
 		if (ack) {
@@ -502,6 +533,8 @@ public class Datacenter extends SimEntity {
 		Vm vm = (Vm) migrate.get("vm");
 		Host host = (Host) migrate.get("host");
 
+		markHostChanged(getVmAllocationPolicy().getHost(vm));
+		markHostChanged(host);
 		getVmAllocationPolicy().deallocateHostForVm(vm);
 		host.removeMigratingInVm(vm);
 		boolean result = getVmAllocationPolicy().allocateHostForVm(vm, host);
@@ -617,8 +650,10 @@ public class Datacenter extends SimEntity {
 		int destId = array[4];
 
 		// get the cloudlet
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		Host sourceHost = getVmAllocationPolicy().getHost(vmId, userId);
+		updateHostProcessing(sourceHost);
+		markHostChanged(sourceHost);
+		Cloudlet cl = sourceHost.getVm(vmId,userId).getCloudletScheduler().cloudletCancel(cloudletId);
 
 		boolean failed = false;
 		if (cl == null) {// cloudlet doesn't exist
@@ -631,7 +666,7 @@ public class Datacenter extends SimEntity {
 				data[1] = cloudletId;
 				data[2] = 0;
 				sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_SUBMIT_ACK, data);
-				sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
+				returnCloudlet(cl);
 			}
 
 			// prepare cloudlet for migration
@@ -639,10 +674,13 @@ public class Datacenter extends SimEntity {
 
 			// the cloudlet will migrate from one vm to another does the destination VM exist?
 			if (destId == getId()) {
-				Vm vm = getVmAllocationPolicy().getHost(vmDestId, userId).getVm(vmDestId,userId);
+				Host destinationHost = getVmAllocationPolicy().getHost(vmDestId, userId);
+				Vm vm = destinationHost.getVm(vmDestId,userId);
 				if (vm == null) {
 					failed = true;
 				} else {
+					updateHostProcessing(destinationHost);
+					markHostChanged(destinationHost);
 					// time to transfer the files
 					double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
 					vm.getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
@@ -682,75 +720,189 @@ public class Datacenter extends SimEntity {
 			// gets the Cloudlet object
 			Cloudlet cl = (Cloudlet) ev.getData();
 
-			// checks whether this Cloudlet has finished or not
-			if (cl.isFinished()) {
-				String name = CloudSim.getEntityName(cl.getUserId());
-				Log.printLine(getName() + ": Warning - Cloudlet #" + cl.getCloudletId() + " owned by " + name
-						+ " is already completed/finished.");
-				Log.printLine("Therefore, it is not being executed again");
-				Log.printLine();
-
-				// NOTE: If a Cloudlet has finished, then it won't be processed.
-				// So, if ack is required, this method sends back a result.
-				// If ack is not required, this method don't send back a result.
-				// Hence, this might cause CloudSim to be hanged since waiting
-				// for this Cloudlet back.
-				if (ack) {
-					int[] data = new int[3];
-					data[0] = getId();
-					data[1] = cl.getCloudletId();
-					data[2] = CloudSimTags.FALSE;
-
-					// unique tag = operation tag
-					int tag = CloudSimTags.CLOUDLET_SUBMIT_ACK;
-					sendNow(cl.getUserId(), tag, data);
-				}
+			double estimatedFinishTime = submitCloudlet(cl, ack);
+			if (estimatedFinishTime > 0.0) {
+				send(getId(), estimatedFinishTime, CloudSimTags.VM_DATACENTER_EVENT);
+			}
+		} catch (ClassCastException c) {
+			Log.printLine(getName() + ".processCloudletSubmit(): " + "ClassCastException error.");
+			c.printStackTrace();
+		} catch (Exception e) {
+			Log.printLine(getName() + ".processCloudletSubmit(): " + "Exception error.");
+			e.printStackTrace();
+		}
 
-				sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
+		checkCloudletCompletion();
+	}
 
-				return;
+	/**
+	 * Processes the submission of a list of Cloudlets. The processing of the hosts is updated
+	 * once before the Cloudlets are submitted through {@link #submitCloudlet(Cloudlet, boolean)},
+	 * only the earliest expected finish time is scheduled, and the finished Cloudlets are collected
+	 * once afterwards. If the batch is not supported, each Cloudlet is sent back to this datacenter
+	 * as a single submission instead.
+	 * 
+	 * @param ev a SimEvent object whose data is a list of Cloudlets
+	 * @pre ev != null
+	 * @post $none
+	 * @see #isCloudletSubmitBatchSupported()
+	 */
+	protected void processCloudletSubmitBatch(SimEvent ev) {
+		if (!isCloudletSubmitBatchSupported()) {
+			try {
+				@SuppressWarnings("unchecked")
+				List<Cloudlet> cloudlets = (List<Cloudlet>) ev.getData();
+				for (Cloudlet cl : cloudlets) {
+					sendNow(getId(), CloudSimTags.CLOUDLET_SUBMIT, cl);
+				}
+			} catch (ClassCastException c) {
+				Log.printLine(getName() + ".processCloudletSubmitBatch(): " + "ClassCastException error.");
+				c.printStackTrace();
 			}
+			return;
+		}
 
-			// process this Cloudlet to this CloudResource
-			cl.setResourceParameter(getId(), getCharacteristics().getCostPerSecond(), getCharacteristics()
-					.getCostPerBw());
+		updateCloudletProcessing();
 
-			int userId = cl.getUserId();
-			int vmId = cl.getVmId();
+		try {
+			@SuppressWarnings("unchecked")
+			List<Cloudlet> cloudlets = (List<Cloudlet>) ev.getData();
+
+			double firstFinishTime = Double.MAX_VALUE;
+			for (Cloudlet cl : cloudlets) {
+				double estimatedFinishTime = submitCloudlet(cl, false);
+				if (estimatedFinishTime > 0.0 && estimatedFinishTime < firstFinishTime) {
+					firstFinishTime = estimatedFinishTime;
+				}
+			}
+			if (firstFinishTime != Double.MAX_VALUE) {
+				send(getId(), firstFinishTime, CloudSimTags.VM_DATACENTER_EVENT);
+			}
+		} catch (ClassCastException c) {
+			Log.printLine(getName() + ".processCloudletSubmitBatch(): " + "ClassCastException error.");
+			c.printStackTrace();
+		} catch (Exception e) {
+			Log.printLine(getName() + ".processCloudletSubmitBatch(): " + "Exception error.");
+			e.printStackTrace();
+		}
 
-			// time to transfer the files
-			double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
+		checkCloudletCompletion();
+	}
 
-			Host host = getVmAllocationPolicy().getHost(vmId, userId);
-			Vm vm = host.getVm(vmId, userId);
-			CloudletScheduler scheduler = vm.getCloudletScheduler();
-			double estimatedFinishTime = scheduler.cloudletSubmit(cl, fileTransferTime);
+	/**
+	 * Checks whether batches of Cloudlets can be submitted at once. They cannot if a subclass
+	 * overrides {@link #processCloudletSubmit(SimEvent, boolean)} below the last override of
+	 * {@link #processCloudletSubmitBatch(SimEvent)}, as the batch would skip its submission logic.
+	 * Subclasses customizing the submission of each Cloudlet in
+	 * {@link #submitCloudlet(Cloudlet, boolean)} support batches.
+	 * 
+	 * @return true, if batches of Cloudlets can be submitted at once
+	 */
+	protected boolean isCloudletSubmitBatchSupported() {
+		if (cloudletSubmitBatchSupported == null) {
+			Class<?> submitClass = getDeclaringClass("processCloudletSubmit", SimEvent.class, boolean.class);
+			Class<?> batchClass = getDeclaringClass("processCloudletSubmitBatch", SimEvent.class);
+			cloudletSubmitBatchSupported = submitClass.isAssignableFrom(batchClass);
+		}
+		return cloudletSubmitBatchSupported;
+	}
 
-			// if this cloudlet is in the exec queue
-			if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
-				estimatedFinishTime += fileTransferTime;
-				send(getId(), estimatedFinishTime, CloudSimTags.VM_DATACENTER_EVENT);
+	/**
+	 * Gets the most derived class of this datacenter declaring a method.
+	 * 
+	 * @param name the name of the method
+	 * @param parameterTypes the parameter types of the method
+	 * @return the class
+	 */
+	private Class<?> getDeclaringClass(String name, Class<?>... parameterTypes) {
+		for (Class<?> type = getClass(); type != Datacenter.class; type = type.getSuperclass()) {
+			try {
+				type.getDeclaredMethod(name, parameterTypes);
+				return type;
+			} catch (NoSuchMethodException e) {
+				// declared further up
 			}
+		}
+		return Datacenter.class;
+	}
 
+	/**
+	 * Submits a Cloudlet to the scheduler of its VM. A Cloudlet that has already finished is sent
+	 * back to its owner instead. Subclasses override this method to change how each Cloudlet is
+	 * submitted, whether it comes alone or in a batch.
+	 * 
+	 * @param cl the Cloudlet
+	 * @param ack whether the owner asks for an acknowledgement
+	 * @return the delay until the Cloudlet is expected to finish, or 0 if it is not in execution
+	 * @pre cl != null
+	 * @post $result >= 0
+	 */
+	protected double submitCloudlet(Cloudlet cl, boolean ack) {
+		// checks whether this Cloudlet has finished or not
+		if (cl.isFinished()) {
+			String name = CloudSim.getEntityName(cl.getUserId());
+			Log.printLine(getName() + ": Warning - Cloudlet #" + cl.getCloudletId() + " owned by " + name
+					+ " is already completed/finished.");
+			Log.printLine("Therefore, it is not being executed again");
+			Log.printLine();
+
+			// NOTE: If a Cloudlet has finished, then it won't be processed.
+			// So, if ack is required, this method sends back a result.
+			// If ack is not required, this method don't send back a result.
+			// Hence, this might cause CloudSim to be hanged since waiting
+			// for this Cloudlet back.
 			if (ack) {
 				int[] data = new int[3];
 				data[0] = getId();
 				data[1] = cl.getCloudletId();
-				data[2] = CloudSimTags.TRUE;
+				data[2] = CloudSimTags.FALSE;
 
 				// unique tag = operation tag
 				int tag = CloudSimTags.CLOUDLET_SUBMIT_ACK;
 				sendNow(cl.getUserId(), tag, data);
 			}
-		} catch (ClassCastException c) {
-			Log.printLine(getName() + ".processCloudletSubmit(): " + "ClassCastException error.");
-			c.printStackTrace();
-		} catch (Exception e) {
-			Log.printLine(getName() + ".processCloudletSubmit(): " + "Exception error.");
-			e.printStackTrace();
+
+			returnCloudlet(cl);
+
+			return 0.0;
 		}
 
-		checkCloudletCompletion();
+		// process this Cloudlet to this CloudResource
+		cl.setResourceParameter(getId(), getCharacteristics().getCostPerSecond(), getCharacteristics()
+				.getCostPerBw());
+
+		int userId = cl.getUserId();
+		int vmId = cl.getVmId();
+
+		// time to transfer the files
+		double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
+
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		Vm vm = host.getVm(vmId, userId);
+		CloudletScheduler scheduler = vm.getCloudletScheduler();
+		updateHostProcessing(host);
+		double estimatedFinishTime = scheduler.cloudletSubmit(cl, fileTransferTime);
+		markHostChanged(host);
+
+		// if this cloudlet is in the exec queue
+		if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
+			estimatedFinishTime += fileTransferTime;
+		} else {
+			estimatedFinishTime = 0.0;
+		}
+
+		if (ack) {
+			int[] data = new int[3];
+			data[0] = getId();
+			data[1] = cl.getCloudletId();
+			data[2] = CloudSimTags.TRUE;
+
+			// unique tag = operation tag
+			int tag = CloudSimTags.CLOUDLET_SUBMIT_ACK;
+			sendNow(cl.getUserId(), tag, data);
+		}
+
+		return estimatedFinishTime;
 	}
 
 	/**
@@ -788,8 +940,10 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletResume(int cloudletId, int userId, int vmId, boolean ack) {
-		double eventTime = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
-				.getCloudletScheduler().cloudletResume(cloudletId);
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		updateHostProcessing(host);
+		double eventTime = host.getVm(vmId,userId).getCloudletScheduler().cloudletResume(cloudletId);
+		markHostChanged(host);
 
 		boolean status = false;
 		if (eventTime > 0.0) { // if this cloudlet is in the exec queue
@@ -823,8 +977,10 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletPause(int cloudletId, int userId, int vmId, boolean ack) {
-		boolean status = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
-				.getCloudletScheduler().cloudletPause(cloudletId);
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		updateHostProcessing(host);
+		boolean status = host.getVm(vmId,userId).getCloudletScheduler().cloudletPause(cloudletId);
+		markHostChanged(host);
 
 		if (ack) {
 			int[] data = new int[3];
@@ -849,8 +1005,10 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletCancel(int cloudletId, int userId, int vmId) {
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		updateHostProcessing(host);
+		Cloudlet cl = host.getVm(vmId,userId).getCloudletScheduler().cloudletCancel(cloudletId);
+		markHostChanged(host);
 		sendNow(userId, CloudSimTags.CLOUDLET_CANCEL, cl);
 	}
 
@@ -867,16 +1025,20 @@ public class Datacenter extends SimEntity {
 		// R: for term is to allow loop at simulation start. Otherwise, one initial
 		// simulation step is skipped and schedulers are not properly initialized
 		if (CloudSim.clock() < 0.111 || CloudSim.clock() > getLastProcessTime() + CloudSim.getMinTimeBetweenEvents()) {
-			List<? extends Host> list = getVmAllocationPolicy().getHostList();
 			double smallerTime = Double.MAX_VALUE;
-			// for each host...
-			for (int i = 0; i < list.size(); i++) {
-				Host host = list.get(i);
-				// inform VMs to update processing
-				double time = host.updateVmsProcessing(CloudSim.clock());
-				// what time do we expect that the next cloudlet will finish?
-				if (time < smallerTime) {
-					smallerTime = time;
+			if (isIncrementalProcessing()) {
+				smallerTime = updateChangedHostsProcessing();
+			} else {
+				List<? extends Host> list = getVmAllocationPolicy().getHostList();
+				// for each host...
+				for (int i = 0; i < list.size(); i++) {
+					Host host = list.get(i);
+					// inform VMs to update processing
+					double time = host.updateVmsProcessing(CloudSim.clock());
+					// what time do we expect that the next cloudlet will finish?
+					if (time < smallerTime) {
+						smallerTime = time;
+					}
 				}
 			}
 			// gurantees a minimal interval before scheduling the event
@@ -899,19 +1061,121 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void checkCloudletCompletion() {
 		List<? extends Host> list = getVmAllocationPolicy().getHostList();
+		if (isIncrementalProcessing()) {
+			// only updated hosts can have new finished cloudlets
+			for (int i = updatedHosts.nextSetBit(0); i >= 0; i = updatedHosts.nextSetBit(i + 1)) {
+				returnFinishedCloudlets(list.get(i));
+			}
+			updatedHosts.clear();
+			return;
+		}
+
 		for (int i = 0; i < list.size(); i++) {
-			Host host = list.get(i);
-			for (Vm vm : host.getVmList()) {
-				while (vm.getCloudletScheduler().isFinishedCloudlets()) {
-					Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
-					if (cl != null) {
-						sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
-					}
+			returnFinishedCloudlets(list.get(i));
+		}
+	}
+
+	/**
+	 * Sends the finished cloudlets of the VMs of a host back to their users.
+	 * 
+	 * @param host the host
+	 */
+	private void returnFinishedCloudlets(Host host) {
+		for (Vm vm : host.getVmList()) {
+			while (vm.getCloudletScheduler().isFinishedCloudlets()) {
+				Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
+				if (cl != null) {
+					returnCloudlet(cl);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Sends a cloudlet back to its user, recording the return in the trace of the cloudlets if
+	 * there is one.
+	 * 
+	 * @param cl the cloudlet
+	 * @see Cloudlet#setTraceRecorder(CloudletTraceRecorder)
+	 */
+	protected void returnCloudlet(Cloudlet cl) {
+		CloudletTraceRecorder recorder = Cloudlet.getTraceRecorder();
+		if (recorder != null) {
+			recorder.record(CloudletTraceRecorder.RETURN, cl.getCloudletId(), cl.getUserId(), 0);
+		}
+		sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
+	}
+
+	/**
+	 * Updates the hosts whose next cloudlet is due to finish and the hosts whose VMs or cloudlets
+	 * changed, and publishes their next expected completion times into the completion index. Idle
+	 * hosts that did not change are not visited.
+	 * 
+	 * @return the earliest expected completion time over all hosts, or {@link Double#MAX_VALUE}
+	 *         if no host is busy
+	 */
+	private double updateChangedHostsProcessing() {
+		// allow for the rounding of the event time computed from the scheduling delay
+		double dueTime = CloudSim.clock() + Math.ulp(CloudSim.clock()) * 4;
+		while (!hostCompletionTimes.isEmpty() && hostCompletionTimes.peekKey() <= dueTime) {
+			changedHosts.set(hostCompletionTimes.poll());
+		}
+
+		List<? extends Host> list = getVmAllocationPolicy().getHostList();
+		for (int i = changedHosts.nextSetBit(0); i >= 0; i = changedHosts.nextSetBit(i + 1)) {
+			updateHostProcessing(i, list.get(i));
+		}
+		changedHosts.clear();
+
+		return hostCompletionTimes.peekKey();
+	}
+
+	/**
+	 * Brings the cloudlets of a host up to the current simulation time before they are changed,
+	 * if the datacenter processes hosts incrementally and the host is behind. Otherwise, all hosts
+	 * were already updated by {@link #updateCloudletProcessing()}.
+	 * 
+	 * @param host the host
+	 */
+	protected void updateHostProcessing(Host host) {
+		if (!isIncrementalProcessing()) {
+			return;
+		}
+		int index = hostIndexes.get(host);
+		if (hostUpdateTimes[index] < CloudSim.clock()) {
+			updateHostProcessing(index, host);
+		}
+	}
+
+	/**
+	 * Updates the cloudlets of a host and publishes its next expected completion time.
+	 * 
+	 * @param index the index of the host
+	 * @param host the host
+	 */
+	private void updateHostProcessing(int index, Host host) {
+		double time = host.updateVmsProcessing(CloudSim.clock());
+		hostUpdateTimes[index] = CloudSim.clock();
+		updatedHosts.set(index);
+		if (time == Double.MAX_VALUE) {
+			hostCompletionTimes.remove(index);
+		} else {
+			hostCompletionTimes.set(index, time);
+		}
+	}
+
+	/**
+	 * Marks a host as changed, so that it is updated at the next cloudlet processing of an
+	 * incremental datacenter.
+	 * 
+	 * @param host the host, may be null
+	 */
+	protected void markHostChanged(Host host) {
+		if (isIncrementalProcessing() && host != null) {
+			changedHosts.set(hostIndexes.get(host));
+		}
+	}
+
 	/**
 	 * Adds a file into the resource's storage before the experiment starts. If the file is a master
 	 * file, then it will be registered to the RC when the experiment begins.
@@ -1176,4 +1440,48 @@ public class Datacenter extends SimEntity {
 		this.schedulingInterval = schedulingInterval;
 	}
 
+	/**
+	 * Checks whether the hosts are processed incrementally.
+	 * 
+	 * @return true, if hosts are only updated when due or changed
+	 */
+	public boolean isIncrementalProcessing() {
+		return incrementalProcessing;
+	}
+
+	/**
+	 * Sets whether the hosts are processed incrementally. In incremental mode, each host publishes
+	 * the expected completion time of its next cloudlet into a min-heap, and a VM_DATACENTER_EVENT
+	 * only updates the hosts that are due and the hosts whose VMs or cloudlets changed, instead of
+	 * every host. Cloudlet progress is linear between changes, so the finish times match the full
+	 * scan up to the estimate rounding of the cloudlet schedulers and the minimum time between
+	 * events, which decides which events trigger an update. It must be set before the simulation
+	 * starts, and it only applies to the cloudlet processing of this class: datacenters that
+	 * override {@link #updateCloudletProcessing()} or whose cloudlets depend on other hosts, such
+	 * as the power and network datacenters, should keep the full scan.
+	 * 
+	 * @param incrementalProcessing whether hosts are only updated when due or changed
+	 */
+	public void setIncrementalProcessing(boolean incrementalProcessing) {
+		this.incrementalProcessing = incrementalProcessing;
+		if (incrementalProcessing) {
+			List<? extends Host> list = getVmAllocationPolicy().getHostList();
+			hostIndexes = new IdentityHashMap<Host, Integer>();
+			for (int i = 0; i < list.size(); i++) {
+				hostIndexes.put(list.get(i), i);
+			}
+			hostCompletionTimes = new IndexedMinHeap(list.size());
+			hostUpdateTimes = new double[list.size()];
+			changedHosts = new BitSet(list.size());
+			changedHosts.set(0, list.size());
+			updatedHosts = new BitSet(list.size());
+		} else {
+			hostIndexes = null;
+			hostCompletionTimes = null;
+			hostUpdateTimes = null;
+			changedHosts = null;
+			updatedHosts = null;
+		}
+	}
+
 }
@@ -14,12 +14,42 @@ import java.io.OutputStream;
 /**
  * The Log class used for performing loggin of the simulation process. It provides the ability to
  * substitute the output stream by any OutputStream subclass.
+ * <p>
+ * Messages have a {@link Level}, and only those at or above the level set with
+ * {@link #setLevel(Level)} are written; the methods without a level write at {@link Level#INFO}.
+ * The <tt>record</tt> methods log a structured record made of a time, an entity, a tag, up to three
+ * ids and a constant message, in which each <tt>{}</tt> stands for the next id. They take no
+ * objects but the entity name and the message, so they allocate nothing when the level is
+ * disabled, and the record is only formatted when it is written.
+ * <p>
+ * By default, messages are written synchronously to the output stream. A {@link LogWriter}, such
+ * as an {@link AsyncLogWriter}, can be set with {@link #setWriter(LogWriter)} to write them
+ * elsewhere, or in another thread.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
  */
 public class Log {
 
+	/**
+	 * The levels of the messages, from the least to the most severe.
+	 */
+	public enum Level {
+		/** Detailed tracing of the simulation. */
+		TRACE,
+		/** Information useful for debugging. */
+		DEBUG,
+		/** The progress of the simulation; the level of the methods without a level. */
+		INFO,
+		/** Unexpected situations the simulation can recover from. */
+		WARN,
+		/** Errors. */
+		ERROR
+	}
+
+	/** The id that stands for a missing id in a record. */
+	public static final long NO_ID = -1;
+
 	/** The Constant LINE_SEPARATOR. */
 	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
@@ -29,13 +59,33 @@ public class Log {
 	/** The disable output flag. */
 	private static boolean disabled;
 
+	/** The ordinal of the least severe level written. */
+	private static int threshold = Level.INFO.ordinal();
+
+	/** The writer, or <code>null</code> to write to the output. */
+	private static LogWriter writer;
+
 	/**
 	 * Prints the message.
 	 * 
 	 * @param message the message
 	 */
 	public static void print(String message) {
-		if (!isDisabled()) {
+		print(Level.INFO, message);
+	}
+
+	/**
+	 * Prints the message at a level.
+	 * 
+	 * @param level the level
+	 * @param message the message
+	 */
+	public static void print(Level level, String message) {
+		if (isEnabled(level)) {
+			if (writer != null) {
+				writer.print(level, message);
+				return;
+			}
 			try {
 				getOutput().write(message.getBytes());
 			} catch (IOException e) {
@@ -50,7 +100,7 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void print(Object message) {
-		if (!isDisabled()) {
+		if (isEnabled(Level.INFO)) {
 			print(String.valueOf(message));
 		}
 	}
@@ -61,8 +111,22 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void printLine(String message) {
-		if (!isDisabled()) {
-			print(message + LINE_SEPARATOR);
+		printLine(Level.INFO, message);
+	}
+
+	/**
+	 * Prints the line at a level.
+	 * 
+	 * @param level the level
+	 * @param message the message
+	 */
+	public static void printLine(Level level, String message) {
+		if (isEnabled(level)) {
+			if (writer != null) {
+				writer.printLine(level, message);
+			} else {
+				print(level, message + LINE_SEPARATOR);
+			}
 		}
 	}
 
@@ -70,9 +134,7 @@ public class Log {
 	 * Prints the empty line.
 	 */
 	public static void printLine() {
-		if (!isDisabled()) {
-			print(LINE_SEPARATOR);
-		}
+		printLine(Level.INFO, "");
 	}
 
 	/**
@@ -81,7 +143,7 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void printLine(Object message) {
-		if (!isDisabled()) {
+		if (isEnabled(Level.INFO)) {
 			printLine(String.valueOf(message));
 		}
 	}
@@ -93,7 +155,7 @@ public class Log {
 	 * @param args the args
 	 */
 	public static void format(String format, Object... args) {
-		if (!isDisabled()) {
+		if (isEnabled(Level.INFO)) {
 			print(String.format(format, args));
 		}
 	}
@@ -105,11 +167,146 @@ public class Log {
 	 * @param args the args
 	 */
 	public static void formatLine(String format, Object... args) {
-		if (!isDisabled()) {
+		if (isEnabled(Level.INFO)) {
 			printLine(String.format(format, args));
 		}
 	}
 
+	/**
+	 * Prints a line formated as in String.format() at a level. The line is only formatted if the
+	 * level is enabled.
+	 * 
+	 * @param level the level
+	 * @param format the format
+	 * @param args the args
+	 */
+	public static void formatLine(Level level, String format, Object... args) {
+		if (isEnabled(level)) {
+			printLine(level, String.format(format, args));
+		}
+	}
+
+	/**
+	 * Logs a record with one id.
+	 * 
+	 * @param level the level
+	 * @param time the simulation time
+	 * @param entity the name of the entity
+	 * @param tag the tag of the event, or -1
+	 * @param id the id
+	 * @param message the message, where <tt>{}</tt> stands for the id
+	 * @see #record(Level, double, String, int, long, long, long, String)
+	 */
+	public static void record(Level level, double time, String entity, int tag, long id, String message) {
+		record(level, time, entity, tag, id, NO_ID, NO_ID, message);
+	}
+
+	/**
+	 * Logs a record with two ids.
+	 * 
+	 * @param level the level
+	 * @param time the simulation time
+	 * @param entity the name of the entity
+	 * @param tag the tag of the event, or -1
+	 * @param id1 the first id
+	 * @param id2 the second id
+	 * @param message the message, where each <tt>{}</tt> stands for the next id
+	 * @see #record(Level, double, String, int, long, long, long, String)
+	 */
+	public static void record(
+			Level level,
+			double time,
+			String entity,
+			int tag,
+			long id1,
+			long id2,
+			String message) {
+		record(level, time, entity, tag, id1, id2, NO_ID, message);
+	}
+
+	/**
+	 * Logs a record. As text, the record is written as <tt>time: entity: message</tt>, each
+	 * <tt>{}</tt> in the message being replaced by the next id, which is the line the brokers used
+	 * to build by concatenation.
+	 * 
+	 * @param level the level
+	 * @param time the simulation time
+	 * @param entity the name of the entity
+	 * @param tag the tag of the event, or -1
+	 * @param id1 the first id, or {@link #NO_ID}
+	 * @param id2 the second id, or {@link #NO_ID}
+	 * @param id3 the third id, or {@link #NO_ID}
+	 * @param message the message, where each <tt>{}</tt> stands for the next id
+	 */
+	public static void record(
+			Level level,
+			double time,
+			String entity,
+			int tag,
+			long id1,
+			long id2,
+			long id3,
+			String message) {
+		if (isEnabled(level)) {
+			if (writer != null) {
+				writer.record(level, time, entity, tag, id1, id2, id3, message);
+			} else {
+				print(level, appendRecord(new StringBuilder(), time, entity, id1, id2, id3, message)
+						.append(LINE_SEPARATOR).toString());
+			}
+		}
+	}
+
+	/**
+	 * Appends the text of a record.
+	 * 
+	 * @param builder the builder to append to
+	 * @param time the simulation time
+	 * @param entity the name of the entity
+	 * @param id1 the first id
+	 * @param id2 the second id
+	 * @param id3 the third id
+	 * @param message the message, where each <tt>{}</tt> stands for the next id
+	 * @return the builder
+	 * @see #record(Level, double, String, int, long, long, long, String)
+	 */
+	public static StringBuilder appendRecord(
+			StringBuilder builder,
+			double time,
+			String entity,
+			long id1,
+			long id2,
+			long id3,
+			String message) {
+		builder.append(time).append(": ").append(entity).append(": ");
+		int ids = 0;
+		int start = 0;
+		int index = message.indexOf("{}");
+		while (index >= 0 && ids < 3) {
+			builder.append(message, start, index);
+			builder.append(ids == 0 ? id1 : ids == 1 ? id2 : id3);
+			ids++;
+			start = index + 2;
+			index = message.indexOf("{}", start);
+		}
+		return builder.append(message, start, message.length());
+	}
+
+	/**
+	 * Writes the messages buffered by the writer, if any, and flushes the output.
+	 */
+	public static void flush() {
+		try {
+			if (writer != null) {
+				writer.flush();
+			} else {
+				getOutput().flush();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
 	/**
 	 * Sets the output.
 	 * 
@@ -131,6 +328,54 @@ public class Log {
 		return output;
 	}
 
+	/**
+	 * Sets the writer the messages are passed to instead of being written to the output. The
+	 * previous writer is not flushed.
+	 * 
+	 * @param _writer the new writer, or <code>null</code> to write to the output
+	 */
+	public static void setWriter(LogWriter _writer) {
+		writer = _writer;
+	}
+
+	/**
+	 * Gets the writer.
+	 * 
+	 * @return the writer, or <code>null</code> if the messages are written to the output
+	 */
+	public static LogWriter getWriter() {
+		return writer;
+	}
+
+	/**
+	 * Sets the least severe level written.
+	 * 
+	 * @param level the level
+	 */
+	public static void setLevel(Level level) {
+		threshold = level.ordinal();
+	}
+
+	/**
+	 * Gets the least severe level written.
+	 * 
+	 * @return the level
+	 */
+	public static Level getLevel() {
+		return Level.values()[threshold];
+	}
+
+	/**
+	 * Checks if messages at a level are written. It can be used to skip building a message that
+	 * would not be written.
+	 * 
+	 * @param level the level
+	 * @return true, if the output is enabled and the level is at least the level set
+	 */
+	public static boolean isEnabled(Level level) {
+		return !disabled && level.ordinal() >= threshold;
+	}
+
 	/**
 	 * Sets the disable output flag.
 	 * 
@@ -0,0 +1,63 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.IOException;
+
+import org.cloudbus.cloudsim.Log.Level;
+
+/**
+ * A LogWriter receives the messages that {@link Log} writes when it is set with
+ * {@link Log#setWriter(LogWriter)}. The level of the messages has already been checked.
+ *
+ * @see Log
+ * @see AsyncLogWriter
+ * @since CloudSim Toolkit 3.0
+ */
+public interface LogWriter {
+
+	/**
+	 * Writes a message.
+	 *
+	 * @param level the level
+	 * @param message the message
+	 */
+	void print(Level level, String message);
+
+	/**
+	 * Writes a message ended by a line separator.
+	 *
+	 * @param level the level
+	 * @param message the message
+	 */
+	void printLine(Level level, String message);
+
+	/**
+	 * Writes a record.
+	 *
+	 * @param level the level
+	 * @param time the simulation time
+	 * @param entity the name of the entity
+	 * @param tag the tag of the event, or -1
+	 * @param id1 the first id, or {@link Log#NO_ID}
+	 * @param id2 the second id, or {@link Log#NO_ID}
+	 * @param id3 the third id, or {@link Log#NO_ID}
+	 * @param message the message, where each <tt>{}</tt> stands for the next id
+	 * @see Log#record(Level, double, String, int, long, long, long, String)
+	 */
+	void record(Level level, double time, String entity, int tag, long id1, long id2, long id3, String message);
+
+	/**
+	 * Writes the messages received so far, and flushes the output.
+	 *
+	 * @throws IOException if the output cannot be written
+	 */
+	void flush() throws IOException;
+
+}
@@ -16,6 +16,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
 
+import org.cloudbus.cloudsim.core.RandomService;
+
 /**
  * The UtilizationModelStochastic class implements a model, according to which a Cloudlet generates
  * random CPU utilization every time frame.
@@ -32,11 +34,24 @@ public class UtilizationModelStochastic implements UtilizationModel {
 	private Map<Double, Double> history;
 
 	/**
-	 * Instantiates a new utilization model stochastic.
+	 * Instantiates a new utilization model stochastic, drawing from the next random stream of the
+	 * simulation.
+	 * 
+	 * @see RandomService#newStream()
 	 */
 	public UtilizationModelStochastic() {
 		setHistory(new HashMap<Double, Double>());
-		setRandomGenerator(new Random());
+		setRandomGenerator(RandomService.newStream());
+	}
+
+	/**
+	 * Instantiates a new utilization model stochastic.
+	 * 
+	 * @param randomGenerator the random generator
+	 */
+	public UtilizationModelStochastic(Random randomGenerator) {
+		setHistory(new HashMap<Double, Double>());
+		setRandomGenerator(randomGenerator);
 	}
 
 	/**
@@ -0,0 +1,413 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * VmAllocationPolicyIndexed is a VmAllocationPolicy that, like {@link VmAllocationPolicySimple},
+ * chooses as the host for a VM the host with less PEs in use, taking the first such host in the
+ * host list when there are ties.
+ * <p>
+ * Instead of scanning the host list for every VM, the policy keeps a segment tree over the hosts
+ * that stores, for each range of hosts, the largest number of free PEs and the largest amount of
+ * free RAM, bandwidth and storage. The host for a VM is found by walking down the tree, skipping
+ * the ranges where no host has enough RAM, bandwidth or storage for the VM, so the hosts that the
+ * simple policy would try and fail are not tried at all. Placing a VM costs O(log H) in the usual
+ * case, where H is the number of hosts. The VMs are indexed by user and VM id rather than by their
+ * string uid.
+ * <p>
+ * The free RAM, bandwidth and storage of a host are read from the host whenever the policy places
+ * or releases a VM on it. If they are changed by other means, {@link #updateHost(Host)} must be
+ * called, or the host may be skipped for VMs that would fit.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class VmAllocationPolicyIndexed extends VmAllocationPolicy {
+
+	/** The vm table, with the index of the host of each VM. */
+	private Map<Long, Integer> vmTable;
+
+	/** The used pes. */
+	private Map<Long, Integer> usedPes;
+
+	/** The free pes of each host. */
+	private int[] freePes;
+
+	/** The index of each host in the host list. */
+	private Map<Host, Integer> hostIndexes;
+
+	/** The number of leaves of the tree, a power of two not less than the number of hosts. */
+	private int leaves;
+
+	/**
+	 * The largest placement key in each node of the tree. The key orders hosts by free PEs and
+	 * then by position in the host list, so the largest key is the host the simple policy picks.
+	 */
+	private long[] maxKeys;
+
+	/** The largest free RAM in each node of the tree. */
+	private int[] maxRam;
+
+	/** The largest free bandwidth in each node of the tree. */
+	private long[] maxBw;
+
+	/** The largest free storage in each node of the tree. */
+	private long[] maxStorage;
+
+	/**
+	 * Creates the new VmAllocationPolicyIndexed object.
+	 *
+	 * @param list the list
+	 * @pre $none
+	 * @post $none
+	 */
+	public VmAllocationPolicyIndexed(List<? extends Host> list) {
+		super(list);
+
+		int hosts = getHostList().size();
+		freePes = new int[hosts];
+		hostIndexes = new IdentityHashMap<Host, Integer>(hosts);
+		leaves = 1;
+		while (leaves < hosts) {
+			leaves <<= 1;
+		}
+		maxKeys = new long[2 * leaves];
+		maxRam = new int[2 * leaves];
+		maxBw = new long[2 * leaves];
+		maxStorage = new long[2 * leaves];
+		Arrays.fill(maxKeys, Long.MIN_VALUE);
+		Arrays.fill(maxRam, -1);
+		Arrays.fill(maxBw, -1);
+		Arrays.fill(maxStorage, -1);
+
+		for (int i = 0; i < hosts; i++) {
+			Host host = getHostList().get(i);
+			freePes[i] = host.getNumberOfPes();
+			hostIndexes.put(host, i);
+			setLeaf(i);
+		}
+		for (int node = leaves - 1; node > 0; node--) {
+			pull(node);
+		}
+
+		setVmTable(new HashMap<Long, Integer>());
+		setUsedPes(new HashMap<Long, Integer>());
+	}
+
+	/**
+	 * Allocates a host for a given VM.
+	 *
+	 * @param vm VM specification
+	 * @return $true if the host could be allocated; $false otherwise
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public boolean allocateHostForVm(Vm vm) {
+		long key = getVmKey(vm.getUserId(), vm.getId());
+		if (getVmTable().containsKey(key)) { // if this vm was already created
+			return false;
+		}
+
+		boolean result = false;
+		List<Integer> failed = null;
+		while (true) {
+			int idx = findHost(vm.getCurrentRequestedRam(), vm.getCurrentRequestedBw(), vm.getSize());
+			if (idx < 0) {
+				break;
+			}
+
+			Host host = getHostList().get(idx);
+			if (host.vmCreate(vm)) { // if vm were succesfully created in the host
+				int requiredPes = vm.getNumberOfPes();
+				getVmTable().put(key, idx);
+				getUsedPes().put(key, requiredPes);
+				freePes[idx] -= requiredPes;
+				update(idx);
+				result = true;
+				break;
+			}
+
+			// the host is left out of the tree until the search is over
+			if (failed == null) {
+				failed = new ArrayList<Integer>();
+			}
+			failed.add(idx);
+			maxKeys[leaves + idx] = Long.MIN_VALUE;
+			propagate(idx);
+		}
+
+		if (failed != null) {
+			for (Integer idx : failed) {
+				update(idx);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Releases the host used by a VM.
+	 *
+	 * @param vm the vm
+	 * @pre $none
+	 * @post none
+	 */
+	@Override
+	public void deallocateHostForVm(Vm vm) {
+		long key = getVmKey(vm.getUserId(), vm.getId());
+		Integer idx = getVmTable().remove(key);
+		Integer pes = getUsedPes().remove(key);
+		if (idx != null) {
+			getHostList().get(idx).vmDestroy(vm);
+			freePes[idx] += pes;
+			update(idx);
+		}
+	}
+
+	/**
+	 * Gets the host that is executing the given VM belonging to the given user.
+	 *
+	 * @param vm the vm
+	 * @return the Host with the given vmID and userID; $null if not found
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public Host getHost(Vm vm) {
+		return getHost(vm.getId(), vm.getUserId());
+	}
+
+	/**
+	 * Gets the host that is executing the given VM belonging to the given user.
+	 *
+	 * @param vmId the vm id
+	 * @param userId the user id
+	 * @return the Host with the given vmID and userID; $null if not found
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public Host getHost(int vmId, int userId) {
+		Integer idx = getVmTable().get(getVmKey(userId, vmId));
+		return idx == null ? null : getHostList().get(idx);
+	}
+
+	/**
+	 * Reads again the free RAM, bandwidth and storage of a host. It must be called when these are
+	 * changed other than by placing or releasing a VM through this policy.
+	 *
+	 * @param host the host
+	 * @pre host is in the host list of the policy
+	 * @post $none
+	 */
+	public void updateHost(Host host) {
+		Integer idx = hostIndexes.get(host);
+		if (idx == null) {
+			throw new IllegalArgumentException("Host #" + host.getId() + " is not managed by this policy");
+		}
+		update(idx);
+	}
+
+	/**
+	 * Gets the number of free PEs of a host, as counted by this policy.
+	 *
+	 * @param host the host
+	 * @return the number of free PEs
+	 * @pre host is in the host list of the policy
+	 * @post $none
+	 */
+	public int getFreePes(Host host) {
+		Integer idx = hostIndexes.get(host);
+		if (idx == null) {
+			throw new IllegalArgumentException("Host #" + host.getId() + " is not managed by this policy");
+		}
+		return freePes[idx];
+	}
+
+	/**
+	 * Gets the vm table, with the index in the host list of the host of each VM.
+	 *
+	 * @return the vm table
+	 */
+	public Map<Long, Integer> getVmTable() {
+		return vmTable;
+	}
+
+	/**
+	 * Sets the vm table.
+	 *
+	 * @param vmTable the vm table
+	 */
+	protected void setVmTable(Map<Long, Integer> vmTable) {
+		this.vmTable = vmTable;
+	}
+
+	/**
+	 * Gets the used pes.
+	 *
+	 * @return the used pes
+	 */
+	protected Map<Long, Integer> getUsedPes() {
+		return usedPes;
+	}
+
+	/**
+	 * Sets the used pes.
+	 *
+	 * @param usedPes the used pes
+	 */
+	protected void setUsedPes(Map<Long, Integer> usedPes) {
+		this.usedPes = usedPes;
+	}
+
+	/**
+	 * Gets the key of a VM in the vm table.
+	 *
+	 * @param userId the user id
+	 * @param vmId the vm id
+	 * @return the key
+	 */
+	public static long getVmKey(int userId, int vmId) {
+		return ((long) userId << 32) | (vmId & 0xFFFFFFFFL);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cloudsim.VmAllocationPolicy#optimizeAllocation(double, cloudsim.VmList, double)
+	 */
+	@Override
+	public List<Map<String, Object>> optimizeAllocation(List<? extends Vm> vmList) {
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.VmAllocationPolicy#allocateHostForVm(org.cloudbus.cloudsim.Vm,
+	 * org.cloudbus.cloudsim.Host)
+	 */
+	@Override
+	public boolean allocateHostForVm(Vm vm, Host host) {
+		Integer idx = hostIndexes.get(host);
+		if (idx != null && host.vmCreate(vm)) { // if vm has been succesfully created in the host
+			long key = getVmKey(vm.getUserId(), vm.getId());
+			int requiredPes = vm.getNumberOfPes();
+			getVmTable().put(key, idx);
+			getUsedPes().put(key, requiredPes);
+			freePes[idx] -= requiredPes;
+			update(idx);
+
+			Log.formatLine(
+					"%.2f: VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),
+					CloudSim.clock());
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Finds the host with the most free PEs among the hosts with enough RAM, bandwidth and storage.
+	 *
+	 * @param ram the required RAM
+	 * @param bw the required bandwidth
+	 * @param size the required storage
+	 * @return the index of the host, or -1 if there is none
+	 */
+	private int findHost(int ram, long bw, long size) {
+		long best = search(1, ram, bw, size, Long.MIN_VALUE);
+		return best == Long.MIN_VALUE ? -1 : leaves - 1 - (int) (best & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Finds the largest key in a node with enough RAM, bandwidth and storage, if it is larger than
+	 * the best key found so far. The child with the larger key is searched first, so the other
+	 * child can usually be skipped.
+	 *
+	 * @param node the node
+	 * @param ram the required RAM
+	 * @param bw the required bandwidth
+	 * @param size the required storage
+	 * @param best the best key found so far
+	 * @return the best key
+	 */
+	private long search(int node, int ram, long bw, long size, long best) {
+		if (maxKeys[node] <= best || maxRam[node] < ram || maxBw[node] < bw || maxStorage[node] < size) {
+			return best;
+		}
+		if (node >= leaves) {
+			return maxKeys[node];
+		}
+		int first = 2 * node;
+		int second = first + 1;
+		if (maxKeys[second] > maxKeys[first]) {
+			first = second;
+			second = first - 1;
+		}
+		best = search(first, ram, bw, size, best);
+		return search(second, ram, bw, size, best);
+	}
+
+	/**
+	 * Reads the resources of a host into its leaf and updates the nodes above it.
+	 *
+	 * @param idx the index of the host
+	 */
+	private void update(int idx) {
+		setLeaf(idx);
+		propagate(idx);
+	}
+
+	/**
+	 * Reads the resources of a host into its leaf.
+	 *
+	 * @param idx the index of the host
+	 */
+	private void setLeaf(int idx) {
+		Host host = getHostList().get(idx);
+		int leaf = leaves + idx;
+		maxKeys[leaf] = ((long) freePes[idx] << 32) | (leaves - 1 - idx);
+		maxRam[leaf] = host.getRamProvisioner().getAvailableRam();
+		maxBw[leaf] = host.getBwProvisioner().getAvailableBw();
+		maxStorage[leaf] = host.getStorage();
+	}
+
+	/**
+	 * Updates the nodes above the leaf of a host.
+	 *
+	 * @param idx the index of the host
+	 */
+	private void propagate(int idx) {
+		for (int node = (leaves + idx) >>> 1; node > 0; node >>>= 1) {
+			pull(node);
+		}
+	}
+
+	/**
+	 * Computes a node from its children.
+	 *
+	 * @param node the node
+	 */
+	private void pull(int node) {
+		int left = 2 * node;
+		int right = left + 1;
+		maxKeys[node] = Math.max(maxKeys[left], maxKeys[right]);
+		maxRam[node] = Math.max(maxRam[left], maxRam[right]);
+		maxBw[node] = Math.max(maxBw[left], maxBw[right]);
+		maxStorage[node] = Math.max(maxStorage[left], maxStorage[right]);
+	}
+
+}
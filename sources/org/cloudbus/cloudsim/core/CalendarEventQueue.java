@@ -0,0 +1,295 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A calendar queue (R. Brown, 1988): events are hashed by time into "days" of a fixed width, and a
+ * "year" of days wraps around a circular array of buckets. Polling scans forward from the current
+ * day, so adding and polling cost O(1) on average when the width matches the spacing of the events.
+ * The number of buckets doubles or halves with the number of events, and the width is re-estimated
+ * from the queued events at each resize. Each bucket is a small {@link HeapEventQueue}, so many
+ * events at the same time, such as a burst of VM_DATACENTER_EVENTs, stay O(log k) per operation.
+ * The iterator returns the events in no particular order and does not support removal.
+ * 
+ * @see EventQueue
+ */
+public class CalendarEventQueue implements EventQueue {
+
+	/** The minimum number of buckets. */
+	private static final int MIN_BUCKETS = 16;
+
+	/** The buckets; their number is a power of two. */
+	private HeapEventQueue[] buckets;
+
+	/** The width of a bucket, in simulation time. */
+	private double width;
+
+	/** The day of the current bucket, counted from time 0; the scan starts there. */
+	private long currentDay;
+
+	/** The number of events. */
+	private int size;
+
+	/** The serial. */
+	private long serial = 0;
+
+	/** The serial of the events added to the head of the queue. */
+	private long firstSerial = Long.MIN_VALUE;
+
+	/**
+	 * Creates a new calendar event queue with a bucket width of one time unit.
+	 */
+	public CalendarEventQueue() {
+		this(1.0);
+	}
+
+	/**
+	 * Creates a new calendar event queue.
+	 * 
+	 * @param width the initial bucket width, in simulation time
+	 * @pre width > 0
+	 */
+	public CalendarEventQueue(double width) {
+		if (width <= 0) {
+			throw new IllegalArgumentException("The bucket width must be greater than 0");
+		}
+		this.width = width;
+		buckets = newBuckets(MIN_BUCKETS);
+	}
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial++);
+		offer(newEvent);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(firstSerial++);
+		offer(newEvent);
+	}
+
+	/**
+	 * Inserts an event whose serial is already set.
+	 * 
+	 * @param event the event
+	 */
+	private void offer(SimEvent event) {
+		long day = dayOf(event.eventTime());
+		if (size == 0 || day < currentDay) {
+			currentDay = day;
+		}
+		buckets[bucketOf(day)].offer(event);
+		size++;
+		if (size > 2 * buckets.length) {
+			resize(buckets.length * 2);
+		}
+	}
+
+	@Override
+	public SimEvent peek() {
+		HeapEventQueue bucket = findFirstBucket();
+		return bucket == null ? null : bucket.peek();
+	}
+
+	@Override
+	public SimEvent poll() {
+		HeapEventQueue bucket = findFirstBucket();
+		if (bucket == null) {
+			return null;
+		}
+		SimEvent first = bucket.poll();
+		size--;
+		if (size < buckets.length / 2 && buckets.length > MIN_BUCKETS) {
+			resize(buckets.length / 2);
+		}
+		return first;
+	}
+
+	@Override
+	public int pollAllAt(double time, List<SimEvent> events) {
+		int count = 0;
+		SimEvent first = peek();
+		while (first != null && first.eventTime() == time) {
+			events.add(poll());
+			count++;
+			first = peek();
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the bucket holding the first event and moves the current day to it.
+	 * 
+	 * @return the bucket, or null if the queue is empty
+	 */
+	private HeapEventQueue findFirstBucket() {
+		if (size == 0) {
+			return null;
+		}
+		// scan one year from the current day for an event of the day being scanned
+		for (int i = 0; i < buckets.length; i++) {
+			long day = currentDay + i;
+			HeapEventQueue bucket = buckets[bucketOf(day)];
+			SimEvent first = bucket.peek();
+			if (first != null && dayOf(first.eventTime()) <= day) {
+				currentDay = day;
+				return bucket;
+			}
+		}
+
+		// the next event is more than a year ahead: look for it directly
+		HeapEventQueue best = null;
+		for (HeapEventQueue bucket : buckets) {
+			SimEvent first = bucket.peek();
+			if (first != null && (best == null || first.compareTo(best.peek()) < 0)) {
+				best = bucket;
+			}
+		}
+		currentDay = dayOf(best.peek().eventTime());
+		return best;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new Iterator<SimEvent>() {
+
+			private int bucket = 0;
+
+			private Iterator<SimEvent> current = buckets[0].iterator();
+
+			@Override
+			public boolean hasNext() {
+				while (!current.hasNext() && bucket < buckets.length - 1) {
+					current = buckets[++bucket].iterator();
+				}
+				return current.hasNext();
+			}
+
+			@Override
+			public SimEvent next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return current.next();
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("Use CalendarEventQueue.remove(SimEvent)");
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean remove(SimEvent event) {
+		if (buckets[bucketOf(dayOf(event.eventTime()))].remove(event)) {
+			size--;
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean removeAll(Collection<SimEvent> events) {
+		boolean removed = false;
+		for (SimEvent event : events) {
+			removed |= remove(event);
+		}
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		buckets = newBuckets(MIN_BUCKETS);
+		size = 0;
+		currentDay = 0;
+	}
+
+	/**
+	 * Rebuilds the calendar with another number of buckets and a width estimated from the queued
+	 * events: three times the mean gap between the distinct times of the first events.
+	 * 
+	 * @param numBuckets the new number of buckets
+	 */
+	private void resize(int numBuckets) {
+		List<SimEvent> events = new ArrayList<SimEvent>(size);
+		for (SimEvent event : this) {
+			events.add(event);
+		}
+		Collections.sort(events);
+
+		int sample = Math.min(events.size(), 25);
+		double gapSum = 0;
+		int gaps = 0;
+		for (int i = 1; i < sample; i++) {
+			double gap = events.get(i).eventTime() - events.get(i - 1).eventTime();
+			if (gap > 0) {
+				gapSum += gap;
+				gaps++;
+			}
+		}
+		if (gaps > 0) {
+			width = 3 * gapSum / gaps;
+		}
+
+		buckets = newBuckets(numBuckets);
+		for (SimEvent event : events) {
+			buckets[bucketOf(dayOf(event.eventTime()))].offer(event);
+		}
+		currentDay = events.isEmpty() ? 0 : dayOf(events.get(0).eventTime());
+	}
+
+	/**
+	 * Gets the day of a time.
+	 * 
+	 * @param time the time
+	 * @return the day
+	 */
+	private long dayOf(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+	/**
+	 * Gets the index of the bucket of a day.
+	 * 
+	 * @param day the day
+	 * @return the bucket index
+	 */
+	private int bucketOf(long day) {
+		return (int) (day & (buckets.length - 1));
+	}
+
+	/**
+	 * Creates empty buckets.
+	 * 
+	 * @param numBuckets the number of buckets, a power of two
+	 * @return the buckets
+	 */
+	private static HeapEventQueue[] newBuckets(int numBuckets) {
+		HeapEventQueue[] result = new HeapEventQueue[numBuckets];
+		for (int i = 0; i < numBuckets; i++) {
+			result[i] = new HeapEventQueue();
+		}
+		return result;
+	}
+
+}
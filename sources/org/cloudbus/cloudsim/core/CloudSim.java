@@ -8,14 +8,13 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
@@ -29,6 +28,9 @@ import org.cloudbus.cloudsim.core.predicates.PredicateNone;
  * network. Later, nodes in such file are mapped to CloudSim entities. Delay calculated from the
  * BRITE model are added to the messages send through CloudSim. Messages using the old model are
  * converted to the apropriate methods with the correct parameters.
+ * <p>
+ * The state of the simulation is kept in the {@link SimulationContext} of the calling thread, so
+ * that independent simulations can run in parallel threads.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -39,31 +41,8 @@ public class CloudSim {
 	/** The Constant CLOUDSIM_VERSION_STRING. */
 	private static final String CLOUDSIM_VERSION_STRING = "3.0";
 
-	/** The id of CIS entity. */
-	private static int cisId = -1;
-
-	/** The id of CloudSimShutdown entity. */
-	@SuppressWarnings("unused")
-	private static int shutdownId = -1;
-
-	/** The CIS object. */
-	private static CloudInformationService cis = null;
-
 	/** The Constant NOT_FOUND. */
 	private static final int NOT_FOUND = -1;
-
-	/** The trace flag. */
-	@SuppressWarnings("unused")
-	private static boolean traceFlag = false;
-
-	/** The calendar. */
-	private static Calendar calendar = null;
-
-	/** The termination time. */
-	private static double terminateAt = -1;
-
-	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
-	private static double minTimeBetweenEvents = 0.1;
 	
 	/**
 	 * Initialises all the common attributes.
@@ -78,21 +57,22 @@ public class CloudSim {
 	 */
 	private static void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser)
 			throws Exception {
+		SimulationContext c = SimulationContext.current();
 		initialize();
 		// NOTE: the order for the below 3 lines are important
-		traceFlag = _traceFlag;
+		c.traceFlag = _traceFlag;
 
 		// Set the current Wall clock time as the starting time of
 		// simulation
 		if (_calendar == null) {
-			calendar = Calendar.getInstance();
+			c.calendar = Calendar.getInstance();
 		} else {
-			calendar = _calendar;
+			c.calendar = _calendar;
 		}
 
 		// creates a CloudSimShutdown object
 		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
-		shutdownId = shutdown.getId();
+		c.shutdownId = shutdown.getId();
 	}
 
 	/**
@@ -117,14 +97,15 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag) {
+		SimulationContext c = SimulationContext.current();
 		try {
 			initCommonVariable(cal, traceFlag, numUser);
 
 			// create a GIS object
-			cis = new CloudInformationService("CloudInformationService");
+			c.cis = new CloudInformationService("CloudInformationService");
 
 			// set all the above entity IDs
-			cisId = cis.getId();
+			c.cisId = c.cis.getId();
 		} catch (IllegalArgumentException s) {
 			Log.printLine("CloudSim.init(): The simulation has been terminated due to an unexpected error");
 			Log.printLine(s.getMessage());
@@ -158,12 +139,13 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag, double periodBetweenEvents) {
+		SimulationContext c = SimulationContext.current();
 	    if (periodBetweenEvents <= 0) {
 		throw new IllegalArgumentException("The minimal time between events should be positive, but is:" + periodBetweenEvents);
 	    }
 	    
 	    init(numUser, cal, traceFlag);
-	    minTimeBetweenEvents = periodBetweenEvents;
+	    c.minTimeBetweenEvents = periodBetweenEvents;
 	}
 	
 	
@@ -183,16 +165,17 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static double startSimulation() throws NullPointerException {
+		SimulationContext c = SimulationContext.current();
 		Log.printLine("Starting CloudSim version " + CLOUDSIM_VERSION_STRING);
 		try {
 			double clock = run();
 
-			// reset all static variables
-			cisId = -1;
-			shutdownId = -1;
-			cis = null;
-			calendar = null;
-			traceFlag = false;
+			// reset the variables of the context
+			c.cisId = -1;
+			c.shutdownId = -1;
+			c.cis = null;
+			c.calendar = null;
+			c.traceFlag = false;
 
 			return clock;
 		} catch (IllegalArgumentException e) {
@@ -229,7 +212,8 @@ public class CloudSim {
 	 * @return true, if successful; false otherwise.
 	 */
 	public static boolean terminateSimulation() {
-		running = false;
+		SimulationContext c = SimulationContext.current();
+		c.running = false;
 		printMessage("Simulation: Reached termination time.");
 		return true;
 	}
@@ -241,10 +225,11 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean terminateSimulation(double time) {
-		if (time <= clock) {
+		SimulationContext c = SimulationContext.current();
+		if (time <= c.clock) {
 			return false;
 		} else {
-			terminateAt = time;
+			c.terminateAt = time;
 		}
 		return true;
 	}
@@ -255,7 +240,8 @@ public class CloudSim {
 	 * @return the minimum time between events.
 	 */
 	public static double getMinTimeBetweenEvents() {
-	    return minTimeBetweenEvents;
+		SimulationContext c = SimulationContext.current();
+	    return c.minTimeBetweenEvents;
 	}
 
 	/**
@@ -268,10 +254,11 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static Calendar getSimulationCalendar() {
+		SimulationContext c = SimulationContext.current();
 		// make a new copy
-		Calendar clone = calendar;
-		if (calendar != null) {
-			clone = (Calendar) calendar.clone();
+		Calendar clone = c.calendar;
+		if (c.calendar != null) {
+			clone = (Calendar) c.calendar.clone();
 		}
 
 		return clone;
@@ -285,7 +272,8 @@ public class CloudSim {
 	 * @post $result >= -1
 	 */
 	public static int getCloudInfoServiceEntityId() {
-		return cisId;
+		SimulationContext c = SimulationContext.current();
+		return c.cisId;
 	}
 
 	/**
@@ -298,59 +286,79 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static List<Integer> getCloudResourceList() {
-		if (cis == null) {
+		SimulationContext c = SimulationContext.current();
+		if (c.cis == null) {
 			return null;
 		}
 
-		return cis.getList();
+		return c.cis.getList();
 	}
 
 	// ======== SIMULATION METHODS ===============//
 
-	/** The entities. */
-	private static List<SimEntity> entities;
-
-	/** The future event queue. */
-	protected static FutureQueue future;
-
-	/** The deferred event queue. */
-	protected static DeferredQueue deferred;
-
-	/** The simulation clock. */
-	private static double clock;
-
-	/** Flag for checking if the simulation is running. */
-	private static boolean running;
-
-	/** The entities by name. */
-	private static Map<String, SimEntity> entitiesByName;
-
-	// The predicates used in entity wait methods
-	/** The wait predicates. */
-	private static Map<Integer, Predicate> waitPredicates;
-
-	/** The paused. */
-	private static boolean paused = false;
-
-	/** The pause at. */
-	private static long pauseAt = -1;
-
-	/** The abrupt terminate. */
-	private static boolean abruptTerminate = false;
+	/** The class of the future event queue created by {@link #initialize()}. */
+	private static Class<? extends EventQueue> futureQueueClass = HeapEventQueue.class;
 
 	/**
 	 * Initialise the simulation for stand alone simulations. This function should be called at the
 	 * start of the simulation.
 	 */
 	protected static void initialize() {
+		SimulationContext c = SimulationContext.current();
 		Log.printLine("Initialising...");
-		entities = new ArrayList<SimEntity>();
-		entitiesByName = new LinkedHashMap<String, SimEntity>();
-		future = new FutureQueue();
-		deferred = new DeferredQueue();
-		waitPredicates = new HashMap<Integer, Predicate>();
-		clock = 0;
-		running = false;
+		c.entities = new ArrayList<SimEntity>();
+		c.entitiesByName = new LinkedHashMap<String, SimEntity>();
+		try {
+			c.future = futureQueueClass.getDeclaredConstructor().newInstance();
+		} catch (InstantiationException e) {
+			throw futureQueueCreationFailed(e);
+		} catch (IllegalAccessException e) {
+			throw futureQueueCreationFailed(e);
+		} catch (NoSuchMethodException e) {
+			throw futureQueueCreationFailed(e);
+		} catch (InvocationTargetException e) {
+			throw futureQueueCreationFailed(e);
+		}
+		c.deferred = new DeferredQueue();
+		c.waitPredicates = new HashMap<Integer, Predicate>();
+		c.clock = 0;
+		c.running = false;
+	}
+
+	/**
+	 * Wraps the exception thrown when the future event queue could not be created.
+	 * 
+	 * @param cause the exception
+	 * @return the exception to throw
+	 */
+	private static IllegalStateException futureQueueCreationFailed(Exception cause) {
+		return new IllegalStateException("Unable to create the future queue "
+				+ futureQueueClass.getName(), cause);
+	}
+
+	/**
+	 * Sets the class of the future event queue. It takes effect at the next call of
+	 * {@link #init(int, Calendar, boolean)}. The default is {@link HeapEventQueue}; use
+	 * {@link FutureQueue} for the original sorted-set queue or {@link CalendarEventQueue} for
+	 * simulations with many events.
+	 * 
+	 * @param queueClass the event queue class, with a public no-argument constructor
+	 * @pre queueClass != null
+	 */
+	public static void setFutureQueueClass(Class<? extends EventQueue> queueClass) {
+		if (queueClass == null) {
+			throw new IllegalArgumentException("The future queue class must not be null");
+		}
+		futureQueueClass = queueClass;
+	}
+
+	/**
+	 * Gets the class of the future event queue.
+	 * 
+	 * @return the event queue class
+	 */
+	public static Class<? extends EventQueue> getFutureQueueClass() {
+		return futureQueueClass;
 	}
 
 	// The two standard predicates
@@ -369,7 +377,8 @@ public class CloudSim {
 	 * @return the simulation time
 	 */
 	public static double clock() {
-		return clock;
+		SimulationContext c = SimulationContext.current();
+		return c.clock;
 	}
 
 	/**
@@ -378,7 +387,8 @@ public class CloudSim {
 	 * @return The number of entities
 	 */
 	public static int getNumEntities() {
-		return entities.size();
+		SimulationContext c = SimulationContext.current();
+		return c.entities.size();
 	}
 
 	/**
@@ -388,7 +398,8 @@ public class CloudSim {
 	 * @return The entity, or if it could not be found
 	 */
 	public static SimEntity getEntity(int id) {
-		return entities.get(id);
+		SimulationContext c = SimulationContext.current();
+		return c.entities.get(id);
 	}
 
 	/**
@@ -398,7 +409,8 @@ public class CloudSim {
 	 * @return The entity
 	 */
 	public static SimEntity getEntity(String name) {
-		return entitiesByName.get(name);
+		SimulationContext c = SimulationContext.current();
+		return c.entitiesByName.get(name);
 	}
 
 	/**
@@ -408,7 +420,8 @@ public class CloudSim {
 	 * @return The entity's unique id number
 	 */
 	public static int getEntityId(String name) {
-		SimEntity obj = entitiesByName.get(name);
+		SimulationContext c = SimulationContext.current();
+		SimEntity obj = c.entitiesByName.get(name);
 		if (obj == null) {
 			return NOT_FOUND;
 		} else {
@@ -455,10 +468,11 @@ public class CloudSim {
 	 * @return the entity iterator
 	 */
 	public static List<SimEntity> getEntityList() {
+		SimulationContext c = SimulationContext.current();
 		// create a new list to prevent the user from changing
 		// the list of entities used by Simulation
 		List<SimEntity> list = new LinkedList<SimEntity>();
-		list.addAll(entities);
+		list.addAll(c.entities);
 		return list;
 	}
 
@@ -471,17 +485,18 @@ public class CloudSim {
 	 * @param e The new entity
 	 */
 	public static void addEntity(SimEntity e) {
+		SimulationContext c = SimulationContext.current();
 		SimEvent evt;
-		if (running) {
+		if (c.running) {
 			// Post an event to make this entity
-			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, 0, e);
-			future.addEvent(evt);
+			evt = new SimEvent(SimEvent.CREATE, c.clock, 1, 0, 0, e);
+			c.future.addEvent(evt);
 		}
 		if (e.getId() == -1) { // Only add once!
-			int id = entities.size();
+			int id = c.entities.size();
 			e.setId(id);
-			entities.add(e);
-			entitiesByName.put(e.getName(), e);
+			c.entities.add(e);
+			c.entitiesByName.put(e.getName(), e);
 		}
 	}
 
@@ -507,47 +522,36 @@ public class CloudSim {
 	 * @return true, if successful otherwise
 	 */
 	public static boolean runClockTick() {
+		SimulationContext c = SimulationContext.current();
 		SimEntity ent;
 		boolean queue_empty;
 		
-		int entities_size = entities.size();
+		int entities_size = c.entities.size();
 
 		for (int i = 0; i < entities_size; i++) {
-			ent = entities.get(i);
+			ent = c.entities.get(i);
 			if (ent.getState() == SimEntity.RUNNABLE) {
 				ent.run();
 			}
 		}
 				
 		// If there are more future events then deal with them
-		if (future.size() > 0) {
-			List<SimEvent> toRemove = new ArrayList<SimEvent>();
-			Iterator<SimEvent> fit = future.iterator();
+		if (c.future.size() > 0) {
 			queue_empty = false;
-			SimEvent first = fit.next();
-			processEvent(first);
-			future.remove(first);
-
-			fit = future.iterator();
-
-			// Check if next events are at same time...
-			boolean trymore = fit.hasNext();
-			while (trymore) {
-				SimEvent next = fit.next();
-				if (next.eventTime() == first.eventTime()) {
-					processEvent(next);
-					toRemove.add(next);
-					trymore = fit.hasNext();
-				} else {
-					trymore = false;
-				}
-			}
+			SimEvent first = c.future.poll();
+			c.currentEvents.add(first);
 
-			future.removeAll(toRemove);
+			// Take the next events at the same time as well
+			c.future.pollAllAt(first.eventTime(), c.currentEvents);
+
+			for (int i = 0; i < c.currentEvents.size(); i++) {
+				processEvent(c, c.currentEvents.get(i));
+			}
+			c.currentEvents.clear();
 
 		} else {
 			queue_empty = true;
-			running = false;
+			c.running = false;
 			printMessage("Simulation: No more future events");
 		}
 
@@ -568,9 +572,10 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void hold(int src, long delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
-		future.addEvent(e);
-		entities.get(src).setState(SimEntity.HOLDING);
+		SimulationContext c = SimulationContext.current();
+		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, c.clock + delay, src);
+		c.future.addEvent(e);
+		c.entities.get(src).setState(SimEntity.HOLDING);
 	}
 
 	/**
@@ -580,9 +585,10 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void pause(int src, double delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
-		future.addEvent(e);
-		entities.get(src).setState(SimEntity.HOLDING);
+		SimulationContext c = SimulationContext.current();
+		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, c.clock + delay, src);
+		c.future.addEvent(e);
+		c.entities.get(src).setState(SimEntity.HOLDING);
 	}
 
 	/**
@@ -595,12 +601,13 @@ public class CloudSim {
 	 * @param data the data
 	 */
 	public static void send(int src, int dest, double delay, int tag, Object data) {
+		SimulationContext c = SimulationContext.current();
 		if (delay < 0) {
 			throw new IllegalArgumentException("Send delay can't be negative.");
 		}
 
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
-		future.addEvent(e);
+		SimEvent e = new SimEvent(SimEvent.SEND, c.clock + delay, src, dest, tag, data);
+		c.future.addEvent(e);
 	}
 
 	/**
@@ -613,12 +620,13 @@ public class CloudSim {
 	 * @param data the data
 	 */
 	public static void sendFirst(int src, int dest, double delay, int tag, Object data) {
+		SimulationContext c = SimulationContext.current();
 		if (delay < 0) {
 			throw new IllegalArgumentException("Send delay can't be negative.");
 		}
 
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
-		future.addEventFirst(e);
+		SimEvent e = new SimEvent(SimEvent.SEND, c.clock + delay, src, dest, tag, data);
+		c.future.addEventFirst(e);
 	}
 
 	/**
@@ -630,10 +638,11 @@ public class CloudSim {
 	 * @param p the p
 	 */
 	public static void wait(int src, Predicate p) {
-		entities.get(src).setState(SimEntity.WAITING);
+		SimulationContext c = SimulationContext.current();
+		c.entities.get(src).setState(SimEntity.WAITING);
 		if (p != SIM_ANY) {
 			// If a predicate has been used store it in order to check it
-			waitPredicates.put(src, p);
+			c.waitPredicates.put(src, p);
 		}
 	}
 
@@ -645,16 +654,8 @@ public class CloudSim {
 	 * @return the int
 	 */
 	public static int waiting(int d, Predicate p) {
-		int count = 0;
-		SimEvent event;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			event = iterator.next();
-			if ((event.getDestination() == d) && (p.match(event))) {
-				count++;
-			}
-		}
-		return count;
+		SimulationContext c = SimulationContext.current();
+		return c.deferred.count(d, p);
 	}
 
 	/**
@@ -665,16 +666,8 @@ public class CloudSim {
 	 * @return the sim event
 	 */
 	public static SimEvent select(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestination() == src && p.match(ev)) {
-				iterator.remove();
-				break;
-			}
-		}
-		return ev;
+		SimulationContext c = SimulationContext.current();
+		return c.deferred.removeFirst(src, p);
 	}
 
 	/**
@@ -685,15 +678,31 @@ public class CloudSim {
 	 * @return the sim event
 	 */
 	public static SimEvent findFirstDeferred(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestination() == src && p.match(ev)) {
-				break;
-			}
-		}
-		return ev;
+		SimulationContext c = SimulationContext.current();
+		return c.deferred.findFirst(src, p);
+	}
+
+	/**
+	 * Gets the number of events waiting for an entity in the deferred event queue.
+	 * 
+	 * @param d the id of the entity
+	 * @return the number of deferred events for the entity
+	 */
+	public static int getDeferredQueueDepth(int d) {
+		SimulationContext c = SimulationContext.current();
+		return c.deferred.size(d);
+	}
+
+	/**
+	 * Gets the number of events with a tag waiting for an entity in the deferred event queue.
+	 * 
+	 * @param d the id of the entity
+	 * @param tag the event tag
+	 * @return the number of deferred events for the entity with the tag
+	 */
+	public static int getDeferredQueueDepth(int d, int tag) {
+		SimulationContext c = SimulationContext.current();
+		return c.deferred.size(d, tag);
 	}
 
 	/**
@@ -704,15 +713,18 @@ public class CloudSim {
 	 * @return the sim event
 	 */
 	public static SimEvent cancel(int src, Predicate p) {
+		SimulationContext c = SimulationContext.current();
+		// the queue may iterate in any order: cancel the earliest matching event
 		SimEvent ev = null;
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSource() == src && p.match(ev)) {
-				iter.remove();
-				break;
+		for (SimEvent candidate : c.future) {
+			if (candidate.getSource() == src && p.match(candidate)
+					&& (ev == null || candidate.compareTo(ev) < 0)) {
+				ev = candidate;
 			}
 		}
+		if (ev != null) {
+			c.future.remove(ev);
+		}
 
 		return ev;
 	}
@@ -726,16 +738,14 @@ public class CloudSim {
 	 * @return true, if successful
 	 */
 	public static boolean cancelAll(int src, Predicate p) {
-		SimEvent ev = null;
-		int previousSize = future.size();
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
+		SimulationContext c = SimulationContext.current();
+		List<SimEvent> toRemove = new ArrayList<SimEvent>();
+		for (SimEvent ev : c.future) {
 			if (ev.getSource() == src && p.match(ev)) {
-				iter.remove();
+				toRemove.add(ev);
 			}
 		}
-		return previousSize < future.size();
+		return !toRemove.isEmpty() && c.future.removeAll(toRemove);
 	}
 
 	//
@@ -745,16 +755,17 @@ public class CloudSim {
 	/**
 	 * Processes an event.
 	 * 
+	 * @param c the context of the simulation
 	 * @param e the e
 	 */
-	private static void processEvent(SimEvent e) {
+	private static void processEvent(SimulationContext c, SimEvent e) {
 		int dest, src;
 		SimEntity dest_ent;
 		// Update the system's clock
-		if (e.eventTime() < clock) {
+		if (e.eventTime() < c.clock) {
 			throw new IllegalArgumentException("Past event detected.");
 		}
-		clock = e.eventTime();
+		c.clock = e.eventTime();
 
 		// Ok now process it
 		switch (e.getType()) {
@@ -773,19 +784,19 @@ public class CloudSim {
 					throw new IllegalArgumentException("Attempt to send to a null entity detected.");
 				} else {
 					int tag = e.getTag();
-					dest_ent = entities.get(dest);
+					dest_ent = c.entities.get(dest);
 					if (dest_ent.getState() == SimEntity.WAITING) {
 						Integer destObj = Integer.valueOf(dest);
-						Predicate p = waitPredicates.get(destObj);
+						Predicate p = c.waitPredicates.get(destObj);
 						if ((p == null) || (tag == 9999) || (p.match(e))) {
 							dest_ent.setEventBuffer((SimEvent) e.clone());
 							dest_ent.setState(SimEntity.RUNNABLE);
-							waitPredicates.remove(destObj);
+							c.waitPredicates.remove(destObj);
 						} else {
-							deferred.addEvent(e);
+							c.deferred.addEvent(e);
 						}
 					} else {
-						deferred.addEvent(e);
+						c.deferred.addEvent(e);
 					}
 				}
 				break;
@@ -795,7 +806,7 @@ public class CloudSim {
 				if (src < 0) {
 					throw new IllegalArgumentException("Null entity holding.");
 				} else {
-					entities.get(src).setState(SimEntity.RUNNABLE);
+					c.entities.get(src).setState(SimEntity.RUNNABLE);
 				}
 				break;
 
@@ -809,9 +820,10 @@ public class CloudSim {
 	 * simulations.
 	 */
 	public static void runStart() {
-		running = true;
+		SimulationContext c = SimulationContext.current();
+		c.running = true;
 		// Start all the entities
-		for (SimEntity ent : entities) {
+		for (SimEntity ent : c.entities) {
 			ent.startEntity();
 		}
 
@@ -825,7 +837,8 @@ public class CloudSim {
 	 * @return if the simulation is still running, otherwise
 	 */
 	public static boolean running() {
-		return running;
+		SimulationContext c = SimulationContext.current();
+		return c.running;
 	}
 
 	/**
@@ -834,8 +847,9 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation() {
-		paused = true;
-		return paused;
+		SimulationContext c = SimulationContext.current();
+		c.paused = true;
+		return c.paused;
 	}
 
 	/**
@@ -845,10 +859,11 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation(long time) {
-		if (time <= clock) {
+		SimulationContext c = SimulationContext.current();
+		if (time <= c.clock) {
 			return false;
 		} else {
-			pauseAt = time;
+			c.pauseAt = time;
 		}
 		return true;
 	}
@@ -859,13 +874,14 @@ public class CloudSim {
 	 * @return if the simulation has been restarted or or otherwise.
 	 */
 	public static boolean resumeSimulation() {
-		paused = false;
+		SimulationContext c = SimulationContext.current();
+		c.paused = false;
 
-		if (pauseAt <= clock) {
-			pauseAt = -1;
+		if (c.pauseAt <= c.clock) {
+			c.pauseAt = -1;
 		}
 
-		return !paused;
+		return !c.paused;
 	}
 
 	/**
@@ -875,29 +891,30 @@ public class CloudSim {
 	 * @return the double last clock value
 	 */
 	public static double run() {
-		if (!running) {
+		SimulationContext c = SimulationContext.current();
+		if (!c.running) {
 			runStart();
 		}
 		while (true) {
-			if (runClockTick() || abruptTerminate) {
+			if (runClockTick() || c.abruptTerminate) {
 				break;
 			}
 
 			// this block allows termination of simulation at a specific time
-			if (terminateAt > 0.0 && clock >= terminateAt) {
+			if (c.terminateAt > 0.0 && c.clock >= c.terminateAt) {
 				terminateSimulation();
-				clock = terminateAt;
+				c.clock = c.terminateAt;
 				break;
 			}
 
-			if (pauseAt != -1
-					&& ((future.size() > 0 && clock <= pauseAt && pauseAt <= future.iterator().next()
-							.eventTime()) || future.size() == 0 && pauseAt <= clock)) {
+			if (c.pauseAt != -1
+					&& ((c.future.size() > 0 && c.clock <= c.pauseAt && c.pauseAt <= c.future.peek()
+							.eventTime()) || c.future.size() == 0 && c.pauseAt <= c.clock)) {
 				pauseSimulation();
-				clock = pauseAt;
+				c.clock = c.pauseAt;
 			}
 
-			while (paused) {
+			while (c.paused) {
 				try {
 					Thread.sleep(100);
 				} catch (InterruptedException e) {
@@ -919,39 +936,40 @@ public class CloudSim {
 	 * in user simulations.
 	 */
 	public static void finishSimulation() {
+		SimulationContext c = SimulationContext.current();
 		// Allow all entities to exit their body method
-		if (!abruptTerminate) {
-			for (SimEntity ent : entities) {
+		if (!c.abruptTerminate) {
+			for (SimEntity ent : c.entities) {
 				if (ent.getState() != SimEntity.FINISHED) {
 					ent.run();
 				}
 			}
 		}
 
-		for (SimEntity ent : entities) {
+		for (SimEntity ent : c.entities) {
 			ent.shutdownEntity();
 		}
 
-		// reset all static variables
-		// Private data members
-		entities = null;
-		entitiesByName = null;
-		future = null;
-		deferred = null;
-		clock = 0L;
-		running = false;
+		// reset the variables of the context
+		c.entities = null;
+		c.entitiesByName = null;
+		c.future = null;
+		c.deferred = null;
+		c.clock = 0L;
+		c.running = false;
 
-		waitPredicates = null;
-		paused = false;
-		pauseAt = -1;
-		abruptTerminate = false;
+		c.waitPredicates = null;
+		c.paused = false;
+		c.pauseAt = -1;
+		c.abruptTerminate = false;
 	}
 
 	/**
 	 * Abruptally terminate.
 	 */
 	public static void abruptallyTerminate() {
-		abruptTerminate = true;
+		SimulationContext c = SimulationContext.current();
+		c.abruptTerminate = true;
 	}
 
 	/**
@@ -969,7 +987,8 @@ public class CloudSim {
 	 * @return true, if is paused
 	 */
 	public static boolean isPaused() {
-		return paused;
+		SimulationContext c = SimulationContext.current();
+		return c.paused;
 	}
 
 }
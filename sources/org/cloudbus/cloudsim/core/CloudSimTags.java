@@ -265,6 +265,13 @@ public class CloudSimTags {
 
 	public static final int NextCycle = BASE + 48;
 
+	/**
+	 * Denotes the submission of a list of Cloudlets in one event. The Cloudlets must already be
+	 * bound to VMs of the receiving CloudResource entity, which updates its processing and
+	 * schedules its next event once for the whole list.
+	 */
+	public static final int CLOUDLET_SUBMIT_BATCH = BASE + 49;
+
 	/** Private Constructor */
 	private CloudSimTags() {
 		throw new UnsupportedOperationException("CloudSim Tags cannot be instantiated");
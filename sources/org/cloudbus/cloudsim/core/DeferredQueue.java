@@ -8,14 +8,23 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateNone;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
- * This class implements the deferred event queue used by {@link Simulation}. The event queue uses a
- * linked list to store the events.
+ * This class implements the deferred event queue used by {@link Simulation}. The events are kept
+ * in temporal order in a linked list, and each event is also linked into the list of its
+ * destination entity and into the list of its tag for that entity. Looking up the events of an
+ * entity therefore only visits that entity's events, and a {@link PredicateAny} or
+ * {@link PredicateType} lookup only looks at the heads of the matching lists.
  * 
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
@@ -24,11 +33,23 @@ import java.util.ListIterator;
  */
 public class DeferredQueue {
 
-	/** The list. */
-	private final List<SimEvent> list = new LinkedList<SimEvent>();
+	/** The link level of the list of all events. */
+	private static final int ALL = 0;
+
+	/** The link level of the lists of the events of an entity. */
+	private static final int ENTITY = 1;
+
+	/** The link level of the lists of the events of an entity with a tag. */
+	private static final int TAG = 2;
+
+	/** The list of all events. */
+	private final Chain all = new Chain(ALL);
+
+	/** The events by destination entity id. */
+	private EntityEvents[] entities = new EntityEvents[16];
 
-	/** The max time. */
-	private double maxTime = -1;
+	/** The serial of the next event, used to order events at the same time across lists. */
+	private long serial = 0;
 
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order
@@ -39,34 +60,49 @@ public class DeferredQueue {
 	public void addEvent(SimEvent newEvent) {
 		// The event has to be inserted as the last of all events
 		// with the same event_time(). Yes, this matters.
-		double eventTime = newEvent.eventTime();
-		if (eventTime >= maxTime) {
-			list.add(newEvent);
-			maxTime = eventTime;
-			return;
-		}
-
-		ListIterator<SimEvent> iterator = list.listIterator();
-		SimEvent event;
-		while (iterator.hasNext()) {
-			event = iterator.next();
-			if (event.eventTime() > eventTime) {
-				iterator.previous();
-				iterator.add(newEvent);
-				return;
-			}
-		}
-
-		list.add(newEvent);
+		Node node = new Node(newEvent, serial++);
+		EntityEvents events = getOrCreateEntityEvents(newEvent.getDestination());
+		all.insert(node);
+		events.all.insert(node);
+		events.getOrCreateTag(newEvent.getTag()).insert(node);
 	}
 
 	/**
-	 * Returns an iterator to the events in the queue.
+	 * Returns an iterator to the events in the queue, in temporal order.
 	 * 
 	 * @return the iterator
 	 */
 	public Iterator<SimEvent> iterator() {
-		return list.iterator();
+		return new Iterator<SimEvent>() {
+
+			private Node next = all.first;
+
+			private Node last;
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				last = next;
+				next = next.next[ALL];
+				return last.event;
+			}
+
+			@Override
+			public void remove() {
+				if (last == null) {
+					throw new IllegalStateException();
+				}
+				unlink(last);
+				last = null;
+			}
+		};
 	}
 
 	/**
@@ -75,14 +111,354 @@ public class DeferredQueue {
 	 * @return the number of events in the queue.
 	 */
 	public int size() {
-		return list.size();
+		return all.size;
+	}
+
+	/**
+	 * Returns the number of events waiting for an entity.
+	 * 
+	 * @param destination the id of the entity
+	 * @return the number of events in the queue for the entity
+	 */
+	public int size(int destination) {
+		EntityEvents events = getEntityEvents(destination);
+		return events == null ? 0 : events.all.size;
+	}
+
+	/**
+	 * Returns the number of events with a tag waiting for an entity.
+	 * 
+	 * @param destination the id of the entity
+	 * @param tag the tag
+	 * @return the number of events in the queue for the entity with the tag
+	 */
+	public int size(int destination, int tag) {
+		EntityEvents events = getEntityEvents(destination);
+		if (events == null) {
+			return 0;
+		}
+		Chain chain = events.tags.get(tag);
+		return chain == null ? 0 : chain.size;
+	}
+
+	/**
+	 * Counts the events for an entity matching a predicate.
+	 * 
+	 * @param destination the id of the entity
+	 * @param p the predicate
+	 * @return the number of matching events
+	 */
+	public int count(int destination, Predicate p) {
+		EntityEvents events = getEntityEvents(destination);
+		if (events == null || p.getClass() == PredicateNone.class) {
+			return 0;
+		}
+		if (p.getClass() == PredicateAny.class) {
+			return events.all.size;
+		}
+		if (p.getClass() == PredicateType.class) {
+			PredicateType type = (PredicateType) p;
+			int count = 0;
+			for (int i = 0; i < type.getNumTags(); i++) {
+				if (!isRepeatedTag(type, i)) {
+					count += size(destination, type.getTag(i));
+				}
+			}
+			return count;
+		}
+
+		int count = 0;
+		for (Node node = events.all.first; node != null; node = node.next[ENTITY]) {
+			if (p.match(node.event)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the first event for an entity matching a predicate.
+	 * 
+	 * @param destination the id of the entity
+	 * @param p the predicate
+	 * @return the event, or null if none matches
+	 */
+	public SimEvent findFirst(int destination, Predicate p) {
+		Node node = findFirstNode(destination, p);
+		return node == null ? null : node.event;
+	}
+
+	/**
+	 * Removes the first event for an entity matching a predicate.
+	 * 
+	 * @param destination the id of the entity
+	 * @param p the predicate
+	 * @return the removed event, or null if none matches
+	 */
+	public SimEvent removeFirst(int destination, Predicate p) {
+		Node node = findFirstNode(destination, p);
+		if (node == null) {
+			return null;
+		}
+		unlink(node);
+		return node.event;
 	}
 
 	/**
 	 * Clears the queue.
 	 */
 	public void clear() {
-		list.clear();
+		all.first = null;
+		all.last = null;
+		all.size = 0;
+		Arrays.fill(entities, null);
+	}
+
+	/**
+	 * Finds the node of the first event for an entity matching a predicate.
+	 * 
+	 * @param destination the id of the entity
+	 * @param p the predicate
+	 * @return the node, or null if none matches
+	 */
+	private Node findFirstNode(int destination, Predicate p) {
+		EntityEvents events = getEntityEvents(destination);
+		if (events == null || p.getClass() == PredicateNone.class) {
+			return null;
+		}
+		if (p.getClass() == PredicateAny.class) {
+			return events.all.first;
+		}
+		if (p.getClass() == PredicateType.class) {
+			PredicateType type = (PredicateType) p;
+			Node first = null;
+			for (int i = 0; i < type.getNumTags(); i++) {
+				Chain chain = events.tags.get(type.getTag(i));
+				if (chain != null && chain.first != null
+						&& (first == null || chain.first.isBefore(first))) {
+					first = chain.first;
+				}
+			}
+			return first;
+		}
+
+		for (Node node = events.all.first; node != null; node = node.next[ENTITY]) {
+			if (p.match(node.event)) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes a node from all its lists.
+	 * 
+	 * @param node the node
+	 */
+	private void unlink(Node node) {
+		EntityEvents events = getEntityEvents(node.event.getDestination());
+		all.remove(node);
+		events.all.remove(node);
+		events.tags.get(node.event.getTag()).remove(node);
+	}
+
+	/**
+	 * Checks whether a tag of a predicate also appears earlier in the predicate.
+	 * 
+	 * @param type the predicate
+	 * @param index the index of the tag
+	 * @return true, if the tag is repeated
+	 */
+	private static boolean isRepeatedTag(PredicateType type, int index) {
+		for (int i = 0; i < index; i++) {
+			if (type.getTag(i) == type.getTag(index)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the events of an entity.
+	 * 
+	 * @param destination the id of the entity
+	 * @return the events, or null if the entity never had any
+	 */
+	private EntityEvents getEntityEvents(int destination) {
+		if (destination < 0 || destination >= entities.length) {
+			return null;
+		}
+		return entities[destination];
+	}
+
+	/**
+	 * Gets the events of an entity, creating them if needed.
+	 * 
+	 * @param destination the id of the entity
+	 * @return the events
+	 */
+	private EntityEvents getOrCreateEntityEvents(int destination) {
+		if (destination < 0) {
+			throw new IllegalArgumentException("Attempt to defer an event to a null entity.");
+		}
+		if (destination >= entities.length) {
+			entities = Arrays.copyOf(entities, Math.max(destination + 1, entities.length * 2));
+		}
+		if (entities[destination] == null) {
+			entities[destination] = new EntityEvents();
+		}
+		return entities[destination];
+	}
+
+	/**
+	 * The deferred events of an entity.
+	 */
+	private static class EntityEvents {
+
+		/** All events of the entity. */
+		private final Chain all = new Chain(ENTITY);
+
+		/** The events of the entity by tag. */
+		private final Map<Integer, Chain> tags = new HashMap<Integer, Chain>();
+
+		/**
+		 * Gets the list of the events with a tag, creating it if needed.
+		 * 
+		 * @param tag the tag
+		 * @return the list
+		 */
+		private Chain getOrCreateTag(int tag) {
+			Chain chain = tags.get(tag);
+			if (chain == null) {
+				chain = new Chain(TAG);
+				tags.put(tag, chain);
+			}
+			return chain;
+		}
+
+	}
+
+	/**
+	 * A doubly linked list of nodes, in temporal order, through one link level of the nodes.
+	 */
+	private static class Chain {
+
+		/** The link level. */
+		private final int level;
+
+		/** The first node. */
+		private Node first;
+
+		/** The last node. */
+		private Node last;
+
+		/** The number of nodes. */
+		private int size;
+
+		/**
+		 * Creates a new list.
+		 * 
+		 * @param level the link level
+		 */
+		private Chain(int level) {
+			this.level = level;
+		}
+
+		/**
+		 * Inserts a node after all nodes with the same or an earlier time. Events are almost
+		 * always deferred in temporal order, so the search starts at the end.
+		 * 
+		 * @param node the node
+		 */
+		private void insert(Node node) {
+			double time = node.event.eventTime();
+			Node previous = last;
+			while (previous != null && previous.event.eventTime() > time) {
+				previous = previous.prev[level];
+			}
+
+			Node next = previous == null ? first : previous.next[level];
+			node.prev[level] = previous;
+			node.next[level] = next;
+			if (previous == null) {
+				first = node;
+			} else {
+				previous.next[level] = node;
+			}
+			if (next == null) {
+				last = node;
+			} else {
+				next.prev[level] = node;
+			}
+			size++;
+		}
+
+		/**
+		 * Removes a node.
+		 * 
+		 * @param node the node
+		 */
+		private void remove(Node node) {
+			Node previous = node.prev[level];
+			Node next = node.next[level];
+			if (previous == null) {
+				first = next;
+			} else {
+				previous.next[level] = next;
+			}
+			if (next == null) {
+				last = previous;
+			} else {
+				next.prev[level] = previous;
+			}
+			node.prev[level] = null;
+			node.next[level] = null;
+			size--;
+		}
+
+	}
+
+	/**
+	 * A deferred event, linked into the list of all events, the list of its entity and the list of
+	 * its tag.
+	 */
+	private static class Node {
+
+		/** The event. */
+		private final SimEvent event;
+
+		/** The order in which the event was added. */
+		private final long serial;
+
+		/** The previous nodes, by link level. */
+		private final Node[] prev = new Node[3];
+
+		/** The next nodes, by link level. */
+		private final Node[] next = new Node[3];
+
+		/**
+		 * Creates a new node.
+		 * 
+		 * @param event the event
+		 * @param serial the order in which the event was added
+		 */
+		private Node(SimEvent event, long serial) {
+			this.event = event;
+			this.serial = serial;
+		}
+
+		/**
+		 * Checks whether this node comes before another one in the queue.
+		 * 
+		 * @param other the other node
+		 * @return true, if this node comes first
+		 */
+		private boolean isBefore(Node other) {
+			double time = event.eventTime();
+			double otherTime = other.event.eventTime();
+			return time < otherTime || time == otherTime && serial < other.serial;
+		}
+
 	}
 
-}
\ No newline at end of file
+}
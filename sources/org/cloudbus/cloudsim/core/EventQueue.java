@@ -0,0 +1,105 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The future event queue used by {@link CloudSim}. Events are ordered by time and, at equal times,
+ * by the serial the queue assigns when they are added: events added with
+ * {@link #addEvent(SimEvent)} keep their insertion order, and events added with
+ * {@link #addEventFirst(SimEvent)} come before all of them, in their own insertion order.
+ * <p>
+ * Implementations must have a public no-argument constructor, so that they can be selected with
+ * {@link CloudSim#setFutureQueueClass(Class)}.
+ * 
+ * @see FutureQueue
+ * @see HeapEventQueue
+ * @see CalendarEventQueue
+ */
+public interface EventQueue extends Iterable<SimEvent> {
+
+	/**
+	 * Adds a new event to the queue, after all events already queued for the same time.
+	 * 
+	 * @param newEvent the event to be put in the queue
+	 */
+	void addEvent(SimEvent newEvent);
+
+	/**
+	 * Adds a new event to the queue, before all events queued for the same time with
+	 * {@link #addEvent(SimEvent)}.
+	 * 
+	 * @param newEvent the event to be put in the queue
+	 */
+	void addEventFirst(SimEvent newEvent);
+
+	/**
+	 * Returns the first event, without removing it.
+	 * 
+	 * @return the first event, or null if the queue is empty
+	 */
+	SimEvent peek();
+
+	/**
+	 * Removes and returns the first event.
+	 * 
+	 * @return the first event, or null if the queue is empty
+	 */
+	SimEvent poll();
+
+	/**
+	 * Removes all the events scheduled for a given time and appends them, in order, to a list.
+	 * 
+	 * @param time the time
+	 * @param events the list receiving the events
+	 * @return the number of events removed
+	 */
+	int pollAllAt(double time, List<SimEvent> events);
+
+	/**
+	 * Returns an iterator over the queued events. The iteration order is only guaranteed to be the
+	 * queue order if the implementation says so, and the iterator may not support removal.
+	 * 
+	 * @return the iterator
+	 */
+	@Override
+	Iterator<SimEvent> iterator();
+
+	/**
+	 * Returns the size of this event queue.
+	 * 
+	 * @return the size
+	 */
+	int size();
+
+	/**
+	 * Removes an event from the queue.
+	 * 
+	 * @param event the event
+	 * @return true, if the event was queued
+	 */
+	boolean remove(SimEvent event);
+
+	/**
+	 * Removes events from the queue.
+	 * 
+	 * @param events the events
+	 * @return true, if at least one event was queued
+	 */
+	boolean removeAll(Collection<SimEvent> events);
+
+	/**
+	 * Clears the queue.
+	 */
+	void clear();
+
+}
@@ -0,0 +1,273 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An event queue backed by an implicit d-ary heap stored in a plain array. Adding and polling cost
+ * O(log n) with no allocation besides the occasional growth of the array. A 4-ary heap, the
+ * default, does fewer levels of sifting than a binary heap and keeps the children of a node in one
+ * cache line. Each event keeps its index in the heap, so an event is removed in O(log n) as well.
+ * The iterator returns the events in no particular order and does not support removal.
+ * 
+ * @see EventQueue
+ */
+public class HeapEventQueue implements EventQueue {
+
+	/** The default number of children per node. */
+	public static final int DEFAULT_ARITY = 4;
+
+	/** The number of children per node. */
+	private final int arity;
+
+	/** The heap. */
+	private SimEvent[] heap;
+
+	/** The number of events. */
+	private int size;
+
+	/** The serial. */
+	private long serial = 0;
+
+	/** The serial of the events added to the head of the queue. */
+	private long firstSerial = Long.MIN_VALUE;
+
+	/**
+	 * Creates a new 4-ary heap event queue.
+	 */
+	public HeapEventQueue() {
+		this(DEFAULT_ARITY);
+	}
+
+	/**
+	 * Creates a new heap event queue.
+	 * 
+	 * @param arity the number of children per node, 2 for a binary heap
+	 * @pre arity >= 2
+	 */
+	public HeapEventQueue(int arity) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("The arity of the heap must be at least 2");
+		}
+		this.arity = arity;
+		heap = new SimEvent[64];
+	}
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial++);
+		offer(newEvent);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(firstSerial++);
+		offer(newEvent);
+	}
+
+	/**
+	 * Inserts an event whose serial is already set.
+	 * 
+	 * @param event the event
+	 */
+	void offer(SimEvent event) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, size * 2);
+		}
+		siftUp(size++, event);
+	}
+
+	@Override
+	public SimEvent peek() {
+		return size == 0 ? null : heap[0];
+	}
+
+	@Override
+	public SimEvent poll() {
+		if (size == 0) {
+			return null;
+		}
+		SimEvent first = heap[0];
+		removeAt(0);
+		return first;
+	}
+
+	@Override
+	public int pollAllAt(double time, List<SimEvent> events) {
+		int count = 0;
+		while (size > 0 && heap[0].eventTime() == time) {
+			events.add(poll());
+			count++;
+		}
+		return count;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new Iterator<SimEvent>() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				return heap[index++];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("Use HeapEventQueue.remove(SimEvent)");
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean remove(SimEvent event) {
+		int index = event.getHeapIndex();
+		if (index < 0 || index >= size || heap[index] != event) {
+			return false;
+		}
+		removeAt(index);
+		return true;
+	}
+
+	/**
+	 * Removes events in one pass over the heap, then restores the heap order bottom-up, which costs
+	 * O(n) whatever the number of events removed.
+	 * 
+	 * @param events the events
+	 * @return true, if at least one event was queued
+	 */
+	@Override
+	public boolean removeAll(Collection<SimEvent> events) {
+		if (events.isEmpty()) {
+			return false;
+		}
+		Map<SimEvent, Boolean> toRemove = new IdentityHashMap<SimEvent, Boolean>();
+		for (SimEvent event : events) {
+			toRemove.put(event, Boolean.TRUE);
+		}
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (toRemove.containsKey(heap[i])) {
+				heap[i].setHeapIndex(-1);
+			} else {
+				heap[i].setHeapIndex(kept);
+				heap[kept++] = heap[i];
+			}
+		}
+		if (kept == size) {
+			return false;
+		}
+		Arrays.fill(heap, kept, size, null);
+		size = kept;
+		// the last parent is (size - 2) / arity, which would be 0 for an empty heap
+		for (int i = size > 1 ? (size - 2) / arity : -1; i >= 0; i--) {
+			siftDown(i, heap[i]);
+		}
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			heap[i].setHeapIndex(-1);
+		}
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Removes the event at an index of the heap.
+	 * 
+	 * @param index the index
+	 */
+	private void removeAt(int index) {
+		heap[index].setHeapIndex(-1);
+		SimEvent last = heap[--size];
+		heap[size] = null;
+		if (index == size) {
+			return;
+		}
+		siftDown(index, last);
+		if (heap[index] == last) {
+			siftUp(index, last);
+		}
+	}
+
+	/**
+	 * Moves an event up from a hole until its parent precedes it.
+	 * 
+	 * @param index the hole
+	 * @param event the event
+	 */
+	private void siftUp(int index, SimEvent event) {
+		while (index > 0) {
+			int parent = (index - 1) / arity;
+			if (heap[parent].compareTo(event) <= 0) {
+				break;
+			}
+			heap[index] = heap[parent];
+			heap[index].setHeapIndex(index);
+			index = parent;
+		}
+		heap[index] = event;
+		event.setHeapIndex(index);
+	}
+
+	/**
+	 * Moves an event down from a hole until it precedes all its children.
+	 * 
+	 * @param index the hole
+	 * @param event the event
+	 */
+	private void siftDown(int index, SimEvent event) {
+		while (true) {
+			int firstChild = index * arity + 1;
+			if (firstChild >= size) {
+				break;
+			}
+			int lastChild = Math.min(firstChild + arity, size);
+			int min = firstChild;
+			for (int child = firstChild + 1; child < lastChild; child++) {
+				if (heap[child].compareTo(heap[min]) < 0) {
+					min = child;
+				}
+			}
+			if (event.compareTo(heap[min]) <= 0) {
+				break;
+			}
+			heap[index] = heap[min];
+			heap[index].setHeapIndex(index);
+			index = min;
+		}
+		heap[index] = event;
+		event.setHeapIndex(index);
+	}
+
+}
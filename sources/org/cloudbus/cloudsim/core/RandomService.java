@@ -0,0 +1,235 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Random;
+
+import org.cloudbus.cloudsim.util.SplitMix64Random;
+
+/**
+ * The source of the random streams of a simulation. All the streams are derived from one seed per
+ * {@link SimulationContext}, so a simulation is reproduced by setting its seed, and replications
+ * run in parallel in their own contexts draw the same values as when they run one after the
+ * other. The streams are {@link SplitMix64Random} generators, which are cheap to create and do not
+ * synchronize, so each entity or thread should get its own stream rather than share one.
+ * <p>
+ * There are three kinds of streams:
+ * <ul>
+ * <li>{@link #getStream(String)} derives a stream from the seed and a name, such as the name of an
+ * entity, whatever the order in which the streams are created;</li>
+ * <li>{@link #newStream()} derives a stream from the seed and the number of streams created before
+ * by this method in the context, for objects without a name such as utilization models;</li>
+ * <li>{@link #getThreadStream()} gives each thread one stream per context, for code that is not
+ * owned by an entity.</li>
+ * </ul>
+ * Unless it is set with {@link #setSeed(long)}, the seed of a context is the default seed, which is
+ * read from the <tt>cloudsim.seed</tt> system property, or else chosen at random when the class is
+ * loaded. Contexts that have not set their seed therefore draw the same streams, that is, they use
+ * common random numbers.
+ *
+ * @see SplitMix64Random
+ * @since CloudSim Toolkit 3.0
+ */
+public final class RandomService {
+
+	/** The system property of the default seed. */
+	public static final String SEED_PROPERTY = "cloudsim.seed";
+
+	/** The key of the named streams, so that they differ from the numbered ones. */
+	private static final long NAMED_STREAMS = 0x6a09e667f3bcc909L;
+
+	/** The default seed. */
+	private static volatile long defaultSeed = initialSeed();
+
+	/** The stream of each thread. */
+	private static final ThreadLocal<ThreadStream> THREAD_STREAMS = new ThreadLocal<ThreadStream>();
+
+	/**
+	 * The stream of a thread, with the context and seed it was derived from.
+	 */
+	private static class ThreadStream {
+
+		/** The context. */
+		SimulationContext context;
+
+		/** The generation of the seed of the context. */
+		int seedGeneration;
+
+		/** The stream. */
+		Random random;
+
+	}
+
+	/**
+	 * Not instantiable.
+	 */
+	private RandomService() {
+	}
+
+	/**
+	 * Gets the default seed from the system property, or else at random.
+	 *
+	 * @return the default seed
+	 */
+	private static long initialSeed() {
+		String seed = System.getProperty(SEED_PROPERTY);
+		if (seed != null) {
+			return Long.parseLong(seed.trim());
+		}
+		return SplitMix64Random.mix64(System.nanoTime()) ^ System.currentTimeMillis();
+	}
+
+	/**
+	 * Gets the seed of the contexts that have not set theirs.
+	 *
+	 * @return the default seed
+	 */
+	public static long getDefaultSeed() {
+		return defaultSeed;
+	}
+
+	/**
+	 * Sets the seed of the contexts that have not set theirs.
+	 *
+	 * @param seed the default seed
+	 */
+	public static void setDefaultSeed(long seed) {
+		defaultSeed = seed;
+	}
+
+	/**
+	 * Gets the seed of the context of the calling thread.
+	 *
+	 * @return the seed
+	 */
+	public static long getSeed() {
+		return getSeed(SimulationContext.current());
+	}
+
+	/**
+	 * Sets the seed of the context of the calling thread, and starts numbering its streams again.
+	 * It is usually called before the entities of the simulation are created.
+	 *
+	 * @param seed the seed
+	 */
+	public static void setSeed(long seed) {
+		SimulationContext c = SimulationContext.current();
+		synchronized (c) {
+			c.seed = seed;
+			c.seeded = true;
+			c.streams = 0;
+			c.seedGeneration++;
+		}
+	}
+
+	/**
+	 * Gets the stream of a name, such as the name of an entity. The same name gives the same
+	 * values for a given seed.
+	 *
+	 * @param name the name
+	 * @return a new stream
+	 * @pre name != null
+	 * @post $result != null
+	 */
+	public static Random getStream(String name) {
+		return new SplitMix64Random(derive(getSeed() ^ NAMED_STREAMS, hash(name)));
+	}
+
+	/**
+	 * Gets a numbered stream of a name, such as the stream of each replication of an experiment.
+	 *
+	 * @param name the name
+	 * @param index the number of the stream
+	 * @return a new stream
+	 * @pre name != null
+	 * @post $result != null
+	 */
+	public static Random getStream(String name, long index) {
+		return new SplitMix64Random(derive(derive(getSeed() ^ NAMED_STREAMS, hash(name)), index));
+	}
+
+	/**
+	 * Gets the next stream of the context of the calling thread. The streams depend on the order
+	 * in which they are created, which is the order in which the entities and their models are
+	 * created in a simulation.
+	 *
+	 * @return a new stream
+	 * @post $result != null
+	 */
+	public static Random newStream() {
+		SimulationContext c = SimulationContext.current();
+		long seed;
+		long index;
+		synchronized (c) {
+			seed = getSeed(c);
+			index = ++c.streams;
+		}
+		return new SplitMix64Random(derive(seed, index));
+	}
+
+	/**
+	 * Gets the stream of the calling thread in its context. The stream is created with
+	 * {@link #newStream()} the first time the thread asks for it, and again when the thread has
+	 * moved to another context or the seed of the context has been set.
+	 *
+	 * @return the stream, which must not be passed to other threads
+	 * @post $result != null
+	 */
+	public static Random getThreadStream() {
+		SimulationContext c = SimulationContext.current();
+		ThreadStream stream = THREAD_STREAMS.get();
+		if (stream == null) {
+			stream = new ThreadStream();
+			THREAD_STREAMS.set(stream);
+		}
+		if (stream.random == null || stream.context != c || stream.seedGeneration != c.seedGeneration) {
+			stream.context = c;
+			stream.seedGeneration = c.seedGeneration;
+			stream.random = newStream();
+		}
+		return stream.random;
+	}
+
+	/**
+	 * Gets the seed of a context.
+	 *
+	 * @param c the context
+	 * @return the seed
+	 */
+	private static long getSeed(SimulationContext c) {
+		return c.seeded ? c.seed : defaultSeed;
+	}
+
+	/**
+	 * Derives the seed of a stream from a seed and a key.
+	 *
+	 * @param seed the seed
+	 * @param key the key
+	 * @return the seed of the stream
+	 */
+	private static long derive(long seed, long key) {
+		return SplitMix64Random.mix64(seed + SplitMix64Random.mix64(key));
+	}
+
+	/**
+	 * Hashes a name to 64 bits with FNV-1a, which unlike {@link String#hashCode()} leaves few
+	 * collisions among short names.
+	 *
+	 * @param name the name
+	 * @return the hash
+	 */
+	private static long hash(String name) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < name.length(); i++) {
+			h = (h ^ name.charAt(i)) * 0x100000001b3L;
+		}
+		return h;
+	}
+
+}
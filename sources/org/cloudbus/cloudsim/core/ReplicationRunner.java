@@ -0,0 +1,246 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.math3.distribution.TDistribution;
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+
+/**
+ * Runs independent replications of an experiment, such as the runs of a scheduler with different
+ * seeds or of a datacenter with different policies, in parallel on a pool of threads. Each
+ * replication runs in a new {@link SimulationContext}, so it calls {@link CloudSim#init(int,
+ * java.util.Calendar, boolean)}, creates its entities and starts its simulation as a simulation
+ * run on its own would.
+ * <p>
+ * The results of the replications are returned in the order of the replications, and can be
+ * aggregated with {@link #summarize(List)}.
+ *
+ * @see SimulationContext
+ * @since CloudSim Toolkit 3.0
+ */
+public class ReplicationRunner {
+
+	/** The number of threads. */
+	private final int threads;
+
+	/**
+	 * Creates a runner with one thread per available processor.
+	 */
+	public ReplicationRunner() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a runner.
+	 *
+	 * @param threads the number of replications run at the same time
+	 * @throws IllegalArgumentException if the number of threads is not positive
+	 * @pre threads > 0
+	 * @post $none
+	 */
+	public ReplicationRunner(int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("The number of threads must be > 0");
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Gets the number of replications run at the same time.
+	 *
+	 * @return the number of threads
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Runs replications, each in its own simulation context, and waits for all of them. If a
+	 * replication fails, the replications that have not finished are cancelled.
+	 *
+	 * @param replications the replications
+	 * @param <V> the type of the results
+	 * @return the results, in the order of the replications
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 * @throws ExecutionException if a replication throws an exception
+	 * @pre replications != null
+	 * @post $result.size() == replications.size()
+	 */
+	public <V> List<V> run(List<? extends Callable<V>> replications) throws InterruptedException,
+			ExecutionException {
+		List<V> results = new ArrayList<V>(replications.size());
+		if (replications.isEmpty()) {
+			return results;
+		}
+
+		final AtomicInteger count = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(threads, replications.size()),
+				new ThreadFactory() {
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, "CloudSim replication " + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		try {
+			List<Future<V>> futures = new ArrayList<Future<V>>(replications.size());
+			for (final Callable<V> replication : replications) {
+				futures.add(executor.submit(new Callable<V>() {
+
+					@Override
+					public V call() throws Exception {
+						return new SimulationContext().call(replication);
+					}
+				}));
+			}
+			for (Future<V> future : futures) {
+				results.add(future.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return results;
+	}
+
+	/**
+	 * Aggregates the metrics of replications. Each replication returns its metrics by name; the
+	 * metrics are summarized over the replications that have them, in the order in which they
+	 * first appear.
+	 *
+	 * @param results the metrics of each replication
+	 * @return the summary of each metric
+	 * @pre results != null
+	 * @post $result != null
+	 */
+	public static Map<String, Summary> summarize(List<? extends Map<String, ? extends Number>> results) {
+		Map<String, SummaryStatistics> statistics = new LinkedHashMap<String, SummaryStatistics>();
+		for (Map<String, ? extends Number> result : results) {
+			for (Map.Entry<String, ? extends Number> metric : result.entrySet()) {
+				SummaryStatistics values = statistics.get(metric.getKey());
+				if (values == null) {
+					values = new SummaryStatistics();
+					statistics.put(metric.getKey(), values);
+				}
+				values.addValue(metric.getValue().doubleValue());
+			}
+		}
+
+		Map<String, Summary> summaries = new LinkedHashMap<String, Summary>();
+		for (Map.Entry<String, SummaryStatistics> entry : statistics.entrySet()) {
+			summaries.put(entry.getKey(), new Summary(entry.getValue()));
+		}
+		return summaries;
+	}
+
+	/**
+	 * The summary of a metric over replications.
+	 */
+	public static class Summary {
+
+		/** The statistics of the values. */
+		private final SummaryStatistics statistics;
+
+		/**
+		 * Creates a summary.
+		 *
+		 * @param statistics the statistics of the values
+		 */
+		Summary(SummaryStatistics statistics) {
+			this.statistics = statistics;
+		}
+
+		/**
+		 * Gets the number of values.
+		 *
+		 * @return the number of values
+		 */
+		public long getCount() {
+			return statistics.getN();
+		}
+
+		/**
+		 * Gets the mean.
+		 *
+		 * @return the mean
+		 */
+		public double getMean() {
+			return statistics.getMean();
+		}
+
+		/**
+		 * Gets the sample standard deviation.
+		 *
+		 * @return the standard deviation, or NaN if there is a single value
+		 */
+		public double getStandardDeviation() {
+			return statistics.getN() < 2 ? Double.NaN : statistics.getStandardDeviation();
+		}
+
+		/**
+		 * Gets the minimum.
+		 *
+		 * @return the minimum
+		 */
+		public double getMin() {
+			return statistics.getMin();
+		}
+
+		/**
+		 * Gets the maximum.
+		 *
+		 * @return the maximum
+		 */
+		public double getMax() {
+			return statistics.getMax();
+		}
+
+		/**
+		 * Gets the half width of the confidence interval of the mean, from Student's t
+		 * distribution.
+		 *
+		 * @param level the confidence level, such as 0.95
+		 * @return the half width, or NaN if there is a single value
+		 * @throws IllegalArgumentException if the level is not between 0 and 1
+		 */
+		public double getConfidenceInterval(double level) {
+			if (level <= 0 || level >= 1) {
+				throw new IllegalArgumentException("The confidence level must be between 0 and 1");
+			}
+			long n = statistics.getN();
+			if (n < 2) {
+				return Double.NaN;
+			}
+			double t = new TDistribution(n - 1).inverseCumulativeProbability(1 - (1 - level) / 2);
+			return t * statistics.getStandardDeviation() / Math.sqrt(n);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%.5f +/- %.5f (sd %.5f, min %.5f, max %.5f, n %d)", getMean(),
+					getConfidenceInterval(0.95), getStandardDeviation(), getMin(), getMax(), getCount());
+		}
+
+	}
+
+}
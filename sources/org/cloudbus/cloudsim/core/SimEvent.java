@@ -40,6 +40,9 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 
 	private long serial = -1;
 
+	/** the index of the event in the heap of a {@link HeapEventQueue}, or -1 **/
+	private int heapIndex = -1;
+
 	// Internal event types
 
 	public static final int ENULL = 0;
@@ -86,6 +89,14 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		this.serial = serial;
 	}
 
+	int getHeapIndex() {
+		return heapIndex;
+	}
+
+	void setHeapIndex(int heapIndex) {
+		this.heapIndex = heapIndex;
+	}
+
 	/**
 	 * Used to set the time at which this event finished waiting in the event
 	 * 
@@ -0,0 +1,229 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+
+/**
+ * The state of one simulation: its entities, event queues, clock and the other variables that
+ * {@link CloudSim} used to keep in static fields. The static methods of {@link CloudSim} act on
+ * the context of the calling thread, so that several simulations can run at the same time in one
+ * JVM, each in its own thread and context.
+ * <p>
+ * A thread uses a shared default context unless it runs a task with {@link #call(Callable)} or
+ * {@link #run(Runnable)}, which makes the context the one of the thread for the duration of the
+ * task. Until a context is first installed that way, {@link CloudSim} uses the default context
+ * without looking the thread up, so a single simulation costs what it did with static fields.
+ * <p>
+ * A context can be used by one thread at a time. {@link org.cloudbus.cloudsim.Log}, the
+ * {@link org.cloudbus.cloudsim.CloudletTraceRecorder} installed on
+ * {@link org.cloudbus.cloudsim.Cloudlet}, {@link org.cloudbus.cloudsim.NetworkTopology}, the
+ * static fields of the network datacenter package and the future queue class set with
+ * {@link CloudSim#setFutureQueueClass(Class)} remain shared by all the contexts.
+ *
+ * @see ReplicationRunner
+ * @since CloudSim Toolkit 3.0
+ */
+public class SimulationContext {
+
+	/** The context of the threads that have not installed one. */
+	private static final SimulationContext DEFAULT = new SimulationContext();
+
+	/** The context installed by each thread. */
+	private static final ThreadLocal<SimulationContext> CURRENT = new ThreadLocal<SimulationContext>();
+
+	/** Whether a context has ever been installed by a thread. */
+	private static volatile boolean installed;
+
+	/** The thread running a task in this context, or <code>null</code>. */
+	private Thread owner;
+
+	/** The id of CIS entity. */
+	int cisId = -1;
+
+	/** The id of CloudSimShutdown entity. */
+	int shutdownId = -1;
+
+	/** The CIS object. */
+	CloudInformationService cis;
+
+	/** The trace flag. */
+	boolean traceFlag;
+
+	/** The calendar. */
+	Calendar calendar;
+
+	/** The termination time. */
+	double terminateAt = -1;
+
+	/** The minimal time between events. */
+	double minTimeBetweenEvents = 0.1;
+
+	/** The entities. */
+	List<SimEntity> entities;
+
+	/** The future event queue. */
+	EventQueue future;
+
+	/** The events polled from the future queue in the current clock tick. */
+	final List<SimEvent> currentEvents = new ArrayList<SimEvent>();
+
+	/** The deferred event queue. */
+	DeferredQueue deferred;
+
+	/** The simulation clock. */
+	double clock;
+
+	/** Flag for checking if the simulation is running. */
+	boolean running;
+
+	/** The entities by name. */
+	Map<String, SimEntity> entitiesByName;
+
+	/** The predicates used in entity wait methods. */
+	Map<Integer, Predicate> waitPredicates;
+
+	/** The paused. */
+	boolean paused;
+
+	/** The pause at. */
+	long pauseAt = -1;
+
+	/** The abrupt terminate. */
+	boolean abruptTerminate;
+
+	/** Whether the seed of the random streams has been set in this context. */
+	boolean seeded;
+
+	/** The seed of the random streams, if it has been set. */
+	long seed;
+
+	/** The number of random streams created with {@link RandomService#newStream()}. */
+	long streams;
+
+	/** The number of times the seed has been set, which invalidates the thread streams. */
+	int seedGeneration;
+
+	/**
+	 * Creates an empty context. {@link CloudSim#init(int, Calendar, boolean)} must be called in it
+	 * before any entity is created.
+	 */
+	public SimulationContext() {
+	}
+
+	/**
+	 * Gets the context of the calling thread.
+	 *
+	 * @return the context
+	 */
+	public static SimulationContext getCurrent() {
+		return current();
+	}
+
+	/**
+	 * Gets the context of the calling thread.
+	 *
+	 * @return the context
+	 */
+	static SimulationContext current() {
+		if (!installed) {
+			return DEFAULT;
+		}
+		SimulationContext context = CURRENT.get();
+		return context == null ? DEFAULT : context;
+	}
+
+	/**
+	 * Runs a task in this context: the static methods of {@link CloudSim} called by the task act
+	 * on this context. The context of the thread is restored afterwards.
+	 *
+	 * @param task the task
+	 * @param <V> the type of the result
+	 * @return the result of the task
+	 * @throws Exception if the task throws an exception
+	 * @throws IllegalStateException if another thread is running a task in this context
+	 * @pre task != null
+	 * @post $none
+	 */
+	public <V> V call(Callable<V> task) throws Exception {
+		Thread thread = Thread.currentThread();
+		synchronized (this) {
+			if (owner != null && owner != thread) {
+				throw new IllegalStateException("The context is used by " + owner.getName());
+			}
+			owner = thread;
+		}
+		SimulationContext previous = CURRENT.get();
+		installed = true;
+		CURRENT.set(this);
+		try {
+			return task.call();
+		} finally {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+			if (previous != this) {
+				synchronized (this) {
+					owner = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs a task in this context.
+	 *
+	 * @param task the task
+	 * @throws IllegalStateException if another thread is running a task in this context
+	 * @see #call(Callable)
+	 */
+	public void run(final Runnable task) {
+		try {
+			call(new Callable<Object>() {
+
+				@Override
+				public Object call() {
+					task.run();
+					return null;
+				}
+			});
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Gets the simulation clock of this context.
+	 *
+	 * @return the simulation time
+	 */
+	public double getClock() {
+		return clock;
+	}
+
+	/**
+	 * Checks whether the simulation of this context is running.
+	 *
+	 * @return true if it is running
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+}
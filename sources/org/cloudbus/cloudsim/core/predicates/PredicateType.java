@@ -58,4 +58,23 @@ public class PredicateType extends Predicate {
 		return false;
 	}
 
+	/**
+	 * Gets the number of tags selected by this predicate.
+	 * 
+	 * @return the number of tags
+	 */
+	public int getNumTags() {
+		return tags.length;
+	}
+
+	/**
+	 * Gets one of the tags selected by this predicate.
+	 * 
+	 * @param index the index of the tag
+	 * @return the tag
+	 */
+	public int getTag(int index) {
+		return tags[index];
+	}
+
 }
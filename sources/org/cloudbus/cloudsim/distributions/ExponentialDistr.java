@@ -10,6 +10,8 @@ package org.cloudbus.cloudsim.distributions;
 
 import java.util.Random;
 
+import org.cloudbus.cloudsim.core.RandomService;
+
 /**
  * An exponential number generator.
  * 
@@ -38,6 +40,20 @@ public class ExponentialDistr implements ContinuousDistribution {
 		this.mean = mean;
 	}
 
+	/**
+	 * Creates a new exponential number generator.
+	 * 
+	 * @param random the random number generator to be used.
+	 * @param mean the mean for the distribution.
+	 */
+	public ExponentialDistr(Random random, double mean) {
+		if (mean <= 0.0) {
+			throw new IllegalArgumentException("Mean must be greater than 0.0");
+		}
+		numGen = random;
+		this.mean = mean;
+	}
+
 	/**
 	 * Creates a new exponential number generator.
 	 * 
@@ -47,7 +63,7 @@ public class ExponentialDistr implements ContinuousDistribution {
 		if (mean <= 0.0) {
 			throw new IllegalArgumentException("Mean must be greated than 0.0");
 		}
-		numGen = new Random(System.currentTimeMillis());
+		numGen = RandomService.newStream();
 		this.mean = mean;
 	}
 
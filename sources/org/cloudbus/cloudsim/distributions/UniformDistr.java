@@ -10,6 +10,8 @@ package org.cloudbus.cloudsim.distributions;
 
 import java.util.Random;
 
+import org.cloudbus.cloudsim.core.RandomService;
+
 /**
  * A random number generator based on the Uniform distribution.
  * 
@@ -34,7 +36,23 @@ public class UniformDistr implements ContinuousDistribution {
 		if (min >= max) {
 			throw new IllegalArgumentException("Maximum must be greater than the minimum.");
 		}
-		numGen = new Random();
+		numGen = RandomService.newStream();
+		mag = max - min;
+		this.min = min;
+	}
+
+	/**
+	 * Creates new uniform distribution.
+	 * 
+	 * @param random the random number generator
+	 * @param min minimum value
+	 * @param max maximum value
+	 */
+	public UniformDistr(Random random, double min, double max) {
+		if (min >= max) {
+			throw new IllegalArgumentException("Maximum must be greater than the minimum.");
+		}
+		numGen = random;
 		mag = max - min;
 		this.min = min;
 	}
@@ -11,6 +11,8 @@ package org.cloudbus.cloudsim.distributions;
 
 import java.util.Random;
 
+import org.cloudbus.cloudsim.core.RandomService;
+
 /**
  * The Class ZipfDistr.
  * 
@@ -45,6 +47,23 @@ public class ZipfDistr implements ContinuousDistribution {
 		computeDen(shape, population);
 	}
 
+	/**
+	 * Instantiates a new zipf distr.
+	 * 
+	 * @param random the random number generator
+	 * @param shape the shape
+	 * @param population the population
+	 */
+	public ZipfDistr(Random random, double shape, int population) {
+		if (shape <= 0.0 || population < 1) {
+			throw new IllegalArgumentException("Mean must be greater than 0.0 and population greater than 0");
+		}
+		numGen = random;
+		this.shape = shape;
+
+		computeDen(shape, population);
+	}
+
 	/**
 	 * Instantiates a new zipf distr.
 	 * 
@@ -55,7 +74,7 @@ public class ZipfDistr implements ContinuousDistribution {
 		if (shape <= 0.0) {
 			throw new IllegalArgumentException("Mean must be greated than 0.0 and population greater than 0");
 		}
-		numGen = new Random(System.currentTimeMillis());
+		numGen = RandomService.newStream();
 		this.shape = shape;
 		computeDen(shape, population);
 	}
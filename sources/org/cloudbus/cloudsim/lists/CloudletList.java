@@ -23,13 +23,16 @@ import org.cloudbus.cloudsim.Cloudlet;
 public class CloudletList {
 
 	/**
-	 * Gets the by id.
+	 * Gets the by id. A {@link CloudletRegistry} is looked up in its index rather than scanned.
 	 * 
 	 * @param cloudletList the cloudlet list
 	 * @param id the id
 	 * @return the by id
 	 */
 	public static <T extends Cloudlet> T getById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof CloudletRegistry) {
+			return ((CloudletRegistry<T>) cloudletList).getById(id);
+		}
 		for (T cloudlet : cloudletList) {
 			if (cloudlet.getCloudletId() == id) {
 				return cloudlet;
@@ -40,11 +43,15 @@ public class CloudletList {
 
 	/**
 	 * Returns the position of the cloudlet with that id, if it exists. Otherwise -1.
+	 * A {@link CloudletRegistry} is looked up in its index rather than scanned.
 	 * @param cloudletList - the list of cloudlets.
 	 * @param id - the id we search for.
 	 * @return - the position of the cloudlet with that id, or -1 otherwise.
 	 */
 	public static <T extends Cloudlet> int getPositionById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof CloudletRegistry) {
+			return ((CloudletRegistry<T>) cloudletList).getPositionById(id);
+		}
 		int i = 0 ;
 	        for (T cloudlet : cloudletList) {
 			if (cloudlet.getCloudletId() == id) {
@@ -0,0 +1,49 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.Collection;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * A list of cloudlets indexed by cloudlet id, which the brokers keep their cloudlets in.
+ * {@link CloudletList#getById(java.util.List, int)} and
+ * {@link CloudletList#getPositionById(java.util.List, int)} look the cloudlets up in the index
+ * rather than scan the list when they are given a registry.
+ *
+ * @param <T> the type of the cloudlets
+ * @since CloudSim Toolkit 3.0
+ */
+public class CloudletRegistry<T extends Cloudlet> extends IdIndexedList<T> {
+
+	/**
+	 * Creates an empty registry.
+	 */
+	public CloudletRegistry() {
+		super();
+	}
+
+	/**
+	 * Creates a registry with the cloudlets of a collection.
+	 *
+	 * @param cloudlets the cloudlets
+	 * @pre cloudlets != null
+	 * @post $none
+	 */
+	public CloudletRegistry(Collection<? extends T> cloudlets) {
+		super(cloudlets);
+	}
+
+	@Override
+	protected int getId(T cloudlet) {
+		return cloudlet.getCloudletId();
+	}
+
+}
@@ -0,0 +1,456 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * A list that finds its elements by id in constant time. It holds the elements in an
+ * {@link ArrayList} and keeps an index from each id to the positions of the elements with that id,
+ * in an open-addressing table of ints. The elements appended to the list are indexed as they are
+ * added, and removed elements are deleted from the index, the positions after them being shifted
+ * down as the {@link ArrayList} shifts the elements. Any other change, such as an insertion in the
+ * middle or a swap while sorting, only marks the index stale, and it is rebuilt at the next
+ * lookup. A broker that appends its VMs and then looks them up as their creation is acknowledged,
+ * or a host that gains and loses VMs as they migrate, thus pays O(1) per lookup rather than a
+ * scan of the list.
+ * <p>
+ * The ids of the elements must not change while they are in the list. Several elements may have
+ * the same id; a lookup returns the first of them, as a scan of the list would.
+ *
+ * @param <T> the type of the elements
+ * @see VmList#getById(java.util.List, int)
+ * @see CloudletList#getById(java.util.List, int)
+ * @since CloudSim Toolkit 3.0
+ */
+public abstract class IdIndexedList<T> extends AbstractList<T> implements RandomAccess {
+
+	/** The elements. */
+	private final ArrayList<T> elements;
+
+	/** The ids of the table, where a slot is used if its head is not 0. */
+	private int[] ids;
+
+	/** The position plus one of the first element with the id of each slot, or 0. */
+	private int[] heads;
+
+	/** The position of the last element with the id of each slot. */
+	private int[] tails;
+
+	/** The position of the next element with the same id as each element, or -1. */
+	private int[] next;
+
+	/** The number of slots used. */
+	private int used;
+
+	/** Whether the index must be rebuilt before a lookup. */
+	private boolean stale;
+
+	/**
+	 * Creates an empty list.
+	 */
+	public IdIndexedList() {
+		elements = new ArrayList<T>();
+		clearIndex(16);
+	}
+
+	/**
+	 * Creates a list with the elements of a collection.
+	 *
+	 * @param collection the collection
+	 * @pre collection != null
+	 * @post $none
+	 */
+	public IdIndexedList(Collection<? extends T> collection) {
+		elements = new ArrayList<T>(collection);
+		stale = true;
+		clearIndex(16);
+	}
+
+	/**
+	 * Gets the id of an element.
+	 *
+	 * @param element the element
+	 * @return the id
+	 */
+	protected abstract int getId(T element);
+
+	/**
+	 * Gets the first element with an id.
+	 *
+	 * @param id the id
+	 * @return the element, or <code>null</code> if there is none
+	 */
+	public T getById(int id) {
+		int position = getPositionById(id);
+		return position < 0 ? null : elements.get(position);
+	}
+
+	/**
+	 * Gets the position of the first element with an id.
+	 *
+	 * @param id the id
+	 * @return the position, or -1 if there is none
+	 */
+	public int getPositionById(int id) {
+		if (stale) {
+			rebuildIndex();
+		}
+		int slot = findSlot(id);
+		return heads[slot] - 1;
+	}
+
+	/**
+	 * Gets the position of the next element with the same id as an element, so that all the
+	 * elements with an id can be visited from {@link #getPositionById(int)}.
+	 *
+	 * @param position the position of the element
+	 * @return the position of the next element, or -1 if there is none
+	 */
+	protected int getNextPositionById(int position) {
+		if (stale) {
+			rebuildIndex();
+		}
+		return next[position];
+	}
+
+	@Override
+	public T get(int index) {
+		return elements.get(index);
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public T set(int index, T element) {
+		T old = elements.set(index, element);
+		stale = true;
+		return old;
+	}
+
+	@Override
+	public void add(int index, T element) {
+		elements.add(index, element);
+		modCount++;
+		if (index == elements.size() - 1 && !stale) {
+			indexElement(index);
+		} else {
+			stale = true;
+		}
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends T> collection) {
+		if (collection.isEmpty()) {
+			return false;
+		}
+		int from = elements.size();
+		elements.addAll(collection);
+		modCount++;
+		if (!stale) {
+			for (int i = from; i < elements.size(); i++) {
+				indexElement(i);
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public T remove(int index) {
+		if (!stale) {
+			removeFromIndex(new int[] { index }, 1);
+		}
+		T old = elements.remove(index);
+		modCount++;
+		return old;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> collection) {
+		return removeIf(collection, true);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> collection) {
+		return removeIf(collection, false);
+	}
+
+	@Override
+	public void clear() {
+		elements.clear();
+		modCount++;
+		stale = false;
+		clearIndex(16);
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex >= toIndex) {
+			return;
+		}
+		if (!stale) {
+			int[] positions = new int[toIndex - fromIndex];
+			for (int i = 0; i < positions.length; i++) {
+				positions[i] = fromIndex + i;
+			}
+			removeFromIndex(positions, positions.length);
+		}
+		elements.subList(fromIndex, toIndex).clear();
+		modCount++;
+	}
+
+	/**
+	 * Removes the elements that are, or are not, in a collection, in one pass over the list.
+	 *
+	 * @param collection the collection
+	 * @param contained whether the elements in the collection are removed, rather than kept
+	 * @return true, if the list changed
+	 */
+	private boolean removeIf(Collection<?> collection, boolean contained) {
+		int[] positions = new int[elements.size()];
+		int count = 0;
+		for (int i = 0; i < elements.size(); i++) {
+			if (collection.contains(elements.get(i)) == contained) {
+				positions[count++] = i;
+			}
+		}
+		if (count == 0) {
+			return false;
+		}
+		if (!stale) {
+			removeFromIndex(positions, count);
+		}
+		int kept = 0;
+		for (int i = 0, j = 0; i < elements.size(); i++) {
+			if (j < count && positions[j] == i) {
+				j++;
+			} else {
+				elements.set(kept++, elements.get(i));
+			}
+		}
+		elements.subList(kept, elements.size()).clear();
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Deletes elements from the index before they are removed from the list, and shifts the
+	 * positions after them down. The shift costs as much as the one of the {@link ArrayList}, and
+	 * the index needs no rebuild.
+	 *
+	 * @param removed the positions of the elements, in ascending order
+	 * @param count the number of positions
+	 */
+	private void removeFromIndex(int[] removed, int count) {
+		for (int i = 0; i < count; i++) {
+			unindexElement(removed[i]);
+		}
+		int size = elements.size();
+		int first = removed[0];
+		for (int position = 0; position < first; position++) {
+			if (next[position] > first) {
+				next[position] -= countBefore(removed, count, next[position]);
+			}
+		}
+		for (int position = first + 1, shift = 1; position < size; position++) {
+			if (shift < count && removed[shift] == position) {
+				shift++;
+				continue;
+			}
+			int newPosition = position - shift;
+			next[newPosition] = next[position] < 0 ? -1 : next[position]
+					- countBefore(removed, count, next[position]);
+			T element = elements.get(position);
+			if (element != null) {
+				// the head and tail of a slot are only shifted when their own element is reached
+				int slot = findSlot(getId(element));
+				if (heads[slot] == position + 1) {
+					heads[slot] = newPosition + 1;
+				}
+				if (tails[slot] == position) {
+					tails[slot] = newPosition;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Unlinks the element at a position from the positions with its id, and frees the slot of the
+	 * id if it was the last of them.
+	 *
+	 * @param position the position
+	 */
+	private void unindexElement(int position) {
+		T element = elements.get(position);
+		if (element == null) {
+			return;
+		}
+		int slot = findSlot(getId(element));
+		int previous = -1;
+		for (int i = heads[slot] - 1; i != position; i = next[i]) {
+			previous = i;
+		}
+		if (previous < 0) {
+			if (next[position] < 0) {
+				deleteSlot(slot);
+			} else {
+				heads[slot] = next[position] + 1;
+			}
+		} else {
+			next[previous] = next[position];
+			if (tails[slot] == position) {
+				tails[slot] = previous;
+			}
+		}
+	}
+
+	/**
+	 * Counts the removed positions before a position.
+	 *
+	 * @param removed the removed positions, in ascending order
+	 * @param count the number of removed positions
+	 * @param position the position, which is not removed
+	 * @return the number of removed positions before it
+	 */
+	private static int countBefore(int[] removed, int count, int position) {
+		return -Arrays.binarySearch(removed, 0, count, position) - 1;
+	}
+
+	/**
+	 * Rebuilds the index from the elements.
+	 */
+	private void rebuildIndex() {
+		clearIndex(Math.max(16, Integer.highestOneBit(Math.max(1, elements.size())) << 2));
+		stale = false;
+		for (int i = 0; i < elements.size(); i++) {
+			indexElement(i);
+		}
+	}
+
+	/**
+	 * Empties the index.
+	 *
+	 * @param capacity the number of slots, a power of two
+	 */
+	private void clearIndex(int capacity) {
+		ids = new int[capacity];
+		heads = new int[capacity];
+		tails = new int[capacity];
+		if (next == null || next.length < elements.size()) {
+			next = new int[Math.max(16, elements.size())];
+		}
+		used = 0;
+	}
+
+	/**
+	 * Adds the element at a position, the last one indexed, to the index.
+	 *
+	 * @param position the position
+	 */
+	private void indexElement(int position) {
+		T element = elements.get(position);
+		if (position >= next.length) {
+			next = Arrays.copyOf(next, Math.max(position + 1, 2 * next.length));
+		}
+		next[position] = -1;
+		if (element == null) {
+			return;
+		}
+		int id = getId(element);
+		int slot = findSlot(id);
+		if (heads[slot] == 0) {
+			ids[slot] = id;
+			heads[slot] = position + 1;
+			used++;
+			if (2 * used > ids.length) {
+				growIndex();
+			}
+		} else {
+			next[tails[slot]] = position;
+		}
+		tails[findSlot(id)] = position;
+	}
+
+	/**
+	 * Doubles the number of slots of the index.
+	 */
+	private void growIndex() {
+		int[] oldIds = ids;
+		int[] oldHeads = heads;
+		int[] oldTails = tails;
+		ids = new int[2 * oldIds.length];
+		heads = new int[ids.length];
+		tails = new int[ids.length];
+		for (int i = 0; i < oldIds.length; i++) {
+			if (oldHeads[i] != 0) {
+				int slot = findSlot(oldIds[i]);
+				ids[slot] = oldIds[i];
+				heads[slot] = oldHeads[i];
+				tails[slot] = oldTails[i];
+			}
+		}
+	}
+
+	/**
+	 * Frees a slot by backward-shift deletion: the following slots of the probe run are moved back
+	 * into the hole when the hole lies between their home slot and them, so that every id stays
+	 * reachable from its home slot without tombstones.
+	 *
+	 * @param slot the slot
+	 */
+	private void deleteSlot(int slot) {
+		int mask = ids.length - 1;
+		int hole = slot;
+		for (int i = (slot + 1) & mask; heads[i] != 0; i = (i + 1) & mask) {
+			int home = homeSlot(ids[i]);
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				ids[hole] = ids[i];
+				heads[hole] = heads[i];
+				tails[hole] = tails[i];
+				hole = i;
+			}
+		}
+		heads[hole] = 0;
+		used--;
+	}
+
+	/**
+	 * Finds the slot of an id, or the empty slot where it would be added.
+	 *
+	 * @param id the id
+	 * @return the slot
+	 */
+	private int findSlot(int id) {
+		int mask = ids.length - 1;
+		int slot = homeSlot(id);
+		while (heads[slot] != 0 && ids[slot] != id) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Gets the slot where the probing for an id starts.
+	 *
+	 * @param id the id
+	 * @return the slot
+	 */
+	private int homeSlot(int id) {
+		int hash = id * 0x9E3779B9;
+		return (hash ^ hash >>> 16) & (ids.length - 1);
+	}
+
+}
@@ -21,7 +21,8 @@ import org.cloudbus.cloudsim.Vm;
 public class VmList {
 
 	/**
-	 * Return a reference to a Vm object from its ID.
+	 * Return a reference to a Vm object from its ID. A {@link VmRegistry} is looked up in its
+	 * index rather than scanned.
 	 * 
 	 * @param id ID of required VM
 	 * @param vmList the vm list
@@ -30,6 +31,9 @@ public class VmList {
 	 * @post $none
 	 */
 	public static <T extends Vm> T getById(List<T> vmList, int id) {
+		if (vmList instanceof VmRegistry) {
+			return ((VmRegistry<T>) vmList).getById(id);
+		}
 		for (T vm : vmList) {
 			if (vm.getId() == id) {
 				return vm;
@@ -39,7 +43,8 @@ public class VmList {
 	}
 
 	/**
-	 * Return a reference to a Vm object from its ID and user ID.
+	 * Return a reference to a Vm object from its ID and user ID. A {@link VmRegistry} is looked
+	 * up in its index rather than scanned.
 	 * 
 	 * @param id ID of required VM
 	 * @param userId the user ID
@@ -49,6 +54,9 @@ public class VmList {
 	 * @post $none
 	 */
 	public static <T extends Vm> T getByIdAndUserId(List<T> vmList, int id, int userId) {
+		if (vmList instanceof VmRegistry) {
+			return ((VmRegistry<T>) vmList).getByIdAndUserId(id, userId);
+		}
 		for (T vm : vmList) {
 			if (vm.getId() == id && vm.getUserId() == userId) {
 				return vm;
@@ -0,0 +1,66 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.Collection;
+
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * A list of VMs indexed by VM id, which the brokers, datacenters and hosts keep their VMs in.
+ * {@link VmList#getById(java.util.List, int)} and
+ * {@link VmList#getByIdAndUserId(java.util.List, int, int)} look the VMs up in the index rather
+ * than scan the list when they are given a registry.
+ *
+ * @param <T> the type of the VMs
+ * @since CloudSim Toolkit 3.0
+ */
+public class VmRegistry<T extends Vm> extends IdIndexedList<T> {
+
+	/**
+	 * Creates an empty registry.
+	 */
+	public VmRegistry() {
+		super();
+	}
+
+	/**
+	 * Creates a registry with the VMs of a collection.
+	 *
+	 * @param vms the VMs
+	 * @pre vms != null
+	 * @post $none
+	 */
+	public VmRegistry(Collection<? extends T> vms) {
+		super(vms);
+	}
+
+	/**
+	 * Gets the first VM with an id and user id.
+	 *
+	 * @param id the VM id
+	 * @param userId the user id
+	 * @return the VM, or <code>null</code> if there is none
+	 */
+	public T getByIdAndUserId(int id, int userId) {
+		for (int i = getPositionById(id); i >= 0; i = getNextPositionById(i)) {
+			T vm = get(i);
+			if (vm.getUserId() == userId) {
+				return vm;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	protected int getId(T vm) {
+		return vm.getId();
+	}
+
+}
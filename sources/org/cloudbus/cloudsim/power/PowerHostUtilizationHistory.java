@@ -12,9 +12,11 @@ import java.util.List;
 
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.VmScheduler;
+import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.power.models.PowerModel;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
 import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
@@ -34,6 +36,24 @@ import org.cloudbus.cloudsim.util.MathUtil;
  */
 public class PowerHostUtilizationHistory extends PowerHost {
 
+	/**
+	 * The utilization history summed over the first VMs of the VM list, the latest value first,
+	 * without its trailing zeros.
+	 */
+	private final DoubleRingBuffer utilizationHistory = new DoubleRingBuffer(PowerVm.HISTORY_LENGTH);
+
+	/** The VMs the utilization history is summed over. */
+	private PowerVm[] historyVms = new PowerVm[0];
+
+	/** The modification count of the history of every VM summed over, when it was summed. */
+	private long[] historyModificationCounts = new long[0];
+
+	/** The number of VMs the utilization history is summed over. */
+	private int numHistoryVms;
+
+	/** The simulation time the utilization history was last summed or updated at. */
+	private double historyTime = -1;
+
 	/**
 	 * Instantiates a new power host utilization history.
 	 * 
@@ -57,19 +77,176 @@ public class PowerHostUtilizationHistory extends PowerHost {
 	}
 
 	/**
-	 * Gets the host utilization history.
+	 * Gets the host utilization history, the sum of the utilization histories of its VMs weighted
+	 * by their MIPS. The sum is kept until the VMs summed over change; the VMs added to the end of
+	 * the VM list since, such as a VM placed tentatively, are added to a copy of it.
 	 * 
 	 * @return the host utilization history
 	 */
 	protected double[] getUtilizationHistory() {
-		double[] utilizationHistory = new double[PowerVm.HISTORY_LENGTH];
+		List<PowerVm> vmList = this.<PowerVm> getVmList();
+		updateUtilizationHistory(vmList);
+		double[] history = new double[PowerVm.HISTORY_LENGTH];
+		for (int i = 0; i < utilizationHistory.size(); i++) {
+			history[i] = utilizationHistory.get(i);
+		}
+		for (int i = numHistoryVms; i < vmList.size(); i++) {
+			addUtilizationHistory(history, vmList.get(i));
+		}
+		return MathUtil.trimZeroTail(history);
+	}
+
+	/**
+	 * Gets the length of the host utilization history, as
+	 * {@link MathUtil#countNonZeroBeginning(double[])} counts it.
+	 * 
+	 * @return the length of the host utilization history
+	 */
+	protected int getUtilizationHistoryLength() {
+		if (updateUtilizationHistory(this.<PowerVm> getVmList()) && !utilizationHistory.isEmpty()) {
+			return utilizationHistory.size();
+		}
+		return MathUtil.countNonZeroBeginning(getUtilizationHistory());
+	}
+
+	/**
+	 * Gets the median absolute deviation of the host utilization history, as
+	 * {@link MathUtil#mad(double[])} computes it. It is read from the sorted window in O(log n)
+	 * unless the VM list has tentative VMs.
+	 * 
+	 * @return the median absolute deviation of the host utilization history
+	 */
+	protected double getUtilizationMad() {
+		if (updateUtilizationHistory(this.<PowerVm> getVmList()) && !utilizationHistory.isEmpty()) {
+			return utilizationHistory.getMedianAbsoluteDeviation();
+		}
+		return MathUtil.mad(getUtilizationHistory());
+	}
+
+	/**
+	 * Gets the interquartile range of the host utilization history, as
+	 * {@link MathUtil#iqr(double[])} computes it. It is read from the sorted window in O(1) unless
+	 * the VM list has tentative VMs.
+	 * 
+	 * @return the interquartile range of the host utilization history
+	 */
+	protected double getUtilizationIqr() {
+		if (updateUtilizationHistory(this.<PowerVm> getVmList()) && !utilizationHistory.isEmpty()) {
+			return utilizationHistory.getInterquartileRange();
+		}
+		return MathUtil.iqr(getUtilizationHistory());
+	}
+
+	/**
+	 * Brings the utilization history up to date with the VMs. If the same VMs have each recorded
+	 * one new utilization since, their weighted sum is pushed into the window; if other VMs were
+	 * added to the end of the list within the same simulation time, they are left out as
+	 * tentative; otherwise the history is summed again.
+	 * 
+	 * @param vmList the VMs
+	 * @return true, if the utilization history is summed over all the VMs
+	 */
+	private boolean updateUtilizationHistory(List<PowerVm> vmList) {
+		int unchanged = 0;
+		int advanced = 0;
+		while (unchanged < numHistoryVms && unchanged < vmList.size()) {
+			PowerVm vm = vmList.get(unchanged);
+			if (vm != historyVms[unchanged]) {
+				break;
+			}
+			long change = vm.getUtilizationHistory().getModificationCount() - historyModificationCounts[unchanged];
+			if (change == 1) {
+				advanced++;
+			} else if (change != 0) {
+				break;
+			}
+			unchanged++;
+		}
+
+		if (unchanged < numHistoryVms) {
+			sumUtilizationHistory(vmList);
+		} else if (advanced == 0) {
+			if (vmList.size() > numHistoryVms && CloudSim.clock() > historyTime) {
+				sumUtilizationHistory(vmList);
+			}
+		} else if (advanced == numHistoryVms && vmList.size() == numHistoryVms) {
+			pushUtilization(vmList);
+		} else {
+			sumUtilizationHistory(vmList);
+		}
+		return numHistoryVms == vmList.size();
+	}
+
+	/**
+	 * Pushes the weighted sum of the latest utilizations of the VMs into the utilization history.
+	 * 
+	 * @param vmList the VMs summed over, which have each recorded one new utilization since
+	 */
+	private void pushUtilization(List<PowerVm> vmList) {
 		double hostMips = getTotalMips();
-		for (PowerVm vm : this.<PowerVm> getVmList()) {
-			for (int i = 0; i < vm.getUtilizationHistory().size(); i++) {
-				utilizationHistory[i] += vm.getUtilizationHistory().get(i) * vm.getMips() / hostMips;
+		double utilization = 0.0;
+		for (int i = 0; i < numHistoryVms; i++) {
+			PowerVm vm = vmList.get(i);
+			utilization += vm.getUtilizationHistory().get(0) * vm.getMips() / hostMips;
+			historyModificationCounts[i] = vm.getUtilizationHistory().getModificationCount();
+		}
+		if (utilizationHistory.isEmpty()) {
+			// zeros are only kept before a non-zero value
+			if (utilization != 0) {
+				utilizationHistory.add(utilization);
+			}
+		} else {
+			// the oldest value is dropped only if the history has no trailing zeros to drop instead
+			utilizationHistory.add(utilization);
+			while (!utilizationHistory.isEmpty()
+					&& utilizationHistory.get(utilizationHistory.size() - 1) == 0) {
+				utilizationHistory.removeOldest();
 			}
 		}
-		return MathUtil.trimZeroTail(utilizationHistory);
+		historyTime = CloudSim.clock();
+	}
+
+	/**
+	 * Sums the utilization histories of the VMs, weighted by their MIPS.
+	 * 
+	 * @param vmList the VMs
+	 */
+	private void sumUtilizationHistory(List<PowerVm> vmList) {
+		double[] history = new double[PowerVm.HISTORY_LENGTH];
+		if (historyVms.length < vmList.size()) {
+			historyVms = new PowerVm[vmList.size()];
+			historyModificationCounts = new long[vmList.size()];
+		}
+		for (int i = 0; i < vmList.size(); i++) {
+			PowerVm vm = vmList.get(i);
+			addUtilizationHistory(history, vm);
+			historyVms[i] = vm;
+			historyModificationCounts[i] = vm.getUtilizationHistory().getModificationCount();
+		}
+		numHistoryVms = vmList.size();
+
+		utilizationHistory.clear();
+		for (int i = MathUtil.countNonZeroBeginning(history) - 1; i >= 0; i--) {
+			utilizationHistory.add(history[i]);
+		}
+		if (utilizationHistory.size() == 1 && history[0] == 0) {
+			utilizationHistory.clear();
+		}
+		historyTime = CloudSim.clock();
+	}
+
+	/**
+	 * Adds the utilization history of a VM, weighted by its MIPS, to a host utilization history.
+	 * 
+	 * @param history the host utilization history
+	 * @param vm the vm
+	 */
+	private void addUtilizationHistory(double[] history, PowerVm vm) {
+		DoubleRingBuffer vmHistory = vm.getUtilizationHistory();
+		double hostMips = getTotalMips();
+		for (int i = 0; i < vmHistory.size(); i++) {
+			history[i] += vmHistory.get(i) * vm.getMips() / hostMips;
+		}
 	}
 
 }
@@ -11,6 +11,7 @@ package org.cloudbus.cloudsim.power;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -44,8 +45,17 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	/** The vm selection policy. */
 	private PowerVmSelectionPolicy vmSelectionPolicy;
 
-	/** The saved allocation. */
-	private final List<Map<String, Object>> savedAllocation = new ArrayList<Map<String, Object>>();
+	/** The VMs of every host changed since the allocation was saved, copied before its first change. */
+	private final Map<Host, List<Vm>> savedAllocation = new LinkedHashMap<Host, List<Vm>>();
+
+	/** The host of every VM on a changed host, before its first change. */
+	private final Map<Vm, Host> savedVmHosts = new HashMap<Vm, Host>();
+
+	/** Whether the changes to hosts are being recorded. */
+	private boolean allocationSaved;
+
+	/** The CPU utilization in MIPS of every host, cached while the allocation is saved. */
+	private final Map<Host, Double> utilizationOfCpuMips = new HashMap<Host, Double>();
 
 	/** The utilization history. */
 	private final Map<Integer, List<Double>> utilizationHistory = new HashMap<Integer, List<Double>>();
@@ -203,39 +213,74 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	}
 
 	/**
-	 * Find host for vm.
+	 * Find host for vm. The host is the one whose power grows least, among the hosts not over
+	 * utilized after the allocation. As checking the utilization re-runs the overload detector,
+	 * the power increase is computed for every suitable host first, and the check is made on the
+	 * hosts in increasing order of the power increase until one passes.
 	 * 
 	 * @param vm the vm
 	 * @param excludedHosts the excluded hosts
 	 * @return the power host
 	 */
 	public PowerHost findHostForVm(Vm vm, Set<? extends Host> excludedHosts) {
-		double minPower = Double.MAX_VALUE;
-		PowerHost allocatedHost = null;
-
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (excludedHosts.contains(host)) {
+		List<PowerHost> hostList = this.<PowerHost> getHostList();
+		int[] candidates = new int[hostList.size()];
+		double[] powerDiffs = new double[hostList.size()];
+		int numCandidates = 0;
+		for (int i = 0; i < hostList.size(); i++) {
+			PowerHost host = hostList.get(i);
+			if (excludedHosts.contains(host) || !host.isSuitableForVm(vm)) {
 				continue;
 			}
-			if (host.isSuitableForVm(vm)) {
-				if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
-					continue;
-				}
+			double powerDiff = getPowerDiffAfterAllocation(host, vm);
+			if (powerDiff < Double.MAX_VALUE) {
+				candidates[numCandidates] = i;
+				powerDiffs[numCandidates] = powerDiff;
+				numCandidates++;
+			}
+		}
 
-				try {
-					double powerAfterAllocation = getPowerAfterAllocation(host, vm);
-					if (powerAfterAllocation != -1) {
-						double powerDiff = powerAfterAllocation - host.getPower();
-						if (powerDiff < minPower) {
-							minPower = powerDiff;
-							allocatedHost = host;
-						}
-					}
-				} catch (Exception e) {
+		while (true) {
+			// the first of the hosts with the least power increase, as the list order breaks ties
+			int best = -1;
+			double minPower = Double.MAX_VALUE;
+			for (int i = 0; i < numCandidates; i++) {
+				if (powerDiffs[i] < minPower) {
+					minPower = powerDiffs[i];
+					best = i;
 				}
 			}
+			if (best < 0) {
+				return null;
+			}
+			PowerHost host = hostList.get(candidates[best]);
+			if (getUtilizationOfCpuMips(host) == 0 || !isHostOverUtilizedAfterAllocation(host, vm)) {
+				return host;
+			}
+			powerDiffs[best] = Double.MAX_VALUE;
 		}
-		return allocatedHost;
+	}
+
+	/**
+	 * Gets the power increase of a host after allocating a VM.
+	 * 
+	 * @param host the host
+	 * @param vm the vm
+	 * @return the power increase, or {@link Double#MAX_VALUE} if the host would be used beyond
+	 *         its capacity or its power is unknown
+	 */
+	protected double getPowerDiffAfterAllocation(PowerHost host, Vm vm) {
+		if (getMaxUtilizationAfterAllocation(host, vm) > 1) {
+			return Double.MAX_VALUE;
+		}
+		try {
+			double powerAfterAllocation = getPowerAfterAllocation(host, vm);
+			if (powerAfterAllocation != -1) {
+				return powerAfterAllocation - host.getPower();
+			}
+		} catch (Exception e) {
+		}
+		return Double.MAX_VALUE;
 	}
 
 	/**
@@ -247,9 +292,15 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 */
 	protected boolean isHostOverUtilizedAfterAllocation(PowerHost host, Vm vm) {
 		boolean isHostOverUtilizedAfterAllocation = true;
+		if (allocationSaved) {
+			// the tentative VM is left without a host until the allocation is restored
+			saveVmHost(vm);
+		}
 		if (host.vmCreate(vm)) {
+			utilizationOfCpuMips.remove(host);
 			isHostOverUtilizedAfterAllocation = isHostOverUtilized(host);
 			host.vmDestroy(vm);
+			utilizationOfCpuMips.remove(host);
 		}
 		return isHostOverUtilizedAfterAllocation;
 	}
@@ -298,7 +349,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		for (Vm vm : vmsToMigrate) {
 			PowerHost allocatedHost = findHostForVm(vm, excludedHosts);
 			if (allocatedHost != null) {
-				allocatedHost.vmCreate(vm);
+				vmCreate(allocatedHost, vm);
 				Log.printLine("VM #" + vm.getId() + " allocated to host #" + allocatedHost.getId());
 
 				Map<String, Object> migrate = new HashMap<String, Object>();
@@ -325,7 +376,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		for (Vm vm : vmsToMigrate) {
 			PowerHost allocatedHost = findHostForVm(vm, excludedHosts);
 			if (allocatedHost != null) {
-				allocatedHost.vmCreate(vm);
+				vmCreate(allocatedHost, vm);
 				Log.printLine("VM #" + vm.getId() + " allocated to host #" + allocatedHost.getId());
 
 				Map<String, Object> migrate = new HashMap<String, Object>();
@@ -335,7 +386,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 			} else {
 				Log.printLine("Not all VMs can be reallocated from the host, reallocation cancelled");
 				for (Map<String, Object> map : migrationMap) {
-					((Host) map.get("host")).vmDestroy((Vm) map.get("vm"));
+					vmDestroy((Host) map.get("host"), (Vm) map.get("vm"));
 				}
 				migrationMap.clear();
 				break;
@@ -361,7 +412,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 					break;
 				}
 				vmsToMigrate.add(vm);
-				host.vmDestroy(vm);
+				vmDestroy(host, vm);
 				if (!isHostOverUtilized(host)) {
 					break;
 				}
@@ -473,57 +524,121 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 */
 	protected void addHistoryEntry(HostDynamicWorkload host, double metric) {
 		int hostId = host.getId();
-		if (!getTimeHistory().containsKey(hostId)) {
-			getTimeHistory().put(hostId, new LinkedList<Double>());
-		}
-		if (!getUtilizationHistory().containsKey(hostId)) {
-			getUtilizationHistory().put(hostId, new LinkedList<Double>());
-		}
-		if (!getMetricHistory().containsKey(hostId)) {
-			getMetricHistory().put(hostId, new LinkedList<Double>());
+		List<Double> timeHistory = getTimeHistory().get(hostId);
+		if (timeHistory == null) {
+			timeHistory = new ArrayList<Double>();
+			getTimeHistory().put(hostId, timeHistory);
+			getUtilizationHistory().put(hostId, new ArrayList<Double>());
+			getMetricHistory().put(hostId, new ArrayList<Double>());
 		}
-		if (!getTimeHistory().get(hostId).contains(CloudSim.clock())) {
-			getTimeHistory().get(hostId).add(CloudSim.clock());
+		// the clock never goes back, so an entry for the current time can only be the last one
+		if (timeHistory.isEmpty() || timeHistory.get(timeHistory.size() - 1) != CloudSim.clock()) {
+			timeHistory.add(CloudSim.clock());
 			getUtilizationHistory().get(hostId).add(host.getUtilizationOfCpu());
 			getMetricHistory().get(hostId).add(metric);
 		}
 	}
 
 	/**
-	 * Save allocation.
+	 * Starts recording the changes made to hosts while VMs are tentatively reallocated. A host's
+	 * VMs are copied before its first change, so saving and restoring the allocation costs as much
+	 * as the hosts changed rather than the whole datacenter. Hosts receiving migrating VMs are saved
+	 * up front, as restoring them puts the migrating VMs first.
 	 */
 	protected void saveAllocation() {
 		getSavedAllocation().clear();
+		savedVmHosts.clear();
+		utilizationOfCpuMips.clear();
+		allocationSaved = true;
 		for (Host host : getHostList()) {
-			for (Vm vm : host.getVmList()) {
-				if (host.getVmsMigratingIn().contains(vm)) {
-					continue;
-				}
-				Map<String, Object> map = new HashMap<String, Object>();
-				map.put("host", host);
-				map.put("vm", vm);
-				getSavedAllocation().add(map);
+			if (!host.getVmsMigratingIn().isEmpty()) {
+				saveHostAllocation(host);
 			}
 		}
 	}
 
 	/**
-	 * Restore allocation.
+	 * Saves the VMs of a host before its first change since the allocation was saved.
+	 * 
+	 * @param host the host
+	 */
+	protected void saveHostAllocation(Host host) {
+		if (!allocationSaved || getSavedAllocation().containsKey(host)) {
+			return;
+		}
+		getSavedAllocation().put(host, new ArrayList<Vm>(host.getVmList()));
+		for (Vm vm : host.getVmList()) {
+			saveVmHost(vm);
+		}
+	}
+
+	/**
+	 * Saves the host of a VM before its first change since the allocation was saved.
+	 * 
+	 * @param vm the vm
+	 */
+	private void saveVmHost(Vm vm) {
+		if (!savedVmHosts.containsKey(vm)) {
+			savedVmHosts.put(vm, vm.getHost());
+		}
+	}
+
+	/**
+	 * Creates a VM on a host, saving the host first.
+	 * 
+	 * @param host the host
+	 * @param vm the vm
+	 * @return true, if the VM was created
+	 */
+	protected boolean vmCreate(Host host, Vm vm) {
+		saveHostAllocation(host);
+		if (allocationSaved) {
+			saveVmHost(vm);
+		}
+		utilizationOfCpuMips.remove(host);
+		return host.vmCreate(vm);
+	}
+
+	/**
+	 * Destroys a VM on a host, saving the host first.
+	 * 
+	 * @param host the host
+	 * @param vm the vm
+	 */
+	protected void vmDestroy(Host host, Vm vm) {
+		saveHostAllocation(host);
+		utilizationOfCpuMips.remove(host);
+		host.vmDestroy(vm);
+	}
+
+	/**
+	 * Restores the saved hosts and the hosts of their VMs, and stops recording changes.
 	 */
 	protected void restoreAllocation() {
-		for (Host host : getHostList()) {
+		for (Host host : getSavedAllocation().keySet()) {
 			host.vmDestroyAll();
 			host.reallocateMigratingInVms();
 		}
-		for (Map<String, Object> map : getSavedAllocation()) {
-			Vm vm = (Vm) map.get("vm");
-			PowerHost host = (PowerHost) map.get("host");
-			if (!host.vmCreate(vm)) {
-				Log.printLine("Couldn't restore VM #" + vm.getId() + " on host #" + host.getId());
-				System.exit(0);
+		for (Map.Entry<Host, List<Vm>> entry : getSavedAllocation().entrySet()) {
+			PowerHost host = (PowerHost) entry.getKey();
+			for (Vm vm : entry.getValue()) {
+				if (host.getVmsMigratingIn().contains(vm)) {
+					continue;
+				}
+				if (!host.vmCreate(vm)) {
+					Log.printLine("Couldn't restore VM #" + vm.getId() + " on host #" + host.getId());
+					System.exit(0);
+				}
+				getVmTable().put(vm.getUid(), host);
 			}
-			getVmTable().put(vm.getUid(), host);
 		}
+		for (Map.Entry<Vm, Host> entry : savedVmHosts.entrySet()) {
+			entry.getKey().setHost(entry.getValue());
+		}
+		getSavedAllocation().clear();
+		savedVmHosts.clear();
+		utilizationOfCpuMips.clear();
+		allocationSaved = false;
 	}
 
 	/**
@@ -563,16 +678,37 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	}
 	
 	/**
-	 * Gets the utilization of the CPU in MIPS for the current potentially allocated VMs.
+	 * Gets the utilization of the CPU in MIPS for the current potentially allocated VMs. While the
+	 * allocation is saved, the utilization is cached until the host changes.
 	 *
 	 * @param host the host
 	 *
 	 * @return the utilization of the CPU in MIPS
 	 */
 	protected double getUtilizationOfCpuMips(PowerHost host) {
+		if (!allocationSaved) {
+			return calculateUtilizationOfCpuMips(host);
+		}
+		Double hostUtilizationMips = utilizationOfCpuMips.get(host);
+		if (hostUtilizationMips == null) {
+			hostUtilizationMips = calculateUtilizationOfCpuMips(host);
+			utilizationOfCpuMips.put(host, hostUtilizationMips);
+		}
+		return hostUtilizationMips;
+	}
+
+	/**
+	 * Calculates the utilization of the CPU in MIPS for the current potentially allocated VMs.
+	 *
+	 * @param host the host
+	 *
+	 * @return the utilization of the CPU in MIPS
+	 */
+	private double calculateUtilizationOfCpuMips(PowerHost host) {
 		double hostUtilizationMips = 0;
 		for (Vm vm2 : host.getVmList()) {
-			if (host.getVmsMigratingIn().contains(vm2)) {
+			// only VMs in migration can be migrating in, which saves searching the list
+			if (vm2.isInMigration() && host.getVmsMigratingIn().contains(vm2)) {
 				// calculate additional potential CPU usage of a migrating in VM
 				hostUtilizationMips += host.getTotalAllocatedMipsForVm(vm2) * 0.9 / 0.1;
 			}
@@ -584,9 +720,9 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	/**
 	 * Gets the saved allocation.
 	 * 
-	 * @return the saved allocation
+	 * @return the VMs of every changed host, before its first change
 	 */
-	protected List<Map<String, Object>> getSavedAllocation() {
+	protected Map<Host, List<Vm>> getSavedAllocation() {
 		return savedAllocation;
 	}
 
@@ -13,6 +13,7 @@ import java.util.List;
 
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
 import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
@@ -31,6 +32,12 @@ import org.cloudbus.cloudsim.util.MathUtil;
  */
 public class PowerVmSelectionPolicyMaximumCorrelation extends PowerVmSelectionPolicy {
 
+	/**
+	 * The smallest pivot of the Cholesky factorization of the correlation matrix, below which the
+	 * rows are taken as collinear.
+	 */
+	private static final double CHOLESKY_TOLERANCE = 1e-10;
+
 	/** The fallback policy. */
 	private PowerVmSelectionPolicy fallbackPolicy;
 
@@ -56,16 +63,20 @@ public class PowerVmSelectionPolicyMaximumCorrelation extends PowerVmSelectionPo
 		if (migratableVms.isEmpty()) {
 			return null;
 		}
-		List<Double> metrics = null;
+		double[] metrics = null;
 		try {
-			metrics = getCorrelationCoefficients(getUtilizationMatrix(migratableVms));
+			double[][] utilization = getUtilizationMatrix(migratableVms);
+			metrics = getMultipleCorrelationCoefficients(utilization);
+			if (metrics == null) {
+				metrics = MathUtil.listToArray(getCorrelationCoefficients(utilization));
+			}
 		} catch (IllegalArgumentException e) { // the degrees of freedom must be greater than zero
 			return getFallbackPolicy().getVmToMigrate(host);
 		}
 		double maxMetric = Double.MIN_VALUE;
 		int maxIndex = 0;
-		for (int i = 0; i < metrics.size(); i++) {
-			double metric = metrics.get(i);
+		for (int i = 0; i < metrics.length; i++) {
+			double metric = metrics[i];
 			if (metric > maxMetric) {
 				maxMetric = metric;
 				maxIndex = i;
@@ -85,8 +96,8 @@ public class PowerVmSelectionPolicyMaximumCorrelation extends PowerVmSelectionPo
 		int m = getMinUtilizationHistorySize(vmList);
 		double[][] utilization = new double[n][m];
 		for (int i = 0; i < n; i++) {
-			List<Double> vmUtilization = vmList.get(i).getUtilizationHistory();
-			for (int j = 0; j < vmUtilization.size(); j++) {
+			DoubleRingBuffer vmUtilization = vmList.get(i).getUtilizationHistory();
+			for (int j = 0; j < m; j++) {
 				utilization[i][j] = vmUtilization.get(j);
 			}
 		}
@@ -111,7 +122,114 @@ public class PowerVmSelectionPolicyMaximumCorrelation extends PowerVmSelectionPo
 	}
 
 	/**
-	 * Gets the correlation coefficients.
+	 * Gets the multiple correlation coefficient of every row of the data with the other rows, the
+	 * R squared of regressing it on them, all from one covariance matrix S of the rows: the
+	 * coefficient of row i is 1 - 1 / (S_ii * (S^-1)_ii). The matrix is scaled to a correlation
+	 * matrix and inverted through its Cholesky factor, which costs O(n^2 m + n^3) for n rows of m
+	 * values instead of n regressions.
+	 * 
+	 * @param data the data, a row per VM
+	 * @return the correlation coefficients, or null if there are less than 3 rows or the covariance
+	 *         matrix is not positive definite, such as when there are too few values or a row is
+	 *         constant
+	 */
+	protected double[] getMultipleCorrelationCoefficients(final double[][] data) {
+		int n = data.length;
+		int m = data[0].length;
+		// two rows have the same coefficient, which the regressions tell apart by rounding alone,
+		// and the covariance matrix of fewer than n + 1 values is singular
+		if (n < 3 || m <= n) {
+			return null;
+		}
+
+		// the deviations from the row means
+		double[][] deviations = new double[n][m];
+		for (int i = 0; i < n; i++) {
+			double mean = 0;
+			boolean constant = true;
+			for (int t = 0; t < m; t++) {
+				mean += data[i][t];
+				constant &= data[i][t] == data[i][0];
+			}
+			if (constant) {
+				// its deviations would be rounding errors rather than zeros
+				return null;
+			}
+			mean /= m;
+			for (int t = 0; t < m; t++) {
+				deviations[i][t] = data[i][t] - mean;
+			}
+		}
+
+		// the lower triangle of the covariance matrix, scaled to a correlation matrix
+		double[][] correlation = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j <= i; j++) {
+				double sum = 0;
+				for (int t = 0; t < m; t++) {
+					sum += deviations[i][t] * deviations[j][t];
+				}
+				correlation[i][j] = sum;
+			}
+		}
+		double[] scale = new double[n];
+		for (int i = 0; i < n; i++) {
+			if (!(correlation[i][i] > 0)) {
+				return null;
+			}
+			scale[i] = 1 / Math.sqrt(correlation[i][i]);
+		}
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j <= i; j++) {
+				correlation[i][j] *= scale[i] * scale[j];
+			}
+		}
+
+		// the Cholesky factor L, in place of the lower triangle
+		double[][] l = correlation;
+		for (int j = 0; j < n; j++) {
+			double pivot = l[j][j];
+			for (int k = 0; k < j; k++) {
+				pivot -= l[j][k] * l[j][k];
+			}
+			if (!(pivot > CHOLESKY_TOLERANCE)) {
+				// nearly collinear rows, left to the regressions
+				return null;
+			}
+			l[j][j] = Math.sqrt(pivot);
+			for (int i = j + 1; i < n; i++) {
+				double sum = l[i][j];
+				for (int k = 0; k < j; k++) {
+					sum -= l[i][k] * l[j][k];
+				}
+				l[i][j] = sum / l[j][j];
+			}
+		}
+
+		// the diagonal of the inverse, the squared column norms of the inverse of L
+		double[] inverseDiagonal = new double[n];
+		double[] column = new double[n];
+		for (int j = 0; j < n; j++) {
+			for (int i = j; i < n; i++) {
+				double sum = i == j ? 1 : 0;
+				for (int k = j; k < i; k++) {
+					sum -= l[i][k] * column[k];
+				}
+				column[i] = sum / l[i][i];
+				inverseDiagonal[j] += column[i] * column[i];
+			}
+		}
+
+		double[] correlationCoefficients = new double[n];
+		for (int i = 0; i < n; i++) {
+			correlationCoefficients[i] = 1 - 1 / inverseDiagonal[i];
+		}
+		return correlationCoefficients;
+	}
+
+	/**
+	 * Gets the correlation coefficients by a regression per VM. It is used when the covariance
+	 * matrix of {@link #getMultipleCorrelationCoefficients(double[][])} is singular.
 	 * 
 	 * @param data the data
 	 * @return the correlation coefficients
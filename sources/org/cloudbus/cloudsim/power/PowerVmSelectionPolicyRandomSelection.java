@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Random;
 
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.RandomService;
 
 /**
  * The Random Selection (RS) VM selection policy.
@@ -29,6 +30,28 @@ import org.cloudbus.cloudsim.Vm;
  */
 public class PowerVmSelectionPolicyRandomSelection extends PowerVmSelectionPolicy {
 
+	/** The random generator. */
+	private final Random random;
+
+	/**
+	 * Instantiates a new random selection policy, drawing from the next random stream of the
+	 * simulation.
+	 * 
+	 * @see RandomService#newStream()
+	 */
+	public PowerVmSelectionPolicyRandomSelection() {
+		this(RandomService.newStream());
+	}
+
+	/**
+	 * Instantiates a new random selection policy.
+	 * 
+	 * @param random the random generator
+	 */
+	public PowerVmSelectionPolicyRandomSelection(Random random) {
+		this.random = random;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see
@@ -41,7 +64,7 @@ public class PowerVmSelectionPolicyRandomSelection extends PowerVmSelectionPolic
 		if (migratableVms.isEmpty()) {
 			return null;
 		}
-		int index = (new Random()).nextInt(migratableVms.size());
+		int index = random.nextInt(migratableVms.size());
 		return migratableVms.get(index);
 	}
 
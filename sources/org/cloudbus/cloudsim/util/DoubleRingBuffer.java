@@ -0,0 +1,392 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A fixed-capacity window of the latest double values, indexed from the newest. Adding a value
+ * past the capacity drops the oldest one. The window keeps the running sum and sum of squares of
+ * its values, and a sorted copy of them, so that the mean, the variance, any percentile and the
+ * interquartile range are read in O(1), the median absolute deviation in O(log n), and adding or
+ * removing a value costs O(capacity) at worst, without allocating.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class DoubleRingBuffer {
+
+	/** The values, the newest at head. */
+	private final double[] values;
+
+	/** The values in ascending order, in the first size positions. */
+	private final double[] sorted;
+
+	/** The position of the newest value. */
+	private int head;
+
+	/** The number of values. */
+	private int size;
+
+	/** The sum of the values. */
+	private double sum;
+
+	/** The sum of the squares of the values. */
+	private double sumOfSquares;
+
+	/** The number of values ever added, which changes with every change of the window. */
+	private long modificationCount;
+
+	/**
+	 * Creates a new empty window.
+	 *
+	 * @param capacity the maximum number of values
+	 * @pre capacity > 0
+	 */
+	public DoubleRingBuffer(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be greater than 0");
+		}
+		values = new double[capacity];
+		sorted = new double[capacity];
+		head = capacity - 1;
+	}
+
+	/**
+	 * Adds the newest value, dropping the oldest one if the window is full.
+	 *
+	 * @param value the value
+	 */
+	public void add(double value) {
+		head = head == 0 ? values.length - 1 : head - 1;
+		if (size == values.length) {
+			double oldest = values[head];
+			removeSorted(oldest);
+			sum -= oldest;
+			sumOfSquares -= oldest * oldest;
+		} else {
+			size++;
+		}
+		values[head] = value;
+		insertSorted(value);
+		modificationCount++;
+
+		if (head == 0) {
+			// recalculate the running sums once per turn, so that rounding errors do not build up
+			sum = 0;
+			sumOfSquares = 0;
+			for (int i = 0; i < size; i++) {
+				sum += sorted[i];
+				sumOfSquares += sorted[i] * sorted[i];
+			}
+		} else {
+			sum += value;
+			sumOfSquares += value * value;
+		}
+	}
+
+	/**
+	 * Removes the oldest value.
+	 *
+	 * @return the value
+	 * @throws NoSuchElementException if the window is empty
+	 */
+	public double removeOldest() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		double oldest = get(size - 1);
+		removeSorted(oldest);
+		size--;
+		modificationCount++;
+		if (size == 0) {
+			sum = 0;
+			sumOfSquares = 0;
+		} else {
+			sum -= oldest;
+			sumOfSquares -= oldest * oldest;
+		}
+		return oldest;
+	}
+
+	/**
+	 * Gets a value.
+	 *
+	 * @param index the index, 0 for the newest value
+	 * @return the value
+	 * @pre 0 <= index < size()
+	 */
+	public double get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+		int position = head + index;
+		return values[position < values.length ? position : position - values.length];
+	}
+
+	/**
+	 * Gets the number of values.
+	 *
+	 * @return the number of values
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks whether the window is empty.
+	 *
+	 * @return true, if there are no values
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the maximum number of values.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return values.length;
+	}
+
+	/**
+	 * Gets the number of values ever added. It changes whenever the window changes, so it tells
+	 * whether anything computed from the window is still valid.
+	 *
+	 * @return the modification count
+	 */
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Gets the sum of the values.
+	 *
+	 * @return the sum
+	 */
+	public double getSum() {
+		return sum;
+	}
+
+	/**
+	 * Gets the sum of the squares of the values.
+	 *
+	 * @return the sum of squares
+	 */
+	public double getSumOfSquares() {
+		return sumOfSquares;
+	}
+
+	/**
+	 * Gets the mean of the values.
+	 *
+	 * @return the mean, or 0 if the window is empty
+	 */
+	public double getMean() {
+		return size == 0 ? 0 : sum / size;
+	}
+
+	/**
+	 * Gets the population variance of the values.
+	 *
+	 * @return the variance, or 0 if the window is empty
+	 */
+	public double getVariance() {
+		if (size == 0) {
+			return 0;
+		}
+		double mean = sum / size;
+		return Math.max(0, sumOfSquares / size - mean * mean);
+	}
+
+	/**
+	 * Gets a value in ascending order.
+	 *
+	 * @param rank the rank, 0 for the smallest value
+	 * @return the value
+	 * @pre 0 <= rank < size()
+	 */
+	public double getOrderStatistic(int rank) {
+		if (rank < 0 || rank >= size) {
+			throw new IndexOutOfBoundsException("Rank: " + rank + ", size: " + size);
+		}
+		return sorted[rank];
+	}
+
+	/**
+	 * Gets a percentile of the values, estimated as by
+	 * {@link org.apache.commons.math3.stat.descriptive.rank.Percentile} by default, so that it
+	 * equals {@link MathUtil#median(double[])} for the 50th percentile.
+	 *
+	 * @param p the percentile
+	 * @return the percentile, or {@link Double#NaN} if the window is empty
+	 * @pre 0 < p <= 100
+	 */
+	public double getPercentile(double p) {
+		if (p <= 0 || p > 100) {
+			throw new IllegalArgumentException("The percentile must be in (0, 100]");
+		}
+		if (size == 0) {
+			return Double.NaN;
+		}
+		if (size == 1) {
+			return sorted[0];
+		}
+		double position = p / 100 * (size + 1);
+		double floor = Math.floor(position);
+		int index = (int) floor;
+		if (position < 1) {
+			return sorted[0];
+		}
+		if (position >= size) {
+			return sorted[size - 1];
+		}
+		double lower = sorted[index - 1];
+		double upper = sorted[index];
+		return lower + (position - floor) * (upper - lower);
+	}
+
+	/**
+	 * Gets the median of the values.
+	 *
+	 * @return the median, or {@link Double#NaN} if the window is empty
+	 */
+	public double getMedian() {
+		return getPercentile(50);
+	}
+
+	/**
+	 * Gets the median absolute deviation of the values, as {@link MathUtil#mad(double[])} computes
+	 * it. The deviations below and above the median are each sorted already, so each of the two
+	 * middle deviations is selected from them by a binary search.
+	 *
+	 * @return the median absolute deviation, or 0 if the window is empty
+	 */
+	public double getMedianAbsoluteDeviation() {
+		if (size == 0) {
+			return 0;
+		}
+		double median = getMedian();
+		if (size == 1) {
+			return Math.abs(median - sorted[0]);
+		}
+		// the deviations of the values below the median, from the nearest, then those above it
+		int above = Arrays.binarySearch(sorted, 0, size, median);
+		if (above < 0) {
+			above = -above - 1;
+		}
+		while (above > 0 && sorted[above - 1] >= median) {
+			above--;
+		}
+		double position = 0.5 * (size + 1);
+		double floor = Math.floor(position);
+		int index = (int) floor;
+		double lower = getDeviation(index - 1, median, above);
+		if (position >= size) {
+			return lower;
+		}
+		double upper = getDeviation(index, median, above);
+		return lower + (position - floor) * (upper - lower);
+	}
+
+	/**
+	 * Gets a deviation from the median in ascending order, merging the deviations of the values
+	 * below the median with those of the values above it.
+	 *
+	 * @param rank the rank, 0 for the smallest deviation
+	 * @param median the median
+	 * @param above the number of values below the median
+	 * @return the deviation
+	 */
+	private double getDeviation(int rank, double median, int above) {
+		int numAbove = size - above;
+		// the number of deviations taken from below the median
+		int low = Math.max(0, rank + 1 - numAbove);
+		int high = Math.min(rank + 1, above);
+		while (low < high) {
+			int taken = (low + high) >>> 1;
+			if (median - sorted[above - 1 - taken] < sorted[above + rank - taken] - median) {
+				low = taken + 1;
+			} else {
+				high = taken;
+			}
+		}
+		double deviation = Double.NEGATIVE_INFINITY;
+		if (low > 0) {
+			deviation = median - sorted[above - low];
+		}
+		if (rank + 1 - low > 0) {
+			deviation = Math.max(deviation, sorted[above + rank - low] - median);
+		}
+		return deviation;
+	}
+
+	/**
+	 * Gets the interquartile range of the values, as {@link MathUtil#iqr(double[])} computes it.
+	 *
+	 * @return the interquartile range
+	 * @throws IndexOutOfBoundsException if there are too few values for the quartiles
+	 */
+	public double getInterquartileRange() {
+		int q1 = (int) Math.round(0.25 * (size + 1)) - 1;
+		int q3 = (int) Math.round(0.75 * (size + 1)) - 1;
+		return getOrderStatistic(q3) - getOrderStatistic(q1);
+	}
+
+	/**
+	 * Copies the values to a new array, newest first.
+	 *
+	 * @return the values
+	 */
+	public double[] toArray() {
+		double[] array = new double[size];
+		for (int i = 0; i < size; i++) {
+			array[i] = get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * Removes all values.
+	 */
+	public void clear() {
+		head = values.length - 1;
+		size = 0;
+		sum = 0;
+		sumOfSquares = 0;
+		modificationCount++;
+	}
+
+	/**
+	 * Inserts a value into the sorted values, which must have room for it.
+	 *
+	 * @param value the value
+	 */
+	private void insertSorted(double value) {
+		int position = Arrays.binarySearch(sorted, 0, size - 1, value);
+		if (position < 0) {
+			position = -position - 1;
+		}
+		System.arraycopy(sorted, position, sorted, position + 1, size - 1 - position);
+		sorted[position] = value;
+	}
+
+	/**
+	 * Removes a value from the sorted values.
+	 *
+	 * @param value the value, which must be one of the values
+	 */
+	private void removeSorted(double value) {
+		int position = Arrays.binarySearch(sorted, 0, size, value);
+		System.arraycopy(sorted, position + 1, sorted, position, size - 1 - position);
+	}
+
+}
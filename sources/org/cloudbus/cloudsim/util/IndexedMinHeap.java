@@ -0,0 +1,226 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of the items 0 to capacity - 1, each with a double key. Each item is in the
+ * heap at most once, and its position is tracked, so the key of an item can be changed and an
+ * item can be removed in O(log n).
+ * 
+ * @since CloudSim Toolkit 3.0
+ */
+public class IndexedMinHeap {
+
+	/** The items, in heap order. */
+	private final int[] heap;
+
+	/** The position of each item in the heap, or -1 if the item is not in the heap. */
+	private final int[] positions;
+
+	/** The key of each item. */
+	private final double[] keys;
+
+	/** The number of items in the heap. */
+	private int size;
+
+	/**
+	 * Creates a new empty heap.
+	 * 
+	 * @param capacity the number of items
+	 * @pre capacity >= 0
+	 */
+	public IndexedMinHeap(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("The capacity must not be negative");
+		}
+		heap = new int[capacity];
+		positions = new int[capacity];
+		keys = new double[capacity];
+		Arrays.fill(positions, -1);
+	}
+
+	/**
+	 * Adds an item, or changes its key if it is already in the heap.
+	 * 
+	 * @param item the item
+	 * @param key the key
+	 */
+	public void set(int item, double key) {
+		int position = positions[item];
+		if (position < 0) {
+			keys[item] = key;
+			heap[size] = item;
+			positions[item] = size;
+			siftUp(size++);
+		} else if (key < keys[item]) {
+			keys[item] = key;
+			siftUp(position);
+		} else {
+			keys[item] = key;
+			siftDown(position);
+		}
+	}
+
+	/**
+	 * Removes an item, if it is in the heap.
+	 * 
+	 * @param item the item
+	 * @return true, if the item was in the heap
+	 */
+	public boolean remove(int item) {
+		int position = positions[item];
+		if (position < 0) {
+			return false;
+		}
+		positions[item] = -1;
+		size--;
+		if (position < size) {
+			int last = heap[size];
+			heap[position] = last;
+			positions[last] = position;
+			siftUp(position);
+			siftDown(positions[last]);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the item with the smallest key.
+	 * 
+	 * @return the item
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public int poll() {
+		int item = peek();
+		remove(item);
+		return item;
+	}
+
+	/**
+	 * Gets the item with the smallest key.
+	 * 
+	 * @return the item
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public int peek() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return heap[0];
+	}
+
+	/**
+	 * Gets the smallest key.
+	 * 
+	 * @return the smallest key, or {@link Double#MAX_VALUE} if the heap is empty
+	 */
+	public double peekKey() {
+		return size == 0 ? Double.MAX_VALUE : keys[heap[0]];
+	}
+
+	/**
+	 * Gets the key of an item.
+	 * 
+	 * @param item the item
+	 * @return the key, or {@link Double#NaN} if the item is not in the heap
+	 */
+	public double getKey(int item) {
+		return positions[item] < 0 ? Double.NaN : keys[item];
+	}
+
+	/**
+	 * Checks whether an item is in the heap.
+	 * 
+	 * @param item the item
+	 * @return true, if the item is in the heap
+	 */
+	public boolean contains(int item) {
+		return positions[item] >= 0;
+	}
+
+	/**
+	 * Checks whether the heap is empty.
+	 * 
+	 * @return true, if the heap is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the number of items in the heap.
+	 * 
+	 * @return the number of items
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all items.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[heap[i]] = -1;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Moves the item at a position up until its parent has a smaller or equal key.
+	 * 
+	 * @param position the position
+	 */
+	private void siftUp(int position) {
+		int item = heap[position];
+		double key = keys[item];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (keys[heap[parent]] <= key) {
+				break;
+			}
+			heap[position] = heap[parent];
+			positions[heap[position]] = position;
+			position = parent;
+		}
+		heap[position] = item;
+		positions[item] = position;
+	}
+
+	/**
+	 * Moves the item at a position down until its children have greater or equal keys.
+	 * 
+	 * @param position the position
+	 */
+	private void siftDown(int position) {
+		int item = heap[position];
+		double key = keys[item];
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+				child++;
+			}
+			if (key <= keys[heap[child]]) {
+				break;
+			}
+			heap[position] = heap[child];
+			positions[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = item;
+		positions[item] = position;
+	}
+
+}
@@ -14,6 +14,7 @@ import java.util.List;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
 import org.apache.commons.math3.stat.regression.SimpleRegression;
+import org.apache.commons.math3.util.Precision;
 
 /**
  * A class containing multiple convenient math functions.
@@ -23,6 +24,18 @@ import org.apache.commons.math3.stat.regression.SimpleRegression;
  */
 public class MathUtil {
 
+	/** The largest number of samples whose tricube weights are computed in advance. */
+	private static final int MAX_TRICUBE_WEIGHTS = 64;
+
+	/** The tricube weights, by the number of samples, from 3 samples on. */
+	private static final double[][] TRICUBE_WEIGHTS = new double[MAX_TRICUBE_WEIGHTS + 1][];
+
+	static {
+		for (int n = 3; n <= MAX_TRICUBE_WEIGHTS; n++) {
+			TRICUBE_WEIGHTS[n] = computeTricubeWeights(n);
+		}
+	}
+
 	/**
 	 * Sums a list of numbers.
 	 * 
@@ -235,13 +248,7 @@ public class MathUtil {
 	 * @return the loess parameter estimates
 	 */
 	public static double[] getLoessParameterEstimates(final double[] y) {
-		int n = y.length;
-		double[] x = new double[n];
-		for (int i = 0; i < n; i++) {
-			x[i] = i + 1;
-		}
-		return createWeigthedLinearRegression(x, y, getTricubeWeigts(n))
-				.regress().getParameterEstimates();
+		return createLoessRegression(y, tricubeWeights(y.length)).regress();
 	}
 
 	public static SimpleRegression createLinearRegression(final double[] x,
@@ -296,27 +303,51 @@ public class MathUtil {
 	 */
 	public static double[] getRobustLoessParameterEstimates(final double[] y) {
 		int n = y.length;
-		double[] x = new double[n];
-		for (int i = 0; i < n; i++) {
-			x[i] = i + 1;
-		}
-		SimpleRegression tricubeRegression = createWeigthedLinearRegression(x,
-				y, getTricubeWeigts(n));
+		LoessRegression tricubeRegression = createLoessRegression(y, tricubeWeights(n));
 		double[] residuals = new double[n];
 		for (int i = 0; i < n; i++) {
-			residuals[i] = y[i] - tricubeRegression.predict(x[i]);
+			residuals[i] = y[i] - tricubeRegression.predict(i + 1);
 		}
-		SimpleRegression tricubeBySquareRegression = createWeigthedLinearRegression(
-				x, y, getTricubeBisquareWeigts(residuals));
+		LoessRegression tricubeBySquareRegression = createLoessRegression(
+				y, getTricubeBisquareWeigts(residuals));
 
-		double[] estimates = tricubeBySquareRegression.regress()
-				.getParameterEstimates();
+		double[] estimates = tricubeBySquareRegression.regress();
 		if (estimates[0] == Double.NaN || estimates[1] == Double.NaN) {
-			return tricubeRegression.regress().getParameterEstimates();
+			return tricubeRegression.regress();
 		}
 		return estimates;
 	}
 
+	/**
+	 * Fits a line to the samples y at x = 1, ..., n, as
+	 * {@link #createWeigthedLinearRegression(double[], double[], double[])} does, on primitives.
+	 * 
+	 * @param y the y
+	 * @param weigths the weigths
+	 * @return the regression
+	 */
+	private static LoessRegression createLoessRegression(final double[] y, final double[] weigths) {
+		int numZeroWeigths = 0;
+		for (int i = 0; i < weigths.length; i++) {
+			if (weigths[i] <= 0) {
+				numZeroWeigths++;
+			}
+		}
+		boolean weighted = numZeroWeigths >= 0.4 * weigths.length;
+
+		LoessRegression regression = new LoessRegression();
+		for (int i = 0; i < y.length; i++) {
+			double x = i + 1;
+			if (weighted) {
+				double weight = Math.sqrt(weigths[i]);
+				regression.addData(weight * x, weight * y[i]);
+			} else {
+				regression.addData(x, y[i]);
+			}
+		}
+		return regression;
+	}
+
 	/**
 	 * Gets the tricube weigts.
 	 * 
@@ -324,6 +355,33 @@ public class MathUtil {
 	 * @return the tricube weigts
 	 */
 	public static double[] getTricubeWeigts(final int n) {
+		if (n >= 3 && n <= MAX_TRICUBE_WEIGHTS) {
+			return TRICUBE_WEIGHTS[n].clone();
+		}
+		return computeTricubeWeights(n);
+	}
+
+	/**
+	 * Gets the tricube weights, shared if they are computed in advance, so they must not be
+	 * modified.
+	 * 
+	 * @param n the number of samples
+	 * @return the tricube weights
+	 */
+	private static double[] tricubeWeights(final int n) {
+		if (n >= 3 && n <= MAX_TRICUBE_WEIGHTS) {
+			return TRICUBE_WEIGHTS[n];
+		}
+		return computeTricubeWeights(n);
+	}
+
+	/**
+	 * Computes the tricube weights.
+	 * 
+	 * @param n the number of samples
+	 * @return the tricube weights
+	 */
+	private static double[] computeTricubeWeights(final int n) {
 		double[] weights = new double[n];
 		double top = n - 1;
 		double spread = top;
@@ -347,7 +405,7 @@ public class MathUtil {
 	 */
 	public static double[] getTricubeBisquareWeigts(final double[] residuals) {
 		int n = residuals.length;
-		double[] weights = getTricubeWeigts(n);
+		double[] weights = tricubeWeights(n);
 		double[] weights2 = new double[n];
 		double s6 = median(abs(residuals)) * 6;
 		for (int i = 2; i < n; i++) {
@@ -376,4 +434,89 @@ public class MathUtil {
 		return result;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * A least squares line, accumulated as by {@link SimpleRegression} with an intercept so that
+	 * the estimates are the same, without its other statistics.
+	 */
+	private static class LoessRegression {
+
+		/** The number of samples. */
+		private int n;
+
+		/** The sums of x and y. */
+		private double sumX, sumY;
+
+		/** The sums of the squared x deviations and of the xy deviation products. */
+		private double sumXX, sumXY;
+
+		/** The means of x and y. */
+		private double xbar, ybar;
+
+		/**
+		 * Adds a sample.
+		 * 
+		 * @param x the x
+		 * @param y the y
+		 */
+		void addData(final double x, final double y) {
+			if (n == 0) {
+				xbar = x;
+				ybar = y;
+			} else {
+				final double fact1 = 1.0 + n;
+				final double fact2 = n / (1.0 + n);
+				final double dx = x - xbar;
+				final double dy = y - ybar;
+				sumXX += dx * dx * fact2;
+				sumXY += dx * dy * fact2;
+				xbar += dx / fact1;
+				ybar += dy / fact1;
+			}
+			sumX += x;
+			sumY += y;
+			n++;
+		}
+
+		/**
+		 * Gets the slope.
+		 * 
+		 * @return the slope, or {@link Double#NaN} if it is undefined
+		 */
+		double getSlope() {
+			if (n < 2 || Math.abs(sumXX) < 10 * Double.MIN_VALUE) {
+				return Double.NaN;
+			}
+			return sumXY / sumXX;
+		}
+
+		/**
+		 * Predicts y at x.
+		 * 
+		 * @param x the x
+		 * @return the predicted y
+		 */
+		double predict(final double x) {
+			final double slope = getSlope();
+			return (sumY - slope * sumX) / n + slope * x;
+		}
+
+		/**
+		 * Gets the intercept and the slope.
+		 * 
+		 * @return the parameter estimates
+		 * @throws IllegalArgumentException if there are less than 3 samples
+		 */
+		double[] regress() {
+			if (n < 3) {
+				throw new IllegalArgumentException("Not enough data for a regression");
+			}
+			if (Math.abs(sumXX) > Precision.SAFE_MIN) {
+				final double slope = getSlope();
+				return new double[] { (sumY - slope * sumX) / n, slope };
+			}
+			return new double[] { sumY / n, Double.NaN };
+		}
+
+	}
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A binary store of the PlanetLab utilization traces of one day, converted from the folder of
+ * text files that {@link org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory} reads one at
+ * the time. The samples are stored as <tt>short</tt> percentages, the samples of each trace one
+ * after the other, and the file is memory-mapped rather than read, so opening a store costs
+ * nothing per trace and the pages are shared by all the simulations that use it, in this JVM and
+ * in others.
+ * <p>
+ * The file holds a header with the magic number, the format version, the number of traces and
+ * the number of samples of each trace, then the samples, then the names of the trace files. All
+ * the numbers are big-endian.
+ * <p>
+ * A folder is converted with {@link #convert(File, File)}, or from the command line with
+ * <tt>java org.cloudbus.cloudsim.util.PlanetLabTraceStore &lt;input folder&gt; &lt;output
+ * file&gt;</tt>.
+ *
+ * @see org.cloudbus.cloudsim.UtilizationModelPlanetLabMapped
+ * @since CloudSim Toolkit 3.0
+ */
+public class PlanetLabTraceStore {
+
+	/** The magic number at the start of a store. */
+	public static final int MAGIC = 0x43535054;
+
+	/** The version of the format. */
+	public static final int VERSION = 1;
+
+	/** The number of samples of a PlanetLab trace (5 min * 288 = 24 hours). */
+	public static final int DEFAULT_SAMPLES = 288;
+
+	/** The size of the header. */
+	private static final int HEADER_SIZE = 16;
+
+	/** The stores opened, by canonical path. */
+	private static final Map<String, PlanetLabTraceStore> stores = new HashMap<String, PlanetLabTraceStore>();
+
+	/** The mapped file. */
+	private final ByteBuffer buffer;
+
+	/** The number of samples of each trace. */
+	private final int samples;
+
+	/** The names of the trace files. */
+	private final String[] names;
+
+	/**
+	 * Opens a store, or returns it if it is already open. The stores stay open until the JVM ends.
+	 *
+	 * @param path the path of the store
+	 * @return the store
+	 * @throws IOException if the file cannot be read or is not a store
+	 * @pre path != null
+	 * @post $result != null
+	 */
+	public static PlanetLabTraceStore open(String path) throws IOException {
+		String key = new File(path).getCanonicalPath();
+		synchronized (stores) {
+			PlanetLabTraceStore store = stores.get(key);
+			if (store == null) {
+				store = new PlanetLabTraceStore(new File(key));
+				stores.put(key, store);
+			}
+			return store;
+		}
+	}
+
+	/**
+	 * Maps a store.
+	 *
+	 * @param file the file of the store
+	 * @throws IOException if the file cannot be read or is not a store
+	 */
+	private PlanetLabTraceStore(File file) throws IOException {
+		FileInputStream input = new FileInputStream(file);
+		try {
+			FileChannel channel = input.getChannel();
+			if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(file + " is not a PlanetLab trace store");
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			input.close();
+		}
+
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException(file + " is not a PlanetLab trace store of version " + VERSION);
+		}
+		names = new String[buffer.getInt(8)];
+		samples = buffer.getInt(12);
+
+		ByteBuffer nameBuffer = buffer.duplicate();
+		nameBuffer.position(HEADER_SIZE + 2 * names.length * samples);
+		for (int i = 0; i < names.length; i++) {
+			byte[] name = new byte[nameBuffer.getShort() & 0xFFFF];
+			nameBuffer.get(name);
+			names[i] = new String(name, "UTF-8");
+		}
+	}
+
+	/**
+	 * Gets the number of traces.
+	 *
+	 * @return the number of traces
+	 */
+	public int getNumberOfTraces() {
+		return names.length;
+	}
+
+	/**
+	 * Gets the number of samples of each trace.
+	 *
+	 * @return the number of samples
+	 */
+	public int getNumberOfSamples() {
+		return samples;
+	}
+
+	/**
+	 * Gets the name of the file a trace was converted from.
+	 *
+	 * @param trace the index of the trace
+	 * @return the name of the file
+	 */
+	public String getName(int trace) {
+		return names[trace];
+	}
+
+	/**
+	 * Gets a sample of a trace.
+	 *
+	 * @param trace the index of the trace
+	 * @param sample the index of the sample
+	 * @return the utilization, as a percentage
+	 * @throws IndexOutOfBoundsException if there is no such trace or sample
+	 */
+	public int getSample(int trace, int sample) {
+		if (trace < 0 || trace >= names.length || sample < 0 || sample >= samples) {
+			throw new IndexOutOfBoundsException("Trace " + trace + ", sample " + sample);
+		}
+		return buffer.getShort(HEADER_SIZE + 2 * (trace * samples + sample));
+	}
+
+	/**
+	 * Converts a folder of PlanetLab traces into a store, reading the first
+	 * {@link #DEFAULT_SAMPLES} lines of each file.
+	 *
+	 * @param inputFolder the folder of the traces
+	 * @param outputFile the store to write
+	 * @throws IOException if a trace cannot be read or the store cannot be written
+	 * @see #convert(File, File, int)
+	 */
+	public static void convert(File inputFolder, File outputFile) throws IOException {
+		convert(inputFolder, outputFile, DEFAULT_SAMPLES);
+	}
+
+	/**
+	 * Converts a folder of PlanetLab traces into a store. Each file of the folder holds one
+	 * percentage per line. The traces are stored in the order in which {@link File#listFiles()}
+	 * returns the files, which is the order in which the power examples read them.
+	 *
+	 * @param inputFolder the folder of the traces
+	 * @param outputFile the store to write
+	 * @param samples the number of lines to read from each file
+	 * @throws IOException if a trace cannot be read or the store cannot be written
+	 * @throws IllegalArgumentException if the number of samples is not positive
+	 * @pre samples > 0
+	 * @post $none
+	 */
+	public static void convert(File inputFolder, File outputFile, int samples) throws IOException {
+		if (samples <= 0) {
+			throw new IllegalArgumentException("The number of samples must be > 0.");
+		}
+		File[] files = inputFolder.listFiles();
+		if (files == null) {
+			throw new IOException(inputFolder + " is not a folder");
+		}
+
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile)));
+		try {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(files.length);
+			output.writeInt(samples);
+			for (File file : files) {
+				BufferedReader input = new BufferedReader(new FileReader(file));
+				try {
+					for (int i = 0; i < samples; i++) {
+						String line = input.readLine();
+						if (line == null) {
+							throw new IOException(file + " has less than " + samples + " samples");
+						}
+						int value = Integer.parseInt(line.trim());
+						if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+							throw new IOException(file + " has an invalid sample: " + value);
+						}
+						output.writeShort(value);
+					}
+				} finally {
+					input.close();
+				}
+			}
+			for (File file : files) {
+				byte[] name = file.getName().getBytes("UTF-8");
+				output.writeShort(name.length);
+				output.write(name);
+			}
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * Converts a folder of PlanetLab traces into a store.
+	 *
+	 * @param args the input folder and the output file
+	 * @throws IOException if a trace cannot be read or the store cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: PlanetLabTraceStore <input folder> <output file>");
+			System.exit(1);
+		}
+		convert(new File(args[0]), new File(args[1]));
+	}
+
+}
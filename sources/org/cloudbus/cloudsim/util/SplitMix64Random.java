@@ -0,0 +1,116 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Random;
+
+/**
+ * A fast random generator implementing the SplitMix64 algorithm of Steele, Lea and Flood, which
+ * also backs <tt>java.util.SplittableRandom</tt>. It extends {@link Random} so that it can be
+ * passed wherever a Random is expected, but unlike Random it neither synchronizes nor updates an
+ * atomic seed: an instance must be used by one thread at a time, and threads should
+ * {@link #split()} their own streams rather than share one.
+ *
+ * @see org.cloudbus.cloudsim.core.RandomService
+ * @since CloudSim Toolkit 3.0
+ */
+public class SplitMix64Random extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The odd increment of the state, the golden ratio scaled to 64 bits. */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/** The unit of the doubles generated, 2 to the power of -53. */
+	private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+	/** The state. */
+	private long state;
+
+	/**
+	 * Creates a generator.
+	 *
+	 * @param seed the seed
+	 */
+	public SplitMix64Random(long seed) {
+		super(seed);
+		state = seed;
+	}
+
+	/**
+	 * Mixes the bits of a value, so that close values give unrelated results. It is the output
+	 * function of SplitMix64 (a variant of the MurmurHash3 finalizer).
+	 *
+	 * @param z the value
+	 * @return the mixed value
+	 */
+	public static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Creates a generator whose values are independent of the values of this one. This one
+	 * advances by one value.
+	 *
+	 * @return the new generator
+	 */
+	public SplitMix64Random split() {
+		return new SplitMix64Random(mix64(nextLong()));
+	}
+
+	@Override
+	public void setSeed(long seed) {
+		// clears the gaussian kept by Random
+		super.setSeed(seed);
+		state = seed;
+	}
+
+	@Override
+	protected int next(int bits) {
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public long nextLong() {
+		return mix64(state += GOLDEN_GAMMA);
+	}
+
+	@Override
+	public int nextInt() {
+		return (int) (nextLong() >>> 32);
+	}
+
+	@Override
+	public int nextInt(int n) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("n must be positive");
+		}
+		int m = n - 1;
+		int r = next(31);
+		if ((n & m) == 0) {
+			return (int) ((n * (long) r) >> 31);
+		}
+		for (int u = r; u - (r = u % n) + m < 0; u = next(31)) {
+		}
+		return r;
+	}
+
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return nextLong() < 0;
+	}
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads a trace file one line at the time into a reused byte array, so that the fields of a line
+ * can be parsed without creating strings. Plain files are memory-mapped one window at the time;
+ * gzip and zip files are decompressed as they are read. The lines are ended by '\n' or '\r', and
+ * the end of each entry of a zip file also ends a line.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+abstract class TraceInput implements Closeable {
+
+	/** The size of the windows in which plain files are mapped. */
+	private static final long MAP_WINDOW = 64L * 1024 * 1024;
+
+	/** The size of the buffer for compressed files. */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/** The current line. */
+	private byte[] line = new byte[256];
+
+	/** The length of the current line. */
+	private int length;
+
+	/** The chunk of the file being read. */
+	private ByteBuffer chunk;
+
+	/**
+	 * Opens a trace file. The format is given by the extension of the file name: <i>.gz</i> for
+	 * gzip, <i>.zip</i> for zip, and ASCII text otherwise.
+	 *
+	 * @param file the file
+	 * @return the input
+	 * @throws IOException if the file cannot be opened
+	 */
+	static TraceInput open(File file) throws IOException {
+		if (file.getName().endsWith(".gz")) {
+			return new Stream(new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE));
+		} else if (file.getName().endsWith(".zip")) {
+			return new Zip(new ZipFile(file));
+		}
+		return new Mapped(new FileInputStream(file).getChannel());
+	}
+
+	/**
+	 * Reads the next line.
+	 *
+	 * @return <code>true</code> if a line was read; <code>false</code> at the end of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	boolean nextLine() throws IOException {
+		length = 0;
+		boolean read = false;
+		while (true) {
+			if (chunk == null || !chunk.hasRemaining()) {
+				chunk = nextChunk();
+				if (chunk == null) {
+					return read;
+				}
+			}
+			read = true;
+			while (chunk.hasRemaining()) {
+				byte b = chunk.get();
+				if (b == '\n' || b == '\r') {
+					return true;
+				}
+				if (length == line.length) {
+					byte[] larger = new byte[2 * length];
+					System.arraycopy(line, 0, larger, 0, length);
+					line = larger;
+				}
+				line[length++] = b;
+			}
+		}
+	}
+
+	/**
+	 * Gets the current line. Only the first {@link #getLength()} bytes belong to the line, and the
+	 * array is overwritten by the next call to {@link #nextLine()}.
+	 *
+	 * @return the bytes of the line
+	 */
+	byte[] getLine() {
+		return line;
+	}
+
+	/**
+	 * Gets the length of the current line.
+	 *
+	 * @return the length
+	 */
+	int getLength() {
+		return length;
+	}
+
+	/**
+	 * Gets the next chunk of the file.
+	 *
+	 * @return the chunk, or <code>null</code> at the end of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	protected abstract ByteBuffer nextChunk() throws IOException;
+
+	/**
+	 * A plain file, mapped into memory one window at the time.
+	 */
+	private static class Mapped extends TraceInput {
+
+		/** The channel of the file. */
+		private final FileChannel channel;
+
+		/** The position of the next window. */
+		private long position;
+
+		Mapped(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		@Override
+		protected ByteBuffer nextChunk() throws IOException {
+			long size = channel.size();
+			if (position >= size) {
+				return null;
+			}
+			long window = Math.min(MAP_WINDOW, size - position);
+			ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+			position += window;
+			return chunk;
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+
+	}
+
+	/**
+	 * A file read through a stream, such as a decompressing one.
+	 */
+	private static class Stream extends TraceInput {
+
+		/** The stream. */
+		private InputStream in;
+
+		/** The buffer. */
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+		Stream(InputStream in) {
+			this.in = in;
+		}
+
+		@Override
+		protected ByteBuffer nextChunk() throws IOException {
+			while (in != null) {
+				int read = in.read(buffer.array());
+				if (read > 0) {
+					buffer.clear();
+					buffer.limit(read);
+					return buffer;
+				}
+				if (read < 0) {
+					in.close();
+					in = nextStream();
+					if (in != null) {
+						// the end of a stream ends its last line
+						buffer.clear();
+						buffer.put((byte) '\n');
+						buffer.flip();
+						return buffer;
+					}
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Gets the stream to read after the current one ends.
+		 *
+		 * @return the next stream, or <code>null</code> if there is none
+		 * @throws IOException if the stream cannot be opened
+		 */
+		protected InputStream nextStream() throws IOException {
+			return null;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (in != null) {
+				in.close();
+			}
+		}
+
+	}
+
+	/**
+	 * A zip file, whose entries are read one after the other.
+	 */
+	private static class Zip extends Stream {
+
+		/** The zip file. */
+		private final ZipFile zipFile;
+
+		/** The entries left to read. */
+		private final Enumeration<? extends ZipEntry> entries;
+
+		Zip(ZipFile zipFile) throws IOException {
+			this(zipFile, zipFile.entries());
+		}
+
+		private Zip(ZipFile zipFile, Enumeration<? extends ZipEntry> entries) throws IOException {
+			super(entries.hasMoreElements() ? zipFile.getInputStream(entries.nextElement()) : null);
+			this.zipFile = zipFile;
+			this.entries = entries;
+		}
+
+		@Override
+		protected InputStream nextStream() throws IOException {
+			return entries.hasMoreElements() ? zipFile.getInputStream(entries.nextElement()) : null;
+		}
+
+		@Override
+		public void close() throws IOException {
+			zipFile.close();
+		}
+
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * Iterates over the jobs of a trace file, reading the file only as far as needed, so that the jobs
+ * of a trace larger than the heap can be replayed. It is created by
+ * {@link WorkloadFileReader#streamWorkload(int)}.
+ * <p>
+ * The jobs are released in the order of their submit times. To do so, up to <tt>window</tt> jobs
+ * are read ahead of the one released and kept sorted; a job that comes more than <tt>window</tt>
+ * lines after a job submitted later than it is released after that job. Jobs with the same
+ * submit time are released in the order of the trace. A broker can call
+ * {@link #getNextSubmitTime()} to submit the jobs as the simulation clock reaches their submit
+ * times.
+ * <p>
+ * As {@link java.util.Scanner} does, the iterator does not throw the {@link IOException}s of the
+ * underlying file: the iteration ends, and the exception is returned by {@link #getException()}.
+ * The file is closed when the iteration ends or when {@link #close()} is called.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class WorkloadFileIterator implements Iterator<Cloudlet>, Closeable {
+
+	/** The reader that parses the lines of the file. */
+	private final WorkloadFileReader reader;
+
+	/** The file. */
+	private final TraceInput input;
+
+	/** The number of jobs to read ahead. */
+	private final int window;
+
+	/** The jobs read and not yet released, by submit time. */
+	private final PriorityQueue<Job> pending;
+
+	/** The number of jobs read. */
+	private int count;
+
+	/** Whether the whole file has been read or the iterator closed. */
+	private boolean ended;
+
+	/** The exception that ended the iteration. */
+	private IOException exception;
+
+	/**
+	 * Creates a new iterator.
+	 *
+	 * @param reader the reader that parses the lines of the file
+	 * @param input the file
+	 * @param window the number of jobs to read ahead
+	 * @pre reader != null
+	 * @pre input != null
+	 * @pre window >= 0
+	 */
+	WorkloadFileIterator(final WorkloadFileReader reader, final TraceInput input, final int window) {
+		this.reader = reader;
+		this.input = input;
+		this.window = window;
+		pending = new PriorityQueue<Job>(Math.min(window, 1024) + 1);
+	}
+
+	@Override
+	public boolean hasNext() {
+		fill();
+		return !pending.isEmpty();
+	}
+
+	@Override
+	public Cloudlet next() {
+		fill();
+		if (pending.isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		return pending.poll().cloudlet;
+	}
+
+	/**
+	 * Gets the submit time of the job that {@link #next()} returns.
+	 *
+	 * @return the submit time, or -1 if there are no more jobs
+	 */
+	public long getNextSubmitTime() {
+		fill();
+		return pending.isEmpty() ? -1 : pending.peek().submitTime;
+	}
+
+	/**
+	 * Not supported.
+	 *
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Gets the exception thrown while reading the file.
+	 *
+	 * @return the exception that ended the iteration, or <code>null</code> if there was none
+	 */
+	public IOException getException() {
+		return exception;
+	}
+
+	/**
+	 * Closes the file. The jobs already read ahead can still be iterated over.
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!ended) {
+			ended = true;
+			input.close();
+		}
+	}
+
+	/**
+	 * Reads jobs until <tt>window</tt> jobs are read ahead of the next one, or the file ends.
+	 */
+	private void fill() {
+		while (!ended && pending.size() <= window) {
+			try {
+				Job job = reader.readJob(input, count);
+				if (job == null) {
+					close();
+				} else {
+					pending.add(job);
+					count++;
+				}
+			} catch (final IOException e) {
+				exception = e;
+				try {
+					close();
+				} catch (final IOException ignored) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * A job read from the file.
+	 */
+	static final class Job implements Comparable<Job> {
+
+		/** The submit time. */
+		final long submitTime;
+
+		/** The position of the job among the jobs of the file. */
+		final int sequence;
+
+		/** The cloudlet of the job. */
+		final Cloudlet cloudlet;
+
+		Job(final long submitTime, final int sequence, final Cloudlet cloudlet) {
+			this.submitTime = submitTime;
+			this.sequence = sequence;
+			this.cloudlet = cloudlet;
+		}
+
+		@Override
+		public int compareTo(final Job other) {
+			if (submitTime != other.submitTime) {
+				return submitTime < other.submitTime ? -1 : 1;
+			}
+			return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+		}
+
+	}
+
+}
@@ -8,17 +8,10 @@
 
 package org.cloudbus.cloudsim.util;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.UtilizationModel;
@@ -35,7 +28,8 @@ import org.cloudbus.cloudsim.UtilizationModelFull;
  * class <tt>each with a unique 
  *      	 entity name</tt>.
  * <li>If size of the trace file is huge or contains lots of traces please increase the JVM heap
- * size accordingly by using <tt>java -Xmx</tt> option when running the simulation.
+ * size accordingly by using <tt>java -Xmx</tt> option when running the simulation, or read the jobs
+ * one at the time with {@link #streamWorkload()}.
  * <li>The default job file size for sending to and receiving from a resource is
  * {@link gridsim.net.Link#DEFAULT_MTU}. However, you can specify the file size by using
  * {@link #setGridletFileSize(int)}.
@@ -96,7 +90,12 @@ public class WorkloadFileReader implements WorkloadModel {
 	// comment
 	private static final int IRRELEVANT = -1; // irrelevant number
 
-	private String[] fieldArray = null; // a temp array storing all the fields
+	/** The number of jobs read ahead by {@link #streamWorkload()}. */
+	public static final int DEFAULT_WINDOW = 1024;
+
+	private int[] fieldStarts = null; // the start of each field in a line
+
+	private int[] fieldEnds = null; // the end of each field in a line
 
 	/**
 	 * Create a new {@link WorkloadFileReader} object.
@@ -139,18 +138,11 @@ public class WorkloadFileReader implements WorkloadModel {
 		if (jobs == null) {
 			jobs = new ArrayList<Cloudlet>();
 
-			// create a temp array
-			fieldArray = new String[MAX_FIELD];
-
 			try {
-				if (file.getName().endsWith(".gz")) {
-					readGZIPFile(file);
-				} else if (file.getName().endsWith(".zip")) {
-					readZipFile(file);
-				} else {
-					readFile(file);
+				final WorkloadFileIterator iterator = streamWorkload(0);
+				while (iterator.hasNext()) {
+					jobs.add(iterator.next());
 				}
-			} catch (final FileNotFoundException e) {
 			} catch (final IOException e) {
 			}
 		}
@@ -158,6 +150,39 @@ public class WorkloadFileReader implements WorkloadModel {
 		return jobs;
 	}
 
+	/**
+	 * Reads the jobs from the file as they are iterated over, instead of all at once, reading
+	 * {@link #DEFAULT_WINDOW} jobs ahead to release them in the order of their submit times.
+	 * 
+	 * @return an iterator over the jobs
+	 * @throws IOException if the file cannot be opened
+	 * @see #streamWorkload(int)
+	 */
+	public WorkloadFileIterator streamWorkload() throws IOException {
+		return streamWorkload(DEFAULT_WINDOW);
+	}
+
+	/**
+	 * Reads the jobs from the file as they are iterated over, instead of all at once. Plain files
+	 * are memory-mapped and gzip and zip files are decompressed as they are read, and the fields
+	 * are parsed without creating strings, so only the jobs read ahead are kept in memory. Each
+	 * call reads the file again from its start.
+	 * 
+	 * @param window the number of jobs to read ahead, to release them in the order of their submit
+	 *        times; 0 to release them in the order of the file
+	 * @return an iterator over the jobs
+	 * @throws IOException if the file cannot be opened
+	 * @throws IllegalArgumentException if the window is negative
+	 * @pre window >= 0
+	 * @post $none
+	 */
+	public WorkloadFileIterator streamWorkload(final int window) throws IOException {
+		if (window < 0) {
+			throw new IllegalArgumentException("The window must not be negative.");
+		}
+		return new WorkloadFileIterator(this, TraceInput.open(file), window);
+	}
+
 	/**
 	 * Identifies the start of a comment line.
 	 * 
@@ -249,7 +274,30 @@ public class WorkloadFileReader implements WorkloadModel {
 	// ------------------- PRIVATE METHODS -------------------
 
 	/**
-	 * Creates a Gridlet with the given information and adds to the list
+	 * Reads lines from a file until a job is found.
+	 * 
+	 * @param input the file
+	 * @param count the number of jobs read so far
+	 * @return the job; <code>null</code> at the end of the file
+	 * @throws IOException if there was any error reading the file
+	 */
+	WorkloadFileIterator.Job readJob(final TraceInput input, final int count) throws IOException {
+		if (fieldStarts == null || fieldStarts.length != MAX_FIELD) {
+			fieldStarts = new int[MAX_FIELD];
+			fieldEnds = new int[MAX_FIELD];
+		}
+
+		while (input.nextLine()) {
+			final WorkloadFileIterator.Job job = parseJob(input.getLine(), input.getLength(), count);
+			if (job != null) {
+				return job;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Creates a Gridlet with the given information
 	 * 
 	 * @param id a Gridlet ID
 	 * @param submitTime Gridlet's submit time
@@ -258,13 +306,14 @@ public class WorkloadFileReader implements WorkloadModel {
 	 * @param reqRunTime user estimated run time
 	 * @param userID user id
 	 * @param groupID user's group id
+	 * @return the Gridlet
 	 * @pre id >= 0
 	 * @pre submitTime >= 0
 	 * @pre runTime >= 0
 	 * @pre numProc > 0
 	 * @post $none
 	 */
-	private void createJob(
+	private Cloudlet createJob(
 			final int id,
 			final long submitTime,
 			final int runTime,
@@ -275,54 +324,75 @@ public class WorkloadFileReader implements WorkloadModel {
 		// create the cloudlet
 		final int len = runTime * rating;
 		UtilizationModel utilizationModel = new UtilizationModelFull();
-		final Cloudlet wgl = new Cloudlet(
-				id,
-				len,
-				numProc,
-				0,
-				0,
-				utilizationModel,
-				utilizationModel,
-				utilizationModel);
-		jobs.add(wgl);
+		return new Cloudlet(id, len, numProc, 0, 0, utilizationModel, utilizationModel, utilizationModel);
 	}
 
 	/**
-	 * Extracts relevant information from a given array
+	 * Breaks a line into fields and extracts the job from them.
 	 * 
-	 * @param array an array of String
-	 * @param line a line number
-	 * @pre array != null
-	 * @pre line > 0
+	 * @param line the bytes of the line
+	 * @param length the length of the line
+	 * @param count the number of jobs read so far
+	 * @return the job; <code>null</code> if the line is a comment or is not valid
+	 * @pre line != null
+	 * @post $none
 	 */
-	private void extractField(final String[] array, final int line) {
-		try {
-			Integer obj = null;
+	private WorkloadFileIterator.Job parseJob(final byte[] line, final int length, final int count) {
+		// skip a comment line
+		if (length >= COMMENT.length()) {
+			int i = 0;
+			while (i < COMMENT.length() && line[i] == COMMENT.charAt(i)) {
+				i++;
+			}
+			if (i == COMMENT.length()) {
+				return null;
+			}
+		}
 
+		// find the fields, separated by spaces
+		int index = 0;
+		int i = 0;
+		while (true) {
+			while (i < length && isSpace(line[i])) {
+				i++;
+			}
+			if (i == length) {
+				break;
+			}
+			if (index == MAX_FIELD) {
+				return null;
+			}
+			fieldStarts[index] = i;
+			while (i < length && !isSpace(line[i])) {
+				i++;
+			}
+			fieldEnds[index++] = i;
+		}
+		if (index != MAX_FIELD) {
+			return null;
+		}
+
+		try {
 			// get the job number
 			int id = 0;
 			if (JOB_NUM == IRRELEVANT) {
-				id = jobs.size() + 1;
+				id = count + 1;
 			} else {
-				obj = new Integer(array[JOB_NUM].trim());
-				id = obj.intValue();
+				id = parseInt(line, JOB_NUM);
 			}
 
 			// get the submit time
-			final Long l = new Long(array[SUBMIT_TIME].trim());
-			final long submitTime = l.intValue();
+			final long submitTime = parseLong(line, SUBMIT_TIME);
 
 			// get the user estimated run time
-			obj = new Integer(array[REQ_RUN_TIME].trim());
-			final int reqRunTime = obj.intValue();
+			final int reqRunTime = parseInt(line, REQ_RUN_TIME);
 
 			// if the required run time field is ignored, then use
 			// the actual run time
-			obj = new Integer(array[RUN_TIME].trim());
-			int runTime = obj.intValue();
+			int runTime = parseInt(line, RUN_TIME);
 
-			final int userID = new Integer(array[USER_ID].trim()).intValue();
-			final int groupID = new Integer(array[GROUP_ID].trim()).intValue();
+			final int userID = parseInt(line, USER_ID);
+			final int groupID = parseInt(line, GROUP_ID);
 
 			// according to the SWF manual, runtime of 0 is possible due
 			// to rounding down. E.g. runtime is 0.4 seconds -> runtime = 0
@@ -331,165 +401,93 @@ public class WorkloadFileReader implements WorkloadModel {
 			}
 
 			// get the number of allocated processors
-			obj = new Integer(array[REQ_NUM_PROC].trim());
-			int numProc = obj.intValue();
+			int numProc = parseInt(line, REQ_NUM_PROC);
 
 			// if the required num of allocated processors field is ignored
 			// or zero, then use the actual field
 			if (numProc == IRRELEVANT || numProc == 0) {
-				obj = new Integer(array[NUM_PROC].trim());
-				numProc = obj.intValue();
+				numProc = parseInt(line, NUM_PROC);
 			}
 
 			// finally, check if the num of PEs required is valid or not
 			if (numProc <= 0) {
 				numProc = 1;
 			}
-			createJob(id, submitTime, runTime, numProc, reqRunTime, userID, groupID);
-		} catch (final Exception e) {
-
+			final Cloudlet cloudlet = createJob(id, submitTime, runTime, numProc, reqRunTime, userID, groupID);
+			return new WorkloadFileIterator.Job(submitTime, count, cloudlet);
+		} catch (final NumberFormatException e) {
+			return null;
 		}
 	}
 
 	/**
-	 * Breaks a line of string into many fields.
+	 * Parses a field of a line as an int.
 	 * 
-	 * @param line a line of string
-	 * @param lineNum a line number
-	 * @pre line != null
-	 * @pre lineNum > 0
-	 * @post $none
+	 * @param line the bytes of the line
+	 * @param field the index of the field
+	 * @return the value of the field
+	 * @throws NumberFormatException if the field is missing or is not an int
 	 */
-	private void parseValue(final String line, final int lineNum) {
-		// skip a comment line
-		if (line.startsWith(COMMENT)) {
-			return;
-		}
-
-		final String[] sp = line.split("\\s+"); // split the fields based on a
-		// space
-		int len = 0; // length of a string
-		int index = 0; // the index of an array
-
-		// check for each field in the array
-		for (final String elem : sp) {
-			len = elem.length(); // get the length of a string
-
-			// if it is empty then ignore
-			if (len == 0) {
-				continue;
-			}
-			fieldArray[index] = elem;
-			index++;
-		}
-
-		if (index == MAX_FIELD) {
-			extractField(fieldArray, lineNum);
+	private int parseInt(final byte[] line, final int field) {
+		final long value = parseLong(line, field);
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw new NumberFormatException("Field " + (field + 1) + " is out of range");
 		}
+		return (int) value;
 	}
 
 	/**
-	 * Reads a text file one line at the time
+	 * Parses a field of a line as a long, in the way {@link Long#parseLong(String)} does.
 	 * 
-	 * @param fl a file name
-	 * @return <code>true</code> if successful, <code>false</code> otherwise.
-	 * @throws IOException if the there was any error reading the file
-	 * @throws FileNotFoundException if the file was not found
+	 * @param line the bytes of the line
+	 * @param field the index of the field
+	 * @return the value of the field
+	 * @throws NumberFormatException if the field is missing or is not a long
 	 */
-	private boolean readFile(final File fl) throws IOException, FileNotFoundException {
-		boolean success = false;
-		BufferedReader reader = null;
-		try {
-			reader = new BufferedReader(new InputStreamReader(new FileInputStream(fl)));
-
-			// read one line at the time
-			int line = 1;
-			while (reader.ready()) {
-				parseValue(reader.readLine(), line);
-				line++;
-			}
-
-			reader.close();
-			success = true;
-		} finally {
-			if (reader != null) {
-				reader.close();
-			}
+	private long parseLong(final byte[] line, final int field) {
+		if (field < 0 || field >= MAX_FIELD) {
+			throw new NumberFormatException("Field " + (field + 1) + " is missing");
 		}
 
-		return success;
-	}
-
-	/**
-	 * Reads a gzip file one line at the time
-	 * 
-	 * @param fl a gzip file name
-	 * @return <code>true</code> if successful; <code>false</code> otherwise.
-	 * @throws IOException if the there was any error reading the file
-	 * @throws FileNotFoundException if the file was not found
-	 */
-	private boolean readGZIPFile(final File fl) throws IOException, FileNotFoundException {
-		boolean success = false;
-		BufferedReader reader = null;
-		try {
-			reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(fl))));
+		int i = fieldStarts[field];
+		final int end = fieldEnds[field];
+		final boolean negative = line[i] == '-';
+		if (negative || line[i] == '+') {
+			i++;
+		}
+		if (i == end) {
+			throw new NumberFormatException("Field " + (field + 1) + " is not a number");
+		}
 
-			// read one line at the time
-			int line = 1;
-			while (reader.ready()) {
-				parseValue(reader.readLine(), line);
-				line++;
+		// accumulate negatively, since Long.MIN_VALUE has no positive counterpart
+		long value = 0;
+		for (; i < end; i++) {
+			final int digit = line[i] - '0';
+			if (digit < 0 || digit > 9 || value < Long.MIN_VALUE / 10) {
+				throw new NumberFormatException("Field " + (field + 1) + " is not a number");
 			}
-
-			reader.close();
-			success = true;
-		} finally {
-			if (reader != null) {
-				reader.close();
+			value *= 10;
+			if (value < Long.MIN_VALUE + digit) {
+				throw new NumberFormatException("Field " + (field + 1) + " is out of range");
 			}
+			value -= digit;
 		}
-
-		return success;
+		if (!negative) {
+			if (value == Long.MIN_VALUE) {
+				throw new NumberFormatException("Field " + (field + 1) + " is out of range");
+			}
+			value = -value;
+		}
+		return value;
 	}
 
 	/**
-	 * Reads a Zip file.
+	 * Checks whether a byte is a space, as matched by <tt>\s</tt> in a regular expression.
 	 * 
-	 * @param fl a zip file name
-	 * @return <code>true</code> if reading a file is successful; <code>false</code> otherwise.
-	 * @throws IOException if the there was any error reading the file
+	 * @param b the byte
+	 * @return <code>true</code> if the byte is a space
 	 */
-	private boolean readZipFile(final File fl) throws IOException {
-		boolean success = false;
-		ZipFile zipFile = null;
-		try {
-			BufferedReader reader = null;
-
-			// ZipFile offers an Enumeration of all the files in the file
-			zipFile = new ZipFile(fl);
-			final Enumeration<? extends ZipEntry> e = zipFile.entries();
-			while (e.hasMoreElements()) {
-				success = false; // reset the value again
-				final ZipEntry zipEntry = e.nextElement();
-
-				reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(zipEntry)));
-
-				// read one line at the time
-				int line = 1;
-				while (reader.ready()) {
-					parseValue(reader.readLine(), line);
-					line++;
-				}
-
-				reader.close();
-				success = true;
-			}
-		} finally {
-			if (zipFile != null) {
-				zipFile.close();
-			}
-		}
-
-		return success;
+	private static boolean isSpace(final byte b) {
+		return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
 	}
 }
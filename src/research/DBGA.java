@@ -9,8 +9,9 @@
 package research;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -22,10 +23,18 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.RandomService;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.lists.CloudletList;
+import org.cloudbus.cloudsim.lists.CloudletRegistry;
 import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.lists.VmRegistry;
+
+import research.ga.GeneticScheduler;
+import research.ga.RoundRobinInitializer;
+import research.ga.SchedulingProblem;
+import research.ga.TotalExecutionTimeFitness;
 
 /**
  * DatacentreBroker represents a broker acting on behalf of a user. It hides VM
@@ -38,6 +47,12 @@ import org.cloudbus.cloudsim.lists.VmList;
  */
 public class DBGA extends SimEntity {
 
+	/** The number of chromosomes per generation of the scheduling GA. */
+	private static final int POPULATION_SIZE = 100;
+
+	/** The number of generations of the scheduling GA. */
+	private static final int MAX_GENERATIONS = 100;
+
 	/** The vm list. */
 	protected List<? extends Vm> vmList;
 
@@ -77,6 +92,9 @@ public class DBGA extends SimEntity {
 	/** The datacenter characteristics list. */
 	protected Map<Integer, DatacenterCharacteristics> datacenterCharacteristicsList;
 
+	/** The random stream of the scheduling GA, derived from the simulation seed and the broker name. */
+	private final Random random;
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -88,10 +106,11 @@ public class DBGA extends SimEntity {
 	 */
 	public DBGA(String name) throws Exception {
 		super(name);
+		random = RandomService.getStream(name);
 
-		setVmList(new ArrayList<Vm>());
-		setVmsCreatedList(new ArrayList<Vm>());
-		setCloudletList(new ArrayList<Cloudlet>());
+		setVmList(new VmRegistry<Vm>());
+		setVmsCreatedList(new VmRegistry<Vm>());
+		setCloudletList(new CloudletRegistry<Cloudlet>());
 		setCloudletSubmittedList(new ArrayList<Cloudlet>());
 		setCloudletReceivedList(new ArrayList<Cloudlet>());
 
@@ -230,12 +249,13 @@ public class DBGA extends SimEntity {
 
 		if (result == CloudSimTags.TRUE) {
 			getVmsToDatacentersMap().put(vmId, datacenterId);
-			getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": VM #" + vmId + " has been created in Datacenter #"
-					+ datacenterId + ", Host #" + VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+			Vm vm = VmList.getById(getVmList(), vmId);
+			getVmsCreatedList().add(vm);
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_CREATE_ACK, vmId, datacenterId,
+					vm.getHost().getId(), "VM #{} has been created in Datacenter #{}, Host #{}");
 		} else {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId + " failed in Datacenter #"
-					+ datacenterId);
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_CREATE_ACK, vmId, datacenterId,
+					"Creation of VM #{} failed in Datacenter #{}");
 		}
 
 		incrementVmsAcks();
@@ -276,7 +296,8 @@ public class DBGA extends SimEntity {
 	protected void processCloudletReturn(SimEvent ev) {
 		Cloudlet cloudlet = (Cloudlet) ev.getData();
 		getCloudletReceivedList().add(cloudlet);
-		Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloudlet " + cloudlet.getCloudletId() + " received");
+		Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_RETURN,
+				cloudlet.getCloudletId(), "Cloudlet {} received");
 		cloudletsSubmitted--;
 		if (getCloudletList().size() == 0 && cloudletsSubmitted == 0) { // all cloudlets executed
 			Log.printLine(CloudSim.clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
@@ -350,10 +371,12 @@ public class DBGA extends SimEntity {
 
 		/*
 		 * CustomPair geneticPair = geneticAlgorithm(getCloudletList(),
-		 * getVmsCreatedList()); cloudletsList = geneticPair.getFirst(); vmList =
-		 * geneticPair.getSecond();
+		 * getVmsCreatedList(), random); cloudletsList = geneticPair.getFirst();
+		 * vmList = geneticPair.getSecond();
 		 */
 
+		// one submission event per datacenter, in the order the datacenters are first used
+		Map<Integer, List<Cloudlet>> batches = new LinkedHashMap<Integer, List<Cloudlet>>();
 		for (Cloudlet cloudlet : cloudletsList) {
 			Vm vm;
 			// if user didn't bind this cloudlet and it has not been executed yet
@@ -362,413 +385,51 @@ public class DBGA extends SimEntity {
 			} else { // submit to the specific vm
 				vm = VmList.getById(vmList, cloudlet.getVmId());
 				if (vm == null) { // vm was not created
-					Log.printLine(CloudSim.clock() + ": " + getName() + ": Postponing execution of cloudlet "
-							+ cloudlet.getCloudletId() + ": bount VM not available");
+					Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_SUBMIT_BATCH,
+							cloudlet.getCloudletId(), "Postponing execution of cloudlet {}: bount VM not available");
 					continue;
 				}
 			}
 
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Sending cloudlet " + cloudlet.getCloudletId()
-					+ " to VM #" + vm.getId());
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_SUBMIT_BATCH,
+					cloudlet.getCloudletId(), vm.getId(), "Sending cloudlet {} to VM #{}");
 			cloudlet.setVmId(vm.getId());
-			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			int datacenterId = getVmsToDatacentersMap().get(vm.getId());
+			List<Cloudlet> batch = batches.get(datacenterId);
+			if (batch == null) {
+				batch = new ArrayList<Cloudlet>();
+				batches.put(datacenterId, batch);
+			}
+			batch.add(cloudlet);
 			cloudletsSubmitted++;
 			vmIndex = (vmIndex + 1) % vmList.size();
 			getCloudletSubmittedList().add(cloudlet);
 		}
 
-		// remove submitted cloudlets from waiting list
-		for (Cloudlet cloudlet : getCloudletSubmittedList()) {
-			getCloudletList().remove(cloudlet);
-		}
-	}
-	
-	static List<Integer> fitnessPopulation(List<List<List<Gene2>>> population) {
-		int fitness = 0; 
-		List<Integer> fitnessList = new ArrayList<>(); 
-		for(List<List<Gene2>> chromo : population) {
-			fitness = fitnessChromosome(chromo);
-			fitnessList.add(fitness);
-		}
-		 return fitnessList;
-	}
-	
-	static int fitnessChromosome(List<List<Gene2>> chromo) {
-		int fitness = 0; 
-		for (List<Gene2> cr1: chromo) {
-			for (Gene2 gene: cr1) { 
-				fitness +=  fitnessGene(gene);
-			}
-		}
-		return fitness;
-	}
-	
-	static List<Integer> fitnessChromosome2(List<List<Gene2>> chromo) {
-		List<Integer> fitnessList = new ArrayList<>(); 
-		for (List<Gene2> genelist: chromo) {
-			int fitness = 0; 
-			for (Gene2 gene: genelist) { 
-				fitness +=  fitnessGene(gene);
-			}
-			fitnessList.add(fitness);
-		}
-		return fitnessList;
-	}
-	
-	static int fitnessChromosomeX(List<Gene2> chromo) {
-		int fitness = 0; 
-		for (Gene2 gene: chromo) { 
-			fitness +=  fitnessGene(gene);
-		}
-		return fitness;
-	}
-	
-	static int fitnessGene(Gene2 gene) {
-		int fitness = 0;
-		Vm vm = gene.getVmFromGene();
-		List<Cloudlet> clt = gene.getCloudletsFromGene();
-		for (Cloudlet ct: clt) {
-			fitness += ct.getCloudletLength() / vm.getMips();
-		}
-		return fitness;
-	}
-	
-	static List<List<List<Gene2>>> sortPopulation(List<List<List<Gene2>>> population){
-		List<List<Gene2>> temp= new ArrayList<>();
-		for(int i = 0; i< population.size(); i++)
-		{
-		    for(int j = 0; j< population.size()-1; j++)
-		    {
-		        if(fitnessChromosome(population.get(j+1)) < fitnessChromosome(population.get(j)))
-		        {
-		            temp = population.get(j+1);
-		            population.set(j+1, population.get(j));
-		            population.set(j, temp);
-		        }
-		    }
-		}
-		return population;
-	}
-	
-	static List<List<Gene2>> sortChromosome(List<List<Gene2>> chromosome){
-		List<Gene2> temp= new ArrayList<>();
-		for(int i = 0; i < chromosome.size(); i++)
-		{
-		    for(int j = 0; j < chromosome.size()-1; j++)
-		    {
-		        if(fitnessChromosomeX(chromosome.get(j+1)) < fitnessChromosomeX(chromosome.get(j)))
-		        {
-		            temp = chromosome.get(j+1);
-		            chromosome.set(j+1, chromosome.get(j));
-		            chromosome.set(j, temp);
-		        }
-		    }
-		}
-		return chromosome;
-	}
-	
-	static List<List<List<Gene2>>> mate(List<List<List<Gene2>>> parent1, List<List<List<Gene2>>> parent2, List<Cloudlet> sortedList, List<Vm> sortedListVm){
-		List<List<List<Gene2>>> children = new ArrayList<>();
-		for(int x = 0; x < (90 * parent1.size()/100); x++) {
-			Random rand = new Random();
-			Double randNum = rand.nextDouble(1);
-			if(randNum < 0.45) {
-				children.add(parent1.get(x));
-			} else if(randNum < 0.9 && randNum > 0.45) {
-				children.add(parent2.get(x));
-			} else { // ADDING RANDOM DATA
-				int aveCls = (sortedList.size() / sortedListVm.size());
-				int rem = sortedList.size() % sortedListVm.size();
-				int noVms = sortedListVm.size();
-				Collections.shuffle(sortedListVm);
-				Collections.shuffle(sortedList);
-				List<List<Gene2>> chromosome = new ArrayList<>();
-				for(int j = 0; j < 20; j++) {
-					Collections.shuffle(sortedListVm);
-					Collections.shuffle(sortedList);
-					int oldPosition = 0;
-					List<Gene2> genelist = new ArrayList<>();
-					for(int i = 0; i < noVms; i++) {
-						if(i == noVms - 1 && rem != 0) { // FIlling the remainder Cloudlets if any exist.
-							Gene2 geneLast = new Gene2(sortedList.subList(oldPosition, sortedList.size()), sortedListVm.get(i));
-							genelist.add(geneLast);
-							break;
-						}
-						Gene2 gene = new Gene2(sortedList.subList(oldPosition, (i + 1) * aveCls), sortedListVm.get(i));
-						oldPosition = (i + 1) * aveCls;
-						if(i < noVms) {
-							genelist.add(gene);
-						}
-					}
-					chromosome.add(genelist);
-				}
-				children.add(chromosome);
-			}
+		for (Map.Entry<Integer, List<Cloudlet>> batch : batches.entrySet()) {
+			sendNow(batch.getKey(), CloudSimTags.CLOUDLET_SUBMIT_BATCH, batch.getValue());
 		}
-		return children;
-	}
 
-	
-	static List<List<Gene2>> mateChromo(List<List<Gene2>> parent1, List<List<Gene2>> parent2, List<Cloudlet> sortedList, List<Vm> sortedListVm){
-		List<List<Gene2>> children = new ArrayList<>();
-		for(int x = 0; x < (90 * parent1.size()/100); x++) {
-			Random rand = new Random();
-			Double randNum = rand.nextDouble(1);
-			if(randNum < 0.45) {
-				children.add(parent1.get(x));
-			} else if(randNum < 0.9 && randNum > 0.45) {
-				children.add(parent2.get(x));
-			} else { // ADDING RANDOM DATA
-				int aveCls = (sortedList.size() / sortedListVm.size());
-				int rem = sortedList.size() % sortedListVm.size();
-				int noVms = sortedListVm.size();
-				Collections.shuffle(sortedListVm);
-				Collections.shuffle(sortedList);
-				List<List<Gene2>> chromosome = new ArrayList<>();
-				for(int j = 0; j < 20; j++) {
-					Collections.shuffle(sortedListVm);
-					Collections.shuffle(sortedList);
-					int oldPosition = 0;
-					List<Gene2> genelist = new ArrayList<>();
-					for(int i = 0; i < noVms; i++) {
-						if(i == noVms - 1 && rem != 0) { // FIlling the remainder Cloudlets if any exist.
-							Gene2 geneLast = new Gene2(sortedList.subList(oldPosition, sortedList.size()), sortedListVm.get(i));
-							genelist.add(geneLast);
-							break;
-						}
-						Gene2 gene = new Gene2(sortedList.subList(oldPosition, (i + 1) * aveCls), sortedListVm.get(i));
-						oldPosition = (i + 1) * aveCls;
-						if(i < noVms) {
-							genelist.add(gene);
-						}
-					}
-					chromosome.add(genelist);
-				}
-				children.addAll(chromosome);
-			}
-		}
-		return children;
-	}
-	
-	static Integer average(List<Integer> input) {
-		int sum = 0;
-		for(int num: input) { sum += num;}
-		return sum / input.size();
-	}
-	
-	static void geneticAlgorithm(List<Cloudlet> cloudletList, List<Vm> vmlist) {
-		// SORTING CLOUDLETS BY LENGTH
-		List<Cloudlet> sortedList = new ArrayList<Cloudlet>();
-		for (Cloudlet cloudlet : cloudletList) {
-			sortedList.add(cloudlet);
-		}
-		int numCloudlets = sortedList.size();
-		for (int i = 0; i < numCloudlets; i++) {
-			Cloudlet tmp = sortedList.get(i);
-			int idx = i;
-			for (int j = i + 1; j < numCloudlets; j++) {
-				if (sortedList.get(j).getCloudletLength() < tmp.getCloudletLength()) {
-					idx = j;
-					tmp = sortedList.get(j);
-				}
-			}
-			Cloudlet tmp2 = sortedList.get(i);
-			sortedList.set(i, tmp);
-			sortedList.set(idx, tmp2);
-		}
-
-		// SORTING CLOUDLETS BY LENGTH
-		ArrayList<Vm> sortedListVm = new ArrayList<Vm>();
-		ArrayList<Vm> toBeUsedVm = new ArrayList<Vm>();
-		ArrayList<Vm> leftOutVm = new ArrayList<Vm>();
-		for (Vm vm : vmlist) {
-			sortedListVm.add(vm);
-		}
-		int numVms = sortedListVm.size();
-
-		for (int i = 0; i < numVms; i++) {
-			Vm tmp = sortedListVm.get(i);
-			int idx = i;
-			if (i < numCloudlets)
-				toBeUsedVm.add(tmp);
-			else
-				leftOutVm.add(tmp);
-			for (int j = i + 1; j < numVms; j++) {
-				if (sortedListVm.get(j).getMips() > tmp.getMips()) {
-					idx = j;
-					tmp = sortedListVm.get(j);
-				}
-			}
-			Vm tmp2 = sortedListVm.get(i);
-			sortedListVm.set(i, tmp);
-			sortedListVm.set(idx, tmp2);
-		}
-
-		// BEGINNING OF CHROMOSOME ALGORITHM
-
-		// INITIAL POPULATION AND FIRST-CHROMOSOME ARE CREATED.
-		// K IS USED TO GET THE THE POSITION OF VM TO CREATE A GENE
-		// I IS USED TO GET THE THE POSITION OF CLOUDLET TO CREATE A GENE
-		// THE THE GENE IS ADDED TO A LIST OF GENES TO CREATE A CHROMOSOME AND THE
-		// CHROMOSOME TO A INITIAL-LIST OF CHROMOSOMES
-
-		ArrayList<Chromosomes> initialPopulation = new ArrayList<Chromosomes>();
-		for (int j = 0; j < numCloudlets * numVms; j++) {
-			ArrayList<Gene> firstChromosome = new ArrayList<Gene>();
-
-			for (int i = 0; i < numCloudlets; i++) {
-				int k = (i + j) % numVms;
-				// k = (k + numCloudlets) % numCloudlets;
-				Gene geneObj = new Gene(sortedList.get(i), sortedListVm.get(k));
-				firstChromosome.add(geneObj);
-			}
-			Chromosomes chromosome = new Chromosomes(firstChromosome);
-			initialPopulation.add(chromosome);
-		}
-	}
-
-	static ArrayList<Chromosomes> evaluation(List<Cloudlet> cloudletList, ArrayList<Vm> vmList,
-			List<Chromosomes> initialPopulation) {
-		Double fitestValue = 0.0;
-		double time = 1000000;
-		int iteration = 0;
-		Boolean foundFittest = false;
-		int numCloudlets = cloudletList.size();
-		Double previousfitestValue = Double.MIN_VALUE;
-		int populationSize = initialPopulation.size();
-		List<Double> fitnessList = new ArrayList<Double>();
-
-		while (iteration < 100) {
-			// FITNESS
-			double sum = 0;
-			for (int i = 0; i < populationSize; i++) {
-				ArrayList<Gene> geneList = new ArrayList<Gene>();
-				geneList = initialPopulation.get(i).getGeneList();
-				for (int j = 0; j < numCloudlets; j++) {
-					Gene gene = geneList.get(j);
-					Cloudlet c = gene.getCloudletFromGene();
-					Vm v = gene.getVmFromGene();
-					double temp = c.getCloudletLength() / v.getMips();
-					sum += temp;
-				}
-				if (sum < time) {
-					time = sum;
-				}
-			}
-			fitestValue = sum;
-			fitnessList.add(fitestValue);
-			if (fitestValue < previousfitestValue) {
-				previousfitestValue = fitestValue;
-				foundFittest = true;
-			}
-			/*
-			 * if (foundFittest && iteration > 20 ) { return (ArrayList<Chromosomes>)
-			 * initialPopulation; }
-			 */
-			previousfitestValue = fitestValue;
-
-			// CROSS-OVER
-			Random random = new Random();
-			for (int itr = 0; itr < populationSize; itr++) {
-				int index1, index2;
-				index1 = random.nextInt(populationSize) % populationSize;
-				index2 = random.nextInt(populationSize) % populationSize;
-				ArrayList<Gene> l1 = new ArrayList<Gene>();
-				l1 = initialPopulation.get(index1).getGeneList();
-				Chromosomes chromosome1 = new Chromosomes(l1);
-				ArrayList<Gene> l2 = new ArrayList<Gene>();
-				l2 = initialPopulation.get(index2).getGeneList();
-				Chromosomes chromosome2 = new Chromosomes(l2);
-				double rangeMin = 0.0f;
-				double rangeMax = 1.0f;
-				Random r = new Random();
-				double crossProb = rangeMin + (rangeMax - rangeMin) * r.nextDouble();
-				if (crossProb < 0.5) {
-					int i, j;
-					i = random.nextInt(numCloudlets) % numCloudlets;
-					j = random.nextInt(numCloudlets) % numCloudlets;
-					Vm vm1 = l1.get(i).getVmFromGene();
-					Vm vm2 = l2.get(j).getVmFromGene();
-					chromosome1.updateGene(i, vm2);
-					chromosome2.updateGene(j, vm1);
-					initialPopulation.set(index1, chromosome1);
-					initialPopulation.set(index2, chromosome2);
-				}
-			}
-
-			// MUTATION
-			Random r = new Random();
-			double rangeMin = 0.0f;
-			double rangeMax = 1.0f;
-			double mutProb = rangeMin + (rangeMax - rangeMin) * r.nextDouble();
-			if (mutProb < 0.5) {
-				int i;
-				i = random.nextInt(populationSize) % populationSize;
-				ArrayList<Gene> l = new ArrayList<Gene>();
-				l = initialPopulation.get(i).getGeneList();
-				Chromosomes mutchromosome = new Chromosomes(l);
-				int j;
-				j = random.nextInt(numCloudlets) % numCloudlets;
-				Vm vm1 = vmList.get(0);
-				mutchromosome.updateGene(j, vm1);
-				initialPopulation.set(i, mutchromosome);
-			}
-
-			iteration++;
-		}
-		return (ArrayList<Chromosomes>) initialPopulation;
+		// remove submitted cloudlets from waiting list
+		getCloudletList().removeAll(new HashSet<Cloudlet>(getCloudletSubmittedList()));
 	}
 	
-	static List<CustomDoublePair> listOfVmAndFitness(ArrayList<Gene> geneList) {
-		List<CustomDoublePair> list = new ArrayList<CustomDoublePair>(); // STORES THE GENE VM ID AND ITS SUM OF FITNESS
-		for (int i = 0; i < geneList.size(); i++) {
-			CustomDoublePair pair = new CustomDoublePair(0, 0.0);
-			Double fitness = 0.0;
-			for (int j = 0; j < geneList.size(); j++) {
-				if (geneList.get(i).getVmFromGene().getId() == geneList.get(j).getVmFromGene().getId()) {
-					fitness += geneList.get(j).getCloudletFromGene().getCloudletLength()
-							/ geneList.get(j).getVmFromGene().getMips();
-				}
-			}
-			pair.setFirst(geneList.get(i).getVmFromGene().getId());
-			pair.setSecond(fitness);
-			list.add(pair);
-		}
-		return list;
-	}
-
-	static CustomDoublePair min(ArrayList<Gene> list) {
-		Integer minIdx = 0;
-		Double minValue = 0.0;
-		Double minimumReg = 10000000.0;
-		for (int i = 0; i < list.size(); i++) {
-			Double txt = 0.0;
-			Gene gene = list.get(i);
-			txt = (gene.getCloudletFromGene().getCloudletLength() / gene.getVmFromGene().getMips());
-			minValue = txt;
-			if (minValue < minimumReg) {
-				minimumReg = minValue;
-				minIdx = i;
-			}
-		}
-		return new CustomDoublePair(minIdx, minimumReg);
-	}
-
-	static CustomDoublePair max(ArrayList<Gene> list) {
-		Integer maxIdx = 0;
-		Double maxValue = 0.0;
-		Double maxReg = 0.0;
-		for (int i = 0; i < list.size(); i++) {
-			Double txt = 0.0;
-			Gene gene = list.get(i);
-			txt = (gene.getCloudletFromGene().getCloudletLength() / gene.getVmFromGene().getMips());
-			maxValue = txt;
-			if (maxValue > maxReg) {
-				maxReg = maxValue;
-				maxIdx = i;
-			}
-		}
-		return new CustomDoublePair(maxIdx, maxReg);
+	/**
+	 * Evolves a schedule for the cloudlets over the VMs.
+	 * 
+	 * @param cloudletList the cloudlets to schedule
+	 * @param vmlist the created VMs
+	 * @param random the random stream of the GA
+	 * @return the cloudlets and, at the same positions, the VMs they must run on
+	 */
+	static CustomPair geneticAlgorithm(List<Cloudlet> cloudletList, List<Vm> vmlist, Random random) {
+		SchedulingProblem problem = new SchedulingProblem(cloudletList, vmlist);
+		GeneticScheduler scheduler = new GeneticScheduler(problem, POPULATION_SIZE, random);
+		scheduler.setInitializer(new RoundRobinInitializer());
+		scheduler.setFitnessFunction(new TotalExecutionTimeFitness());
+		scheduler.setMaxGenerations(MAX_GENERATIONS);
+		int[] best = scheduler.run();
+		return problem.toCustomPair(best, 0);
 	}
 
 	/**
@@ -779,7 +440,8 @@ public class DBGA extends SimEntity {
 	 */
 	protected void clearDatacenters() {
 		for (Vm vm : getVmsCreatedList()) {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Destroying VM #" + vm.getId());
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_DESTROY, vm.getId(),
+					"Destroying VM #{}");
 			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.VM_DESTROY, vm);
 		}
 
@@ -10,10 +10,13 @@ package research;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
@@ -21,10 +24,20 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.RandomService;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.lists.CloudletList;
+import org.cloudbus.cloudsim.lists.CloudletRegistry;
 import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.lists.VmRegistry;
+
+import research.ga.GeneticScheduler;
+import research.ga.IslandModel;
+import research.ga.RoundRobinInitializer;
+import research.ga.SchedulingProblem;
+import research.ga.TotalExecutionTimeFitness;
+
 
 /**
  * DatacentreBroker represents a broker acting on behalf of a user. It hides VM
@@ -37,6 +50,15 @@ import org.cloudbus.cloudsim.lists.VmList;
  */
 public class DBGA2 extends SimEntity {
 
+	/** The number of islands of the scheduling GA. */
+	private static final int NUM_ISLANDS = Runtime.getRuntime().availableProcessors();
+
+	/** The number of chromosomes per island of the scheduling GA. */
+	private static final int ISLAND_SIZE = 50;
+
+	/** The number of generations of the scheduling GA. */
+	private static final int MAX_GENERATIONS = 100;
+
 	/** The vm list. */
 	protected List<? extends Vm> vmList;
 
@@ -76,6 +98,9 @@ public class DBGA2 extends SimEntity {
 	/** The datacenter characteristics list. */
 	protected Map<Integer, DatacenterCharacteristics> datacenterCharacteristicsList;
 
+	/** The random stream of the scheduling GA, derived from the simulation seed and the broker name. */
+	private final Random random;
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -87,10 +112,11 @@ public class DBGA2 extends SimEntity {
 	 */
 	public DBGA2(String name) throws Exception {
 		super(name);
+		random = RandomService.getStream(name);
 
-		setVmList(new ArrayList<Vm>());
-		setVmsCreatedList(new ArrayList<Vm>());
-		setCloudletList(new ArrayList<Cloudlet>());
+		setVmList(new VmRegistry<Vm>());
+		setVmsCreatedList(new VmRegistry<Vm>());
+		setCloudletList(new CloudletRegistry<Cloudlet>());
 		setCloudletSubmittedList(new ArrayList<Cloudlet>());
 		setCloudletReceivedList(new ArrayList<Cloudlet>());
 
@@ -229,12 +255,13 @@ public class DBGA2 extends SimEntity {
 
 		if (result == CloudSimTags.TRUE) {
 			getVmsToDatacentersMap().put(vmId, datacenterId);
-			getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": VM #" + vmId + " has been created in Datacenter #"
-					+ datacenterId + ", Host #" + VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+			Vm vm = VmList.getById(getVmList(), vmId);
+			getVmsCreatedList().add(vm);
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_CREATE_ACK, vmId, datacenterId,
+					vm.getHost().getId(), "VM #{} has been created in Datacenter #{}, Host #{}");
 		} else {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId + " failed in Datacenter #"
-					+ datacenterId);
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_CREATE_ACK, vmId, datacenterId,
+					"Creation of VM #{} failed in Datacenter #{}");
 		}
 
 		incrementVmsAcks();
@@ -275,7 +302,8 @@ public class DBGA2 extends SimEntity {
 	protected void processCloudletReturn(SimEvent ev) {
 		Cloudlet cloudlet = (Cloudlet) ev.getData();
 		getCloudletReceivedList().add(cloudlet);
-		Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloudlet " + cloudlet.getCloudletId() + " received");
+		Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_RETURN,
+				cloudlet.getCloudletId(), "Cloudlet {} received");
 		cloudletsSubmitted--;
 		if (getCloudletList().size() == 0 && cloudletsSubmitted == 0) { // all cloudlets executed
 			Log.printLine(CloudSim.clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
@@ -347,10 +375,12 @@ public class DBGA2 extends SimEntity {
 		List<Vm> vmList = getVmsCreatedList();
 		List<Cloudlet> cloudletsList = getCloudletList();
 
-		CustomPair geneticPair = geneticAlgorithm(getCloudletList(), getVmsCreatedList());
+		CustomPair geneticPair = geneticAlgorithm(getCloudletList(), getVmsCreatedList(), random);
 		cloudletsList = geneticPair.getFirst();
 		vmList = geneticPair.getSecond();
 
+		// one submission event per datacenter, in the order the datacenters are first used
+		Map<Integer, List<Cloudlet>> batches = new LinkedHashMap<Integer, List<Cloudlet>>();
 		for (Cloudlet cloudlet : cloudletsList) {
 			Vm vm;
 			// if user didn't bind this cloudlet and it has not been executed yet
@@ -359,321 +389,56 @@ public class DBGA2 extends SimEntity {
 			} else { // submit to the specific vm
 				vm = VmList.getById(vmList, cloudlet.getVmId());
 				if (vm == null) { // vm was not created
-					Log.printLine(CloudSim.clock() + ": " + getName() + ": Postponing execution of cloudlet "
-							+ cloudlet.getCloudletId() + ": bount VM not available");
+					Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_SUBMIT_BATCH,
+							cloudlet.getCloudletId(), "Postponing execution of cloudlet {}: bount VM not available");
 					continue;
 				}
 			}
 
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Sending cloudlet " + cloudlet.getCloudletId()
-					+ " to VM #" + vm.getId());
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_SUBMIT_BATCH,
+					cloudlet.getCloudletId(), vm.getId(), "Sending cloudlet {} to VM #{}");
 			cloudlet.setVmId(vm.getId());
-			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			int datacenterId = getVmsToDatacentersMap().get(vm.getId());
+			List<Cloudlet> batch = batches.get(datacenterId);
+			if (batch == null) {
+				batch = new ArrayList<Cloudlet>();
+				batches.put(datacenterId, batch);
+			}
+			batch.add(cloudlet);
 			cloudletsSubmitted++;
 			vmIndex = (vmIndex + 1) % vmList.size();
 			getCloudletSubmittedList().add(cloudlet);
 		}
 
-		// remove submitted cloudlets from waiting list
-		for (Cloudlet cloudlet : getCloudletSubmittedList()) {
-			getCloudletList().remove(cloudlet);
-		}
-	}
-
-	static CustomPair geneticAlgorithm(List<Cloudlet> cloudletList, List<Vm> vmlist) {
-		// SORTING CLOUDLETS BY LENGTH
-		List<Cloudlet> sortedList = new ArrayList<Cloudlet>();
-		for (Cloudlet cloudlet : cloudletList) {
-			sortedList.add(cloudlet);
-		}
-		int numCloudlets = sortedList.size();
-		for (int i = 0; i < numCloudlets; i++) {
-			Cloudlet tmp = sortedList.get(i);
-			int idx = i;
-			for (int j = i + 1; j < numCloudlets; j++) {
-				if (sortedList.get(j).getCloudletLength() < tmp.getCloudletLength()) {
-					idx = j;
-					tmp = sortedList.get(j);
-				}
-			}
-			Cloudlet tmp2 = sortedList.get(i);
-			sortedList.set(i, tmp);
-			sortedList.set(idx, tmp2);
-		}
-
-		// SORTING CLOUDLETS BY LENGTH
-		ArrayList<Vm> sortedListVm = new ArrayList<Vm>();
-		ArrayList<Vm> toBeUsedVm = new ArrayList<Vm>();
-		ArrayList<Vm> leftOutVm = new ArrayList<Vm>();
-		for (Vm vm : vmlist) {
-			sortedListVm.add(vm);
-		}
-		int numVms = sortedListVm.size();
-
-		for (int i = 0; i < numVms; i++) {
-			Vm tmp = sortedListVm.get(i);
-			int idx = i;
-			if (i < numCloudlets)
-				toBeUsedVm.add(tmp);
-			else
-				leftOutVm.add(tmp);
-			for (int j = i + 1; j < numVms; j++) {
-				if (sortedListVm.get(j).getMips() > tmp.getMips()) {
-					idx = j;
-					tmp = sortedListVm.get(j);
-				}
-			}
-			Vm tmp2 = sortedListVm.get(i);
-			sortedListVm.set(i, tmp);
-			sortedListVm.set(idx, tmp2);
-		}
-		
-		int aveCls = (sortedList.size() / sortedListVm.size());
-		int rem = sortedList.size() % sortedListVm.size();
-		int noVms = sortedListVm.size();
-		// Assign Cloudlets to VM
-		List<Gene2> genelist = new ArrayList<>();
-		int oldPosition = 0;
-		for(int i = 0; i < noVms; i++) {
-			Gene2 gene = new Gene2(sortedList.subList(oldPosition, (i + 1) * aveCls), sortedListVm.get(i));
-			oldPosition = (i + 1) * aveCls;
-			genelist.add(gene);
-			if(i == noVms - 1 && rem != 0) { // FIlling the remainder Cloudlets if any exist. 
-				List<Cloudlet> lastSetOfClts = genelist.get(genelist.size() - 1).getCloudletsFromGene();
-				List<Cloudlet> remCloudlets = sortedList.subList(oldPosition, sortedList.size() - 1);
-				for(Cloudlet cl: remCloudlets) {
-					lastSetOfClts.add(cl);
-				}
-				genelist.get(genelist.size() - 1).setCloudletsForGene(lastSetOfClts);
-			}
-		}
-		
-		Log.printLine("******************************************** " + genelist);
-
-		// BEGINNING OF CHROMOSOME ALGORITHM
-
-		// INITIAL POPULATION AND FIRST-CHROMOSOME ARE CREATED.
-		// K IS USED TO GET THE THE POSITION OF VM TO CREATE A GENE
-		// I IS USED TO GET THE THE POSITION OF CLOUDLET TO CREATE A GENE
-		// THE THE GENE IS ADDED TO A LIST OF GENES TO CREATE A CHROMOSOME AND THE
-		// CHROMOSOME TO A INITIAL-LIST OF CHROMOSOMES
-
-		ArrayList<Chromosomes> initialPopulation = new ArrayList<Chromosomes>();
-		for (int j = 0; j < numCloudlets * numVms; j++) {
-			ArrayList<Gene> firstChromosome = new ArrayList<Gene>();
-
-			for (int i = 0; i < numCloudlets; i++) {
-				int k = (i + j) % numVms;
-				// k = (k + numCloudlets) % numCloudlets;
-				Gene geneObj = new Gene(sortedList.get(i), sortedListVm.get(k));
-				firstChromosome.add(geneObj);
-			}
-			Chromosomes chromosome = new Chromosomes(firstChromosome);
-			initialPopulation.add(chromosome);
-		}
-
-		initialPopulation = evaluation(cloudletList, sortedListVm, initialPopulation);
-
-		// FITNESS
-		int fittestIndex = 0;
-		double time = 1000000;
-		List<Integer> fitnessList = new ArrayList<Integer>();
-		int populationSize = initialPopulation.size();
-
-		for (int i = 0; i < populationSize; i++) {
-			ArrayList<Gene> geneList = new ArrayList<Gene>();
-			geneList = initialPopulation.get(i).getGeneList();
-			double sum = 0;
-			for (int j = 0; j < numCloudlets; j++) {
-				Gene gene = geneList.get(j);
-				Cloudlet c = gene.getCloudletFromGene();
-				Vm v = gene.getVmFromGene();
-				double temp = c.getCloudletLength() / v.getMips();
-				sum += temp;
-			}
-			if (sum < time) {
-				time = sum;
-				fittestIndex = i;
-				fitnessList.add(fittestIndex);
-			}
-		}
-
-		ArrayList<Gene> result = new ArrayList<Gene>();
-		result = initialPopulation.get(fittestIndex).getGeneList();
-
-		List<Cloudlet> finalcloudletList = new ArrayList<Cloudlet>();
-		List<Vm> finalvmlist = new ArrayList<Vm>();
-
-		for (int i = 0; i < result.size(); i++) {
-			finalcloudletList.add(result.get(i).getCloudletFromGene());
-			finalvmlist.add(result.get(i).getVmFromGene());
+		for (Map.Entry<Integer, List<Cloudlet>> batch : batches.entrySet()) {
+			sendNow(batch.getKey(), CloudSimTags.CLOUDLET_SUBMIT_BATCH, batch.getValue());
 		}
-		CustomPair pairOfResources = new CustomPair(finalcloudletList, finalvmlist);
-		return pairOfResources;
-	}
-
-	static ArrayList<Chromosomes> evaluation(List<Cloudlet> cloudletList, ArrayList<Vm> vmList,
-			List<Chromosomes> initialPopulation) {
-		Double fitestValue = 0.0;
-		double time = 1000000;
-		int iteration = 0;
-		Boolean foundFittest = false;
-		int numCloudlets = cloudletList.size();
-		Double previousfitestValue = Double.MIN_VALUE;
-		int populationSize = initialPopulation.size();
-		List<Double> fitnessList = new ArrayList<Double>();
-
-		while (iteration < 100) {
-			// FITNESS
-			double sum = 0;
-			for (int i = 0; i < populationSize; i++) {
-				ArrayList<Gene> geneList = new ArrayList<Gene>();
-				geneList = initialPopulation.get(i).getGeneList();
-				for (int j = 0; j < numCloudlets; j++) {
-					Gene gene = geneList.get(j);
-					Cloudlet c = gene.getCloudletFromGene();
-					Vm v = gene.getVmFromGene();
-					double temp = c.getCloudletLength() / v.getMips();
-					sum += temp;
-				}
-				if (sum < time) {
-					time = sum;
-				}
-			}
-			fitestValue = sum;
-			fitnessList.add(fitestValue);
-			if (fitestValue < previousfitestValue) {
-				previousfitestValue = fitestValue;
-				foundFittest = true;
-			}
-			/*
-			 * if (foundFittest && iteration > 20 ) { return (ArrayList<Chromosomes>)
-			 * initialPopulation; }
-			 */
-			previousfitestValue = fitestValue;
-
-			// CROSS-OVER
-			Random random = new Random();
-			for (int itr = 0; itr < populationSize; itr++) {
-				int index1, index2;
-				index1 = random.nextInt(populationSize) % populationSize;
-				index2 = random.nextInt(populationSize) % populationSize;
-				ArrayList<Gene> l1 = new ArrayList<Gene>();
-				l1 = initialPopulation.get(index1).getGeneList();
-				Chromosomes chromosome1 = new Chromosomes(l1);
-				ArrayList<Gene> l2 = new ArrayList<Gene>();
-				l2 = initialPopulation.get(index2).getGeneList();
-				Chromosomes chromosome2 = new Chromosomes(l2);
-				double rangeMin = 0.0f;
-				double rangeMax = 1.0f;
-				Random r = new Random();
-				double crossProb = rangeMin + (rangeMax - rangeMin) * r.nextDouble();
-				if (crossProb < 0.5) {
-					int i, j;
-					i = random.nextInt(numCloudlets) % numCloudlets;
-					j = random.nextInt(numCloudlets) % numCloudlets;
-					Vm vm1 = l1.get(i).getVmFromGene();
-					Vm vm2 = l2.get(j).getVmFromGene();
-					chromosome1.updateGene(i, vm2);
-					chromosome2.updateGene(j, vm1);
-					initialPopulation.set(index1, chromosome1);
-					initialPopulation.set(index2, chromosome2);
-				}
-			}
-
-			// MUTATION
-			Random r = new Random();
-			double rangeMin = 0.0f;
-			double rangeMax = 1.0f;
-			double mutProb = rangeMin + (rangeMax - rangeMin) * r.nextDouble();
-			if (mutProb < 0.5) {
-				int i;
-				i = random.nextInt(populationSize) % populationSize;
-				ArrayList<Gene> l = new ArrayList<Gene>();
-				l = initialPopulation.get(i).getGeneList();
-				Chromosomes mutchromosome = new Chromosomes(l);
-				int j;
-				j = random.nextInt(numCloudlets) % numCloudlets;
-				Vm vm1 = vmList.get(0);
-				mutchromosome.updateGene(j, vm1);
-				initialPopulation.set(i, mutchromosome);
-			}
 
-			iteration++;
-		}
-		return (ArrayList<Chromosomes>) initialPopulation;
-	}
-
-	static void promise(List<Chromosomes> initialPopulation) {
-		int populationSize = initialPopulation.size();
-		int fittestIndex = 0;
-		List<Integer> fitnessList = new ArrayList<Integer>();
-		int secondFitestIndex = 0;
-		if (fitnessList.size() > 1) {
-			secondFitestIndex = fitnessList.get(fitnessList.size() - 1);
-		} else {
-			secondFitestIndex = Integer.MIN_VALUE;
-		}
-
-		if (secondFitestIndex != Integer.MIN_VALUE) { // MUTATION
-			Boolean foundFittest = false;
-			while (foundFittest == false) {
-				Random r = new Random();
-				initialPopulation.get(fittestIndex).getGeneList();
-			}
-		}
+		// remove submitted cloudlets from waiting list
+		getCloudletList().removeAll(new HashSet<Cloudlet>(getCloudletSubmittedList()));
 	}
 
-	static List<CustomDoublePair> listOfVmAndFitness(ArrayList<Gene> geneList) {
-		List<CustomDoublePair> list = new ArrayList<CustomDoublePair>(); // STORES THE GENE VM ID AND ITS SUM OF FITNESS
-		for (int i = 0; i < geneList.size(); i++) {
-			CustomDoublePair pair = new CustomDoublePair(0, 0.0);
-			Double fitness = 0.0;
-			for (int j = 0; j < geneList.size(); j++) {
-				if (geneList.get(i).getVmFromGene().getId() == geneList.get(j).getVmFromGene().getId()) {
-					fitness += geneList.get(j).getCloudletFromGene().getCloudletLength()
-							/ geneList.get(j).getVmFromGene().getMips();
-				}
-			}
-			pair.setFirst(geneList.get(i).getVmFromGene().getId());
-			pair.setSecond(fitness);
-			list.add(pair);
-		}
-		return list;
-	}
-
-	static CustomDoublePair min(ArrayList<Gene> list) {
-		Integer minIdx = 0;
-		Double minValue = 0.0;
-		Double minimumReg = 10000000.0;
-		for (int i = 0; i < list.size(); i++) {
-			Double txt = 0.0;
-			Gene gene = list.get(i);
-			txt = (gene.getCloudletFromGene().getCloudletLength() / gene.getVmFromGene().getMips());
-			minValue = txt;
-			if (minValue < minimumReg) {
-				minimumReg = minValue;
-				minIdx = i;
-			}
-		}
-		return new CustomDoublePair(minIdx, minimumReg);
-	}
-
-	static CustomDoublePair max(ArrayList<Gene> list) {
-		Integer maxIdx = 0;
-		Double maxValue = 0.0;
-		Double maxReg = 0.0;
-		for (int i = 0; i < list.size(); i++) {
-			Double txt = 0.0;
-			Gene gene = list.get(i);
-			txt = (gene.getCloudletFromGene().getCloudletLength() / gene.getVmFromGene().getMips());
-			maxValue = txt;
-			if (maxValue > maxReg) {
-				maxReg = maxValue;
-				maxIdx = i;
-			}
+	/**
+	 * Evolves a schedule for the cloudlets over the VMs on one island per core.
+	 * 
+	 * @param cloudletList the cloudlets to schedule
+	 * @param vmlist the created VMs
+	 * @param random the random stream of the GA
+	 * @return the cloudlets and, at the same positions, the VMs they must run on
+	 */
+	static CustomPair geneticAlgorithm(List<Cloudlet> cloudletList, List<Vm> vmlist, Random random) {
+		SchedulingProblem problem = new SchedulingProblem(cloudletList, vmlist);
+		IslandModel islandModel = new IslandModel(problem, NUM_ISLANDS, ISLAND_SIZE,
+				new SplittableRandom(random.nextLong()));
+		islandModel.setMaxGenerations(MAX_GENERATIONS);
+		int shift = 0;
+		for (GeneticScheduler island : islandModel.getIslands()) {
+			island.setInitializer(new RoundRobinInitializer(shift));
+			island.setFitnessFunction(new TotalExecutionTimeFitness());
+			shift += ISLAND_SIZE;
 		}
-		return new CustomDoublePair(maxIdx, maxReg);
+		int[] best = islandModel.run();
+		return problem.toCustomPair(best, 0);
 	}
 
 	/**
@@ -684,7 +449,8 @@ public class DBGA2 extends SimEntity {
 	 */
 	protected void clearDatacenters() {
 		for (Vm vm : getVmsCreatedList()) {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Destroying VM #" + vm.getId());
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_DESTROY, vm.getId(),
+					"Destroying VM #{}");
 			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.VM_DESTROY, vm);
 		}
 
@@ -10,6 +10,8 @@ package research;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -23,7 +25,9 @@ import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.lists.CloudletList;
+import org.cloudbus.cloudsim.lists.CloudletRegistry;
 import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.lists.VmRegistry;
 
 /**
  * DatacentreBroker represents a broker acting on behalf of a user. It hides VM management, as vm
@@ -86,9 +90,9 @@ public class DatacenterBroker extends SimEntity {
 	public DatacenterBroker(String name) throws Exception {
 		super(name);
 
-		setVmList(new ArrayList<Vm>());
-		setVmsCreatedList(new ArrayList<Vm>());
-		setCloudletList(new ArrayList<Cloudlet>());
+		setVmList(new VmRegistry<Vm>());
+		setVmsCreatedList(new VmRegistry<Vm>());
+		setCloudletList(new CloudletRegistry<Cloudlet>());
 		setCloudletSubmittedList(new ArrayList<Cloudlet>());
 		setCloudletReceivedList(new ArrayList<Cloudlet>());
 
@@ -227,13 +231,13 @@ public class DatacenterBroker extends SimEntity {
 
 		if (result == CloudSimTags.TRUE) {
 			getVmsToDatacentersMap().put(vmId, datacenterId);
-			getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": VM #" + vmId
-					+ " has been created in Datacenter #" + datacenterId + ", Host #"
-					+ VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+			Vm vm = VmList.getById(getVmList(), vmId);
+			getVmsCreatedList().add(vm);
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_CREATE_ACK, vmId, datacenterId,
+					vm.getHost().getId(), "VM #{} has been created in Datacenter #{}, Host #{}");
 		} else {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
-					+ " failed in Datacenter #" + datacenterId);
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_CREATE_ACK, vmId, datacenterId,
+					"Creation of VM #{} failed in Datacenter #{}");
 		}
 
 		incrementVmsAcks();
@@ -274,8 +278,8 @@ public class DatacenterBroker extends SimEntity {
 	protected void processCloudletReturn(SimEvent ev) {
 		Cloudlet cloudlet = (Cloudlet) ev.getData();
 		getCloudletReceivedList().add(cloudlet);
-		Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloudlet " + cloudlet.getCloudletId()
-				+ " received");
+		Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_RETURN,
+				cloudlet.getCloudletId(), "Cloudlet {} received");
 		cloudletsSubmitted--;
 		if (getCloudletList().size() == 0 && cloudletsSubmitted == 0) { // all cloudlets executed
 			Log.printLine(CloudSim.clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
@@ -392,6 +396,8 @@ public class DatacenterBroker extends SimEntity {
 			sortedListVm.set(idx, tmp2);
 		}
 		
+		// one submission event per datacenter, in the order the datacenters are first used
+		Map<Integer, List<Cloudlet>> batches = new LinkedHashMap<Integer, List<Cloudlet>>();
 		for (Cloudlet cloudlet : sortedList) {
 			Vm vm;
 			// if user didn't bind this cloudlet and it has not been executed yet
@@ -400,25 +406,33 @@ public class DatacenterBroker extends SimEntity {
 			} else { // submit to the specific vm
 				vm = VmList.getById(sortedListVm, cloudlet.getVmId());
 				if (vm == null) { // vm was not created
-					Log.printLine(CloudSim.clock() + ": " + getName() + ": Postponing execution of cloudlet "
-							+ cloudlet.getCloudletId() + ": bount VM not available");
+					Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_SUBMIT_BATCH,
+							cloudlet.getCloudletId(), "Postponing execution of cloudlet {}: bount VM not available");
 					continue;
 				}
 			}
 
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Sending cloudlet "
-					+ cloudlet.getCloudletId() + " to VM #" + vm.getId());
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_SUBMIT_BATCH,
+					cloudlet.getCloudletId(), vm.getId(), "Sending cloudlet {} to VM #{}");
 			cloudlet.setVmId(vm.getId());
-			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			int datacenterId = getVmsToDatacentersMap().get(vm.getId());
+			List<Cloudlet> batch = batches.get(datacenterId);
+			if (batch == null) {
+				batch = new ArrayList<Cloudlet>();
+				batches.put(datacenterId, batch);
+			}
+			batch.add(cloudlet);
 			cloudletsSubmitted++;
 			vmIndex = (vmIndex + 1) % sortedListVm.size();
 			getCloudletSubmittedList().add(cloudlet);
 		}
 
-		// remove submitted cloudlets from waiting list
-		for (Cloudlet cloudlet : getCloudletSubmittedList()) {
-			getCloudletList().remove(cloudlet);
+		for (Map.Entry<Integer, List<Cloudlet>> batch : batches.entrySet()) {
+			sendNow(batch.getKey(), CloudSimTags.CLOUDLET_SUBMIT_BATCH, batch.getValue());
 		}
+
+		// remove submitted cloudlets from waiting list
+		getCloudletList().removeAll(new HashSet<Cloudlet>(getCloudletSubmittedList()));
 	}
 
 	/**
@@ -429,7 +443,8 @@ public class DatacenterBroker extends SimEntity {
 	 */
 	protected void clearDatacenters() {
 		for (Vm vm : getVmsCreatedList()) {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Destroying VM #" + vm.getId());
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_DESTROY, vm.getId(),
+					"Destroying VM #{}");
 			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.VM_DESTROY, vm);
 		}
 
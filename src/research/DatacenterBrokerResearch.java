@@ -10,10 +10,13 @@ package research;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
@@ -21,10 +24,19 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.RandomService;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.lists.CloudletList;
+import org.cloudbus.cloudsim.lists.CloudletRegistry;
 import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.lists.VmRegistry;
+
+import research.ga.GeneticScheduler;
+import research.ga.IslandModel;
+import research.ga.RoundRobinInitializer;
+import research.ga.SchedulingProblem;
+import research.ga.LogLengthFitness;
 
 
 /**
@@ -37,6 +49,15 @@ import org.cloudbus.cloudsim.lists.VmList;
  */
 public class DatacenterBrokerResearch extends SimEntity {
 
+	/** The number of islands of the scheduling GA. */
+	private static final int NUM_ISLANDS = Runtime.getRuntime().availableProcessors();
+
+	/** The number of chromosomes per island of the scheduling GA. */
+	private static final int ISLAND_SIZE = 50;
+
+	/** The number of generations of the scheduling GA. */
+	private static final int MAX_GENERATIONS = 100;
+
 	/** The vm list. */
 	protected List<? extends Vm> vmList;
 
@@ -76,6 +97,9 @@ public class DatacenterBrokerResearch extends SimEntity {
 	/** The datacenter characteristics list. */
 	protected Map<Integer, DatacenterCharacteristics> datacenterCharacteristicsList;
 
+	/** The random stream of the scheduling GA, derived from the simulation seed and the broker name. */
+	private final Random random;
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -87,10 +111,11 @@ public class DatacenterBrokerResearch extends SimEntity {
 	 */
 	public DatacenterBrokerResearch(String name) throws Exception {
 		super(name);
+		random = RandomService.getStream(name);
 
-		setVmList(new ArrayList<Vm>());
-		setVmsCreatedList(new ArrayList<Vm>());
-		setCloudletList(new ArrayList<Cloudlet>());
+		setVmList(new VmRegistry<Vm>());
+		setVmsCreatedList(new VmRegistry<Vm>());
+		setCloudletList(new CloudletRegistry<Cloudlet>());
 		setCloudletSubmittedList(new ArrayList<Cloudlet>());
 		setCloudletReceivedList(new ArrayList<Cloudlet>());
 
@@ -229,13 +254,13 @@ public class DatacenterBrokerResearch extends SimEntity {
 
 		if (result == CloudSimTags.TRUE) {
 			getVmsToDatacentersMap().put(vmId, datacenterId);
-			getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": VM #" + vmId
-					+ " has been created in Datacenter #" + datacenterId + ", Host #"
-					+ VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+			Vm vm = VmList.getById(getVmList(), vmId);
+			getVmsCreatedList().add(vm);
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_CREATE_ACK, vmId, datacenterId,
+					vm.getHost().getId(), "VM #{} has been created in Datacenter #{}, Host #{}");
 		} else {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
-					+ " failed in Datacenter #" + datacenterId);
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_CREATE_ACK, vmId, datacenterId,
+					"Creation of VM #{} failed in Datacenter #{}");
 		}
 
 		incrementVmsAcks();
@@ -276,8 +301,8 @@ public class DatacenterBrokerResearch extends SimEntity {
 	protected void processCloudletReturn(SimEvent ev) {
 		Cloudlet cloudlet = (Cloudlet) ev.getData();
 		getCloudletReceivedList().add(cloudlet);
-		Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloudlet " + cloudlet.getCloudletId()
-				+ " received");
+		Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_RETURN,
+				cloudlet.getCloudletId(), "Cloudlet {} received");
 		cloudletsSubmitted--;
 		if (getCloudletList().size() == 0 && cloudletsSubmitted == 0) { // all cloudlets executed
 			Log.printLine(CloudSim.clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
@@ -350,10 +375,12 @@ public class DatacenterBrokerResearch extends SimEntity {
 		List<Vm> vmList = getVmsCreatedList();
 		List<Cloudlet> cloudletsList = getCloudletList();
 	
-		CustomPair geneticPair = geneticAlgorithm(getCloudletList(), getVmsCreatedList());
+		CustomPair geneticPair = geneticAlgorithm(getCloudletList(), getVmsCreatedList(), random);
 		cloudletsList = geneticPair.getFirst();
 		vmList = geneticPair.getSecond();
 	
+		// one submission event per datacenter, in the order the datacenters are first used
+		Map<Integer, List<Cloudlet>> batches = new LinkedHashMap<Integer, List<Cloudlet>>();
 		for (Cloudlet cloudlet : cloudletsList) {
 			Vm vm;
 		// if user didn't bind this cloudlet and it has not been executed yet
@@ -362,346 +389,103 @@ public class DatacenterBrokerResearch extends SimEntity {
 			} else { // submit to the specific vm
 				vm = VmList.getById(vmList, cloudlet.getVmId());
 				if (vm == null) { // vm was not created
-					Log.printLine(CloudSim.clock() + ": " + getName() + ": Postponing execution of cloudlet "
-							+ cloudlet.getCloudletId() + ": bount VM not available");
+					Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_SUBMIT_BATCH,
+							cloudlet.getCloudletId(), "Postponing execution of cloudlet {}: bount VM not available");
 					continue;
 				}
 			}
 
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Sending cloudlet "
-					+ cloudlet.getCloudletId() + " to VM #" + vm.getId());
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_SUBMIT_BATCH,
+					cloudlet.getCloudletId(), vm.getId(), "Sending cloudlet {} to VM #{}");
 			cloudlet.setVmId(vm.getId());
-			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			int datacenterId = getVmsToDatacentersMap().get(vm.getId());
+			List<Cloudlet> batch = batches.get(datacenterId);
+			if (batch == null) {
+				batch = new ArrayList<Cloudlet>();
+				batches.put(datacenterId, batch);
+			}
+			batch.add(cloudlet);
 			cloudletsSubmitted++;
 			vmIndex = (vmIndex + 1) % vmList.size();
 			getCloudletSubmittedList().add(cloudlet);
 		}
 
-	// remove submitted cloudlets from waiting list
-		for (Cloudlet cloudlet : getCloudletSubmittedList()) {
-			getCloudletList().remove(cloudlet);
+		for (Map.Entry<Integer, List<Cloudlet>> batch : batches.entrySet()) {
+			sendNow(batch.getKey(), CloudSimTags.CLOUDLET_SUBMIT_BATCH, batch.getValue());
 		}
-	}
 
-	static CustomPair geneticAlgorithm(List<Cloudlet> cloudletList, List<Vm> vmlist) {
-		// SORTING CLOUDLETS BY LENGTH
-		List<Cloudlet> sortedList = new ArrayList<Cloudlet>();
-		for (Cloudlet cloudlet : cloudletList) {
-			sortedList.add(cloudlet);
-		}
-		int numCloudlets = sortedList.size();
-		for (int i = 0; i < numCloudlets; i++) {
-			Cloudlet tmp = sortedList.get(i);
-			int idx = i;
-			for (int j = i + 1; j < numCloudlets; j++) {
-				if (sortedList.get(j).getCloudletLength() < tmp.getCloudletLength()) {
-					idx = j;
-					tmp = sortedList.get(j);
-				}
-			}
-			Cloudlet tmp2 = sortedList.get(i);
-			sortedList.set(i, tmp);
-			sortedList.set(idx, tmp2);
-		}
+		// remove submitted cloudlets from waiting list
+		getCloudletList().removeAll(new HashSet<Cloudlet>(getCloudletSubmittedList()));
+	}
 
-				
-	// SORTING CLOUDLETS BY LENGTH
-		ArrayList<Vm> sortedListVm = new ArrayList<Vm>();
-		ArrayList<Vm> toBeUsedVm = new ArrayList<Vm>();
-		ArrayList<Vm> leftOutVm = new ArrayList<Vm>();
-		for (Vm vm : vmlist) {
-			sortedListVm.add(vm);
-		}
-		int numVms = sortedListVm.size();
-	
-		for (int i = 0; i < numVms; i++) {
-			Vm tmp = sortedListVm.get(i);
-			int idx = i;
-			if (i < numCloudlets)
-				toBeUsedVm.add(tmp);
-			else
-				leftOutVm.add(tmp);
-			for (int j = i + 1; j < numVms; j++) {
-				if (sortedListVm.get(j).getMips() > tmp.getMips()) {
-					idx = j;
-					tmp = sortedListVm.get(j);
-				}
-			}
-			Vm tmp2 = sortedListVm.get(i);
-			sortedListVm.set(i, tmp);
-			sortedListVm.set(idx, tmp2);
-		}
-		
-		// BEGINNING OF CHROMOSOME ALGORITHM
-	
-		// INITIAL POPULATION AND FIRST-CHROMOSOME ARE CREATED.
-		// K IS USED TO GET THE THE POSITION OF VM TO CREATE A GENE
-		// I IS USED TO GET THE THE POSITION OF CLOUDLET TO CREATE A GENE
-		// THE THE GENE IS ADDED TO A LIST OF GENES TO CREATE A CHROMOSOME AND THE CHROMOSOME TO A INITIAL-LIST OF CHROMOSOMES
-	
-		ArrayList<Chromosomes> initialPopulation = new ArrayList<Chromosomes>();
-		for (int j = 0; j < numCloudlets * numVms; j++) {
-			ArrayList<Gene> firstChromosome = new ArrayList<Gene>();
-			
-			for (int i = 0; i < numCloudlets; i++) { 
-				int k = (i + j) % numVms;
-				//k = (k + numCloudlets) % numCloudlets;
-				Gene geneObj = new Gene(sortedList.get(i), sortedListVm.get(k));
-				firstChromosome.add(geneObj);
-			}
-			Chromosomes chromosome = new Chromosomes(firstChromosome);
-			initialPopulation.add(chromosome);
-		}
-	
-		List<String> chromesPopulation = new ArrayList<String>();
-		for(Chromosomes chromosome : initialPopulation) {
-			String chromes = "";
-			for(Gene gene : chromosome.getGeneList()) {
-				//int txt = (int) (gene.getCloudletFromGene().getCloudletLength() / gene.getVmFromGene().getMips());
-				chromes += "[" + "Task " + gene.getCloudletFromGene().getCloudletId() + ".  Vm " + gene.getVmFromGene().getId() + "]";
-			}
-			chromesPopulation.add(chromes);
-			//Log.printLine("Chromes " + chromes);
-		}
-		
-		int populationSize = initialPopulation.size();
-		Random random = new Random();
-		for (int itr = 0; itr < populationSize; itr++) {
-			int index1, index2;
-			index1 = random.nextInt(populationSize) % populationSize;
-			index2 = random.nextInt(populationSize) % populationSize;
-			ArrayList<Gene> l1 = new ArrayList<Gene>();
-			l1 = initialPopulation.get(index1).getGeneList();
-			Chromosomes chromosome1 = new Chromosomes(l1);
-			ArrayList<Gene> l2 = new ArrayList<Gene>();
-			l2 = initialPopulation.get(index2).getGeneList();
-			Chromosomes chromosome2 = new Chromosomes(l2);
-			double rangeMin = 0.0f;
-			double rangeMax = 1.0f;
-			Random r = new Random();
-			double crossProb = rangeMin + (rangeMax - rangeMin) * r.nextDouble();
-			if (crossProb < 0.5) {
-				int i, j;
-				i = random.nextInt(numCloudlets) % numCloudlets;
-				j = random.nextInt(numCloudlets) % numCloudlets;
-				Vm vm1 = l1.get(i).getVmFromGene();
-				Vm vm2 = l2.get(j).getVmFromGene();
-				chromosome1.updateGene(i, vm2);
-				chromosome2.updateGene(j, vm1);
-				initialPopulation.set(index1, chromosome1);
-				initialPopulation.set(index2, chromosome2);
-			}
-		}
-		
-		// FITNESS
-		int fittestIndex = 0;
-		double time = 1000000;
-		List<Integer> fitnessList = new ArrayList<Integer>();
-		
-		for (int i = 0; i < populationSize; i++) {
-			ArrayList<Gene> geneList = new ArrayList<Gene>();
-			geneList = initialPopulation.get(i).getGeneList();
-			double sum = 0;
-			for (int j = 0; j < numCloudlets; j++) {
-				Gene gene = geneList.get(j);
-				Cloudlet c = gene.getCloudletFromGene();
-				Vm v = gene.getVmFromGene();
-				double temp = (Double) Math.log10((int) c.getCloudletLength()) /v.getMips() ;
-				sum += temp;
-			}
-			if (sum < time) {
-				time = sum;
-				fittestIndex = i;
-				fitnessList.add(fittestIndex);
-			}
-		}
-		
-		chromesPopulation = new ArrayList<String>();
-		String chromes = "";
-		for(Gene gene : initialPopulation.get(fittestIndex).getGeneList()) {
-		int txt = 0;
-			txt = (int) (gene.getCloudletFromGene().getCloudletLength() / gene.getVmFromGene().getMips());
-			chromes += "[" + "Task " + gene.getCloudletFromGene().getCloudletId() + ".  Vm " + gene.getVmFromGene().getId() + "=== MIPS " + txt + " ]";
-		}
-		chromesPopulation.add(chromes);
-		Log.printLine("Chromes " + chromes);
-		
-		ArrayList<Gene> geneList = initialPopulation.get(fittestIndex).getGeneList();
-		List<CustomDoublePair> cLst = listOfVmAndFitness(geneList);  // STORED THE GENE VM ID (first) AND ITS SUM OF FITNESS(second)
-		
-		// Find Gene with minimum fitness.
-		Double m = 1000.0;
-		Integer mmin = 0;
-		for(int i = 0; i < cLst.size(); i++) {
-			if(cLst.get(i).second < m) {
-				m = cLst.get(i).second;
-				mmin = i;
-			}
-		}
-		CustomDoublePair minX = cLst.get(mmin); //Index of VM and it's fitness which is minimum
-		
-		// Get from geneList all genes corresponding to the lowest fitness from the VMID
-		//By getting all genes that has the VMID compute the max fitness and
-		//get its index in the geneList for further continuation
-		List<CustomGenePair> listGeneMin = new ArrayList<CustomGenePair>();
-		for(int i = 0; i < geneList.size(); i++) {
-			if(geneList.get(i).getVmFromGene().getId() == minX.first) {
-				Gene g = geneList.get(i);
-				Integer in = i;
-				CustomGenePair pp = new CustomGenePair(in, g);
-				listGeneMin.add(pp); // All gene whose VM has lowest fitness
-			}
-		}
-		
-		// Find Gene with maximum fitness.
-		Double mx = 1000.0;
-		Integer mmax = 0;
-		for(int i = 0; i < cLst.size(); i++) {
-			if(cLst.get(i).second < mx) {
-				mx = cLst.get(i).second;
-				mmax = i;
-			}
-		}
-		CustomDoublePair maxX = cLst.get(mmax); //Index of VM and it's fitness which is maximum
-		
-		// Get from geneList all genes corresponding to the maximum fitness from the VMID
-		//By getting all genes that has the VMID compute the max fitness and
-		//get its index in the geneList for further continuation
-		List<CustomGenePair> listGeneMx = new ArrayList<CustomGenePair>();
-		for(int i = 0; i < geneList.size(); i++) {
-			if(geneList.get(i).getVmFromGene().getId() == maxX.first) {
-				Gene g = geneList.get(i);
-				Integer in = i;
-				CustomGenePair pp = new CustomGenePair(in, g);
-				listGeneMx.add(pp); // All gene whose VM has highest fitness
-			}
+	/**
+	 * Evolves a schedule for the cloudlets over the VMs on one island per core.
+	 * 
+	 * @param cloudletList the cloudlets to schedule
+	 * @param vmlist the created VMs
+	 * @param random the random stream of the GA
+	 * @return the cloudlets and, at the same positions, the VMs they must run on
+	 */
+	static CustomPair geneticAlgorithm(List<Cloudlet> cloudletList, List<Vm> vmlist, Random random) {
+		SchedulingProblem problem = new SchedulingProblem(cloudletList, vmlist);
+		IslandModel islandModel = new IslandModel(problem, NUM_ISLANDS, ISLAND_SIZE,
+				new SplittableRandom(random.nextLong()));
+		islandModel.setMaxGenerations(MAX_GENERATIONS);
+		int shift = 0;
+		for (GeneticScheduler island : islandModel.getIslands()) {
+			island.setInitializer(new RoundRobinInitializer(shift));
+			island.setFitnessFunction(new LogLengthFitness(problem));
+			shift += ISLAND_SIZE;
 		}
+		int[] best = islandModel.run();
+		swapExtremeTasks(problem, best);
+		return problem.toCustomPair(best, 0);
+	}
 
-		// Find CloudLet with minimum length.
-		Long minCV = Long.MAX_VALUE;
-		Cloudlet mminC = listGeneMin.get(0).getSecond().getCloudletFromGene();
-		for(int i = 0; i < listGeneMin.size(); i++) {
-			Cloudlet clMM = listGeneMin.get(i).getSecond().getCloudletFromGene();
-			if(clMM.getCloudletLength() < minCV) {
-				minCV = clMM.getCloudletLength();
-				mminC = clMM;
-			}
+	/**
+	 * Swaps the shortest task of the least loaded VM with the longest task of the most loaded VM,
+	 * when that moves work off the most loaded VM.
+	 * 
+	 * @param problem the problem
+	 * @param genes the schedule, updated in place
+	 */
+	static void swapExtremeTasks(SchedulingProblem problem, int[] genes) {
+		double[] vmLoad = new double[problem.getNumVms()];
+		for (int task = 0; task < genes.length; task++) {
+			vmLoad[genes[task]] += problem.getExecutionTime(task, genes[task]);
 		}
-		// Find CloudLet with maximum length.
-		Long mxCV = Long.MIN_VALUE;
-		Cloudlet mmaxC = listGeneMx.get(0).getSecond().getCloudletFromGene();
-		for(int i = 0; i < listGeneMx.size(); i++) {
-			Cloudlet clMM = listGeneMx.get(i).getSecond().getCloudletFromGene();
-			if(clMM.getCloudletLength() > mxCV) {
-				mxCV = clMM.getCloudletLength();
-				mmaxC = clMM;
+		int minVm = 0;
+		int maxVm = 0;
+		for (int vm = 1; vm < vmLoad.length; vm++) {
+			if (vmLoad[vm] < vmLoad[minVm]) {
+				minVm = vm;
 			}
-		}
-		
-		//If cloudLet length of gene containing VM with minimum fitness is lesser
-		// than that containing maximum fitness
-		
-		// Find cloudLet and replace with min
-		// Find cloudLet and replace with max
-		Log.printLine("MIN VM ID ***************************** " + mminC.getCloudletLength());
-		Log.printLine("MAX VM ID ***************************** " + mmaxC.getCloudletLength());
-		if(mminC.getCloudletLength() < mmaxC.getCloudletLength()) {
-			for(int i = 0; i < geneList.size(); i++) {
-				Log.printLine("1 ***************************** " + geneList.get(i).getCloudletFromGene().getCloudletLength());
-				Log.printLine("2 ***************************** " + geneList.get(i).getVmFromGene().getMips());
-				if (mminC.getCloudletId() == geneList.get(i).getCloudletFromGene().getCloudletId()) {
-					initialPopulation.get(fittestIndex).updateGene(i, mmaxC);
-				}
-				if (mmaxC.getCloudletId() == geneList.get(i).getCloudletFromGene().getCloudletId()) {
-					//Log.printLine("2 ***************************** " + mmaxC.getCloudletLength());
-					initialPopulation.get(fittestIndex).updateGene(i, mminC);
-				}
+			if (vmLoad[vm] > vmLoad[maxVm]) {
+				maxVm = vm;
 			}
 		}
 
-		//CustomDoublePair min = min(initialPopulation.get(fittestIndex).getGeneList());
-		//CustomDoublePair max = max(initialPopulation.get(fittestIndex).getGeneList());
-
-		//Gene gene = initialPopulation.get(fittestIndex).getGeneList().get(min.first);
-		//Gene geneMax = initialPopulation.get(fittestIndex).getGeneList().get(max.first);
-
-		//gene.setVmForGene(geneMax.getVmFromGene());
-		//geneMax.setVmForGene(gene.getVmFromGene());
-
-		//initialPopulation.get(fittestIndex).updateGene(min.first, geneMax.getVmFromGene());
-		//initialPopulation.get(fittestIndex).updateGene(max.first, gene.getVmFromGene());
-		
-		//Log.printLine("MIN VM ID ***************************** " + gene.getVmFromGene().getId());
-		//Log.printLine("MIN VM MIPS ***************************** " + gene.getVmFromGene().getMips());
-
-		//Log.printLine("MAX VM ID ***************************** " + geneMax.getVmFromGene().getId());
-		//Log.printLine("MAX VM MIPS ***************************** " + geneMax.getVmFromGene().getMips());
-
-		ArrayList<Gene> result = new ArrayList<Gene>();
-		result = initialPopulation.get(fittestIndex).getGeneList();
-		
-		List<Cloudlet> finalcloudletList = new ArrayList<Cloudlet>();
-		List<Vm> finalvmlist = new ArrayList<Vm>();
-		
-		for (int i = 0; i < result.size(); i++) {
-			finalcloudletList.add(result.get(i).getCloudletFromGene());
-			finalvmlist.add(result.get(i).getVmFromGene());
-		}
-		CustomPair pairOfResources = new CustomPair(finalcloudletList, finalvmlist);
-		return pairOfResources;
-	}
-	
-	static List<CustomDoublePair> listOfVmAndFitness(ArrayList<Gene> geneList) {
-		List<CustomDoublePair> list = new ArrayList<CustomDoublePair>(); // STORES THE GENE VM ID AND ITS SUM OF FITNESS
-		for(int i = 0; i < geneList.size(); i++) {
-			CustomDoublePair pair = new CustomDoublePair(0, 0.0);
-			Double fitness = 0.0;
-			for(int j = 0; j < geneList.size(); j++) {
-				if(geneList.get(i).getVmFromGene().getId() == geneList.get(j).getVmFromGene().getId()) {
-					fitness += geneList.get(j).getCloudletFromGene().getCloudletLength() / geneList.get(j).getVmFromGene().getMips();
-				}
+		int shortest = -1;
+		int longest = -1;
+		for (int task = 0; task < genes.length; task++) {
+			if (genes[task] == minVm
+					&& (shortest == -1 || problem.getTaskLength(task) < problem.getTaskLength(shortest))) {
+				shortest = task;
 			}
-			pair.setFirst(geneList.get(i).getVmFromGene().getId());
-			pair.setSecond(fitness);
-			list.add(pair);
-		}
-		return list;
-	}
-	
-	static CustomDoublePair min(ArrayList<Gene> list) {
-		Integer minIdx = 0;
-		Double minValue = 0.0;
-		Double minimumReg = 10000000.0;
-		for(int i = 0; i < list.size(); i++) {
-			Double txt = 0.0;
-			Gene gene = list.get(i);
-			txt = (gene.getCloudletFromGene().getCloudletLength() / gene.getVmFromGene().getMips());
-			minValue = txt;
-			if(minValue < minimumReg) {
-				minimumReg = minValue;
-				minIdx = i;
+			if (genes[task] == maxVm
+					&& (longest == -1 || problem.getTaskLength(task) > problem.getTaskLength(longest))) {
+				longest = task;
 			}
 		}
-		return new CustomDoublePair(minIdx, minimumReg);
-	}
-	
-	static CustomDoublePair max(ArrayList<Gene> list) {
-		Integer maxIdx = 0;
-		Double maxValue = 0.0;
-		Double maxReg = 0.0;
-		for(int i = 0; i < list.size(); i++) {
-			Double txt = 0.0;
-			Gene gene = list.get(i);
-			txt = (gene.getCloudletFromGene().getCloudletLength() / gene.getVmFromGene().getMips());
-			maxValue = txt;
-			if(maxValue > maxReg) {
-				maxReg = maxValue;
-				maxIdx = i;
-			}
+		if (shortest != -1 && longest != -1
+				&& problem.getTaskLength(shortest) < problem.getTaskLength(longest)) {
+			Log.printLine("Swapping cloudlet " + problem.getCloudlet(shortest).getCloudletId() + " and cloudlet "
+					+ problem.getCloudlet(longest).getCloudletId());
+			genes[shortest] = maxVm;
+			genes[longest] = minVm;
 		}
-		return new CustomDoublePair(maxIdx, maxReg);
 	}
-	
+
 	/**
 	 * Destroy the virtual machines running in datacenters.
 	 * 
@@ -710,7 +494,8 @@ public class DatacenterBrokerResearch extends SimEntity {
 	 */
 	protected void clearDatacenters() {
 		for (Vm vm : getVmsCreatedList()) {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Destroying VM #" + vm.getId());
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_DESTROY, vm.getId(),
+					"Destroying VM #{}");
 			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.VM_DESTROY, vm);
 		}
 
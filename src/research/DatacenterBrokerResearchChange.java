@@ -10,6 +10,8 @@ package research;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -21,10 +23,13 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.RandomService;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.lists.CloudletList;
+import org.cloudbus.cloudsim.lists.CloudletRegistry;
 import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.lists.VmRegistry;
 
 
 /**
@@ -76,6 +81,9 @@ public class DatacenterBrokerResearchChange extends SimEntity {
 	/** The datacenter characteristics list. */
 	protected Map<Integer, DatacenterCharacteristics> datacenterCharacteristicsList;
 
+	/** The random stream of the scheduling GA, derived from the simulation seed and the broker name. */
+	private final Random random;
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -87,10 +95,11 @@ public class DatacenterBrokerResearchChange extends SimEntity {
 	 */
 	public DatacenterBrokerResearchChange(String name) throws Exception {
 		super(name);
+		random = RandomService.getStream(name);
 
-		setVmList(new ArrayList<Vm>());
-		setVmsCreatedList(new ArrayList<Vm>());
-		setCloudletList(new ArrayList<Cloudlet>());
+		setVmList(new VmRegistry<Vm>());
+		setVmsCreatedList(new VmRegistry<Vm>());
+		setCloudletList(new CloudletRegistry<Cloudlet>());
 		setCloudletSubmittedList(new ArrayList<Cloudlet>());
 		setCloudletReceivedList(new ArrayList<Cloudlet>());
 
@@ -229,13 +238,13 @@ public class DatacenterBrokerResearchChange extends SimEntity {
 
 		if (result == CloudSimTags.TRUE) {
 			getVmsToDatacentersMap().put(vmId, datacenterId);
-			getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": VM #" + vmId
-					+ " has been created in Datacenter #" + datacenterId + ", Host #"
-					+ VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+			Vm vm = VmList.getById(getVmList(), vmId);
+			getVmsCreatedList().add(vm);
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_CREATE_ACK, vmId, datacenterId,
+					vm.getHost().getId(), "VM #{} has been created in Datacenter #{}, Host #{}");
 		} else {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
-					+ " failed in Datacenter #" + datacenterId);
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_CREATE_ACK, vmId, datacenterId,
+					"Creation of VM #{} failed in Datacenter #{}");
 		}
 
 		incrementVmsAcks();
@@ -276,8 +285,8 @@ public class DatacenterBrokerResearchChange extends SimEntity {
 	protected void processCloudletReturn(SimEvent ev) {
 		Cloudlet cloudlet = (Cloudlet) ev.getData();
 		getCloudletReceivedList().add(cloudlet);
-		Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloudlet " + cloudlet.getCloudletId()
-				+ " received");
+		Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_RETURN,
+				cloudlet.getCloudletId(), "Cloudlet {} received");
 		cloudletsSubmitted--;
 		if (getCloudletList().size() == 0 && cloudletsSubmitted == 0) { // all cloudlets executed
 			Log.printLine(CloudSim.clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
@@ -350,10 +359,12 @@ public class DatacenterBrokerResearchChange extends SimEntity {
 		List<Vm> vmList = getVmsCreatedList();
 		List<Cloudlet> cloudletsList = getCloudletList();
 	
-		CustomPair geneticPair = geneticAlgorithm(getCloudletList(), getVmsCreatedList());
+		CustomPair geneticPair = geneticAlgorithm(getCloudletList(), getVmsCreatedList(), random);
 		cloudletsList = geneticPair.getFirst();
 		vmList = geneticPair.getSecond();
 
+		// one submission event per datacenter, in the order the datacenters are first used
+		Map<Integer, List<Cloudlet>> batches = new LinkedHashMap<Integer, List<Cloudlet>>();
 		for (Cloudlet cloudlet : cloudletsList) {
 			Vm vm;
 		// if user didn't bind this cloudlet and it has not been executed yet
@@ -362,28 +373,36 @@ public class DatacenterBrokerResearchChange extends SimEntity {
 			} else { // submit to the specific vm
 				vm = VmList.getById(vmList, cloudlet.getVmId());
 				if (vm == null) { // vm was not created
-					Log.printLine(CloudSim.clock() + ": " + getName() + ": Postponing execution of cloudlet "
-							+ cloudlet.getCloudletId() + ": bount VM not available");
+					Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_SUBMIT_BATCH,
+							cloudlet.getCloudletId(), "Postponing execution of cloudlet {}: bount VM not available");
 					continue;
 				}
 			}
 
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Sending cloudlet "
-					+ cloudlet.getCloudletId() + " to VM #" + vm.getId());
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.CLOUDLET_SUBMIT_BATCH,
+					cloudlet.getCloudletId(), vm.getId(), "Sending cloudlet {} to VM #{}");
 			cloudlet.setVmId(vm.getId());
-			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			int datacenterId = getVmsToDatacentersMap().get(vm.getId());
+			List<Cloudlet> batch = batches.get(datacenterId);
+			if (batch == null) {
+				batch = new ArrayList<Cloudlet>();
+				batches.put(datacenterId, batch);
+			}
+			batch.add(cloudlet);
 			cloudletsSubmitted++;
 			vmIndex = (vmIndex + 1) % vmList.size();
 			getCloudletSubmittedList().add(cloudlet);
 		}
 
-	// remove submitted cloudlets from waiting list
-		for (Cloudlet cloudlet : getCloudletSubmittedList()) {
-			getCloudletList().remove(cloudlet);
+		for (Map.Entry<Integer, List<Cloudlet>> batch : batches.entrySet()) {
+			sendNow(batch.getKey(), CloudSimTags.CLOUDLET_SUBMIT_BATCH, batch.getValue());
 		}
+
+		// remove submitted cloudlets from waiting list
+		getCloudletList().removeAll(new HashSet<Cloudlet>(getCloudletSubmittedList()));
 	}
 
-	static CustomPair geneticAlgorithm(List<Cloudlet> cloudletList, List<Vm> vmlist) {
+	static CustomPair geneticAlgorithm(List<Cloudlet> cloudletList, List<Vm> vmlist, Random random) {
 		// SORTING CLOUDLETS BY LENGTH
 		List<Cloudlet> sortedList = new ArrayList<Cloudlet>();
 		for (Cloudlet cloudlet : cloudletList) {
@@ -453,7 +472,7 @@ public class DatacenterBrokerResearchChange extends SimEntity {
 			initialPopulation.add(chromosome);
 		}
 		
-		initialPopulation = evaluation(cloudletList, sortedListVm, initialPopulation);
+		initialPopulation = evaluation(cloudletList, sortedListVm, initialPopulation, random);
 		
 		// FITNESS
 		int fittestIndex = 0;
@@ -493,7 +512,8 @@ public class DatacenterBrokerResearchChange extends SimEntity {
 		return pairOfResources;
 	}
 	
-	static ArrayList<Chromosomes> evaluation(List<Cloudlet> cloudletList, ArrayList<Vm> vmList, List<Chromosomes> initialPopulation) {
+	static ArrayList<Chromosomes> evaluation(List<Cloudlet> cloudletList, ArrayList<Vm> vmList, List<Chromosomes> initialPopulation,
+			Random random) {
 		Double fitestValue = 0.0;
 		double time = 1000000;
 		int iteration = 0;
@@ -533,7 +553,6 @@ public class DatacenterBrokerResearchChange extends SimEntity {
 			Log.printLine("******************************************************* " + fitnessList.size());
 			
 			//CROSS-OVER
-			Random random = new Random();
 			for (int itr = 0; itr < populationSize; itr++) {
 				int index1, index2;
 				index1 = random.nextInt(populationSize) % populationSize;
@@ -546,8 +565,7 @@ public class DatacenterBrokerResearchChange extends SimEntity {
 				Chromosomes chromosome2 = new Chromosomes(l2);
 				double rangeMin = 0.0f;
 				double rangeMax = 1.0f;
-				Random r = new Random();
-				double crossProb = rangeMin + (rangeMax - rangeMin) * r.nextDouble();
+				double crossProb = rangeMin + (rangeMax - rangeMin) * random.nextDouble();
 				if (crossProb < 0.5) {
 					int i, j;
 					i = random.nextInt(numCloudlets) % numCloudlets;
@@ -562,10 +580,9 @@ public class DatacenterBrokerResearchChange extends SimEntity {
 			}
 			
 			// MUTATION
-			Random r = new Random();
 			double rangeMin = 0.0f;
 			double rangeMax = 1.0f;
-			double mutProb = rangeMin + (rangeMax - rangeMin) * r.nextDouble();
+			double mutProb = rangeMin + (rangeMax - rangeMin) * random.nextDouble();
 			if(mutProb < 0.5) {
 				int i; 
 				i = random.nextInt(populationSize) % populationSize;
@@ -643,7 +660,8 @@ public class DatacenterBrokerResearchChange extends SimEntity {
 	 */
 	protected void clearDatacenters() {
 		for (Vm vm : getVmsCreatedList()) {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Destroying VM #" + vm.getId());
+			Log.record(Log.Level.INFO, CloudSim.clock(), getName(), CloudSimTags.VM_DESTROY, vm.getId(),
+					"Destroying VM #{}");
 			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.VM_DESTROY, vm);
 		}
 
@@ -15,11 +15,13 @@ import java.io.FileNotFoundException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.CloudletSchedulerSpaceShared;
@@ -37,21 +39,25 @@ import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicySimple;
 import org.cloudbus.cloudsim.VmSchedulerTimeShared;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.RandomService;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
 
+import research.ga.BalancedRandomInitializer;
+import research.ga.CriticalVmLocalSearch;
+import research.ga.GeneticScheduler;
+import research.ga.HeuristicSeedingInitializer;
+import research.ga.SchedulingProblem;
+
 /**
  * An example showing how to create
  * scalable simulations.
  */
 public class HGA {
 
-	/** The cloudlet list. */
-	private static List<Cloudlet> cloudletList;
-
-	/** The vmlist. */
-	private static List<Vm> vmlist;
+	/** The integers of the seed files read, by file name. */
+	private static final Map<String, List<Integer>> seedFiles = new ConcurrentHashMap<String, List<Integer>>();
 
 	private static List<Vm> createVM(int userId, int vms) {
 		// Creates a container to store VMs. This list is passed to the broker
@@ -66,7 +72,6 @@ public class HGA {
 		long bw = 10;
 		int pesNumber = 4;// number of cpus
 		String vmm = "Xen"; // VMM name
-		Random rOb = new Random();
 		// create VMs
 		Vm[] vm = new Vm[vms];
 		for (int i = 0; i < vms; i++) {
@@ -83,22 +88,32 @@ public class HGA {
 		return list;
 	}
 	
-	private static ArrayList<Integer> getRandomSeed(Integer constraint, String fileName){
-		ArrayList<Integer> seed = new ArrayList<Integer>();
-		File fobj = new File(System.getProperty("user.dir") + "/" + fileName);
-		
-		try {
-			Integer count = constraint;
-			Scanner sobj = new Scanner(fobj);
-			while(sobj.hasNextLine() && count > 0) {
-				seed.add(sobj.nextInt());
-				count --;
+	/**
+	 * Gets the first integers of a file of the working directory. Each file is
+	 * read once, so that replications do not read it again.
+	 *
+	 * @param constraint the number of integers
+	 * @param fileName the name of the file
+	 * @return the integers, fewer if the file is shorter
+	 */
+	static ArrayList<Integer> getRandomSeed(Integer constraint, String fileName){
+		List<Integer> seed = seedFiles.get(fileName);
+		if (seed == null) {
+			seed = new ArrayList<Integer>();
+			File fobj = new File(System.getProperty("user.dir") + "/" + fileName);
+			try {
+				Scanner sobj = new Scanner(fobj);
+				while (sobj.hasNextInt()) {
+					seed.add(sobj.nextInt());
+				}
+				sobj.close();
+			} catch(FileNotFoundException e) {
+				e.printStackTrace();
+				return new ArrayList<Integer>();
 			}
-			
-		} catch(FileNotFoundException e) {
-			e.printStackTrace();;
+			seedFiles.putIfAbsent(fileName, seed);
 		}
-		return seed;
+		return new ArrayList<Integer>(seed.subList(0, Math.min(constraint, seed.size())));
 	}
 
 	private static List<Cloudlet> createCloudlet(int userId, int cloudlets) {
@@ -144,150 +159,7 @@ public class HGA {
 		Log.printLine("Starting CloudSimExample6...");
 
 		try {
-			// First step: Initialize the CloudSim package. It should be called
-			// before creating any entities.
-			int num_user = 1;   // number of grid users
-			Calendar calendar = Calendar.getInstance();
-			boolean trace_flag = false;  // mean trace events
-
-			// Initialize the CloudSim library
-			CloudSim.init(num_user, calendar, trace_flag);
-
-			// Second step: Create Datacenters
-			//Datacenters are the resource providers in CloudSim. We need at list one of them to run a CloudSim simulation
-			@SuppressWarnings("unused")
-			Datacenter datacenter0 = createDatacenter("Datacenter_0");
-			@SuppressWarnings("unused")
-			Datacenter datacenter1 = createDatacenter("Datacenter_1");
-
-			//Third step: Create Broker
-			DBGA broker = createBroker();
-			int brokerId = broker.getId();
-
-			//Fourth step: Create VMs and Cloudlets and send them to broker
-			vmlist = createVM(brokerId, 30); // creating 20 vms
-			cloudletList = createCloudlet(brokerId, 300); // creating 40 cloudlets
-
-			int aveCls = (cloudletList.size() / vmlist.size());
-			int rem = cloudletList.size() % vmlist.size();
-			int noVms = vmlist.size();
-			// Assign Cloudlets to VM
-			List<List<List<Gene2>>> population = new ArrayList<>();
-			List<Integer> fittnessList = new ArrayList<>();
-			
-			for(int x = 0; x < 100; x++) {
-				List<List<Gene2>> chromosome = new ArrayList<>();
-				for(int j = 0; j < 20; j++) {
-					Collections.shuffle(vmlist);
-					Collections.shuffle(cloudletList);
-					int oldPosition = 0;
-					List<Gene2> genelist = new ArrayList<>();
-					for(int i = 0; i < noVms; i++) {
-						if(i == noVms - 1 && rem != 0) { // FIlling the remainder Cloudlets if any exist.
-							Gene2 geneLast = new Gene2(cloudletList.subList(oldPosition, cloudletList.size()), vmlist.get(i));
-							genelist.add(geneLast);
-							break;
-						}
-						List<Cloudlet> clts = cloudletList.subList(oldPosition, (i + 1) * aveCls);
-						Gene2 gene = new Gene2(clts, vmlist.get(i));
-						oldPosition = (i + 1) * aveCls;
-						if(i < noVms) {
-							genelist.add(gene);
-						}
-					}
-					chromosome.add(genelist);
-				}
-				population.add(chromosome);
-			}
-			
-			
-			Boolean converged = false;
-			List<Integer> convValues = new ArrayList<>();
-			convValues.add(average(fitnessPopulation(population)));
-			List<List<List<Gene2>>> best = population;
-			
-			while(converged == false) {
-				List<List<List<Gene2>>> srt = sortPopulation(population);
-				List<List<List<Gene2>>> newGeneration = new ArrayList<>();
-				
-				// ELITISM: 10% of the best
-				newGeneration = srt.subList(0, (10 * srt.size()/100));
-				List<List<List<Gene2>>> parent1 = new ArrayList<>();
-				List<List<List<Gene2>>> parent2 = new ArrayList<>();
-				//CROSS_OVER or MUTATION
-				parent1.addAll(srt.subList(0, srt.size()));
-				parent2.addAll(srt.subList(0, srt.size()));
-				List<List<List<Gene2>>> p = mate(parent1, parent2, cloudletList, vmlist);
-				newGeneration.addAll(p);
-				population = newGeneration;
-				int avg = average(fitnessPopulation(population));
-				if(avg < Collections.min(convValues)) {
-					best = newGeneration;
-				}
-				Collections.sort(convValues);
-				if(convValues.size() > 500 || avg < Collections.min(convValues )) {
-					converged = true;
-				}
-				if(convValues.size() > 500) {
-					converged = true;
-				}
-				convValues.add(avg);
-			}
-			List<List<Gene2>> bestChromosome = pickBestChromosome(best);
-
-			List<List<Gene2>> bestGeneList = population.get(0); // INITIALISED
-			converged = false;
-			while(converged == false) {
-				List<List<Gene2>> srt = sortChromosome(bestChromosome);
-				List<List<Gene2>> newGeneration = new ArrayList<>();
-				
-				// ELITISM: 10% of the best
-				newGeneration = srt.subList(0, (10 * srt.size()/100));
-				List<List<Gene2>> parent1 = new ArrayList<>();
-				List<List<Gene2>> parent2 = new ArrayList<>();
-				//CROSS_OVER or MUTATION
-				parent1.addAll(srt.subList(0, srt.size()));
-				parent2.addAll(srt.subList(0, srt.size()));
-				List<List<Gene2>> p = mateChromosomes(parent1, parent2, cloudletList, vmlist);
-				newGeneration.addAll(p);
-				int avg = fitnessChromosome(newGeneration);
-				if(avg < Collections.min(convValues)) {
-					bestGeneList = newGeneration;
-				}
-				Collections.sort(convValues);
-				if(convValues.size() > 500 || avg < Collections.min(convValues )) {
-					converged = true;
-				}
-				if(convValues.size() > 500) {
-					converged = true;
-				}
-				convValues.add(avg);
-			}
-
-			List<Gene2> bestGeneListList = pickBestGenelist(bestGeneList);
-			List<Cloudlet> clts = new ArrayList<>();
-			for(Gene2 gene: bestGeneListList) {
-				for(int i = 0; i < gene.getCloudletsFromGene().size(); i++) {
-					Log.printLine("getCloudletsFromGene ************************" + i);
-					Cloudlet clt = gene.getCloudletsFromGene().get(i);
-					clts.add(clt);
-					clt.setUserId(brokerId);
-					clt.setVmId(gene.getVmFromGene().getId());
-					//broker.bindCloudletToVm(clt.getCloudletId(), gene.getVmFromGene().getId());
-				}
-			}
-			broker.submitCloudletList(clts);
-			broker.submitVmList(vmlist);
-
-			// Fifth stecp: Starts the simulation
-			CloudSim.startSimulation();
-
-			// Final step: Print results when simulation is over
-			List<Cloudlet> newList = broker.getCloudletReceivedList();
-
-			CloudSim.stopSimulation();
-
-			printCloudletList(newList);
+			simulate(RandomService.getStream("HGA"));
 
 			Log.printLine("CloudSimExample6 finished!");
 		}
@@ -298,144 +170,81 @@ public class HGA {
 		}
 	}
 
-	static Integer average(List<Integer> input) {
-		int sum = 0;
-		for(int num: input) { sum += num;}
-		return sum / input.size();
-	}
-
-	static List<List<List<Gene2>>> sortPopulation(List<List<List<Gene2>>> population){
-		List<List<Gene2>> temp= new ArrayList<>();
-		for(int i = 0; i< population.size(); i++)
-		{
-		    for(int j = 0; j< population.size()-1; j++)
-		    {
-		        if(fitnessChromosome(population.get(j+1)) < fitnessChromosome(population.get(j)))
-		        {
-		            temp = population.get(j+1);
-		            population.set(j+1, population.get(j));
-		            population.set(j, temp);
-		        }
-		    }
-		}
-		return population;
-	}
-
-	static List<List<Gene2>> sortChromosome(List<List<Gene2>> chromosome){
-		List<Gene2> temp= new ArrayList<>();
-		for(int i = 0; i< chromosome.size(); i++)
-		{
-		    for(int j = 0; j< chromosome.size()-1; j++)
-		    {
-		        if(fitnessChromosome2(chromosome.get(j+1)) < fitnessChromosome2(chromosome.get(j)))
-		        {
-		            temp = chromosome.get(j+1);
-		            chromosome.set(j+1, chromosome.get(j));
-		            chromosome.set(j, temp);
-		        }
-		    }
-		}
-		return chromosome;
-	}
-	
-	static List<List<Gene2>> pickBestChromosome(List<List<List<Gene2>>> population){
-		List<List<Gene2>> best= new ArrayList<>();
-		int bestValue = Integer.MAX_VALUE;
-		for(int i = 0; i< population.size(); i++)
-		{
-			int fitValue = fitnessChromosome(population.get(i));
-			//Log.printLine("fitValue ****************************************" + fitValue);
-		    if(fitValue < bestValue)
-		    {
-		        best = population.get(i);
-		        bestValue = fitnessChromosome(population.get(i));
-		    }
-		}
-		return best;
-	}
-	
-	static List<Gene2> pickBestGenelist(List<List<Gene2>> chromosome){
-		List<Gene2> best= new ArrayList<>();
-		int bestValue = Integer.MAX_VALUE;
-		for(int i = 0; i< chromosome.size(); i++)
-		{
-			int fitValue = fitnessChromosome2(chromosome.get(i));
-		    if(fitValue < bestValue)
-		    {
-		        best = chromosome.get(i);
-		        bestValue = fitnessChromosome2(chromosome.get(i));
-		    }
-		}
-		return best;
-	}
-
-	static List<List<List<Gene2>>> mate(List<List<List<Gene2>>> parent1, List<List<List<Gene2>>> parent2, List<Cloudlet> sortedList, List<Vm> sortedListVm){
-		List<List<List<Gene2>>> children = new ArrayList<>();
-		for(int x = 0; x < (90 * parent1.size()/100); x++) {
-			Random rand = new Random();
-			Double randNum = rand.nextDouble(1);
-			if(randNum < 0.45) {
-				children.add(parent1.get(x));
-			} else if(randNum <= 1.0) {
-				children.add(parent2.get(x));
-			}
-		}
-		return children;
-	}
-
-	static List<List<Gene2>> mateChromosomes(List<List<Gene2>> parent1, List<List<Gene2>> parent2, List<Cloudlet> sortedList, List<Vm> sortedListVm){
-		List<List<Gene2>> children = new ArrayList<>();
-		for(int x = 0; x < (90 * parent1.size()/100); x++) {
-			Random rand = new Random();
-			Double randNum = rand.nextDouble(1);
-			if(randNum < 0.45) {
-				children.add(parent1.get(x));
-			} else if(randNum <= 1.0) {
-				children.add(parent2.get(x));
-			}
-		}
-		return children;
-	}
-	
-	static List<Integer> fitnessPopulation(List<List<List<Gene2>>> population) {
-		int fitness = 0;
-		List<Integer> fitnessList = new ArrayList<>(); 
-		for(List<List<Gene2>> chromo : population) {
-			fitness = fitnessChromosome(chromo);
-			fitnessList.add(fitness);
-		}
-		 return fitnessList;
-	}
-	
-	static int fitnessChromosome(List<List<Gene2>> chromo) {
-		int fitness = 0; 
-		for (List<Gene2> cr1: chromo) {
-			for (Gene2 gene: cr1) { 
-				fitness +=  fitnessGene(gene);
-			}
-		}
-		return fitness;
-	}
-	
-	static int fitnessChromosome2(List<Gene2> chromo) {
-		int fitness = 0; 
-		for (Gene2 geneList: chromo) {
-			fitness +=  fitnessGene(geneList);
+	/**
+	 * Runs one replication of the example: evolves a schedule with the given
+	 * random generator, binds the cloudlets to their VMs and simulates them.
+	 * All the state of the replication is local, so that replications can run
+	 * in parallel, each in its own simulation context.
+	 *
+	 * @param random the random generator of the genetic algorithm
+	 * @return the makespan of the simulation, the best fitness and the number
+	 *         of generations of the genetic algorithm
+	 * @throws Exception if the simulation fails
+	 */
+	public static Map<String, Double> simulate(Random random) throws Exception {
+		// First step: Initialize the CloudSim package. It should be called
+		// before creating any entities.
+		int num_user = 1;   // number of grid users
+		Calendar calendar = Calendar.getInstance();
+		boolean trace_flag = false;  // mean trace events
+
+		// Initialize the CloudSim library
+		CloudSim.init(num_user, calendar, trace_flag);
+
+		// Second step: Create Datacenters
+		//Datacenters are the resource providers in CloudSim. We need at list one of them to run a CloudSim simulation
+		@SuppressWarnings("unused")
+		Datacenter datacenter0 = createDatacenter("Datacenter_0");
+		@SuppressWarnings("unused")
+		Datacenter datacenter1 = createDatacenter("Datacenter_1");
+
+		//Third step: Create Broker
+		DBGA broker = createBroker();
+		int brokerId = broker.getId();
+
+		//Fourth step: Create VMs and Cloudlets and send them to broker
+		List<Vm> vmlist = createVM(brokerId, 30); // creating 20 vms
+		List<Cloudlet> cloudletList = createCloudlet(brokerId, 300); // creating 40 cloudlets
+
+		// Evolve a task-to-VM schedule and bind every cloudlet to its VM. The first
+		// generation is seeded with Min-Min, Max-Min and Sufferage schedules and the
+		// elites are refined by hill climbing, so far fewer generations are needed. The
+		// run stops early once the best schedule stalls
+		SchedulingProblem problem = new SchedulingProblem(cloudletList, vmlist);
+		GeneticScheduler scheduler = new GeneticScheduler(problem, 100, random);
+		scheduler.setInitializer(new HeuristicSeedingInitializer(new BalancedRandomInitializer()));
+		scheduler.setLocalSearch(new CriticalVmLocalSearch(problem.getNumVms()), 10);
+		scheduler.setMaxGenerations(50);
+		scheduler.getTermination().setStallGenerations(15);
+		int[] best = scheduler.run();
+		Log.printLine("Best makespan after " + scheduler.getGenerations() + " generations ("
+				+ scheduler.getTermination().getReason() + "): " + scheduler.getBestFitness());
+
+		problem.bind(best, 0);
+		broker.submitCloudletList(cloudletList);
+		broker.submitVmList(vmlist);
+
+		// Fifth stecp: Starts the simulation
+		CloudSim.startSimulation();
+
+		// Final step: Print results when simulation is over
+		List<Cloudlet> newList = broker.getCloudletReceivedList();
+
+		CloudSim.stopSimulation();
+
+		printCloudletList(newList);
+
+		double makespan = 0;
+		for (Cloudlet cloudlet : newList) {
+			makespan = Math.max(makespan, cloudlet.getFinishTime());
 		}
-		return fitness;
+		Map<String, Double> results = new LinkedHashMap<String, Double>();
+		results.put("makespan", makespan);
+		results.put("best_fitness", scheduler.getBestFitness());
+		results.put("generations", (double) scheduler.getGenerations());
+		return results;
 	}
 
-
-	static int fitnessGene(Gene2 gene) {
-		int fitness = 0;
-		Vm vm = gene.getVmFromGene();
-		List<Cloudlet> clt = gene.getCloudletsFromGene();
-		for (Cloudlet ct: clt) {
-			fitness += ct.getCloudletLength() / vm.getMips();
-		}
-		return fitness;
-	}
-	
 	private static Datacenter createDatacenter(String name){
 
 		// Here are the steps needed to create a PowerDatacenter:
@@ -0,0 +1,80 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+
+package research;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.RandomService;
+import org.cloudbus.cloudsim.core.ReplicationRunner;
+
+/**
+ * Runs replications of {@link HGA} in parallel, each in its own simulation
+ * context seeded with one of the first integers of the RandomSeed file, and
+ * prints the makespan and best fitness summarized over the replications.
+ *
+ * The optional command line parameters are the number of replications (10 by
+ * default) and the number of threads (one per processor by default).
+ */
+public class HGAReplications {
+
+	/**
+	 * Runs the replications.
+	 *
+	 * @param args the number of replications and the number of threads
+	 */
+	public static void main(String[] args) {
+		int replications = 10;
+		if (args.length >= 1) {
+			replications = Integer.parseInt(args[0]);
+		}
+		int threads = Runtime.getRuntime().availableProcessors();
+		if (args.length >= 2) {
+			threads = Integer.parseInt(args[1]);
+		}
+
+		List<Integer> seeds = HGA.getRandomSeed(replications, "RandomSeed");
+		List<Callable<Map<String, Double>>> tasks = new ArrayList<Callable<Map<String, Double>>>();
+		for (final Integer seed : seeds) {
+			tasks.add(new Callable<Map<String, Double>>() {
+
+				@Override
+				public Map<String, Double> call() throws Exception {
+					RandomService.setSeed(seed);
+					return HGA.simulate(RandomService.getStream("HGA"));
+				}
+			});
+		}
+
+		try {
+			Log.disable();
+			long start = System.currentTimeMillis();
+			List<Map<String, Double>> results = new ReplicationRunner(threads).run(tasks);
+			Log.enable();
+
+			Log.printLine(tasks.size() + " replications on " + threads + " threads in "
+					+ (System.currentTimeMillis() - start) / 1000.0 + " s");
+			for (int i = 0; i < results.size(); i++) {
+				Log.printLine("Seed " + seeds.get(i) + ": " + results.get(i));
+			}
+			for (Map.Entry<String, ReplicationRunner.Summary> summary : ReplicationRunner.summarize(results).entrySet()) {
+				Log.printLine(summary.getKey() + ": " + summary.getValue());
+			}
+		} catch (Exception e) {
+			Log.enable();
+			e.printStackTrace();
+			Log.printLine("The replications have been terminated due to an unexpected error");
+		}
+	}
+}
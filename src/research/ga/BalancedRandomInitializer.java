@@ -0,0 +1,55 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Deals a random permutation of the tasks out to a random permutation of the VMs in equal blocks,
+ * the last VM taking the remainder. This is how HGA has always built its first generation.
+ */
+public class BalancedRandomInitializer implements PopulationInitializer {
+
+	@Override
+	public void initialize(SchedulingProblem problem, Population population, RandomGenerator random) {
+		int numTasks = problem.getNumTasks();
+		int numVms = problem.getNumVms();
+		int tasksPerVm = Math.max(1, numTasks / numVms);
+		int[] taskOrder = identity(numTasks);
+		int[] vmOrder = identity(numVms);
+		int[] genes = population.getGenes();
+
+		for (int chromosome = 0; chromosome < population.size(); chromosome++) {
+			shuffle(taskOrder, random);
+			shuffle(vmOrder, random);
+			int offset = population.offset(chromosome);
+			for (int i = 0; i < numTasks; i++) {
+				genes[offset + taskOrder[i]] = vmOrder[Math.min(i / tasksPerVm, numVms - 1)];
+			}
+		}
+	}
+
+	private static int[] identity(int length) {
+		int[] array = new int[length];
+		for (int i = 0; i < length; i++) {
+			array[i] = i;
+		}
+		return array;
+	}
+
+	private static void shuffle(int[] array, RandomGenerator random) {
+		for (int i = array.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = array[i];
+			array[i] = array[j];
+			array[j] = tmp;
+		}
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+/**
+ * A hill climber unloading the most loaded VM onto the least loaded one. Every step makes the move
+ * of one task, or failing that the swap of two tasks, between the two VMs that lowers the larger of
+ * their loads most; the move is kept only if the fitness does not get worse. The loads are read
+ * from the population's cache and updated by each move in O(1), so a step costs a pass over the
+ * genes to find the tasks of the two VMs, and the climb stops after a bounded number of steps.
+ */
+public class CriticalVmLocalSearch implements LocalSearch {
+
+	/** The maximum number of moves per call. */
+	private final int maxSteps;
+
+	/**
+	 * Instantiates a new local search.
+	 *
+	 * @param maxSteps the maximum number of moves or swaps per chromosome and call
+	 * @pre maxSteps > 0
+	 */
+	public CriticalVmLocalSearch(int maxSteps) {
+		if (maxSteps <= 0) {
+			throw new IllegalArgumentException("Number of steps must be greater than 0");
+		}
+		this.maxSteps = maxSteps;
+	}
+
+	@Override
+	public void improve(Population population, int chromosome, FitnessFunction fitnessFunction) {
+		ScheduleLoads loads = population.getLoads();
+		SchedulingProblem problem = loads.getProblem();
+		int numTasks = population.getNumTasks();
+		int[] genes = population.getGenes();
+		int offset = population.offset(chromosome);
+		int[] onMax = new int[numTasks];
+		int[] onMin = new int[numTasks];
+		double fitness = fitnessFunction.evaluate(population, chromosome);
+
+		for (int step = 0; step < maxSteps; step++) {
+			int max = loads.getMostLoadedVm(chromosome);
+			int min = getLeastLoadedVm(loads, chromosome, max);
+			if (min < 0) {
+				return;
+			}
+			double maxLoad = loads.getLoad(chromosome, max);
+			double minLoad = loads.getLoad(chromosome, min);
+			int maxCount = 0;
+			int minCount = 0;
+			for (int task = 0; task < numTasks; task++) {
+				int vm = genes[offset + task];
+				if (vm == max) {
+					onMax[maxCount++] = task;
+				} else if (vm == min) {
+					onMin[minCount++] = task;
+				}
+			}
+
+			// the move lowering the larger of the two loads most
+			double bestPeak = maxLoad;
+			int moved = -1;
+			int swapped = -1;
+			for (int i = 0; i < maxCount; i++) {
+				int task = onMax[i];
+				double peak = Math.max(maxLoad - problem.getExecutionTime(task, max),
+						minLoad + problem.getExecutionTime(task, min));
+				if (peak < bestPeak) {
+					bestPeak = peak;
+					moved = task;
+				}
+			}
+			// or else the swap doing so, which costs the product of the task counts
+			if (moved < 0) {
+				for (int i = 0; i < maxCount; i++) {
+					int task = onMax[i];
+					double leaving = maxLoad - problem.getExecutionTime(task, max);
+					double arriving = minLoad + problem.getExecutionTime(task, min);
+					for (int j = 0; j < minCount; j++) {
+						int other = onMin[j];
+						double peak = Math.max(leaving + problem.getExecutionTime(other, max),
+								arriving - problem.getExecutionTime(other, min));
+						if (peak < bestPeak) {
+							bestPeak = peak;
+							moved = task;
+							swapped = other;
+						}
+					}
+				}
+			}
+			if (moved < 0) {
+				return;
+			}
+
+			population.set(chromosome, moved, min);
+			if (swapped >= 0) {
+				population.set(chromosome, swapped, max);
+			}
+			double newFitness = fitnessFunction.evaluate(population, chromosome);
+			if (newFitness > fitness) {
+				population.set(chromosome, moved, max);
+				if (swapped >= 0) {
+					population.set(chromosome, swapped, min);
+				}
+				return;
+			}
+			fitness = newFitness;
+		}
+	}
+
+	/**
+	 * Finds the least loaded VM of a chromosome.
+	 *
+	 * @param loads the loads
+	 * @param chromosome the chromosome index
+	 * @param max the most loaded VM
+	 * @return the VM index, or -1 if there is no other VM
+	 */
+	private static int getLeastLoadedVm(ScheduleLoads loads, int chromosome, int max) {
+		int min = -1;
+		double minLoad = Double.MAX_VALUE;
+		for (int vm = 0; vm < loads.getNumVms(); vm++) {
+			double load = loads.getLoad(chromosome, vm);
+			if (vm != max && load < minLoad) {
+				min = vm;
+				minLoad = load;
+			}
+		}
+		return min;
+	}
+
+}
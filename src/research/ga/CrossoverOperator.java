@@ -0,0 +1,31 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Recombines two parents into a child.
+ */
+public interface CrossoverOperator {
+
+	/**
+	 * Writes the child of two parents into a chromosome of the next generation.
+	 * 
+	 * @param parents the current population
+	 * @param parent1 the index of the first parent
+	 * @param parent2 the index of the second parent
+	 * @param children the next population
+	 * @param child the index of the child
+	 * @param random the random stream
+	 */
+	void crossover(Population parents, int parent1, int parent2, Population children, int child,
+			RandomGenerator random);
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * The Expected Time to Compute matrix: the time each task takes on each VM, computed once from the
+ * cloudlet lengths and the VM ratings and stored row by row (task-major) in one float array.
+ * A cloudlet asking for {@code p} PEs on a VM with {@code q} PEs runs on {@code min(p, q)} of them.
+ */
+public class EtcMatrix {
+
+	/** The number of tasks (rows). */
+	private final int numTasks;
+
+	/** The number of VMs (columns). */
+	private final int numVms;
+
+	/** The time of task {@code t} on VM {@code v}, at {@code t * numVms + v}. */
+	private final float[] values;
+
+	/**
+	 * Instantiates a new ETC matrix.
+	 * 
+	 * @param cloudletList the tasks
+	 * @param vmList the VMs
+	 */
+	public EtcMatrix(List<? extends Cloudlet> cloudletList, List<? extends Vm> vmList) {
+		numTasks = cloudletList.size();
+		numVms = vmList.size();
+		values = new float[numTasks * numVms];
+
+		double[] mips = new double[numVms];
+		int[] pes = new int[numVms];
+		for (int vm = 0; vm < numVms; vm++) {
+			mips[vm] = vmList.get(vm).getMips();
+			pes[vm] = vmList.get(vm).getNumberOfPes();
+		}
+		for (int task = 0; task < numTasks; task++) {
+			Cloudlet cloudlet = cloudletList.get(task);
+			long length = cloudlet.getCloudletLength();
+			int cloudletPes = Math.max(1, cloudlet.getNumberOfPes());
+			int row = task * numVms;
+			for (int vm = 0; vm < numVms; vm++) {
+				values[row + vm] = (float) (length / (mips[vm] * Math.max(1, Math.min(cloudletPes, pes[vm]))));
+			}
+		}
+	}
+
+	/**
+	 * Gets the time a task takes on a VM.
+	 * 
+	 * @param task the task index
+	 * @param vm the VM index
+	 * @return the execution time
+	 */
+	public float get(int task, int vm) {
+		return values[task * numVms + vm];
+	}
+
+	/**
+	 * Gets the backing array, task-major.
+	 * 
+	 * @return the values
+	 */
+	public float[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Gets the number of tasks.
+	 * 
+	 * @return the number of tasks
+	 */
+	public int getNumTasks() {
+		return numTasks;
+	}
+
+	/**
+	 * Gets the number of VMs.
+	 * 
+	 * @return the number of VMs
+	 */
+	public int getNumVms() {
+		return numVms;
+	}
+
+}
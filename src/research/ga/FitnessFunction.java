@@ -0,0 +1,25 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+/**
+ * Scores a schedule from the cached loads of its population. Lower values are fitter.
+ */
+public interface FitnessFunction {
+
+	/**
+	 * Evaluates a chromosome.
+	 * 
+	 * @param population the population holding the chromosome
+	 * @param chromosome the chromosome index
+	 * @return the fitness; lower is better
+	 */
+	double evaluate(Population population, int chromosome);
+
+}
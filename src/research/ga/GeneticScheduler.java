@@ -0,0 +1,391 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * A generational GA over task-to-VM schedules. Two populations are allocated up front and swapped
+ * every generation, so evolving a schedule allocates nothing per chromosome or per gene. Selection,
+ * crossover, mutation, fitness and the first generation are pluggable, and an optional local search
+ * refines the elites of every generation, making the GA memetic.
+ */
+public class GeneticScheduler {
+
+	/** The problem being solved. */
+	private final SchedulingProblem problem;
+
+	/** The random stream shared by all operators. */
+	private final RandomGenerator random;
+
+	/** The current generation. */
+	private Population current;
+
+	/** The generation being bred. */
+	private Population next;
+
+	/** The chromosome indices of the current generation, fittest first. */
+	private final Integer[] order;
+
+	/** The initializer. */
+	private PopulationInitializer initializer;
+
+	/** The selection operator. */
+	private SelectionOperator selection;
+
+	/** The crossover operator. */
+	private CrossoverOperator crossover;
+
+	/** The mutation operator. */
+	private MutationOperator mutation;
+
+	/** The fitness function. */
+	private FitnessFunction fitnessFunction;
+
+	/** The local search refining the fittest chromosomes, or null. */
+	private LocalSearch localSearch;
+
+	/** The number of fittest chromosomes refined by the local search every generation. */
+	private int localSearchCount;
+
+	/** The number of fittest chromosomes copied unchanged into the next generation. */
+	private int eliteCount;
+
+	/** The probability of breeding a child by crossover rather than by copying a parent. */
+	private double crossoverRate;
+
+	/** The probability of mutating a child. */
+	private double mutationRate;
+
+	/** The controller deciding when a run stops. */
+	private TerminationController termination;
+
+	/** The best schedule found so far. */
+	private final int[] bestGenes;
+
+	/** The fitness of the best schedule found so far. */
+	private double bestFitness;
+
+	/** The number of generations evolved by the last run. */
+	private int generations;
+
+	/**
+	 * Instantiates a new genetic scheduler with tournament selection, uniform crossover, reassign
+	 * mutation, makespan fitness and a balanced random first generation.
+	 * 
+	 * @param problem the problem to solve
+	 * @param populationSize the number of chromosomes per generation
+	 * @param random the random stream
+	 * @pre populationSize > 0
+	 */
+	public GeneticScheduler(SchedulingProblem problem, int populationSize, RandomGenerator random) {
+		if (populationSize <= 0) {
+			throw new IllegalArgumentException("Population size must be greater than 0");
+		}
+		this.problem = problem;
+		this.random = random;
+		current = new Population(problem, populationSize);
+		next = new Population(problem, populationSize);
+		order = new Integer[populationSize];
+		for (int i = 0; i < populationSize; i++) {
+			order[i] = i;
+		}
+		bestGenes = new int[problem.getNumTasks()];
+
+		setInitializer(new BalancedRandomInitializer());
+		setSelection(new TournamentSelection(3));
+		setCrossover(new UniformCrossover());
+		setMutation(new ReassignMutation(1.0 / Math.max(1, problem.getNumTasks())));
+		setFitnessFunction(new MakespanFitness());
+		setEliteCount(populationSize / 10);
+		setCrossoverRate(0.9);
+		setMutationRate(0.5);
+		setTermination(new TerminationController());
+	}
+
+	/**
+	 * Evolves a schedule from a fresh first generation until the termination controller stops the
+	 * run.
+	 * 
+	 * @return the best schedule found, as the VM index of every task
+	 */
+	public int[] run() {
+		termination.start();
+		start();
+		while (termination.next(generations, bestFitness)) {
+			evolve(1);
+		}
+		return getBestGenes();
+	}
+
+	/**
+	 * Builds and ranks a fresh first generation, forgetting the best schedule found so far.
+	 */
+	public void start() {
+		bestFitness = Double.MAX_VALUE;
+		generations = 0;
+		initializer.initialize(problem, current, random);
+		current.recalculateAll();
+		evaluate(current);
+		if (localSearch != null && localSearchCount > 0) {
+			for (int rank = 0; rank < localSearchCount; rank++) {
+				localSearch.improve(current, order[rank], fitnessFunction);
+			}
+			evaluate(current);
+		}
+	}
+
+	/**
+	 * Evolves the current generation further.
+	 * 
+	 * @param count the number of generations to evolve
+	 */
+	public void evolve(int count) {
+		for (int i = 0; i < count; i++) {
+			breed();
+			Population tmp = current;
+			current = next;
+			next = tmp;
+			evaluate(current);
+			generations++;
+		}
+	}
+
+	/**
+	 * Replaces one of the least fit chromosomes of the current generation by a chromosome of another
+	 * population of the same problem. {@link #rank()} must be called once all migrants are received.
+	 * 
+	 * @param source the population holding the migrant
+	 * @param chromosome the index of the migrant in its population
+	 * @param slot 0 to replace the least fit chromosome, 1 for the next one, and so on
+	 */
+	public void receive(Population source, int chromosome, int slot) {
+		source.copyTo(chromosome, current, order[current.size() - 1 - slot]);
+	}
+
+	/**
+	 * Ranks the current generation again, after it was changed from outside.
+	 */
+	public void rank() {
+		evaluate(current);
+	}
+
+	/**
+	 * Scores every chromosome of a population from its cached loads, ranks them and records the best
+	 * one. This costs O(P log P) rather than a pass over every gene.
+	 * 
+	 * @param population the population
+	 */
+	protected void evaluate(Population population) {
+		for (int chromosome = 0; chromosome < population.size(); chromosome++) {
+			population.setFitness(chromosome, fitnessFunction.evaluate(population, chromosome));
+		}
+		Arrays.sort(order, (a, b) -> Double.compare(population.getFitness(a), population.getFitness(b)));
+		if (population.getFitness(order[0]) < bestFitness) {
+			bestFitness = population.getFitness(order[0]);
+			System.arraycopy(population.getGenes(), population.offset(order[0]), bestGenes, 0, bestGenes.length);
+		}
+	}
+
+	/**
+	 * Breeds the next generation from the current one.
+	 */
+	protected void breed() {
+		int size = current.size();
+		for (int i = 0; i < eliteCount; i++) {
+			current.copyTo(order[i], next, i);
+		}
+		if (localSearch != null) {
+			for (int i = 0; i < localSearchCount && i < eliteCount; i++) {
+				localSearch.improve(next, i, fitnessFunction);
+			}
+		}
+		for (int child = eliteCount; child < size; child++) {
+			int parent1 = selection.select(current, random);
+			if (random.nextDouble() < crossoverRate) {
+				int parent2 = selection.select(current, random);
+				crossover.crossover(current, parent1, parent2, next, child, random);
+			} else {
+				current.copyTo(parent1, next, child);
+			}
+			if (random.nextDouble() < mutationRate) {
+				mutation.mutate(next, child, problem.getNumVms(), random);
+			}
+		}
+	}
+
+	/**
+	 * Gets the problem.
+	 * 
+	 * @return the problem
+	 */
+	public SchedulingProblem getProblem() {
+		return problem;
+	}
+
+	/**
+	 * Gets the current generation.
+	 * 
+	 * @return the current population
+	 */
+	public Population getPopulation() {
+		return current;
+	}
+
+	/**
+	 * Gets the chromosome of the current generation at a rank.
+	 * 
+	 * @param rank 0 for the fittest chromosome, 1 for the next one, and so on
+	 * @return the chromosome index
+	 */
+	public int getRanked(int rank) {
+		return order[rank];
+	}
+
+	/**
+	 * Gets a copy of the best schedule found so far.
+	 * 
+	 * @return the VM index of every task
+	 */
+	public int[] getBestGenes() {
+		return bestGenes.clone();
+	}
+
+	/**
+	 * Gets the fitness of the best schedule found so far.
+	 * 
+	 * @return the best fitness
+	 */
+	public double getBestFitness() {
+		return bestFitness;
+	}
+
+	/**
+	 * Gets the number of generations evolved since the last start.
+	 * 
+	 * @return the generations
+	 */
+	public int getGenerations() {
+		return generations;
+	}
+
+	/**
+	 * Sets the initializer.
+	 * 
+	 * @param initializer the new initializer
+	 */
+	public void setInitializer(PopulationInitializer initializer) {
+		this.initializer = initializer;
+	}
+
+	/**
+	 * Sets the selection operator.
+	 * 
+	 * @param selection the new selection operator
+	 */
+	public void setSelection(SelectionOperator selection) {
+		this.selection = selection;
+	}
+
+	/**
+	 * Sets the crossover operator.
+	 * 
+	 * @param crossover the new crossover operator
+	 */
+	public void setCrossover(CrossoverOperator crossover) {
+		this.crossover = crossover;
+	}
+
+	/**
+	 * Sets the mutation operator.
+	 * 
+	 * @param mutation the new mutation operator
+	 */
+	public void setMutation(MutationOperator mutation) {
+		this.mutation = mutation;
+	}
+
+	/**
+	 * Sets the fitness function.
+	 * 
+	 * @param fitnessFunction the new fitness function
+	 */
+	public void setFitnessFunction(FitnessFunction fitnessFunction) {
+		this.fitnessFunction = fitnessFunction;
+	}
+
+	/**
+	 * Sets the local search refining the fittest chromosomes: the first generation's after it is
+	 * built, and the elites of every later one as they are copied into the next generation.
+	 * 
+	 * @param localSearch the new local search, or null for none
+	 * @param count the number of chromosomes refined, at most the elite count after the first
+	 *            generation
+	 */
+	public void setLocalSearch(LocalSearch localSearch, int count) {
+		this.localSearch = localSearch;
+		localSearchCount = Math.min(Math.max(0, count), current.size());
+	}
+
+	/**
+	 * Sets the number of fittest chromosomes copied unchanged into the next generation.
+	 * 
+	 * @param eliteCount the new elite count
+	 */
+	public void setEliteCount(int eliteCount) {
+		this.eliteCount = Math.min(Math.max(0, eliteCount), current.size());
+	}
+
+	/**
+	 * Sets the probability of breeding a child by crossover.
+	 * 
+	 * @param crossoverRate the new crossover rate
+	 */
+	public void setCrossoverRate(double crossoverRate) {
+		this.crossoverRate = crossoverRate;
+	}
+
+	/**
+	 * Sets the probability of mutating a child.
+	 * 
+	 * @param mutationRate the new mutation rate
+	 */
+	public void setMutationRate(double mutationRate) {
+		this.mutationRate = mutationRate;
+	}
+
+	/**
+	 * Sets the maximum number of generations.
+	 * 
+	 * @param maxGenerations the new maximum number of generations
+	 */
+	public void setMaxGenerations(int maxGenerations) {
+		termination.setMaxGenerations(maxGenerations);
+	}
+
+	/**
+	 * Gets the termination controller.
+	 * 
+	 * @return the termination controller
+	 */
+	public TerminationController getTermination() {
+		return termination;
+	}
+
+	/**
+	 * Sets the termination controller.
+	 * 
+	 * @param termination the new termination controller
+	 */
+	public void setTermination(TerminationController termination) {
+		this.termination = termination;
+	}
+
+}
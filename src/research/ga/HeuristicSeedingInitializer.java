@@ -0,0 +1,56 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Fills the first generation with another initializer, then overwrites its first chromosomes with
+ * the schedules of list heuristics, so that the GA starts from good schedules while keeping a
+ * diverse population.
+ */
+public class HeuristicSeedingInitializer implements PopulationInitializer {
+
+	/** The initializer of the other chromosomes. */
+	private final PopulationInitializer initializer;
+
+	/** The heuristics, one chromosome each. */
+	private final MappingHeuristic[] heuristics;
+
+	/**
+	 * Instantiates a new initializer seeding Min-Min, Max-Min and Sufferage schedules.
+	 *
+	 * @param initializer the initializer of the other chromosomes
+	 */
+	public HeuristicSeedingInitializer(PopulationInitializer initializer) {
+		this(initializer, MappingHeuristic.values());
+	}
+
+	/**
+	 * Instantiates a new heuristic seeding initializer.
+	 *
+	 * @param initializer the initializer of the other chromosomes
+	 * @param heuristics the heuristics, seeded in this order while chromosomes remain
+	 */
+	public HeuristicSeedingInitializer(PopulationInitializer initializer, MappingHeuristic... heuristics) {
+		this.initializer = initializer;
+		this.heuristics = heuristics.clone();
+	}
+
+	@Override
+	public void initialize(SchedulingProblem problem, Population population, RandomGenerator random) {
+		initializer.initialize(problem, population, random);
+		int[] genes = population.getGenes();
+		for (int i = 0; i < heuristics.length && i < population.size(); i++) {
+			int[] schedule = heuristics[i].schedule(problem);
+			System.arraycopy(schedule, 0, genes, population.offset(i), schedule.length);
+		}
+	}
+
+}
@@ -0,0 +1,274 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Evolves several independent populations (islands) in parallel on a ForkJoinPool. Islands evolve
+ * for an epoch of generations, then the fittest chromosomes of each island replace the least fit of
+ * its neighbours, and the next epoch starts. Every island draws from its own SplittableRandom split
+ * from one master stream, so a run is reproducible from the master seed whatever the pool size.
+ */
+public class IslandModel {
+
+	/** How islands exchange migrants. */
+	public enum Topology {
+		/** Island {@code i} sends its migrants to island {@code i + 1}, the last one to the first. */
+		RING,
+		/** Every island sends its migrants to every other island. */
+		FULLY_CONNECTED
+	}
+
+	/** The problem being solved. */
+	private final SchedulingProblem problem;
+
+	/** The islands. */
+	private final List<GeneticScheduler> islands;
+
+	/** The pool the islands evolve on. */
+	private ForkJoinPool pool;
+
+	/** The migration topology. */
+	private Topology topology;
+
+	/** The number of generations between migrations. */
+	private int epochLength;
+
+	/** The fraction of an island's population sent to each neighbour at every migration. */
+	private double migrationRate;
+
+	/** The controller deciding when a run stops, checked between epochs. */
+	private TerminationController termination;
+
+	/** The fitness of the best schedule found by the last run. */
+	private double bestFitness;
+
+	/**
+	 * Instantiates a new island model on the common pool, with a ring topology, epochs of 10
+	 * generations and 5% of each island migrating.
+	 * 
+	 * @param problem the problem to solve
+	 * @param numIslands the number of islands
+	 * @param islandSize the number of chromosomes per island
+	 * @param master the stream every island's stream is split from
+	 * @pre numIslands > 0
+	 */
+	public IslandModel(SchedulingProblem problem, int numIslands, int islandSize, SplittableRandom master) {
+		if (numIslands <= 0) {
+			throw new IllegalArgumentException("Number of islands must be greater than 0");
+		}
+		this.problem = problem;
+		islands = new ArrayList<GeneticScheduler>(numIslands);
+		for (int i = 0; i < numIslands; i++) {
+			islands.add(new GeneticScheduler(problem, islandSize, master.split()));
+		}
+		setPool(ForkJoinPool.commonPool());
+		setTopology(Topology.RING);
+		setEpochLength(10);
+		setMigrationRate(0.05);
+		setTermination(new TerminationController());
+	}
+
+	/**
+	 * Evolves every island from a fresh first generation until the termination controller stops
+	 * the run. The controller is checked between epochs with the best fitness of all islands, and
+	 * an epoch is shortened to the generations left in its time budget.
+	 * 
+	 * @return the best schedule found on any island, as the VM index of every task
+	 */
+	public int[] run() {
+		termination.start();
+		runOnPool(0);
+		int generations = 0;
+		while (termination.next(generations, getBestIsland().getBestFitness())) {
+			if (generations > 0) {
+				migrate();
+			}
+			int epoch = Math.min(epochLength, termination.getRemainingGenerations());
+			runOnPool(epoch);
+			generations += epoch;
+		}
+
+		GeneticScheduler best = getBestIsland();
+		bestFitness = best.getBestFitness();
+		return best.getBestGenes();
+	}
+
+	/**
+	 * Gets the island holding the best schedule found so far.
+	 * 
+	 * @return the island
+	 */
+	protected GeneticScheduler getBestIsland() {
+		GeneticScheduler best = islands.get(0);
+		for (GeneticScheduler island : islands) {
+			if (island.getBestFitness() < best.getBestFitness()) {
+				best = island;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Evolves every island concurrently and waits for all of them.
+	 * 
+	 * @param generations the number of generations, or 0 to start every island afresh
+	 */
+	protected void runOnPool(final int generations) {
+		List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(islands.size());
+		for (final GeneticScheduler island : islands) {
+			tasks.add(pool.submit(() -> {
+				if (generations == 0) {
+					island.start();
+				} else {
+					island.evolve(generations);
+				}
+			}));
+		}
+		for (ForkJoinTask<?> task : tasks) {
+			task.join();
+		}
+	}
+
+	/**
+	 * Sends the fittest chromosomes of every island to its neighbours. Migrants only overwrite the
+	 * least fit chromosomes, which never include the fittest ones, so every island sends what it had
+	 * at the end of the epoch regardless of the order islands are visited in.
+	 */
+	protected void migrate() {
+		int numIslands = islands.size();
+		if (numIslands < 2) {
+			return;
+		}
+		int neighbours = topology == Topology.RING ? 1 : numIslands - 1;
+		int islandSize = islands.get(0).getPopulation().size();
+		int migrants = Math.min((int) Math.ceil(migrationRate * islandSize), islandSize / (neighbours + 1));
+		if (migrants == 0) {
+			return;
+		}
+
+		for (int from = 0; from < numIslands; from++) {
+			GeneticScheduler source = islands.get(from);
+			for (int n = 0; n < neighbours; n++) {
+				int to = topology == Topology.RING ? (from + 1) % numIslands : n < from ? n : n + 1;
+				// on a full topology island "to" receives from every other island; give each sender
+				// its own block of slots
+				int senderRank = topology == Topology.RING ? 0 : from < to ? from : from - 1;
+				GeneticScheduler target = islands.get(to);
+				for (int m = 0; m < migrants; m++) {
+					target.receive(source.getPopulation(), source.getRanked(m), senderRank * migrants + m);
+				}
+			}
+		}
+		for (GeneticScheduler island : islands) {
+			island.rank();
+		}
+	}
+
+	/**
+	 * Gets the problem.
+	 * 
+	 * @return the problem
+	 */
+	public SchedulingProblem getProblem() {
+		return problem;
+	}
+
+	/**
+	 * Gets the islands, so that their operators can be configured before a run.
+	 * 
+	 * @return the islands
+	 */
+	public List<GeneticScheduler> getIslands() {
+		return Collections.unmodifiableList(islands);
+	}
+
+	/**
+	 * Gets the fitness of the best schedule found by the last run.
+	 * 
+	 * @return the best fitness
+	 */
+	public double getBestFitness() {
+		return bestFitness;
+	}
+
+	/**
+	 * Sets the pool the islands evolve on.
+	 * 
+	 * @param pool the new pool
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets the migration topology.
+	 * 
+	 * @param topology the new topology
+	 */
+	public void setTopology(Topology topology) {
+		this.topology = topology;
+	}
+
+	/**
+	 * Sets the number of generations between migrations.
+	 * 
+	 * @param epochLength the new epoch length
+	 * @pre epochLength > 0
+	 */
+	public void setEpochLength(int epochLength) {
+		if (epochLength <= 0) {
+			throw new IllegalArgumentException("Epoch length must be greater than 0");
+		}
+		this.epochLength = epochLength;
+	}
+
+	/**
+	 * Sets the fraction of an island's population sent to each neighbour at every migration.
+	 * 
+	 * @param migrationRate the new migration rate
+	 */
+	public void setMigrationRate(double migrationRate) {
+		this.migrationRate = migrationRate;
+	}
+
+	/**
+	 * Sets the maximum number of generations of each island.
+	 * 
+	 * @param maxGenerations the new maximum number of generations
+	 */
+	public void setMaxGenerations(int maxGenerations) {
+		termination.setMaxGenerations(maxGenerations);
+	}
+
+	/**
+	 * Gets the termination controller.
+	 * 
+	 * @return the termination controller
+	 */
+	public TerminationController getTermination() {
+		return termination;
+	}
+
+	/**
+	 * Sets the termination controller.
+	 * 
+	 * @param termination the new termination controller
+	 */
+	public void setTermination(TerminationController termination) {
+		this.termination = termination;
+	}
+
+}
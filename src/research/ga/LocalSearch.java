@@ -0,0 +1,26 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+/**
+ * Improves a chromosome in place, which turns the GA into a memetic algorithm.
+ */
+public interface LocalSearch {
+
+	/**
+	 * Improves a chromosome. Its fitness must not get worse; the stored fitness is left for the
+	 * caller to update.
+	 *
+	 * @param population the population holding the chromosome
+	 * @param chromosome the chromosome index
+	 * @param fitnessFunction the fitness function the GA minimizes
+	 */
+	void improve(Population population, int chromosome, FitnessFunction fitnessFunction);
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+/**
+ * Scores a schedule by the sum of {@code log10(length) / mips} over its tasks, the fitness of
+ * DatacenterBrokerResearch. Unlike the load based fitness functions it is not cached, and costs a
+ * pass over the genes; the logarithms and the inverse ratings are computed once.
+ */
+public class LogLengthFitness implements FitnessFunction {
+
+	/** The base 10 logarithm of each task length. */
+	private final double[] logLength;
+
+	/** The inverse of each VM MIPS rating. */
+	private final double[] inverseMips;
+
+	/**
+	 * Instantiates a new log length fitness.
+	 * 
+	 * @param problem the problem the schedules belong to
+	 */
+	public LogLengthFitness(SchedulingProblem problem) {
+		logLength = new double[problem.getNumTasks()];
+		for (int task = 0; task < logLength.length; task++) {
+			logLength[task] = Math.log10(problem.getTaskLength(task));
+		}
+		inverseMips = new double[problem.getNumVms()];
+		for (int vm = 0; vm < inverseMips.length; vm++) {
+			inverseMips[vm] = 1 / problem.getVmMips(vm);
+		}
+	}
+
+	@Override
+	public double evaluate(Population population, int chromosome) {
+		int[] genes = population.getGenes();
+		int offset = population.offset(chromosome);
+		double sum = 0;
+		for (int task = 0; task < logLength.length; task++) {
+			sum += logLength[task] * inverseMips[genes[offset + task]];
+		}
+		return sum;
+	}
+
+}
@@ -0,0 +1,21 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+/**
+ * Scores a schedule by its makespan: the completion time of the most loaded VM.
+ */
+public class MakespanFitness implements FitnessFunction {
+
+	@Override
+	public double evaluate(Population population, int chromosome) {
+		return population.getLoads().getMakespan(chromosome);
+	}
+
+}
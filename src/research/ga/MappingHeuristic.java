@@ -0,0 +1,139 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+/**
+ * The classic list heuristics mapping independent tasks to VMs from the ETC matrix (Braun et al.,
+ * 2001). Each one repeatedly picks an unmapped task and maps it to the VM completing it earliest,
+ * given the tasks mapped so far; they differ in the task they pick.
+ * <p>
+ * Only the VM a task was last mapped to gets later, so the earliest and second earliest completion
+ * of a task are recomputed only when that VM was one of them. A schedule costs O(T^2) plus O(T V)
+ * per recomputation rather than O(T^2 V).
+ */
+public enum MappingHeuristic {
+
+	/** Maps first the task with the earliest completion time. */
+	MIN_MIN,
+
+	/** Maps first the task with the latest earliest completion time. */
+	MAX_MIN,
+
+	/**
+	 * Maps first the task that would suffer most from losing its best VM: the one with the largest
+	 * gap between its earliest and second earliest completion times.
+	 */
+	SUFFERAGE;
+
+	/**
+	 * Maps every task of a problem.
+	 *
+	 * @param problem the problem
+	 * @return the VM index of every task
+	 */
+	public int[] schedule(SchedulingProblem problem) {
+		int numTasks = problem.getNumTasks();
+		int numVms = problem.getNumVms();
+		float[] etc = problem.getEtcMatrix().getValues();
+		double[] ready = new double[numVms];
+		int[] genes = new int[numTasks];
+
+		// the unmapped tasks are kept at the front of "pending", the best and second best VM of
+		// each with its completion time on them
+		int[] pending = new int[numTasks];
+		int[] best = new int[numTasks];
+		int[] second = new int[numTasks];
+		double[] bestTime = new double[numTasks];
+		double[] secondTime = new double[numTasks];
+		for (int task = 0; task < numTasks; task++) {
+			pending[task] = task;
+			rank(task, etc, numVms, ready, best, second, bestTime, secondTime);
+		}
+
+		for (int count = numTasks; count > 0; count--) {
+			int pick = 0;
+			for (int i = 1; i < count; i++) {
+				if (before(pending[i], pending[pick], bestTime, secondTime)) {
+					pick = i;
+				}
+			}
+			int task = pending[pick];
+			int vm = best[task];
+			genes[task] = vm;
+			ready[vm] = bestTime[task];
+			pending[pick] = pending[count - 1];
+
+			for (int i = 0; i < count - 1; i++) {
+				int other = pending[i];
+				if (best[other] == vm || this == SUFFERAGE && second[other] == vm) {
+					rank(other, etc, numVms, ready, best, second, bestTime, secondTime);
+				}
+			}
+		}
+		return genes;
+	}
+
+	/**
+	 * Checks whether a task is mapped before another.
+	 *
+	 * @param task the task
+	 * @param other the other task
+	 * @param bestTime the earliest completion time of each task
+	 * @param secondTime the second earliest completion time of each task
+	 * @return true if the task comes first
+	 */
+	private boolean before(int task, int other, double[] bestTime, double[] secondTime) {
+		switch (this) {
+			case MIN_MIN:
+				return bestTime[task] < bestTime[other];
+			case MAX_MIN:
+				return bestTime[task] > bestTime[other];
+			default:
+				return secondTime[task] - bestTime[task] > secondTime[other] - bestTime[other];
+		}
+	}
+
+	/**
+	 * Finds the VMs completing a task earliest and second earliest.
+	 *
+	 * @param task the task
+	 * @param etc the ETC matrix, task-major
+	 * @param numVms the number of VMs
+	 * @param ready the time each VM becomes free
+	 * @param best the best VM of each task
+	 * @param second the second best VM of each task
+	 * @param bestTime the completion time of each task on its best VM
+	 * @param secondTime the completion time of each task on its second best VM
+	 */
+	private static void rank(int task, float[] etc, int numVms, double[] ready, int[] best, int[] second,
+			double[] bestTime, double[] secondTime) {
+		int row = task * numVms;
+		int first = 0;
+		double firstTime = ready[0] + etc[row];
+		int next = -1;
+		double nextTime = Double.MAX_VALUE;
+		for (int vm = 1; vm < numVms; vm++) {
+			double time = ready[vm] + etc[row + vm];
+			if (time < firstTime) {
+				next = first;
+				nextTime = firstTime;
+				first = vm;
+				firstTime = time;
+			} else if (time < nextTime) {
+				next = vm;
+				nextTime = time;
+			}
+		}
+		best[task] = first;
+		bestTime[task] = firstTime;
+		second[task] = next;
+		secondTime[task] = next < 0 ? firstTime : nextTime;
+	}
+
+}
@@ -0,0 +1,28 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Perturbs a chromosome in place.
+ */
+public interface MutationOperator {
+
+	/**
+	 * Mutates a chromosome.
+	 * 
+	 * @param population the population holding the chromosome
+	 * @param chromosome the chromosome index
+	 * @param numVms the number of VMs a gene can take
+	 * @param random the random stream
+	 */
+	void mutate(Population population, int chromosome, int numVms, RandomGenerator random);
+
+}
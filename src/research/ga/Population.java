@@ -0,0 +1,170 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+/**
+ * A population of schedules stored in one flat arena. Chromosome {@code c} occupies
+ * {@code genes[c * numTasks]} to {@code genes[(c + 1) * numTasks - 1]}, and gene {@code t} holds the
+ * index of the VM that runs task {@code t}. No object is allocated per chromosome or per gene.
+ * <p>
+ * Every change made through {@link #set(int, int, int)} and {@link #copyTo(int, Population, int)} is
+ * mirrored into the population's {@link ScheduleLoads}, so the fitness of a chromosome is available
+ * without rescanning its genes. Code writing the arena directly must call {@link #recalculate(int)}.
+ */
+public class Population {
+
+	/** The number of chromosomes. */
+	private final int size;
+
+	/** The number of genes per chromosome. */
+	private final int numTasks;
+
+	/** The gene arena. */
+	private final int[] genes;
+
+	/** The cached VM loads of each chromosome. */
+	private final ScheduleLoads loads;
+
+	/** The fitness of each chromosome; lower is better. */
+	private final double[] fitness;
+
+	/**
+	 * Instantiates a new population.
+	 * 
+	 * @param problem the problem the chromosomes encode schedules for
+	 * @param size the number of chromosomes
+	 */
+	public Population(SchedulingProblem problem, int size) {
+		this.size = size;
+		numTasks = problem.getNumTasks();
+		genes = new int[size * numTasks];
+		loads = new ScheduleLoads(problem, size);
+		fitness = new double[size];
+	}
+
+	/**
+	 * Gets the number of chromosomes.
+	 * 
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of genes per chromosome.
+	 * 
+	 * @return the number of tasks
+	 */
+	public int getNumTasks() {
+		return numTasks;
+	}
+
+	/**
+	 * Gets the gene arena. Chromosome {@code c} starts at {@link #offset(int)}.
+	 * 
+	 * @return the genes
+	 */
+	public int[] getGenes() {
+		return genes;
+	}
+
+	/**
+	 * Gets the offset of a chromosome in the gene arena.
+	 * 
+	 * @param chromosome the chromosome index
+	 * @return the offset
+	 */
+	public int offset(int chromosome) {
+		return chromosome * numTasks;
+	}
+
+	/**
+	 * Gets the VM assigned to a task.
+	 * 
+	 * @param chromosome the chromosome index
+	 * @param task the task index
+	 * @return the VM index
+	 */
+	public int get(int chromosome, int task) {
+		return genes[chromosome * numTasks + task];
+	}
+
+	/**
+	 * Assigns a task to a VM.
+	 * 
+	 * @param chromosome the chromosome index
+	 * @param task the task index
+	 * @param vm the VM index
+	 */
+	public void set(int chromosome, int task, int vm) {
+		int index = chromosome * numTasks + task;
+		loads.move(chromosome, task, genes[index], vm);
+		genes[index] = vm;
+	}
+
+	/**
+	 * Rebuilds the cached loads of a chromosome after its genes were written directly.
+	 * 
+	 * @param chromosome the chromosome index
+	 */
+	public void recalculate(int chromosome) {
+		loads.recalculate(genes, chromosome, 1);
+	}
+
+	/**
+	 * Rebuilds the cached loads of every chromosome in one batch.
+	 */
+	public void recalculateAll() {
+		loads.recalculate(genes, 0, size);
+	}
+
+	/**
+	 * Gets the cached VM loads.
+	 * 
+	 * @return the loads
+	 */
+	public ScheduleLoads getLoads() {
+		return loads;
+	}
+
+	/**
+	 * Copies a chromosome, with its loads and fitness, into a chromosome of another (or the same) population.
+	 * 
+	 * @param chromosome the source chromosome index
+	 * @param target the target population
+	 * @param targetChromosome the target chromosome index
+	 */
+	public void copyTo(int chromosome, Population target, int targetChromosome) {
+		System.arraycopy(genes, offset(chromosome), target.genes, target.offset(targetChromosome), numTasks);
+		loads.copyTo(chromosome, target.loads, targetChromosome);
+		target.fitness[targetChromosome] = fitness[chromosome];
+	}
+
+	/**
+	 * Gets the fitness of a chromosome, as last stored by {@link #setFitness(int, double)}.
+	 * 
+	 * @param chromosome the chromosome index
+	 * @return the fitness
+	 */
+	public double getFitness(int chromosome) {
+		return fitness[chromosome];
+	}
+
+	/**
+	 * Sets the fitness of a chromosome.
+	 * 
+	 * @param chromosome the chromosome index
+	 * @param value the fitness
+	 */
+	public void setFitness(int chromosome, double value) {
+		fitness[chromosome] = value;
+	}
+
+}
@@ -0,0 +1,27 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Fills the first generation.
+ */
+public interface PopulationInitializer {
+
+	/**
+	 * Writes a schedule into every chromosome of a population.
+	 * 
+	 * @param problem the scheduling problem
+	 * @param population the population to fill
+	 * @param random the random stream
+	 */
+	void initialize(SchedulingProblem problem, Population population, RandomGenerator random);
+
+}
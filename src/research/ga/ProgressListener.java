@@ -0,0 +1,25 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+/**
+ * Receives the progress of a GA run from its {@link TerminationController}.
+ */
+public interface ProgressListener {
+
+	/**
+	 * Called after every generation, and once for the first generation.
+	 *
+	 * @param generation the number of generations evolved
+	 * @param bestFitness the fitness of the best schedule found so far
+	 * @param elapsedNanos the time since the run started, in nanoseconds
+	 */
+	void progress(int generation, double bestFitness, long elapsedNanos);
+
+}
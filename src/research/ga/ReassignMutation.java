@@ -0,0 +1,39 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Moves each task to a random VM with a fixed probability.
+ */
+public class ReassignMutation implements MutationOperator {
+
+	/** The probability of moving a task. */
+	private final double geneRate;
+
+	/**
+	 * Instantiates a new reassign mutation.
+	 * 
+	 * @param geneRate the probability of moving each task
+	 */
+	public ReassignMutation(double geneRate) {
+		this.geneRate = geneRate;
+	}
+
+	@Override
+	public void mutate(Population population, int chromosome, int numVms, RandomGenerator random) {
+		for (int task = 0; task < population.getNumTasks(); task++) {
+			if (random.nextDouble() < geneRate) {
+				population.set(chromosome, task, random.nextInt(numVms));
+			}
+		}
+	}
+
+}
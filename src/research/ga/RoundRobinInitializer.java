@@ -0,0 +1,65 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Assigns the tasks, shortest first, to the VMs, fastest first, in round robin, starting chromosome
+ * {@code c} at VM rank {@code firstShift + c}. This is the deterministic first generation of the
+ * GA brokers.
+ */
+public class RoundRobinInitializer implements PopulationInitializer {
+
+	/** The VM rank the first task of the first chromosome is assigned to. */
+	private final int firstShift;
+
+	/**
+	 * Instantiates a new round robin initializer starting at the fastest VM.
+	 */
+	public RoundRobinInitializer() {
+		this(0);
+	}
+
+	/**
+	 * Instantiates a new round robin initializer. Islands of one run give each other disjoint shifts
+	 * so that they do not start from the same generation.
+	 * 
+	 * @param firstShift the VM rank the first task of the first chromosome is assigned to
+	 */
+	public RoundRobinInitializer(int firstShift) {
+		this.firstShift = firstShift;
+	}
+
+	@Override
+	public void initialize(SchedulingProblem problem, Population population, RandomGenerator random) {
+		int numTasks = problem.getNumTasks();
+		int numVms = problem.getNumVms();
+		Integer[] taskOrder = new Integer[numTasks];
+		for (int i = 0; i < numTasks; i++) {
+			taskOrder[i] = i;
+		}
+		Integer[] vmOrder = new Integer[numVms];
+		for (int i = 0; i < numVms; i++) {
+			vmOrder[i] = i;
+		}
+		Arrays.sort(taskOrder, (a, b) -> Long.compare(problem.getTaskLength(a), problem.getTaskLength(b)));
+		Arrays.sort(vmOrder, (a, b) -> Double.compare(problem.getVmMips(b), problem.getVmMips(a)));
+
+		int[] genes = population.getGenes();
+		for (int chromosome = 0; chromosome < population.size(); chromosome++) {
+			int offset = population.offset(chromosome);
+			for (int i = 0; i < numTasks; i++) {
+				genes[offset + taskOrder[i]] = vmOrder[(i + firstShift + chromosome) % numVms];
+			}
+		}
+	}
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.Arrays;
+
+/**
+ * The cached load of every VM under every chromosome of a population, with the total execution
+ * time and the makespan derived from it. Moving a task updates the two VMs involved and the total
+ * in O(1). The makespan is kept exact when a VM grows past it; when the most loaded VM shrinks, it
+ * is only flagged stale and rescanned over the VMs on the next read.
+ */
+public class ScheduleLoads {
+
+	/** The problem the chromosomes belong to. */
+	private final SchedulingProblem problem;
+
+	/** The number of VMs. */
+	private final int numVms;
+
+	/** The load of VM {@code v} under chromosome {@code c}, at {@code c * numVms + v}. */
+	private final double[] vmLoad;
+
+	/** The sum of the VM loads of each chromosome. */
+	private final double[] totalTime;
+
+	/** The cached makespan of each chromosome; only valid when not stale. */
+	private final double[] makespan;
+
+	/** The most loaded VM of each chromosome; only valid when not stale. */
+	private final int[] mostLoadedVm;
+
+	/** Whether the makespan of each chromosome needs a rescan. */
+	private final boolean[] stale;
+
+	/**
+	 * Instantiates the loads of a population.
+	 * 
+	 * @param problem the problem
+	 * @param size the number of chromosomes
+	 */
+	public ScheduleLoads(SchedulingProblem problem, int size) {
+		this.problem = problem;
+		numVms = problem.getNumVms();
+		vmLoad = new double[size * numVms];
+		totalTime = new double[size];
+		makespan = new double[size];
+		mostLoadedVm = new int[size];
+		stale = new boolean[size];
+	}
+
+	/**
+	 * Rebuilds the loads of a range of chromosomes from their genes, in O(tasks) per chromosome.
+	 * The gene arena and the flat ETC matrix are both walked sequentially, and the only indirect
+	 * access is the gather of {@code etc[task][gene]}, so the loop stays in cache even for
+	 * 100k-task chromosomes.
+	 * 
+	 * @param genes the gene arena, holding chromosome {@code c} at {@code c * tasks}
+	 * @param first the first chromosome
+	 * @param count the number of chromosomes
+	 */
+	public void recalculate(int[] genes, int first, int count) {
+		EtcMatrix etc = problem.getEtcMatrix();
+		int numTasks = etc.getNumTasks();
+		float[] values = etc.getValues();
+
+		for (int chromosome = first; chromosome < first + count; chromosome++) {
+			int base = chromosome * numVms;
+			Arrays.fill(vmLoad, base, base + numVms, 0);
+			int offset = chromosome * numTasks;
+			double total = 0;
+			for (int task = 0, row = 0; task < numTasks; task++, row += numVms) {
+				int vm = genes[offset + task];
+				float time = values[row + vm];
+				vmLoad[base + vm] += time;
+				total += time;
+			}
+			totalTime[chromosome] = total;
+			stale[chromosome] = true;
+		}
+	}
+
+	/**
+	 * Gets the problem.
+	 * 
+	 * @return the problem
+	 */
+	public SchedulingProblem getProblem() {
+		return problem;
+	}
+
+	/**
+	 * Gets the number of VMs.
+	 * 
+	 * @return the number of VMs
+	 */
+	public int getNumVms() {
+		return numVms;
+	}
+
+	/**
+	 * Accounts for a task moving between two VMs, in O(1).
+	 * 
+	 * @param chromosome the chromosome index
+	 * @param task the task index
+	 * @param from the VM the task leaves
+	 * @param to the VM the task joins
+	 */
+	public void move(int chromosome, int task, int from, int to) {
+		if (from == to) {
+			return;
+		}
+		int base = chromosome * numVms;
+		double oldTime = problem.getExecutionTime(task, from);
+		double newTime = problem.getExecutionTime(task, to);
+		vmLoad[base + from] -= oldTime;
+		vmLoad[base + to] += newTime;
+		totalTime[chromosome] += newTime - oldTime;
+
+		if (stale[chromosome]) {
+			return;
+		}
+		if (vmLoad[base + to] >= makespan[chromosome]) {
+			makespan[chromosome] = vmLoad[base + to];
+			mostLoadedVm[chromosome] = to;
+		} else if (from == mostLoadedVm[chromosome]) {
+			stale[chromosome] = true;
+		}
+	}
+
+	/**
+	 * Copies the loads of a chromosome, in O(VMs).
+	 * 
+	 * @param chromosome the source chromosome index
+	 * @param target the target loads
+	 * @param targetChromosome the target chromosome index
+	 */
+	public void copyTo(int chromosome, ScheduleLoads target, int targetChromosome) {
+		System.arraycopy(vmLoad, chromosome * numVms, target.vmLoad, targetChromosome * numVms, numVms);
+		target.totalTime[targetChromosome] = totalTime[chromosome];
+		target.makespan[targetChromosome] = makespan[chromosome];
+		target.mostLoadedVm[targetChromosome] = mostLoadedVm[chromosome];
+		target.stale[targetChromosome] = stale[chromosome];
+	}
+
+	/**
+	 * Gets the load of a VM.
+	 * 
+	 * @param chromosome the chromosome index
+	 * @param vm the VM index
+	 * @return the sum of the execution times of the tasks on the VM
+	 */
+	public double getLoad(int chromosome, int vm) {
+		return vmLoad[chromosome * numVms + vm];
+	}
+
+	/**
+	 * Gets the total execution time of a chromosome.
+	 * 
+	 * @param chromosome the chromosome index
+	 * @return the sum of the execution times of all tasks
+	 */
+	public double getTotalTime(int chromosome) {
+		return totalTime[chromosome];
+	}
+
+	/**
+	 * Gets the makespan of a chromosome.
+	 * 
+	 * @param chromosome the chromosome index
+	 * @return the load of the most loaded VM
+	 */
+	public double getMakespan(int chromosome) {
+		if (stale[chromosome]) {
+			rescan(chromosome);
+		}
+		return makespan[chromosome];
+	}
+
+	/**
+	 * Gets the most loaded VM of a chromosome.
+	 * 
+	 * @param chromosome the chromosome index
+	 * @return the VM index
+	 */
+	public int getMostLoadedVm(int chromosome) {
+		if (stale[chromosome]) {
+			rescan(chromosome);
+		}
+		return mostLoadedVm[chromosome];
+	}
+
+	/**
+	 * Finds the most loaded VM of a chromosome.
+	 * 
+	 * @param chromosome the chromosome index
+	 */
+	private void rescan(int chromosome) {
+		int base = chromosome * numVms;
+		int max = 0;
+		for (int vm = 1; vm < numVms; vm++) {
+			if (vmLoad[base + vm] > vmLoad[base + max]) {
+				max = vm;
+			}
+		}
+		makespan[chromosome] = vmLoad[base + max];
+		mostLoadedVm[chromosome] = max;
+		stale[chromosome] = false;
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Vm;
+
+import research.CustomPair;
+
+/**
+ * A task-to-VM scheduling problem. Cloudlets and VMs are addressed by their position in the lists
+ * given at construction time, so a schedule is simply an int per task holding the index of the VM
+ * that runs it. The lengths, MIPS ratings and the ETC matrix are computed into primitive arrays once,
+ * so the GA never touches the Cloudlet and Vm objects while it evolves.
+ */
+public class SchedulingProblem {
+
+	/** The cloudlets to schedule, indexed by task. */
+	private final List<Cloudlet> cloudletList;
+
+	/** The candidate VMs, indexed by VM. */
+	private final List<Vm> vmList;
+
+	/** The length of each task, in MI. */
+	private final long[] taskLength;
+
+	/** The MIPS rating of each VM. */
+	private final double[] vmMips;
+
+	/** The time of each task on each VM. */
+	private final EtcMatrix etc;
+
+	/**
+	 * Instantiates a new scheduling problem.
+	 * 
+	 * @param cloudletList the cloudlets to schedule
+	 * @param vmList the candidate VMs
+	 * @pre cloudletList != null
+	 * @pre vmList != null && !vmList.isEmpty()
+	 */
+	public SchedulingProblem(List<? extends Cloudlet> cloudletList, List<? extends Vm> vmList) {
+		if (vmList.isEmpty()) {
+			throw new IllegalArgumentException("At least one VM is required to schedule cloudlets");
+		}
+		this.cloudletList = new ArrayList<Cloudlet>(cloudletList);
+		this.vmList = new ArrayList<Vm>(vmList);
+
+		taskLength = new long[this.cloudletList.size()];
+		for (int i = 0; i < taskLength.length; i++) {
+			taskLength[i] = this.cloudletList.get(i).getCloudletLength();
+		}
+		vmMips = new double[this.vmList.size()];
+		for (int i = 0; i < vmMips.length; i++) {
+			vmMips[i] = this.vmList.get(i).getMips();
+		}
+		etc = new EtcMatrix(this.cloudletList, this.vmList);
+	}
+
+	/**
+	 * Gets the number of tasks, i.e. the length of a chromosome.
+	 * 
+	 * @return the number of tasks
+	 */
+	public int getNumTasks() {
+		return taskLength.length;
+	}
+
+	/**
+	 * Gets the number of VMs, i.e. the range of a gene.
+	 * 
+	 * @return the number of VMs
+	 */
+	public int getNumVms() {
+		return vmMips.length;
+	}
+
+	/**
+	 * Gets the length of a task.
+	 * 
+	 * @param task the task index
+	 * @return the task length, in MI
+	 */
+	public long getTaskLength(int task) {
+		return taskLength[task];
+	}
+
+	/**
+	 * Gets the MIPS rating of a VM.
+	 * 
+	 * @param vm the VM index
+	 * @return the VM MIPS
+	 */
+	public double getVmMips(int vm) {
+		return vmMips[vm];
+	}
+
+	/**
+	 * Gets the time a task takes on a VM, as held by the ETC matrix.
+	 * 
+	 * @param task the task index
+	 * @param vm the VM index
+	 * @return the execution time
+	 */
+	public double getExecutionTime(int task, int vm) {
+		return etc.get(task, vm);
+	}
+
+	/**
+	 * Gets the ETC matrix.
+	 * 
+	 * @return the ETC matrix
+	 */
+	public EtcMatrix getEtcMatrix() {
+		return etc;
+	}
+
+	/**
+	 * Gets the cloudlet of a task.
+	 * 
+	 * @param task the task index
+	 * @return the cloudlet
+	 */
+	public Cloudlet getCloudlet(int task) {
+		return cloudletList.get(task);
+	}
+
+	/**
+	 * Gets the VM at an index.
+	 * 
+	 * @param vm the VM index
+	 * @return the VM
+	 */
+	public Vm getVm(int vm) {
+		return vmList.get(vm);
+	}
+
+	/**
+	 * Binds every cloudlet to the VM chosen by a chromosome.
+	 * 
+	 * @param genes the gene arena holding the chromosome
+	 * @param offset the offset of the chromosome in the arena
+	 */
+	public void bind(int[] genes, int offset) {
+		for (int task = 0; task < taskLength.length; task++) {
+			cloudletList.get(task).setVmId(vmList.get(genes[offset + task]).getId());
+		}
+	}
+
+	/**
+	 * Converts a chromosome into the pair of parallel cloudlet and VM lists expected by the brokers'
+	 * submitCloudlets.
+	 * 
+	 * @param genes the gene arena holding the chromosome
+	 * @param offset the offset of the chromosome in the arena
+	 * @return the cloudlet list and the VM list, where the i-th VM runs the i-th cloudlet
+	 */
+	public CustomPair toCustomPair(int[] genes, int offset) {
+		List<Cloudlet> finalCloudletList = new ArrayList<Cloudlet>(taskLength.length);
+		List<Vm> finalVmList = new ArrayList<Vm>(taskLength.length);
+		for (int task = 0; task < taskLength.length; task++) {
+			finalCloudletList.add(cloudletList.get(task));
+			finalVmList.add(vmList.get(genes[offset + task]));
+		}
+		return new CustomPair(finalCloudletList, finalVmList);
+	}
+
+}
@@ -0,0 +1,27 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks parents for the next generation.
+ */
+public interface SelectionOperator {
+
+	/**
+	 * Selects a parent. The fitness of every chromosome of the population is up to date.
+	 * 
+	 * @param population the current population
+	 * @param random the random stream
+	 * @return the index of the selected chromosome
+	 */
+	int select(Population population, RandomGenerator random);
+
+}
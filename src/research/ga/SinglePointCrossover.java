@@ -0,0 +1,33 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Takes the genes before a random cut point from the first parent and the rest from the second. The
+ * child starts as a copy of the first parent and the tail is moved gene by gene, so its loads are
+ * updated by delta.
+ */
+public class SinglePointCrossover implements CrossoverOperator {
+
+	@Override
+	public void crossover(Population parents, int parent1, int parent2, Population children, int child,
+			RandomGenerator random) {
+		int numTasks = parents.getNumTasks();
+		int cut = random.nextInt(numTasks + 1);
+		parents.copyTo(parent1, children, child);
+		int[] source = parents.getGenes();
+		int offset2 = parents.offset(parent2);
+		for (int task = cut; task < numTasks; task++) {
+			children.set(child, task, source[offset2 + task]);
+		}
+	}
+
+}
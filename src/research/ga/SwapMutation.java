@@ -0,0 +1,28 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Swaps the VMs of two random tasks, which keeps the number of tasks per VM unchanged.
+ */
+public class SwapMutation implements MutationOperator {
+
+	@Override
+	public void mutate(Population population, int chromosome, int numVms, RandomGenerator random) {
+		int numTasks = population.getNumTasks();
+		int task1 = random.nextInt(numTasks);
+		int task2 = random.nextInt(numTasks);
+		int vm1 = population.get(chromosome, task1);
+		population.set(chromosome, task1, population.get(chromosome, task2));
+		population.set(chromosome, task2, vm1);
+	}
+
+}
@@ -0,0 +1,297 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+/**
+ * Decides when a GA run stops: after a number of generations, when a target fitness is reached,
+ * when the best fitness has not improved for a number of generations, when it improved by less
+ * than a fraction over a window of generations, or before the next generation would overrun a
+ * wall-clock budget. Every criterion but the number of generations is off until it is set.
+ * <p>
+ * The controller keeps the best fitness, the generation it was found in and a ring of the checks
+ * in the improvement window, so checking a generation costs amortized O(1). Generations need not
+ * be checked one by one: the island model checks them only between epochs.
+ */
+public class TerminationController {
+
+	/** Why a run stopped. */
+	public enum Reason {
+		/** The run has not stopped. */
+		RUNNING,
+		/** The maximum number of generations was evolved. */
+		MAX_GENERATIONS,
+		/** The target fitness was reached. */
+		TARGET_FITNESS,
+		/** The best fitness did not improve for the stall generations. */
+		STALLED,
+		/** The best fitness improved too little over the improvement window. */
+		SLOW_IMPROVEMENT,
+		/** Another generation would have overrun the time budget. */
+		TIME_BUDGET
+	}
+
+	/** The maximum number of generations. */
+	private int maxGenerations;
+
+	/** The number of generations without improvement after which the run stops, or 0. */
+	private int stallGenerations;
+
+	/** The fitness at or below which the run stops. */
+	private double targetFitness;
+
+	/** The wall-clock budget of a run, in nanoseconds, or 0. */
+	private long timeBudgetNanos;
+
+	/** The number of generations the improvement rate is measured over, or 0. */
+	private int improvementWindow;
+
+	/** The relative improvement over the window below which the run stops. */
+	private double minImprovement;
+
+	/** The listener, or null. */
+	private ProgressListener listener;
+
+	/** When the run started, from {@link System#nanoTime()}. */
+	private long startNanos;
+
+	/** The best fitness of the run. */
+	private double bestFitness;
+
+	/** The generation the best fitness was found in. */
+	private int bestGeneration;
+
+	/** The generations of the checks in the improvement window, a ring starting at historyStart. */
+	private int[] historyGenerations;
+
+	/** The best fitness at the checks in the improvement window, in the same ring. */
+	private double[] historyFitness;
+
+	/** The position of the oldest check in the ring. */
+	private int historyStart;
+
+	/** The number of checks in the ring. */
+	private int historySize;
+
+	/** The generation of the last check. */
+	private int lastGeneration;
+
+	/** The time since the run started at the last check, in nanoseconds. */
+	private long lastElapsed;
+
+	/** Why the run stopped. */
+	private Reason reason;
+
+	/**
+	 * Instantiates a new controller stopping after 500 generations.
+	 */
+	public TerminationController() {
+		setMaxGenerations(500);
+		targetFitness = Double.NEGATIVE_INFINITY;
+		reason = Reason.RUNNING;
+	}
+
+	/**
+	 * Starts timing a run.
+	 */
+	public void start() {
+		startNanos = System.nanoTime();
+		bestFitness = Double.MAX_VALUE;
+		bestGeneration = 0;
+		lastGeneration = 0;
+		lastElapsed = 0;
+		if (improvementWindow > 0) {
+			// the checks within the window, the latest one before it, and the new one
+			historyGenerations = new int[improvementWindow + 2];
+			historyFitness = new double[improvementWindow + 2];
+		} else {
+			historyGenerations = null;
+			historyFitness = null;
+		}
+		historyStart = 0;
+		historySize = 0;
+		reason = Reason.RUNNING;
+	}
+
+	/**
+	 * Records a generation and decides whether to evolve another one.
+	 *
+	 * @param generation the number of generations evolved since the first generation
+	 * @param fitness the fitness of the best schedule found so far
+	 * @return true to evolve another generation
+	 */
+	public boolean next(int generation, double fitness) {
+		long elapsed = System.nanoTime() - startNanos;
+		lastGeneration = generation;
+		lastElapsed = elapsed;
+		if (fitness < bestFitness) {
+			bestFitness = fitness;
+			bestGeneration = generation;
+		}
+		if (historyFitness != null) {
+			record(generation, fitness);
+		}
+		if (listener != null) {
+			listener.progress(generation, fitness, elapsed);
+		}
+
+		if (fitness <= targetFitness) {
+			reason = Reason.TARGET_FITNESS;
+		} else if (generation >= maxGenerations) {
+			reason = Reason.MAX_GENERATIONS;
+		} else if (timeBudgetNanos > 0 && elapsed + elapsed / (generation + 1) > timeBudgetNanos) {
+			// the first generation counts as one, so the mean time of a generation is known
+			reason = Reason.TIME_BUDGET;
+		} else if (stallGenerations > 0 && generation - bestGeneration >= stallGenerations) {
+			reason = Reason.STALLED;
+		} else if (historyFitness != null && generation - historyGenerations[historyStart] >= improvementWindow
+				&& improvement(historyFitness[historyStart], fitness) < minImprovement) {
+			reason = Reason.SLOW_IMPROVEMENT;
+		} else {
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Records a check in the ring, and drops the checks older than the latest one at least the
+	 * improvement window before it, so that the oldest check left is the one to compare with.
+	 *
+	 * @param generation the generation
+	 * @param fitness the fitness of the best schedule found so far
+	 */
+	private void record(int generation, double fitness) {
+		if (historySize == historyFitness.length) {
+			// a generation checked twice, which leaves no room otherwise
+			historyStart = (historyStart + 1) % historyFitness.length;
+			historySize--;
+		}
+		int end = (historyStart + historySize) % historyFitness.length;
+		historyGenerations[end] = generation;
+		historyFitness[end] = fitness;
+		historySize++;
+		while (historySize > 1
+				&& generation - historyGenerations[(historyStart + 1) % historyFitness.length] >= improvementWindow) {
+			historyStart = (historyStart + 1) % historyFitness.length;
+			historySize--;
+		}
+	}
+
+	/**
+	 * Gets the relative improvement between two fitness values.
+	 *
+	 * @param before the earlier fitness
+	 * @param after the later fitness
+	 * @return the improvement, as a fraction of the earlier fitness
+	 */
+	private static double improvement(double before, double after) {
+		return before == 0 ? 0 : (before - after) / Math.abs(before);
+	}
+
+	/**
+	 * Gets the number of generations that may still be evolved after the last check, within the
+	 * maximum number of generations and, at the mean time of a generation, the time budget. Lets
+	 * callers evolving several generations between checks stay within the budget.
+	 *
+	 * @return the number of generations, at least 1 if the last check let the run go on
+	 */
+	public int getRemainingGenerations() {
+		long remaining = maxGenerations - lastGeneration;
+		if (timeBudgetNanos > 0) {
+			long perGeneration = Math.max(1, lastElapsed / (lastGeneration + 1));
+			remaining = Math.min(remaining, (timeBudgetNanos - lastElapsed) / perGeneration);
+		}
+		return (int) Math.max(reason == Reason.RUNNING ? 1 : 0, remaining);
+	}
+
+	/**
+	 * Gets why the last run stopped.
+	 *
+	 * @return the reason, or {@link Reason#RUNNING} if it has not stopped
+	 */
+	public Reason getReason() {
+		return reason;
+	}
+
+	/**
+	 * Gets the time since the last run started.
+	 *
+	 * @return the elapsed time, in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * Gets the maximum number of generations.
+	 *
+	 * @return the maximum number of generations
+	 */
+	public int getMaxGenerations() {
+		return maxGenerations;
+	}
+
+	/**
+	 * Sets the maximum number of generations.
+	 *
+	 * @param maxGenerations the new maximum number of generations
+	 */
+	public void setMaxGenerations(int maxGenerations) {
+		this.maxGenerations = maxGenerations;
+	}
+
+	/**
+	 * Stops a run when the best fitness has not improved for a number of generations.
+	 *
+	 * @param stallGenerations the number of generations, or 0 to disable
+	 */
+	public void setStallGenerations(int stallGenerations) {
+		this.stallGenerations = Math.max(0, stallGenerations);
+	}
+
+	/**
+	 * Stops a run when the best fitness reaches a target.
+	 *
+	 * @param targetFitness the target, or {@link Double#NEGATIVE_INFINITY} to disable
+	 */
+	public void setTargetFitness(double targetFitness) {
+		this.targetFitness = targetFitness;
+	}
+
+	/**
+	 * Stops a run before the next generation would overrun a wall-clock budget, estimating the
+	 * time of a generation from the mean of the generations evolved.
+	 *
+	 * @param millis the budget, in milliseconds, or 0 to disable
+	 */
+	public void setTimeBudget(long millis) {
+		timeBudgetNanos = Math.max(0, millis) * 1000000L;
+	}
+
+	/**
+	 * Stops a run when the best fitness improved by less than a fraction over a window of
+	 * generations.
+	 *
+	 * @param window the number of generations, or 0 to disable
+	 * @param minImprovement the minimum relative improvement, such as 0.001
+	 */
+	public void setMinImprovement(int window, double minImprovement) {
+		improvementWindow = Math.max(0, window);
+		this.minImprovement = minImprovement;
+	}
+
+	/**
+	 * Sets the listener of the progress of the runs.
+	 *
+	 * @param listener the new listener, or null
+	 */
+	public void setProgressListener(ProgressListener listener) {
+		this.listener = listener;
+	}
+
+}
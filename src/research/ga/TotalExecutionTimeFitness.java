@@ -0,0 +1,22 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+/**
+ * Scores a schedule by the sum of the execution times of all its tasks, which is the fitness the
+ * research brokers have always used.
+ */
+public class TotalExecutionTimeFitness implements FitnessFunction {
+
+	@Override
+	public double evaluate(Population population, int chromosome) {
+		return population.getLoads().getTotalTime(chromosome);
+	}
+
+}
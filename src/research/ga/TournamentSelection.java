@@ -0,0 +1,46 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Selects the fittest of a few chromosomes drawn uniformly at random.
+ */
+public class TournamentSelection implements SelectionOperator {
+
+	/** The number of chromosomes competing in each tournament. */
+	private final int tournamentSize;
+
+	/**
+	 * Instantiates a new tournament selection.
+	 * 
+	 * @param tournamentSize the number of chromosomes competing in each tournament
+	 * @pre tournamentSize > 0
+	 */
+	public TournamentSelection(int tournamentSize) {
+		if (tournamentSize <= 0) {
+			throw new IllegalArgumentException("Tournament size must be greater than 0");
+		}
+		this.tournamentSize = tournamentSize;
+	}
+
+	@Override
+	public int select(Population population, RandomGenerator random) {
+		int best = random.nextInt(population.size());
+		for (int i = 1; i < tournamentSize; i++) {
+			int candidate = random.nextInt(population.size());
+			if (population.getFitness(candidate) < population.getFitness(best)) {
+				best = candidate;
+			}
+		}
+		return best;
+	}
+
+}
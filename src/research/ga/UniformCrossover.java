@@ -0,0 +1,33 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package research.ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Takes each gene from either parent with equal probability. The child starts as a copy of the
+ * first parent and only the genes taken from the second parent are moved, so its loads are updated
+ * by delta.
+ */
+public class UniformCrossover implements CrossoverOperator {
+
+	@Override
+	public void crossover(Population parents, int parent1, int parent2, Population children, int child,
+			RandomGenerator random) {
+		parents.copyTo(parent1, children, child);
+		int[] source = parents.getGenes();
+		int offset2 = parents.offset(parent2);
+		for (int task = 0; task < parents.getNumTasks(); task++) {
+			if (random.nextBoolean()) {
+				children.set(child, task, source[offset2 + task]);
+			}
+		}
+	}
+
+}